@@ -0,0 +1,51 @@
+package com.jsca.application.mapper;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de las conversiones DTO/dominio de PaymentOrderMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentOrderMapperBenchmark {
+
+    private PaymentOrderMapper mapper;
+    private PaymentOrderRequest request;
+    private PaymentOrder order;
+
+    @Setup
+    public void setUp() {
+        mapper = new PaymentOrderMapper();
+        request = BenchmarkData.newRequest("BENCH-MAPPER");
+        order = BenchmarkData.initiatedOrder("PO-BENCH-MAPPER", "BENCH-MAPPER");
+    }
+
+    @Benchmark
+    public PaymentOrder toDomain() {
+        return mapper.toDomain(request);
+    }
+
+    @Benchmark
+    public PaymentOrderDetailsResponse toDetailsResponse() {
+        return mapper.toDetailsResponse(order);
+    }
+}
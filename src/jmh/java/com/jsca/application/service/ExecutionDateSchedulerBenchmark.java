@@ -0,0 +1,69 @@
+package com.jsca.application.service;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.adapter.out.persistence.CompactPaymentOrderRepository;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo que tarda {@link ExecutionDateScheduler} en liberar a INITIATED las N órdenes
+ * programadas para un mismo día, el caso del inicio de una jornada hábil.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExecutionDateSchedulerBenchmark {
+
+    @Param({"1000000"})
+    private int orders;
+
+    @Param({"memory", "compact"})
+    private String repositoryType;
+
+    private ExecutionDateScheduler scheduler;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        PaymentOrderRepository repository = "compact".equals(repositoryType)
+                ? new CompactPaymentOrderRepository()
+                : new InMemoryPaymentOrderRepository();
+        // El reloj del planificador va un día por delante: las órdenes de mañana ya vencen
+        Clock tomorrow = Clock.offset(Clock.systemDefaultZone(), Duration.ofDays(1));
+        scheduler = new ExecutionDateScheduler(repository, changes -> { }, 5000, Duration.ofMinutes(1), tomorrow);
+        LocalDate executionDate = LocalDate.now(tomorrow);
+        for (int i = 0; i < orders; i++) {
+            PaymentOrder order = BenchmarkData.initiatedOrder("PO-BENCH-" + i, "EXT-BENCH-" + i).toBuilder()
+                    .requestedExecutionDate(executionDate)
+                    .schedule()
+                    .build();
+            repository.save(order);
+            scheduler.schedule(order);
+        }
+    }
+
+    @Benchmark
+    public int releaseDay() {
+        return scheduler.releaseDue();
+    }
+}
@@ -0,0 +1,95 @@
+package com.jsca.application.service;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import com.jsca.infrastructure.adapter.out.persistence.JournalSyncMode;
+import com.jsca.infrastructure.adapter.out.persistence.JournaledPaymentOrderRepository;
+import com.jsca.infrastructure.adapter.out.settlement.LocalSettlementAdapter;
+import com.jsca.infrastructure.config.JournalProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tiempo que tarda el motor de ejecución en llevar N órdenes INITIATED a su estado final
+ * con la liquidación local. Dividiendo N entre el tiempo se obtiene el throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PaymentExecutionEngineBenchmark {
+
+    @Param({"200000"})
+    private int orders;
+
+    @Param({"memory", "journal"})
+    private String repositoryType;
+
+    private Path directory;
+    private PaymentOrderRepository repository;
+    private PaymentExecutionEngine engine;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        if ("journal".equals(repositoryType)) {
+            directory = Files.createTempDirectory("execution-bench");
+            JournalProperties properties = new JournalProperties();
+            properties.setDirectory(directory.toString());
+            properties.setSyncMode(JournalSyncMode.GROUP);
+            properties.setSnapshotInterval(Duration.ZERO);
+            repository = new JournaledPaymentOrderRepository(properties);
+        }
+        else {
+            repository = new InMemoryPaymentOrderRepository();
+        }
+        for (int i = 0; i < orders; i++) {
+            repository.save(BenchmarkData.initiatedOrder("PO-BENCH-" + i, "EXT-BENCH-" + i));
+        }
+        engine = new PaymentExecutionEngine(repository, new LocalSettlementAdapter(),
+                changes -> { }, 500, 2, 4, Duration.ofMillis(1));
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws Exception {
+        engine.stop();
+        if (repository instanceof JournaledPaymentOrderRepository journaled) {
+            journaled.close();
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public int drain() throws InterruptedException {
+        engine.start();
+        while (!repository.findByStatus(PaymentStatus.INITIATED, 1).isEmpty()
+                || !repository.findByStatus(PaymentStatus.PENDING, 1).isEmpty()) {
+            Thread.sleep(1);
+        }
+        return orders;
+    }
+}
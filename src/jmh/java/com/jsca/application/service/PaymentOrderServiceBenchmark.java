@@ -0,0 +1,59 @@
+package com.jsca.application.service;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
+import com.jsca.infrastructure.adapter.out.id.TimeOrderedPaymentOrderIdGenerator;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de PaymentOrderService.initiatePayment: orden nueva e idempotencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentOrderServiceBenchmark {
+
+    private static final String EXISTING_EXTERNAL_ID = "BENCH-EXISTING";
+
+    private PaymentOrderService service;
+    private long sequence;
+
+    /**
+     * Repositorio nuevo en cada iteración para que el heap no crezca sin límite.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = new PaymentOrderService(new InMemoryPaymentOrderRepository(), new TimeOrderedPaymentOrderIdGenerator(0),
+                PaymentOrderScheduler.NONE, DuplicatePaymentDetector.NONE);
+        service.initiatePayment(BenchmarkData.newOrder(EXISTING_EXTERNAL_ID));
+        sequence = 0;
+    }
+
+    @Benchmark
+    public PaymentOrder initiateNewOrder() {
+        return service.initiatePayment(BenchmarkData.newOrder("BENCH-" + sequence++));
+    }
+
+    @Benchmark
+    public PaymentOrder initiateIdempotentHit() {
+        return service.initiatePayment(BenchmarkData.newOrder(EXISTING_EXTERNAL_ID));
+    }
+}
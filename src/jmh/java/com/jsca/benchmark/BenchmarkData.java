@@ -0,0 +1,56 @@
+package com.jsca.benchmark;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Orden de pago válida, sin ID ni estado asignados.
+     */
+    public static PaymentOrder newOrder(String externalId) {
+        return PaymentOrder.builder()
+                .externalId(externalId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("1500.50"))
+                .currency("EUR")
+                .remittanceInfo("Factura #2024-045 - Servicios de consultoría")
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .build();
+    }
+
+    /**
+     * Orden de pago ya iniciada con el ID indicado.
+     */
+    public static PaymentOrder initiatedOrder(String paymentOrderId, String externalId) {
+        return newOrder(externalId).toBuilder()
+                .paymentOrderId(paymentOrderId)
+                .initiate()
+                .build();
+    }
+
+    /**
+     * Petición REST válida equivalente a {@link #newOrder(String)}.
+     */
+    public static PaymentOrderRequest newRequest(String externalId) {
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId(externalId);
+        request.setDebtorIban("ES9121000418450200051332");
+        request.setCreditorIban("ES7921000813610123456789");
+        request.setAmount("1500.50");
+        request.setCurrency("EUR");
+        request.setRemittanceInfo("Factura #2024-045 - Servicios de consultoría");
+        request.setRequestedExecutionDate(LocalDate.now().plusDays(1));
+        return request;
+    }
+}
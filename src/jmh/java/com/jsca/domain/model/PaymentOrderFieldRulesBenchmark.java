@@ -0,0 +1,85 @@
+package com.jsca.domain.model;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación de los campos de una petición de alta: Bean Validation con las expresiones
+ * regulares del contrato más {@code new BigDecimal} (lo que había), las reglas de
+ * {@link PaymentOrderFieldRules} solas, que además comprueban el módulo 97 del IBAN y la
+ * moneda, y las dos juntas, que es lo que hace ahora cada petición.
+ * Con {@code -prof gc} se ve la memoria asignada por petición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentOrderFieldRulesBenchmark {
+
+    /**
+     * Petición válida o con el IBAN del acreedor mal escrito.
+     */
+    @Param({"valid", "invalid"})
+    private String request;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private PaymentOrderRequest paymentOrderRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        paymentOrderRequest = BenchmarkData.newRequest("BENCH-RULES");
+        if ("invalid".equals(request)) {
+            paymentOrderRequest.setCreditorIban("ES7921000813610123456798");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean beanValidation() {
+        return validator.validate(paymentOrderRequest).isEmpty()
+                && new BigDecimal(paymentOrderRequest.getAmount()).signum() > 0;
+    }
+
+    @Benchmark
+    public boolean beanValidationAndFieldRules() {
+        return beanValidation() && fieldRules();
+    }
+
+    @Benchmark
+    public boolean fieldRules() {
+        int minorUnits = PaymentOrderFieldRules.minorUnits(paymentOrderRequest.getCurrency());
+        int scale = PaymentOrderFieldRules.amountScale(paymentOrderRequest.getAmount());
+        return PaymentOrderFieldRules.isValidIban(paymentOrderRequest.getDebtorIban())
+                && PaymentOrderFieldRules.isValidIban(paymentOrderRequest.getCreditorIban())
+                && minorUnits >= 0
+                && scale >= 0
+                && scale <= minorUnits;
+    }
+}
@@ -0,0 +1,172 @@
+package com.jsca.infrastructure.adapter.in.nio;
+
+import com.jsca.JscaApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de estado contra el controlador de Tomcat y el adaptador NIO, en la misma
+ * aplicación y con la misma carga: 16 hilos que consultan por conexiones keep-alive
+ * mientras otras {@code idleConnections} conexiones siguen abiertas sin peticiones,
+ * como clientes que consultan de vez en cuando.
+ *
+ * <p>Al terminar imprime los hilos vivos de la JVM, que muestran lo que cuesta cada
+ * adaptador en hilos además de en latencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(16)
+public class PaymentOrderAdapterBenchmark {
+
+    private static final String PATH = PaymentOrderHttpHandler.BASE_PATH;
+
+    @Param({"servlet", "nio"})
+    private String adapter;
+
+    @Param({"0", "5000"})
+    private int idleConnections;
+
+    private ConfigurableApplicationContext context;
+    private int port;
+    private String statusRequest;
+    private final List<Socket> idle = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(JscaApplication.class)
+                .profiles("nio")
+                .properties("server.port=0", "payment.nio.port=0", "payment.execution.enabled=false",
+                        "payment.repository.retention.enabled=false", "logging.level.com.jsca=WARN",
+                        "server.tomcat.keep-alive-timeout=10m", "server.tomcat.max-keep-alive-requests=-1",
+                        "server.tomcat.max-connections=20000", "payment.nio.idle-timeout=10m")
+                .run();
+        int servletPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+        port = "nio".equals(adapter) ? context.getBean(NioHttpServer.class).getPort() : servletPort;
+
+        String body = "{\"externalId\":\"EXT-ADAPTER-1\",\"debtorIban\":\"ES9121000418450200051332\","
+                + "\"creditorIban\":\"ES7921000813610123456789\",\"amount\":\"100.00\",\"currency\":\"EUR\","
+                + "\"requestedExecutionDate\":\"" + LocalDate.now().plusDays(1) + "\"}";
+        HttpResponse<String> created = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + servletPort + PATH))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String paymentOrderId = created.body().replaceAll(".*\"paymentOrderId\":\"([^\"]+)\".*", "$1");
+        statusRequest = "GET " + PATH + "/" + paymentOrderId + "/status HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+        for (int i = 0; i < idleConnections; i++) {
+            idle.add(new Socket("localhost", port));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.println("\nHilos vivos (" + adapter + ", " + idleConnections + " conexiones inactivas): "
+                + ManagementFactory.getThreadMXBean().getThreadCount());
+        for (Socket socket : idle) {
+            socket.close();
+        }
+        context.close();
+    }
+
+    /**
+     * Conexión keep-alive de cada hilo del benchmark.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        private Socket socket;
+        private OutputStream out;
+        private InputStream in;
+        private byte[] request;
+        private final byte[] buffer = new byte[8192];
+
+        @Setup(Level.Trial)
+        public void connect(PaymentOrderAdapterBenchmark benchmark) throws IOException {
+            socket = new Socket("localhost", benchmark.port);
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = socket.getInputStream();
+            request = benchmark.statusRequest.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        /**
+         * Envía la consulta y lee la respuesta entera: con Content-Length o en chunks,
+         * como responde Tomcat cuando no conoce el tamaño del JSON.
+         */
+        int poll() throws IOException {
+            out.write(request);
+            int read = 0;
+            int end = -1;
+            while (end < 0 || read < end) {
+                int n = in.read(buffer, read, buffer.length - read);
+                if (n < 0) {
+                    throw new IOException("Conexión cerrada por el servidor");
+                }
+                read += n;
+                end = responseEnd(new String(buffer, 0, read, StandardCharsets.ISO_8859_1));
+            }
+            return read;
+        }
+
+        private static int responseEnd(String received) {
+            int headersEnd = received.indexOf("\r\n\r\n");
+            if (headersEnd < 0) {
+                return -1;
+            }
+            String head = received.substring(0, headersEnd).toLowerCase(Locale.ROOT);
+            if (head.contains("transfer-encoding: chunked")) {
+                return received.endsWith("\r\n0\r\n\r\n") ? received.length() : -1;
+            }
+            int index = head.indexOf("content-length:");
+            int lineEnd = head.indexOf('\r', index);
+            int length = Integer.parseInt(head.substring(index + 15, lineEnd < 0 ? head.length() : lineEnd).trim());
+            return headersEnd + 4 + length;
+        }
+    }
+
+    @Benchmark
+    public int pollStatus(Client client) throws IOException {
+        return client.poll();
+    }
+}
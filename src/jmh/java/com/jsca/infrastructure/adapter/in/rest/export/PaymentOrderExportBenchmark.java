@@ -0,0 +1,102 @@
+package com.jsca.infrastructure.adapter.in.rest.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.adapter.out.persistence.CompactPaymentOrderRepository;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exportación completa de un millón de órdenes a una salida que descarta los bytes: mide
+ * el recorrido del repositorio y la serialización, sin la red.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PaymentOrderExportBenchmark {
+
+    private static final PaymentStatus[] STATUSES = {
+        PaymentStatus.INITIATED, PaymentStatus.PENDING, PaymentStatus.EXECUTED, PaymentStatus.REJECTED};
+
+    @Param({"memory", "compact"})
+    private String type;
+
+    @Param({"ndjson", "csv"})
+    private String format;
+
+    @Param({"1000000"})
+    private int orders;
+
+    private PaymentOrderRepository repository;
+    private PaymentOrderExportFormat exportFormat;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final PaymentOrderSearchCriteria all = new PaymentOrderSearchCriteria(null, null, null, null, null);
+
+    @Setup
+    public void setUp() {
+        repository = "compact".equals(type) ? new CompactPaymentOrderRepository() : new InMemoryPaymentOrderRepository();
+        exportFormat = PaymentOrderExportFormat.of(format);
+        for (int i = 0; i < orders; i++) {
+            PaymentOrder order = BenchmarkData.initiatedOrder("PO-EXPORT-" + i, "EXT-EXPORT-" + i).toBuilder()
+                    .status(STATUSES[i % STATUSES.length])
+                    .build();
+            repository.save(order);
+        }
+    }
+
+    @Benchmark
+    public long exportAll() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PaymentOrderExportWriter writer = exportFormat.open(out, jsonFactory);
+        repository.forEach(all, paymentOrder -> {
+            try {
+                writer.write(paymentOrder);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.finish();
+        return out.bytes;
+    }
+
+    /**
+     * Cuenta los bytes para que el JIT no elimine la escritura.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
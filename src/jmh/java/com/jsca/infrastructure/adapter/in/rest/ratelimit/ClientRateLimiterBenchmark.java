@@ -0,0 +1,57 @@
+package com.jsca.infrastructure.adapter.in.rest.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la admisión por cliente: muchas claves repartidas por la tabla y una
+ * sola clave que todos los hilos se disputan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientRateLimiterBenchmark {
+
+    @Param({"500000"})
+    private int clients;
+
+    private ClientRateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        limiter = new ClientRateLimiter(262_144, 1_000, 2_000);
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "CLIENT-" + i;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long manyClients() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keys.length)], 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long hotClient() {
+        return limiter.tryAcquire(keys[0], 1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.jsca.infrastructure.adapter.out.duplicate;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coste que añade la detección de duplicados a cada iniciación, con el índice ya cargado
+ * con las órdenes de una ventana y varios hilos a la vez: orden nueva (se busca en todas
+ * las tablas y se registra) y reenvío de una orden reciente con otro externalId. Con
+ * {@code REJECT}, que no escribe en el log: en {@code FLAG} el coste del reenvío es el del log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SlidingWindowDuplicateDetectorBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int entries;
+
+    private SlidingWindowDuplicateDetector detector;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Índice nuevo en cada iteración para que las órdenes nuevas no lo llenen.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        detector = new SlidingWindowDuplicateDetector(Duration.ofMinutes(10), 10, 4 * entries, true, Clock.systemUTC());
+        for (int i = 0; i < entries; i++) {
+            detector.findDuplicate(order("BENCH-LOADED-" + i, i));
+        }
+        sequence.set(entries);
+    }
+
+    @Benchmark
+    public Optional<String> newOrder() {
+        long n = sequence.getAndIncrement();
+        return detector.findDuplicate(order("BENCH-NEW-" + n, n));
+    }
+
+    @Benchmark
+    public Optional<String> resentOrder() {
+        long n = ThreadLocalRandom.current().nextInt(entries);
+        return detector.findDuplicate(order("BENCH-RESENT-" + n, n));
+    }
+
+    private static PaymentOrder order(String externalId, long cents) {
+        PaymentOrder order = BenchmarkData.newOrder(externalId).toBuilder()
+                .amount(BigDecimal.valueOf(cents + 1, 2))
+                .build();
+        return order;
+    }
+}
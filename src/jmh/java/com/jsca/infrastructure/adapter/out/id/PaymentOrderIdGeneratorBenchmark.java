@@ -0,0 +1,52 @@
+package com.jsca.infrastructure.adapter.out.id;
+
+import com.jsca.domain.port.out.PaymentOrderIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de generación de IDs: formato anterior (UUID + {@code String.format}) frente
+ * al generador ordenado por tiempo, con un hilo y con varios compitiendo.
+ * Con {@code -prof gc} muestra además los bytes asignados por ID.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentOrderIdGeneratorBenchmark {
+
+    @Param({"uuid", "time-ordered"})
+    private String type;
+
+    private PaymentOrderIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = "uuid".equals(type) ? new UuidPaymentOrderIdGenerator() : new TimeOrderedPaymentOrderIdGenerator(1);
+    }
+
+    @Benchmark
+    public String nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextIdContended() {
+        return generator.nextId();
+    }
+}
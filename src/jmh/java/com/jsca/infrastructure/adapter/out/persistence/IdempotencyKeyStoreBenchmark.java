@@ -0,0 +1,83 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.infrastructure.config.IdempotencyProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consulta de idempotencia de cada iniciación con las claves de una retención cargadas y
+ * varios hilos: externalId que no ha llegado nunca (el caso habitual) con el filtro de Bloom
+ * y con el mapa sin filtro que había antes, externalId ya registrado y alta de uno nuevo.
+ * Las claves se construyen en cada operación, como las que llegan en una petición, así que
+ * su hash no está calculado de antemano.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IdempotencyKeyStoreBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int entries;
+
+    private IdempotencyKeyStore store;
+    private final Map<String, String> index = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Claves nuevas en cada iteración para que las altas no inflen el filtro.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setExpectedKeys(entries);
+        store = new IdempotencyKeyStore(properties, Clock.systemUTC());
+        index.clear();
+        for (int i = 0; i < entries; i++) {
+            store.put("EXT-LOADED-" + i, "PO-" + i, null);
+            index.put("EXT-LOADED-" + i, "PO-" + i);
+        }
+    }
+
+    @Benchmark
+    public String findUnknown() {
+        return store.find("EXT-UNKNOWN-" + ThreadLocalRandom.current().nextInt());
+    }
+
+    @Benchmark
+    public String findUnknownWithoutFilter() {
+        return index.get("EXT-UNKNOWN-" + ThreadLocalRandom.current().nextInt());
+    }
+
+    @Benchmark
+    public String findKnown() {
+        return store.find("EXT-LOADED-" + ThreadLocalRandom.current().nextInt(entries));
+    }
+
+    @Benchmark
+    public String putIfAbsent() {
+        long n = sequence.getAndIncrement();
+        return store.putIfAbsent("EXT-NEW-" + n, "PO-NEW-" + n, null, () -> { });
+    }
+}
@@ -0,0 +1,101 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de findById y transitionStatus del repositorio en memoria con varios hilos.
+ * Cada escritura lee la instantánea actual y la lleva al siguiente estado del ciclo
+ * INITIATED, PENDING, EXECUTED; una orden ejecutada se vuelve a guardar como INITIATED
+ * para que las claves no se agoten en estados finales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryPaymentOrderRepositoryBenchmark {
+
+    @Param({"100000"})
+    private int orders;
+
+    private InMemoryPaymentOrderRepository repository;
+    private String[] ids;
+
+    @Setup
+    public void setUp() {
+        repository = new InMemoryPaymentOrderRepository();
+        ids = new String[orders];
+        for (int i = 0; i < orders; i++) {
+            ids[i] = "PO-BENCH-" + i;
+            repository.save(BenchmarkData.initiatedOrder(ids[i], "EXT-BENCH-" + i));
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Optional<PaymentOrder> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object transitionStatus() {
+        return advance(randomId());
+    }
+
+    /**
+     * Carga mixta: lectores y escritores sobre las mismas claves.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<PaymentOrder> mixedFindById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Object mixedTransitionStatus() {
+        return advance(randomId());
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    /**
+     * Una transición que pierde contra otro hilo devuelve un conflicto y cuenta igual:
+     * también pasa por el compute de la orden.
+     */
+    private Object advance(String paymentOrderId) {
+        PaymentOrder current = repository.findById(paymentOrderId).orElseThrow();
+        return switch (current.getStatus()) {
+            case INITIATED -> repository.transitionStatus(StatusTransition.of(current, PaymentStatus.PENDING));
+            case PENDING -> repository.transitionStatus(StatusTransition.of(current, PaymentStatus.EXECUTED));
+            default -> repository.save(current.toBuilder().status(PaymentStatus.INITIATED).version(1).build());
+        };
+    }
+}
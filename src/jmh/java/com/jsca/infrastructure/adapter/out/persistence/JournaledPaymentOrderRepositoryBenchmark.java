@@ -0,0 +1,137 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.infrastructure.config.JournalProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks del repositorio con journal: throughput de escritura por política de
+ * sincronización y tiempo de arranque (snapshot + journal) para N órdenes.
+ */
+public class JournaledPaymentOrderRepositoryBenchmark {
+
+    /**
+     * Escrituras concurrentes sobre un journal nuevo.
+     */
+    @State(Scope.Benchmark)
+    public static class WriteState {
+
+        @Param({"OS", "GROUP", "ALWAYS"})
+        private JournalSyncMode syncMode;
+
+        private final AtomicLong sequence = new AtomicLong();
+        private Path directory;
+        private JournaledPaymentOrderRepository repository;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-bench");
+            repository = new JournaledPaymentOrderRepository(properties(directory, syncMode));
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            repository.close();
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Directorio con N órdenes persistidas, la mitad en snapshot y la otra mitad solo en journal.
+     */
+    @State(Scope.Benchmark)
+    public static class RecoveryState {
+
+        @Param({"1000000"})
+        private int orders;
+
+        private Path directory;
+        private JournaledPaymentOrderRepository recovered;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-bench");
+            JournaledPaymentOrderRepository repository =
+                    new JournaledPaymentOrderRepository(properties(directory, JournalSyncMode.OS));
+            for (int i = 0; i < orders; i++) {
+                if (i == orders / 2) {
+                    repository.snapshot();
+                }
+                repository.save(BenchmarkData.initiatedOrder("PO-BENCH-" + i, "EXT-BENCH-" + i));
+            }
+            // Sin close(): la segunda mitad queda solo en el journal, como tras una caída
+        }
+
+        @TearDown(Level.Invocation)
+        public void release() {
+            recovered = null;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 5)
+    @Threads(8)
+    @Fork(1)
+    public void save(WriteState state) {
+        long id = state.sequence.incrementAndGet();
+        state.repository.save(BenchmarkData.initiatedOrder("PO-BENCH-" + id, "EXT-BENCH-" + id));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+    public int recover(RecoveryState state) {
+        JournaledPaymentOrderRepository repository =
+                new JournaledPaymentOrderRepository(properties(state.directory, JournalSyncMode.OS));
+        state.recovered = repository;
+        // Se descarta sin close() para no escribir un snapshot y reproducir el journal en cada medición
+        return repository.findById("PO-BENCH-0").isPresent() ? 1 : 0;
+    }
+
+    private static JournalProperties properties(Path directory, JournalSyncMode syncMode) {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSyncMode(syncMode);
+        properties.setSnapshotInterval(Duration.ZERO);
+        return properties;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.infrastructure.config.RetentionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark de lecturas con retención por niveles: {@code findById} de una orden en
+ * memoria frente a una ya archivada en disco, con N órdenes archivadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PaymentOrderArchiveBenchmark {
+
+    private static final int HOT_ORDERS = 10_000;
+
+    @Param({"1000000"})
+    private int orders;
+
+    private Path directory;
+    private InMemoryPaymentOrderRepository repository;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive-bench");
+        RetentionProperties retention = new RetentionProperties();
+        retention.setEnabled(true);
+        retention.setDirectory(directory.toString());
+        retention.setMinAge(Duration.ZERO);
+        retention.setInterval(Duration.ZERO);
+        repository = new InMemoryPaymentOrderRepository(retention);
+        for (int i = 0; i < orders; i++) {
+            PaymentOrder initiated = BenchmarkData.initiatedOrder("PO-ARCH-" + i, "EXT-ARCH-" + i);
+            repository.save(initiated.withStatus(PaymentStatus.EXECUTED, initiated.getCreatedAt()));
+            if (i % 100_000 == 0) {
+                repository.archiveTerminalOrders();
+            }
+        }
+        repository.archiveTerminalOrders();
+        for (int i = 0; i < HOT_ORDERS; i++) {
+            repository.save(BenchmarkData.initiatedOrder("PO-HOT-" + i, "EXT-HOT-" + i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Optional<PaymentOrder> findByIdHot() {
+        return repository.findById("PO-HOT-" + ThreadLocalRandom.current().nextInt(HOT_ORDERS));
+    }
+
+    @Benchmark
+    public Optional<PaymentOrder> findByIdArchived() {
+        return repository.findById("PO-ARCH-" + ThreadLocalRandom.current().nextInt(orders));
+    }
+
+    @Benchmark
+    public Optional<PaymentOrder> findByExternalIdArchived() {
+        return repository.findByExternalId("EXT-ARCH-" + ThreadLocalRandom.current().nextInt(orders));
+    }
+
+    @Benchmark
+    public Optional<PaymentOrder> findByIdMissing() {
+        return repository.findById("PO-MISSING-" + ThreadLocalRandom.current().nextInt(orders));
+    }
+}
@@ -0,0 +1,98 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de una página de búsqueda por índices secundarios con un millón de órdenes:
+ * deudor + estado + rango de fechas, estado + fecha y una página intermedia por cursor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PaymentOrderSearchBenchmark {
+
+    private static final int DEBTORS = 50_000;
+    private static final int DAYS = 60;
+    private static final int PAGE = 50;
+    private static final PaymentStatus[] STATUSES = {
+        PaymentStatus.INITIATED, PaymentStatus.PENDING, PaymentStatus.EXECUTED, PaymentStatus.REJECTED};
+
+    @Param({"memory", "compact"})
+    private String type;
+
+    @Param({"1000000"})
+    private int orders;
+
+    private PaymentOrderRepository repository;
+    private LocalDate firstDay;
+    private PaymentOrderCursor middleCursor;
+
+    @Setup
+    public void setUp() {
+        repository = "compact".equals(type) ? new CompactPaymentOrderRepository() : new InMemoryPaymentOrderRepository();
+        firstDay = LocalDate.now().plusDays(1);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < orders; i++) {
+            PaymentOrder order = BenchmarkData.initiatedOrder("PO-SEARCH-" + i, "EXT-SEARCH-" + i).toBuilder()
+                    .debtorIban(debtor(random.nextInt(DEBTORS)))
+                    .requestedExecutionDate(firstDay.plusDays(random.nextInt(DAYS)))
+                    .status(STATUSES[random.nextInt(STATUSES.length)])
+                    .build();
+            repository.save(order);
+        }
+        List<PaymentOrder> page = repository.search(statusCriteria(), null, 10 * PAGE);
+        middleCursor = PaymentOrderCursor.after(page.get(page.size() - 1));
+    }
+
+    @Benchmark
+    public List<PaymentOrder> debtorStatusAndDates() {
+        int day = ThreadLocalRandom.current().nextInt(DAYS - 30);
+        PaymentOrderSearchCriteria criteria = new PaymentOrderSearchCriteria(
+                debtor(ThreadLocalRandom.current().nextInt(DEBTORS)), null, PaymentStatus.PENDING,
+                firstDay.plusDays(day), firstDay.plusDays(day + 30));
+        return repository.search(criteria, null, PAGE);
+    }
+
+    @Benchmark
+    public List<PaymentOrder> statusAndDates() {
+        return repository.search(statusCriteria(), null, PAGE);
+    }
+
+    @Benchmark
+    public List<PaymentOrder> statusAndDatesFromCursor() {
+        return repository.search(statusCriteria(), middleCursor, PAGE);
+    }
+
+    private PaymentOrderSearchCriteria statusCriteria() {
+        return new PaymentOrderSearchCriteria(null, null, PaymentStatus.EXECUTED,
+                firstDay.plusDays(DAYS / 2), firstDay.plusDays(DAYS - 1));
+    }
+
+    private static String debtor(int n) {
+        return String.format("ES91210004184502%08d", n);
+    }
+}
@@ -0,0 +1,92 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totales de un deudor en un día: los contadores que mantiene el repositorio frente a
+ * recorrer las órdenes del día (lo que había que hacer antes). Con 10.000 y con un millón
+ * de órdenes, los contadores deben costar lo mismo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PaymentOrderTotalsBenchmark {
+
+    private static final int DEBTORS = 1_000;
+    private static final int DAYS = 60;
+    private static final PaymentStatus[] STATUSES = {
+        PaymentStatus.INITIATED, PaymentStatus.PENDING, PaymentStatus.EXECUTED, PaymentStatus.REJECTED};
+
+    @Param({"memory", "compact"})
+    private String type;
+
+    @Param({"10000", "1000000"})
+    private int orders;
+
+    private PaymentOrderRepository repository;
+    private LocalDate firstDay;
+
+    @Setup
+    public void setUp() {
+        repository = "compact".equals(type) ? new CompactPaymentOrderRepository() : new InMemoryPaymentOrderRepository();
+        firstDay = LocalDate.now().plusDays(1);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < orders; i++) {
+            PaymentOrder order = BenchmarkData.initiatedOrder("PO-TOTALS-" + i, "EXT-TOTALS-" + i).toBuilder()
+                    .debtorIban(debtor(random.nextInt(DEBTORS)))
+                    .requestedExecutionDate(firstDay.plusDays(random.nextInt(DAYS)))
+                    .status(STATUSES[random.nextInt(STATUSES.length)])
+                    .build();
+            repository.save(order);
+        }
+    }
+
+    @Benchmark
+    public List<PaymentOrderTotals> runningTotals() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return repository.totals(debtor(random.nextInt(DEBTORS)), firstDay.plusDays(random.nextInt(DAYS)));
+    }
+
+    @Benchmark
+    public BigDecimal scanDay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String debtor = debtor(random.nextInt(DEBTORS));
+        LocalDate day = firstDay.plusDays(random.nextInt(DAYS));
+        BigDecimal[] amount = {BigDecimal.ZERO};
+        repository.forEach(new PaymentOrderSearchCriteria(null, null, null, day, day), order -> {
+            if (debtor.equals(order.getDebtorIban())) {
+                amount[0] = amount[0].add(order.getAmount());
+            }
+        });
+        return amount[0];
+    }
+
+    private static String debtor(int n) {
+        return String.format("ES91210004184502%08d", n);
+    }
+}
@@ -0,0 +1,93 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.config.RetentionProperties;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Mide el heap retenido por orden de cada repositorio en memoria tras cargar N órdenes.
+ * No es un benchmark JMH: la medida es la diferencia de heap usado tras forzar GC.
+ * El modo {@code archived} ejecuta y archiva las órdenes mientras se cargan, como la
+ * retención con tráfico constante, y mide también lo que ocupan en disco.
+ *
+ * <p>Uso: {@code mvn -Pbenchmark -DskipTests test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.jsca.infrastructure.adapter.out.persistence.RepositoryFootprint
+ * -Dexec.args=1000000}
+ */
+public final class RepositoryFootprint {
+
+    private RepositoryFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        measure("memory", orders, InMemoryPaymentOrderRepository::new);
+        CompactPaymentOrderRepository compact = measure("compact", orders, CompactPaymentOrderRepository::new);
+        System.out.printf("compact (contabilidad interna): %.1f bytes/orden%n", (double) compact.footprintBytes() / orders);
+        compact = null;
+        measureArchived(orders);
+    }
+
+    private static void measureArchived(int orders) throws IOException {
+        Path directory = Files.createTempDirectory("archive-footprint");
+        RetentionProperties retention = new RetentionProperties();
+        retention.setEnabled(true);
+        retention.setDirectory(directory.toString());
+        retention.setMinAge(Duration.ZERO);
+        retention.setInterval(Duration.ZERO);
+        long before = usedHeap();
+        InMemoryPaymentOrderRepository repository = new InMemoryPaymentOrderRepository(retention);
+        for (int i = 0; i < orders; i++) {
+            String paymentOrderId = "PO-2024-11-20-" + Integer.toHexString(0x10000000 + i);
+            PaymentOrder initiated = BenchmarkData.initiatedOrder(paymentOrderId, "CLI-2024-" + i);
+            repository.save(initiated.withStatus(PaymentStatus.EXECUTED, initiated.getCreatedAt()));
+            if (i % 10_000 == 0) {
+                repository.archiveTerminalOrders();
+            }
+        }
+        repository.archiveTerminalOrders();
+        long after = usedHeap();
+        long diskBytes;
+        try (Stream<Path> files = Files.list(directory)) {
+            diskBytes = files.mapToLong(file -> file.toFile().length()).sum();
+        }
+        System.out.printf("archived %,d órdenes (%,d en memoria): %,d bytes retenidos, %.1f bytes/orden;"
+                        + " %.1f bytes/orden en disco%n", orders, repository.size(), after - before,
+                (double) (after - before) / orders, (double) diskBytes / orders);
+        repository.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private static <T extends PaymentOrderRepository> T measure(String name, int orders, Supplier<T> factory) {
+        long before = usedHeap();
+        T repository = factory.get();
+        for (int i = 0; i < orders; i++) {
+            repository.save(BenchmarkData.initiatedOrder("PO-2024-11-20-" + Integer.toHexString(0x10000000 + i),
+                    "CLI-2024-" + i));
+        }
+        long after = usedHeap();
+        System.out.printf("%-8s %,d órdenes: %,d bytes retenidos, %.1f bytes/orden%n",
+                name, orders, after - before, (double) (after - before) / orders);
+        return repository;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,92 @@
+package com.jsca.infrastructure.metrics;
+
+import com.jsca.application.service.PaymentOrderService;
+import com.jsca.benchmark.BenchmarkData;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.port.in.GetPaymentOrderUseCase;
+import com.jsca.domain.port.in.InitiatePaymentUseCase;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
+import com.jsca.infrastructure.adapter.out.id.TimeOrderedPaymentOrderIdGenerator;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de los decoradores de métricas: los mismos casos de uso sobre el servicio sin
+ * instrumentar y con el caso de uso y el repositorio decorados sobre un registro Prometheus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final String EXISTING_EXTERNAL_ID = "BENCH-METRICS-EXISTING";
+
+    @Param({"plain", "metered"})
+    private String mode;
+
+    private InitiatePaymentUseCase initiate;
+    private GetPaymentOrderUseCase getPaymentOrder;
+    private String existingId;
+    private long sequence;
+
+    /**
+     * Repositorio nuevo en cada iteración para que el heap no crezca sin límite.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryPaymentOrderRepository repository = new InMemoryPaymentOrderRepository();
+        TimeOrderedPaymentOrderIdGenerator idGenerator = new TimeOrderedPaymentOrderIdGenerator(0);
+        if ("metered".equals(mode)) {
+            PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            MeteredPaymentOrderUseCases useCases = new MeteredPaymentOrderUseCases(
+                    new PaymentOrderService(new MeteredPaymentOrderRepository(repository, registry), idGenerator,
+                            PaymentOrderScheduler.NONE, DuplicatePaymentDetector.NONE),
+                    registry);
+            initiate = useCases;
+            getPaymentOrder = useCases;
+        }
+        else {
+            PaymentOrderService service = new PaymentOrderService(repository, idGenerator, PaymentOrderScheduler.NONE,
+                    DuplicatePaymentDetector.NONE);
+            initiate = service;
+            getPaymentOrder = service;
+        }
+        existingId = initiate.initiatePayment(BenchmarkData.newOrder(EXISTING_EXTERNAL_ID)).getPaymentOrderId();
+        sequence = 0;
+    }
+
+    @Benchmark
+    public Optional<PaymentOrder> getPaymentOrder() {
+        return getPaymentOrder.getPaymentOrder(existingId);
+    }
+
+    @Benchmark
+    public PaymentOrder initiateIdempotentHit() {
+        return initiate.initiatePayment(BenchmarkData.newOrder(EXISTING_EXTERNAL_ID));
+    }
+
+    @Benchmark
+    public PaymentOrder initiateNewOrder() {
+        return initiate.initiatePayment(BenchmarkData.newOrder("BENCH-METRICS-" + sequence++));
+    }
+}
@@ -0,0 +1,84 @@
+package com.jsca.loadtest;
+
+import com.jsca.loadtest.LatencyRecorder.OperationResult;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Resultados de referencia guardados en un fichero de propiedades
+ * ({@code <operationId>.p99=...}) y comparación con una ejecución nueva.
+ */
+final class Baseline {
+
+    private static final String[] PERCENTILES = {"p50", "p99", "p999"};
+
+    private Baseline() {
+    }
+
+    static void save(Path file, LoadProfile profile, Map<Operation, OperationResult> results) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("rate", Integer.toString(profile.rate()));
+        properties.setProperty("mix", profile.submitWeight() + "," + profile.detailsWeight() + "," + profile.statusWeight());
+        results.forEach((operation, result) -> {
+            String key = operation.operationId();
+            properties.setProperty(key + ".throughput", format(result.throughput()));
+            properties.setProperty(key + ".p50", format(result.p50Millis()));
+            properties.setProperty(key + ".p99", format(result.p99Millis()));
+            properties.setProperty(key + ".p999", format(result.p999Millis()));
+        });
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            properties.store(writer, "Referencia de la prueba de carga; latencias en ms, throughput en peticiones/s");
+        }
+    }
+
+    /**
+     * Regresiones frente a la referencia: latencias por encima de {@code threshold} y
+     * throughput por debajo. Una operación sin referencia no se compara.
+     *
+     * @return una descripción por regresión; vacía si no hay
+     */
+    static List<String> compare(Path file, LoadProfile profile, Map<Operation, OperationResult> results) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            baseline.load(reader);
+        }
+        List<String> regressions = new ArrayList<>();
+        String baselineRate = baseline.getProperty("rate");
+        if (baselineRate != null && Integer.parseInt(baselineRate) != profile.rate()) {
+            regressions.add("La referencia se midió a " + baselineRate + " peticiones/s y esta ejecución a " + profile.rate());
+        }
+        results.forEach((operation, result) -> {
+            String key = operation.operationId();
+            double[] current = {result.p50Millis(), result.p99Millis(), result.p999Millis()};
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                String reference = baseline.getProperty(key + "." + PERCENTILES[i]);
+                if (reference != null && current[i] > Double.parseDouble(reference) * (1 + profile.threshold())) {
+                    regressions.add(String.format(Locale.ROOT, "%s %s: %.3f ms frente a %s ms de referencia",
+                            key, PERCENTILES[i], current[i], reference));
+                }
+            }
+            String throughput = baseline.getProperty(key + ".throughput");
+            if (throughput != null && result.throughput() < Double.parseDouble(throughput) * (1 - profile.threshold())) {
+                regressions.add(String.format(Locale.ROOT, "%s throughput: %.1f/s frente a %s/s de referencia",
+                        key, result.throughput(), throughput));
+            }
+        });
+        return regressions;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
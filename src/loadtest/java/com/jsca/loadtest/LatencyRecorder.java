@@ -0,0 +1,77 @@
+package com.jsca.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y errores por operación, registrados desde los hilos que reciben las respuestas.
+ *
+ * <p>La latencia se mide desde el instante en que tocaba lanzar la petición, no desde
+ * que se lanzó: si el generador o el servidor se retrasan, el retraso cuenta (sin la
+ * omisión coordinada de un cliente que espera cada respuesta para enviar la siguiente).
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+
+    LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+        latencies.get(operation).recordValue(micros);
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Petición no lanzada porque ya había demasiadas sin respuesta.
+     */
+    void drop(Operation operation) {
+        dropped.get(operation).increment();
+    }
+
+    Map<Operation, OperationResult> results(Duration measured) {
+        Map<Operation, OperationResult> results = new EnumMap<>(Operation.class);
+        double seconds = measured.toNanos() / 1e9;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            long count = histogram.getTotalCount();
+            results.put(operation, new OperationResult(count, errors.get(operation).sum(), dropped.get(operation).sum(),
+                    count / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0));
+        }
+        return results;
+    }
+
+    /**
+     * Resultado de una operación; las latencias en milisegundos.
+     */
+    record OperationResult(long count, long errors, long dropped, double throughput,
+                           double p50Millis, double p99Millis, double p999Millis) {
+
+        double errorRatio() {
+            long attempted = count + dropped;
+            return attempted == 0 ? 0 : (double) (errors + dropped) / attempted;
+        }
+    }
+}
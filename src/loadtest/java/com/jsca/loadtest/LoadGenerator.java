@@ -0,0 +1,170 @@
+package com.jsca.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga en modelo abierto: lanza las peticiones a un ritmo fijo, cada una
+ * en su instante programado, sin esperar a que respondan las anteriores. Un servidor
+ * lento no frena la llegada de peticiones, como ocurre con clientes reales.
+ *
+ * <p>Las consultas usan IDs de órdenes ya creadas por la propia prueba; antes de empezar
+ * se crean unas cuantas para que haya qué consultar desde el primer momento.
+ */
+final class LoadGenerator {
+
+    private static final String PATH = "/payment-initiation/payment-orders";
+    private static final int SEED_ORDERS = 100;
+    private static final int REMEMBERED = 1 << 16;
+    private static final Pattern PAYMENT_ORDER_ID = Pattern.compile("\"paymentOrderId\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final LoadProfile profile;
+    private final HttpClient client;
+    private final URI ordersUri;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final Semaphore inFlight;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final String executionDate = LocalDate.now().plusDays(1).toString();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicReferenceArray<String> paymentOrderIds = new AtomicReferenceArray<>(REMEMBERED);
+    private final AtomicLong knownPaymentOrders = new AtomicLong();
+
+    LoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(4, runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-client");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+        this.ordersUri = profile.baseUrl().resolve(PATH);
+        this.inFlight = new Semaphore(profile.maxInFlight());
+    }
+
+    /**
+     * Crea las órdenes iniciales, calienta y mide; devuelve lo registrado en la medición.
+     */
+    LatencyRecorder run() throws IOException, InterruptedException {
+        for (int i = 0; i < SEED_ORDERS; i++) {
+            HttpResponse<String> response = client.send(submitRequest(nextExternalId()), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IOException("No se pudo crear una orden inicial: HTTP " + response.statusCode() + " " + response.body());
+            }
+            remember(response.body());
+        }
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + profile.warmup().toNanos();
+        long end = measureFrom + profile.duration().toNanos();
+        SplittableRandom random = new SplittableRandom();
+        int totalWeight = profile.submitWeight() + profile.detailsWeight() + profile.statusWeight();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended - end >= 0) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick(random.nextInt(totalWeight));
+            boolean measured = intended - measureFrom >= 0;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    recorder.drop(operation);
+                }
+                continue;
+            }
+            send(operation, request(operation, random), intended, measured);
+        }
+        // Las que aún no han respondido se esperan hasta el tiempo de espera del cliente
+        if (!inFlight.tryAcquire(profile.maxInFlight(), 30, TimeUnit.SECONDS)) {
+            System.err.println("Peticiones sin respuesta al terminar: " + (profile.maxInFlight() - inFlight.availablePermits()));
+        }
+        return recorder;
+    }
+
+    private void send(Operation operation, HttpRequest request, long intended, boolean measured) {
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            inFlight.release();
+            boolean success = failure == null && operation.isSuccess(response.statusCode());
+            if (success && operation == Operation.SUBMIT) {
+                remember(response.body());
+            }
+            if (measured) {
+                recorder.record(operation, System.nanoTime() - intended, success);
+            }
+        });
+    }
+
+    private Operation pick(int weight) {
+        if (weight < profile.submitWeight()) {
+            return Operation.SUBMIT;
+        }
+        return weight < profile.submitWeight() + profile.detailsWeight() ? Operation.DETAILS : Operation.STATUS;
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random) {
+        if (operation == Operation.SUBMIT) {
+            boolean duplicate = random.nextDouble() < profile.duplicateRatio() && submitted.get() > 0;
+            String externalId = duplicate ? externalId(random.nextLong(submitted.get())) : nextExternalId();
+            return submitRequest(externalId);
+        }
+        long known = Math.min(knownPaymentOrders.get(), REMEMBERED);
+        String paymentOrderId = paymentOrderIds.get((int) random.nextLong(known));
+        if (paymentOrderId == null) {
+            // Hueco reservado por una respuesta que aún no lo ha escrito
+            paymentOrderId = paymentOrderIds.get(0);
+        }
+        String path = ordersUri.getPath() + "/" + paymentOrderId + (operation == Operation.STATUS ? "/status" : "");
+        return HttpRequest.newBuilder(ordersUri.resolve(path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest submitRequest(String externalId) {
+        String body = "{\"externalId\":\"" + externalId + "\","
+                + "\"debtorIban\":\"ES9121000418450200051332\","
+                + "\"creditorIban\":\"ES7921000813610123456789\","
+                + "\"amount\":\"100.00\",\"currency\":\"EUR\","
+                + "\"remittanceInfo\":\"Prueba de carga\","
+                + "\"requestedExecutionDate\":\"" + executionDate + "\"}";
+        return HttpRequest.newBuilder(ordersUri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String nextExternalId() {
+        return externalId(submitted.getAndIncrement());
+    }
+
+    private String externalId(long sequence) {
+        return "LT-" + runId + "-" + sequence;
+    }
+
+    private void remember(String body) {
+        Matcher matcher = PAYMENT_ORDER_ID.matcher(body);
+        if (matcher.find()) {
+            long index = knownPaymentOrders.getAndIncrement();
+            paymentOrderIds.set((int) (index & (REMEMBERED - 1)), matcher.group(1));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.jsca.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de una ejecución de la prueba de carga, leídos de argumentos {@code --nombre=valor}.
+ *
+ * @param baseUrl URL de la instancia, sin la ruta de la API
+ * @param rate peticiones por segundo que se lanzan, respondan o no (modelo abierto)
+ * @param duration duración de la medición
+ * @param warmup tiempo previo a la medición con la misma carga, sin registrar
+ * @param submitWeight peso de las altas en la mezcla
+ * @param detailsWeight peso de las consultas de detalle en la mezcla
+ * @param statusWeight peso de las consultas de estado en la mezcla
+ * @param duplicateRatio fracción de altas que repiten un externalId ya enviado
+ * @param maxInFlight peticiones sin respuesta a partir de las que se descartan las siguientes
+ * @param baseline fichero con los resultados de referencia
+ * @param threshold empeoramiento admitido frente a la referencia (0,2 = 20 %)
+ * @param maxErrorRatio fracción máxima de errores y descartes
+ * @param updateBaseline guardar los resultados como nueva referencia en lugar de comparar
+ */
+record LoadProfile(URI baseUrl, int rate, Duration duration, Duration warmup,
+                   int submitWeight, int detailsWeight, int statusWeight, double duplicateRatio,
+                   int maxInFlight, Path baseline, double threshold, double maxErrorRatio, boolean updateBaseline) {
+
+    static LoadProfile parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals), equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+        String[] mix = options.getOrDefault("mix", "20,30,50").split(",");
+        if (mix.length != 3) {
+            throw new IllegalArgumentException("--mix necesita tres pesos: alta, detalle, estado");
+        }
+        LoadProfile profile = new LoadProfile(
+                URI.create(options.getOrDefault("base-url", "http://localhost:8081")),
+                Integer.parseInt(options.getOrDefault("rate", "100")),
+                Duration.parse("PT" + options.getOrDefault("duration", "30s")),
+                Duration.parse("PT" + options.getOrDefault("warmup", "10s")),
+                Integer.parseInt(mix[0].trim()),
+                Integer.parseInt(mix[1].trim()),
+                Integer.parseInt(mix[2].trim()),
+                Double.parseDouble(options.getOrDefault("duplicates", "0.1")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "2000")),
+                Path.of(options.getOrDefault("baseline", "src/loadtest/baseline.properties")),
+                Double.parseDouble(options.getOrDefault("threshold", "0.2")),
+                Double.parseDouble(options.getOrDefault("max-errors", "0.01")),
+                Boolean.parseBoolean(options.getOrDefault("update-baseline", "false")));
+        if (profile.rate() <= 0 || profile.submitWeight() + profile.detailsWeight() + profile.statusWeight() <= 0) {
+            throw new IllegalArgumentException("--rate y la suma de --mix deben ser positivos");
+        }
+        return profile;
+    }
+}
@@ -0,0 +1,65 @@
+package com.jsca.loadtest;
+
+import com.jsca.loadtest.LatencyRecorder.OperationResult;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prueba de carga de extremo a extremo contra una instancia ya arrancada:
+ * {@code mvn -Ploadtest -DskipTests verify -Dloadtest.args="--rate=1000 --duration=60s"}.
+ *
+ * <p>Imprime throughput y percentiles por operación y termina con error si hay
+ * demasiados errores o si empeora frente a la referencia más de lo admitido.
+ * Con {@code --update-baseline} guarda la ejecución como nueva referencia.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.parse(args);
+        System.out.printf(Locale.ROOT, "Carga contra %s: %d peticiones/s, mezcla %d/%d/%d, %.0f %% duplicadas, "
+                        + "%d s de calentamiento y %d s de medición%n",
+                profile.baseUrl(), profile.rate(), profile.submitWeight(), profile.detailsWeight(), profile.statusWeight(),
+                profile.duplicateRatio() * 100, profile.warmup().toSeconds(), profile.duration().toSeconds());
+
+        Map<Operation, OperationResult> results = new LoadGenerator(profile).run().results(profile.duration());
+        print(results);
+
+        boolean failed = false;
+        for (Map.Entry<Operation, OperationResult> entry : results.entrySet()) {
+            if (entry.getValue().errorRatio() > profile.maxErrorRatio()) {
+                System.out.printf(Locale.ROOT, "%s: %.2f %% de errores y descartes%n",
+                        entry.getKey().operationId(), entry.getValue().errorRatio() * 100);
+                failed = true;
+            }
+        }
+        if (profile.updateBaseline()) {
+            Baseline.save(profile.baseline(), profile, results);
+            System.out.println("Referencia guardada en " + profile.baseline());
+        }
+        else if (Files.exists(profile.baseline())) {
+            List<String> regressions = Baseline.compare(profile.baseline(), profile, results);
+            regressions.forEach(regression -> System.out.println("Regresión: " + regression));
+            failed |= !regressions.isEmpty();
+        }
+        else {
+            System.out.println("Sin referencia en " + profile.baseline() + "; se guarda con --update-baseline");
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static void print(Map<Operation, OperationResult> results) {
+        System.out.printf(Locale.ROOT, "%n%-22s %10s %8s %9s %12s %9s %9s %9s%n",
+                "Operación", "Peticiones", "Errores", "Descartes", "Throughput/s", "p50 ms", "p99 ms", "p99.9 ms");
+        results.forEach((operation, result) -> System.out.printf(Locale.ROOT, "%-22s %10d %8d %9d %12.1f %9.3f %9.3f %9.3f%n",
+                operation.operationId(), result.count(), result.errors(), result.dropped(), result.throughput(),
+                result.p50Millis(), result.p99Millis(), result.p999Millis()));
+    }
+}
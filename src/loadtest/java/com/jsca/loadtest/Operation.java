@@ -0,0 +1,30 @@
+package com.jsca.loadtest;
+
+/**
+ * Operaciones de la API que ejercita la prueba de carga.
+ */
+enum Operation {
+
+    SUBMIT("submitPaymentOrder", 201),
+    DETAILS("getPaymentOrder", 200),
+    STATUS("getPaymentOrderStatus", 200);
+
+    private final String operationId;
+    private final int expectedStatus;
+
+    Operation(String operationId, int expectedStatus) {
+        this.operationId = operationId;
+        this.expectedStatus = expectedStatus;
+    }
+
+    /**
+     * operationId del contrato OpenAPI; es la clave en el fichero de referencia.
+     */
+    String operationId() {
+        return operationId;
+    }
+
+    boolean isSuccess(int status) {
+        return status == expectedStatus;
+    }
+}
@@ -1,16 +1,39 @@
 package com.jsca.application.mapper;
 
 
+import com.jsca.domain.model.InitiationOutcome;
+import com.jsca.domain.model.PaymentInitiationResult;
 import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderFieldRules;
+import com.jsca.domain.model.PaymentOrderPage;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentOrderValidationException;
 import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderOutcome;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResult;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderCurrencyTotals;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderSearchResponse;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderStatusResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderStatusTotals;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderTotalsResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentStatusEvent;
 
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
 
 /**
  * Mapper para convertir entre DTOs (capa REST) y entidades de dominio.
@@ -18,15 +41,31 @@ import java.math.BigDecimal;
 @Component
 public class PaymentOrderMapper {
 
+    private static final char CURSOR_SEPARATOR = '|';
+
     /**
-     * Convierte un PaymentOrderRequest (DTO) a PaymentOrder (dominio).
+     * Convierte un PaymentOrderRequest (DTO) a PaymentOrder (dominio). Los ceros finales
+     * del importe que su moneda no admite ({@code 100.00 JPY}) se quitan aquí, donde se ven
+     * en el texto, para que el dominio compare la escala sin recalcularla.
+     *
+     * @throws PaymentOrderValidationException si el importe no tiene el formato del contrato
      */
     public PaymentOrder toDomain(PaymentOrderRequest request) {
+        int scale = PaymentOrderFieldRules.amountScale(request.getAmount());
+        if (scale < 0) {
+            throw new PaymentOrderValidationException(PaymentOrderValidationException.Reason.INVALID_AMOUNT,
+                    "Formato de monto no válido: " + request.getAmount());
+        }
+        BigDecimal amount = new BigDecimal(request.getAmount());
+        int minorUnits = PaymentOrderFieldRules.minorUnits(request.getCurrency());
+        if (amount.scale() > minorUnits && scale <= minorUnits) {
+            amount = amount.setScale(minorUnits);
+        }
         return PaymentOrder.builder()
                 .externalId(request.getExternalId())
                 .debtorIban(request.getDebtorIban())
                 .creditorIban(request.getCreditorIban())
-                .amount(new BigDecimal(request.getAmount()))
+                .amount(amount)
                 .currency(request.getCurrency())
                 .remittanceInfo(request.getRemittanceInfo())
                 .requestedExecutionDate(request.getRequestedExecutionDate())
@@ -74,6 +113,17 @@ public class PaymentOrderMapper {
         return response;
     }
 
+    /**
+     * Convierte un cambio de estado en el evento del stream SSE.
+     */
+    public PaymentStatusEvent toStatusEvent(PaymentStatusChange change) {
+        PaymentStatusEvent event = new PaymentStatusEvent();
+        event.setPaymentOrderId(change.paymentOrderId());
+        event.setStatus(mapStatus(change.status()));
+        event.setLastUpdate(change.lastUpdate());
+        return event;
+    }
+
     /**
      * Mapea el enum de dominio al enum generado por OpenAPI.
      */
@@ -82,4 +132,170 @@ public class PaymentOrderMapper {
         return com.jsca.infrastructure.adapter.in.rest.model.PaymentStatus.fromValue(
                 domainStatus.name());
     }
-}
\ No newline at end of file
+
+    /**
+     * Convierte una orden de un lote a PaymentOrderRequest para validarla con
+     * las mismas reglas que una orden individual.
+     *
+     * @throws java.time.format.DateTimeParseException si la fecha no es ISO 8601
+     */
+    public PaymentOrderRequest toRequest(BulkPaymentOrderItem item) {
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId(item.getExternalId());
+        request.setDebtorIban(item.getDebtorIban());
+        request.setCreditorIban(item.getCreditorIban());
+        request.setAmount(item.getAmount());
+        request.setCurrency(item.getCurrency());
+        request.setRemittanceInfo(item.getRemittanceInfo());
+        if (item.getRequestedExecutionDate() != null) {
+            request.setRequestedExecutionDate(LocalDate.parse(item.getRequestedExecutionDate()));
+        }
+        return request;
+    }
+
+    /**
+     * Convierte el resultado de dominio de una orden del lote a BulkPaymentOrderResult (DTO).
+     */
+    public BulkPaymentOrderResult toBulkResult(int index, PaymentInitiationResult result) {
+        BulkPaymentOrderResult response = new BulkPaymentOrderResult();
+        response.setIndex(index);
+        response.setOutcome(BulkPaymentOrderOutcome.fromValue(result.getOutcome().name()));
+        PaymentOrder paymentOrder = result.getPaymentOrder();
+        if (paymentOrder != null) {
+            response.setPaymentOrderId(paymentOrder.getPaymentOrderId());
+            response.setStatus(mapStatus(paymentOrder.getStatus()));
+            response.setCreatedAt(paymentOrder.getCreatedAt());
+        }
+        response.setDetail(result.getErrorDetail());
+        return response;
+    }
+
+    /**
+     * Agrupa los resultados de un lote en BulkPaymentOrderResponse (DTO).
+     */
+    public BulkPaymentOrderResponse toBulkResponse(List<BulkPaymentOrderResult> results) {
+        BulkPaymentOrderResponse response = new BulkPaymentOrderResponse();
+        response.setTotal(results.size());
+        response.setCreated(count(results, InitiationOutcome.CREATED));
+        response.setIdempotent(count(results, InitiationOutcome.IDEMPOTENT));
+        response.setRejected(count(results, InitiationOutcome.REJECTED));
+        response.setResults(results);
+        return response;
+    }
+
+    /**
+     * Construye los filtros de búsqueda a partir de los parámetros de la petición.
+     */
+    public PaymentOrderSearchCriteria toSearchCriteria(
+            String debtorIban,
+            String creditorIban,
+            com.jsca.infrastructure.adapter.in.rest.model.PaymentStatus status,
+            LocalDate requestedExecutionDateFrom,
+            LocalDate requestedExecutionDateTo) {
+        return new PaymentOrderSearchCriteria(
+                debtorIban,
+                creditorIban,
+                status == null ? null : PaymentStatus.valueOf(status.getValue()),
+                requestedExecutionDateFrom,
+                requestedExecutionDateTo);
+    }
+
+    /**
+     * Convierte una página de búsqueda a PaymentOrderSearchResponse (DTO).
+     */
+    public PaymentOrderSearchResponse toSearchResponse(PaymentOrderPage page) {
+        PaymentOrderSearchResponse response = new PaymentOrderSearchResponse();
+        response.setItems(page.paymentOrders().stream()
+                .map(this::toDetailsResponse)
+                .toList());
+        if (page.nextCursor() != null) {
+            response.setNextCursor(toCursorToken(page.nextCursor()));
+        }
+        return response;
+    }
+
+    /**
+     * Convierte los totales de un deudor y una fecha a PaymentOrderTotalsResponse (DTO).
+     */
+    public PaymentOrderTotalsResponse toTotalsResponse(String debtorIban, LocalDate requestedExecutionDate,
+                                                       List<PaymentOrderTotals> totals) {
+        PaymentOrderTotalsResponse response = new PaymentOrderTotalsResponse();
+        response.setDebtorIban(debtorIban);
+        response.setRequestedExecutionDate(requestedExecutionDate);
+        response.setTotals(totals.stream()
+                .map(this::toCurrencyTotals)
+                .toList());
+        return response;
+    }
+
+    /**
+     * Convierte PaymentOrderTotalsResponse (DTO) a los totales de dominio, para sumar los
+     * de varias instancias.
+     */
+    public List<PaymentOrderTotals> toTotals(PaymentOrderTotalsResponse response) {
+        return response.getTotals().stream()
+                .map(currencyTotals -> new PaymentOrderTotals(
+                        response.getDebtorIban(),
+                        currencyTotals.getCurrency(),
+                        response.getRequestedExecutionDate(),
+                        currencyTotals.getByStatus().stream()
+                                .map(statusTotals -> new PaymentOrderTotals.StatusTotals(
+                                        PaymentStatus.valueOf(statusTotals.getStatus().getValue()),
+                                        statusTotals.getCount(),
+                                        new BigDecimal(statusTotals.getAmount())))
+                                .toList()))
+                .toList();
+    }
+
+    private PaymentOrderCurrencyTotals toCurrencyTotals(PaymentOrderTotals totals) {
+        PaymentOrderCurrencyTotals response = new PaymentOrderCurrencyTotals();
+        response.setCurrency(totals.currency());
+        response.setCount(totals.count());
+        response.setAmount(totals.amount().toPlainString());
+        response.setByStatus(totals.byStatus().stream()
+                .map(statusTotals -> {
+                    PaymentOrderStatusTotals item = new PaymentOrderStatusTotals();
+                    item.setStatus(mapStatus(statusTotals.status()));
+                    item.setCount(statusTotals.count());
+                    item.setAmount(statusTotals.amount().toPlainString());
+                    return item;
+                })
+                .toList());
+        return response;
+    }
+
+    /**
+     * Codifica el cursor como texto opaco: {@code fecha|paymentOrderId} en Base64 URL.
+     */
+    public String toCursorToken(PaymentOrderCursor cursor) {
+        String date = cursor.requestedExecutionDate() == null ? "" : cursor.requestedExecutionDate().toString();
+        String raw = date + CURSOR_SEPARATOR + cursor.paymentOrderId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor generado por {@link #toCursorToken(PaymentOrderCursor)}.
+     *
+     * @throws IllegalArgumentException si el texto no es un cursor válido
+     */
+    public PaymentOrderCursor toCursor(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Cursor de búsqueda no válido");
+            }
+            LocalDate date = separator == 0 ? null : LocalDate.parse(raw.substring(0, separator));
+            return new PaymentOrderCursor(date, raw.substring(separator + 1));
+        }
+        catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Cursor de búsqueda no válido", ex);
+        }
+    }
+
+    private int count(List<BulkPaymentOrderResult> results, InitiationOutcome outcome) {
+        return (int) results.stream()
+                .filter(result -> result.getOutcome().name().equals(outcome.name()))
+                .count();
+    }
+}
@@ -0,0 +1,220 @@
+package com.jsca.application.service;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
+import com.jsca.domain.port.out.PaymentStatusChangePublisher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retiene las órdenes con fecha de ejecución futura en estado SCHEDULED y las libera su
+ * día, pasándolas a INITIATED por lotes para que las recoja {@link PaymentExecutionEngine}.
+ *
+ * <p>Cada fecha tiene su cola de IDs en bloques de {@value #CHUNK_SIZE}, así que programar
+ * una orden es añadir una referencia y liberar un día es vaciar su cola: no se recorre el
+ * repositorio ni hay una tarea por orden. Un único hilo comprueba cada
+ * {@code checkInterval} si hay días vencidos; la primera comprobación tras medianoche
+ * libera todos los del día.
+ *
+ * <p>Las colas viven en memoria: al arrancar se reconstruyen con las órdenes SCHEDULED del
+ * repositorio. Una orden que ya no está SCHEDULED al liberarla (cancelada, por ejemplo)
+ * se descarta.
+ */
+@Slf4j
+public final class ExecutionDateScheduler implements PaymentOrderScheduler {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final PaymentOrderRepository repository;
+    private final PaymentStatusChangePublisher statusChangePublisher;
+    private final int batchSize;
+    private final long checkIntervalMillis;
+    private final Clock clock;
+    private final ConcurrentSkipListMap<LocalDate, DayQueue> queues = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService timer;
+
+    /**
+     * @param batchSize     órdenes por transición en lote al liberar
+     * @param checkInterval cada cuánto se comprueba si hay días vencidos
+     * @param clock         reloj que define el día hábil en curso
+     */
+    public ExecutionDateScheduler(PaymentOrderRepository repository, PaymentStatusChangePublisher statusChangePublisher,
+                                  int batchSize, Duration checkInterval, Clock clock) {
+        this.repository = repository;
+        this.statusChangePublisher = statusChangePublisher;
+        this.batchSize = batchSize;
+        this.checkIntervalMillis = checkInterval.toMillis();
+        this.clock = clock;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-execution-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reconstruye las colas con las órdenes SCHEDULED guardadas y empieza a comprobar.
+     */
+    public void start() {
+        repository.forEach(new PaymentOrderSearchCriteria(null, null, PaymentStatus.SCHEDULED, null, null), this::schedule);
+        timer.scheduleWithFixedDelay(this::releaseSafely, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() throws InterruptedException {
+        timer.shutdownNow();
+        if (!timer.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Liberación de órdenes programadas sin terminar al detener el planificador");
+        }
+    }
+
+    @Override
+    public boolean isForwardDated(PaymentOrder paymentOrder) {
+        return paymentOrder.getRequestedExecutionDate() != null
+                && paymentOrder.getRequestedExecutionDate().isAfter(LocalDate.now(clock));
+    }
+
+    /**
+     * Si la cola del día se está vaciando en ese momento, la orden va a una cola nueva de
+     * la misma fecha, que se libera en la siguiente comprobación.
+     */
+    @Override
+    public void schedule(PaymentOrder paymentOrder) {
+        LocalDate date = paymentOrder.getRequestedExecutionDate();
+        boolean added = false;
+        while (!added) {
+            added = queues.computeIfAbsent(date, key -> new DayQueue()).add(paymentOrder.getPaymentOrderId());
+        }
+    }
+
+    /**
+     * Órdenes programadas pendientes de liberar.
+     */
+    public long scheduledCount() {
+        long count = 0;
+        for (DayQueue queue : queues.values()) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    /**
+     * Libera las órdenes de hoy y de los días anteriores que sigan en cola.
+     *
+     * @return número de órdenes que han pasado a INITIATED
+     */
+    int releaseDue() {
+        LocalDate today = LocalDate.now(clock);
+        int released = 0;
+        Map.Entry<LocalDate, DayQueue> due = queues.firstEntry();
+        while (due != null && !due.getKey().isAfter(today)) {
+            queues.remove(due.getKey(), due.getValue());
+            released += release(due.getValue().drain());
+            due = queues.firstEntry();
+        }
+        return released;
+    }
+
+    private void releaseSafely() {
+        try {
+            int released = releaseDue();
+            if (released > 0) {
+                log.info("{} órdenes programadas liberadas para ejecución", released);
+            }
+        }
+        catch (RuntimeException ex) {
+            log.error("Error liberando órdenes programadas", ex);
+        }
+    }
+
+    private int release(List<String[]> chunks) {
+        int released = 0;
+        List<StatusTransition> batch = new ArrayList<>(batchSize);
+        for (String[] chunk : chunks) {
+            for (String paymentOrderId : chunk) {
+                if (paymentOrderId == null) {
+                    break;
+                }
+                repository.findById(paymentOrderId)
+                        .filter(order -> order.getStatus() == PaymentStatus.SCHEDULED)
+                        .ifPresent(order -> batch.add(StatusTransition.of(order, PaymentStatus.INITIATED)));
+                if (batch.size() == batchSize) {
+                    released += apply(batch);
+                    batch.clear();
+                }
+            }
+        }
+        return batch.isEmpty() ? released : released + apply(batch);
+    }
+
+    /**
+     * Aplica un lote de transiciones y publica las aplicadas; una orden cancelada entre la
+     * lectura y la transición se queda como está.
+     */
+    private int apply(List<StatusTransition> transitions) {
+        List<StatusTransitionResult> results = repository.transitionStatuses(transitions);
+        List<PaymentStatusChange> published = new ArrayList<>(results.size());
+        for (StatusTransitionResult result : results) {
+            if (result.isApplied()) {
+                PaymentOrder order = result.getPaymentOrder();
+                published.add(new PaymentStatusChange(order.getPaymentOrderId(), order.getStatus(), order.getLastUpdate()));
+            }
+        }
+        if (!published.isEmpty()) {
+            try {
+                statusChangePublisher.publish(published);
+            }
+            catch (RuntimeException ex) {
+                log.warn("Error publicando {} cambios de estado", published.size(), ex);
+            }
+        }
+        return published.size();
+    }
+
+    /**
+     * IDs de las órdenes de un día en bloques de tamaño fijo. Una vez vaciada no admite más
+     * órdenes, para que ninguna se quede en una cola que ya no está en el mapa.
+     */
+    private static final class DayQueue {
+
+        private final List<String[]> chunks = new ArrayList<>();
+        private int lastChunkSize = CHUNK_SIZE;
+        private boolean drained;
+
+        synchronized boolean add(String paymentOrderId) {
+            if (drained) {
+                return false;
+            }
+            if (lastChunkSize == CHUNK_SIZE) {
+                chunks.add(new String[CHUNK_SIZE]);
+                lastChunkSize = 0;
+            }
+            chunks.get(chunks.size() - 1)[lastChunkSize++] = paymentOrderId;
+            return true;
+        }
+
+        synchronized List<String[]> drain() {
+            drained = true;
+            return chunks;
+        }
+
+        synchronized long size() {
+            return chunks.isEmpty() ? 0 : (long) (chunks.size() - 1) * CHUNK_SIZE + lastChunkSize;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.jsca.application.service;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.domain.port.out.PaymentStatusChangePublisher;
+import com.jsca.domain.port.out.SettlementPort;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Motor de ejecución asíncrona: toma las órdenes INITIATED por lotes, las marca PENDING
+ * y las entrega a un pool acotado de workers que las liquida y registra el estado final.
+ *
+ * <p>Trabaja por extracción desde el repositorio, de modo que las peticiones HTTP solo
+ * guardan la orden y nunca esperan al motor. La contrapresión se aplica al despachador:
+ * solo reclama un nuevo lote cuando hay hueco entre los lotes en curso y en cola.
+ * Cada cambio de estado aplicado se publica por lotes en {@link PaymentStatusChangePublisher}.
+ */
+@Slf4j
+public final class PaymentExecutionEngine {
+
+    private final PaymentOrderRepository repository;
+    private final SettlementPort settlementPort;
+    private final PaymentStatusChangePublisher statusChangePublisher;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final Semaphore batchSlots;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean running;
+
+    /**
+     * @param workerCount     hilos que liquidan lotes en paralelo
+     * @param maxQueuedBatches lotes reclamados que pueden esperar a un worker libre
+     * @param pollInterval    espera cuando no hay órdenes pendientes
+     */
+    public PaymentExecutionEngine(PaymentOrderRepository repository, SettlementPort settlementPort,
+                                  PaymentStatusChangePublisher statusChangePublisher,
+                                  int batchSize, int workerCount, int maxQueuedBatches, Duration pollInterval) {
+        this.repository = repository;
+        this.settlementPort = settlementPort;
+        this.statusChangePublisher = statusChangePublisher;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.batchSlots = new Semaphore(workerCount + maxQueuedBatches);
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "payment-execution-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "payment-execution-dispatcher");
+        this.dispatcher.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        dispatcher.start();
+    }
+
+    /**
+     * Deja de reclamar órdenes y espera a que terminen los lotes ya reclamados.
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join();
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Lotes de ejecución sin terminar al detener el motor");
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                if (dispatchBatch() == 0) {
+                    Thread.sleep(pollIntervalMillis);
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (RuntimeException ex) {
+                log.error("Error despachando órdenes para ejecución", ex);
+            }
+        }
+    }
+
+    /**
+     * Reclama un lote de órdenes INITIATED y lo encola para liquidación. Cada orden se
+     * reclama con una transición sobre la versión leída: si otra instancia o una
+     * cancelación la cambió entretanto, no se liquida.
+     *
+     * @return número de órdenes despachadas
+     */
+    int dispatchBatch() throws InterruptedException {
+        batchSlots.acquire();
+        List<PaymentOrder> claimed;
+        try {
+            List<PaymentOrder> batch = repository.findByStatus(PaymentStatus.INITIATED, batchSize);
+            claimed = batch.isEmpty() ? List.of() : apply(transitions(batch, PaymentStatus.PENDING));
+        }
+        catch (RuntimeException ex) {
+            batchSlots.release();
+            throw ex;
+        }
+        if (claimed.isEmpty()) {
+            batchSlots.release();
+            return 0;
+        }
+        workers.execute(() -> {
+            try {
+                settle(claimed);
+            }
+            finally {
+                batchSlots.release();
+            }
+        });
+        return claimed.size();
+    }
+
+    /**
+     * Un fallo técnico de la liquidación deja todo el lote en FAILED, igual que un
+     * resultado ausente o al que no se puede pasar desde PENDING.
+     */
+    private void settle(List<PaymentOrder> batch) {
+        List<StatusTransition> outcomes;
+        try {
+            List<PaymentStatus> results = settlementPort.settle(batch);
+            outcomes = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                PaymentStatus result = i < results.size() ? results.get(i) : null;
+                PaymentOrder order = batch.get(i);
+                boolean legal = result != null && order.getStatus().canTransitionTo(result);
+                outcomes.add(StatusTransition.of(order, legal ? result : PaymentStatus.FAILED));
+            }
+        }
+        catch (RuntimeException ex) {
+            log.error("Error liquidando un lote de {} órdenes", batch.size(), ex);
+            outcomes = transitions(batch, PaymentStatus.FAILED);
+        }
+        apply(outcomes);
+    }
+
+    /**
+     * Publica solo las transiciones aplicadas, con el timestamp que guardó el repositorio;
+     * las rechazadas se registran y se descartan.
+     *
+     * @return las instantáneas nuevas de las transiciones aplicadas
+     */
+    private List<PaymentOrder> apply(List<StatusTransition> transitions) {
+        List<StatusTransitionResult> results = repository.transitionStatuses(transitions);
+        List<PaymentOrder> applied = new ArrayList<>(results.size());
+        List<PaymentStatusChange> published = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            StatusTransitionResult result = results.get(i);
+            if (!result.isApplied()) {
+                log.debug("Transición de {} a {} descartada: {}", transitions.get(i).paymentOrderId(),
+                        transitions.get(i).target(), result.getOutcome());
+                continue;
+            }
+            PaymentOrder order = result.getPaymentOrder();
+            applied.add(order);
+            published.add(new PaymentStatusChange(order.getPaymentOrderId(), order.getStatus(), order.getLastUpdate()));
+        }
+        if (published.isEmpty()) {
+            return applied;
+        }
+        try {
+            statusChangePublisher.publish(published);
+        }
+        catch (RuntimeException ex) {
+            log.warn("Error publicando {} cambios de estado", published.size(), ex);
+        }
+        return applied;
+    }
+
+    private static List<StatusTransition> transitions(List<PaymentOrder> batch, PaymentStatus status) {
+        List<StatusTransition> transitions = new ArrayList<>(batch.size());
+        for (PaymentOrder order : batch) {
+            transitions.add(StatusTransition.of(order, status));
+        }
+        return transitions;
+    }
+}
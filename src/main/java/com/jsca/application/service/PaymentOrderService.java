@@ -1,14 +1,32 @@
 package com.jsca.application.service;
 
+import com.jsca.domain.model.DuplicatePaymentOrderIdException;
+import com.jsca.domain.model.InitiationOutcome;
+import com.jsca.domain.model.PaymentInitiationResult;
 import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderFieldRules;
+import com.jsca.domain.model.PaymentOrderPage;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentOrderValidationException;
+import com.jsca.domain.port.in.BulkInitiatePaymentUseCase;
+import com.jsca.domain.port.in.ExportPaymentOrdersUseCase;
+import com.jsca.domain.port.in.GetPaymentOrderTotalsUseCase;
 import com.jsca.domain.port.in.GetPaymentOrderUseCase;
 import com.jsca.domain.port.in.GetPaymentStatusUseCase;
 import com.jsca.domain.port.in.InitiatePaymentUseCase;
+import com.jsca.domain.port.in.SearchPaymentOrdersUseCase;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderIdGenerator;
 import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Consumer;
 
 
 /**
@@ -17,35 +35,138 @@ import java.util.UUID;
 @Service
 public class PaymentOrderService implements
         InitiatePaymentUseCase,
+        BulkInitiatePaymentUseCase,
         GetPaymentOrderUseCase,
-        GetPaymentStatusUseCase {
+        GetPaymentStatusUseCase,
+        SearchPaymentOrdersUseCase,
+        ExportPaymentOrdersUseCase,
+        GetPaymentOrderTotalsUseCase {
+
+    /**
+     * Tamaño máximo de una página de búsqueda.
+     */
+    public static final int MAX_SEARCH_LIMIT = 500;
+
+    /**
+     * IDs que se prueban para una orden nueva antes de dar el alta por fallida.
+     */
+    private static final int MAX_ID_ATTEMPTS = 3;
 
     private final PaymentOrderRepository repository;
+    private final PaymentOrderIdGenerator idGenerator;
+    private final PaymentOrderScheduler scheduler;
+    private final DuplicatePaymentDetector duplicateDetector;
 
-    public PaymentOrderService(PaymentOrderRepository repository) {
+    public PaymentOrderService(PaymentOrderRepository repository, PaymentOrderIdGenerator idGenerator,
+                               PaymentOrderScheduler scheduler, DuplicatePaymentDetector duplicateDetector) {
         this.repository = repository;
+        this.idGenerator = idGenerator;
+        this.scheduler = scheduler;
+        this.duplicateDetector = duplicateDetector;
     }
 
+    /**
+     * Procesa el lote en orden en el hilo que llama, que decide si reparte el lote entre
+     * varios; los rechazos de validación se devuelven como resultado de la orden en lugar
+     * de propagarse.
+     */
     @Override
-    public PaymentOrder initiatePayment(PaymentOrder paymentOrder) {
+    public List<PaymentInitiationResult> initiatePayments(List<PaymentOrder> paymentOrders) {
+        return paymentOrders.stream()
+                .map(this::initiateSafely)
+                .toList();
+    }
+
+    private PaymentInitiationResult initiateSafely(PaymentOrder paymentOrder) {
+        try {
+            return initiate(paymentOrder);
+        }
+        catch (PaymentOrderValidationException ex) {
+            return PaymentInitiationResult.rejected(ex.getMessage(), ex.getReason());
+        }
+        catch (IllegalArgumentException ex) {
+            return PaymentInitiationResult.rejected(ex.getMessage());
+        }
+    }
+
+    @Override
+    public PaymentInitiationResult initiate(PaymentOrder paymentOrder) {
         Optional<PaymentOrder> existing = repository.findByExternalId(
                 paymentOrder.getExternalId());
         if (existing.isPresent()) {
-            return existing.get();
+            return PaymentInitiationResult.idempotent(existing.get());
         }
         if (!paymentOrder.isAmountValid()) {
-            throw new IllegalArgumentException(
+            throw new PaymentOrderValidationException(PaymentOrderValidationException.Reason.INVALID_AMOUNT,
                     "El monto debe ser mayor a cero: " + paymentOrder.getAmount());
         }
+        if (!paymentOrder.isCurrencySupported()) {
+            throw new PaymentOrderValidationException(PaymentOrderValidationException.Reason.UNSUPPORTED_CURRENCY,
+                    "La moneda no es un código ISO 4217 vigente: " + paymentOrder.getCurrency());
+        }
+        if (!paymentOrder.isAmountScaleValid()) {
+            throw new PaymentOrderValidationException(PaymentOrderValidationException.Reason.INVALID_AMOUNT,
+                    "El monto no se puede expresar en unidades de " + paymentOrder.getCurrency() + ": "
+                            + paymentOrder.getAmount());
+        }
+        if (!paymentOrder.areIbansValid()) {
+            throw new PaymentOrderValidationException(PaymentOrderValidationException.Reason.INVALID_IBAN,
+                    "IBAN no válido (ISO 13616): " + invalidIban(paymentOrder));
+        }
         if (!paymentOrder.isExecutionDateValid()) {
-            throw new IllegalArgumentException(
+            throw new PaymentOrderValidationException(PaymentOrderValidationException.Reason.PAST_EXECUTION_DATE,
                     "La fecha de ejecución debe ser hoy o en el futuro: "
                             + paymentOrder.getRequestedExecutionDate());
         }
-        String paymentOrderId = generatePaymentOrderId();
-        paymentOrder.setPaymentOrderId(paymentOrderId);
-        paymentOrder.initiate();
-        return repository.save(paymentOrder);
+        Optional<String> duplicateOf = duplicateDetector.findDuplicate(paymentOrder);
+        if (duplicateOf.isPresent() && duplicateDetector.rejectsDuplicates()) {
+            throw new PaymentOrderValidationException(PaymentOrderValidationException.Reason.DUPLICATE_PAYMENT,
+                    "Posible pago duplicado de la orden " + duplicateOf.get()
+                            + ": mismo deudor, acreedor, importe y moneda");
+        }
+        boolean forwardDated = scheduler.isForwardDated(paymentOrder);
+        PaymentOrder.PaymentOrderBuilder initiated = paymentOrder.toBuilder()
+                .paymentOrderId(idGenerator.nextId(paymentOrder.getExternalId()))
+                .initiate();
+        if (forwardDated) {
+            initiated.schedule();
+        }
+        PaymentInitiationResult result = saveNew(initiated.build());
+        if (forwardDated && result.getOutcome() == InitiationOutcome.CREATED) {
+            scheduler.schedule(result.getPaymentOrder());
+        }
+        return result;
+    }
+
+    /**
+     * Guarda la orden nueva. Si su ID ya existe (un reinicio con el reloj atrasado puede
+     * repetir IDs) se reintenta con otro: el repositorio nunca sobrescribe una orden.
+     */
+    private PaymentInitiationResult saveNew(PaymentOrder paymentOrder) {
+        PaymentOrder candidate = paymentOrder;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Si otra petición con el mismo externalId ganó la carrera, se devuelve su orden
+                Optional<PaymentOrder> winner = repository.saveIfAbsent(candidate);
+                return winner.isPresent()
+                        ? PaymentInitiationResult.idempotent(winner.get())
+                        : PaymentInitiationResult.created(candidate);
+            }
+            catch (DuplicatePaymentOrderIdException ex) {
+                if (attempt == MAX_ID_ATTEMPTS) {
+                    throw ex;
+                }
+                candidate = candidate.toBuilder()
+                        .paymentOrderId(idGenerator.nextId(candidate.getExternalId()))
+                        .build();
+            }
+        }
+    }
+
+    private static String invalidIban(PaymentOrder paymentOrder) {
+        return PaymentOrderFieldRules.isValidIban(paymentOrder.getDebtorIban())
+                ? paymentOrder.getCreditorIban()
+                : paymentOrder.getDebtorIban();
     }
 
     @Override
@@ -59,12 +180,57 @@ public class PaymentOrderService implements
     }
 
     /**
-     * Genera un ID único para la orden de pago.
+     * Pide al repositorio una orden más que el límite para saber si hay página siguiente
+     * sin tener que contar los resultados.
      */
-    private String generatePaymentOrderId() {
-        String timestamp = java.time.LocalDate.now().toString();
-        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
-        return String.format("PO-%s-%s", timestamp, uniqueId);
+    @Override
+    public PaymentOrderPage searchPaymentOrders(PaymentOrderSearchCriteria criteria, PaymentOrderCursor after, int limit) {
+        if (!criteria.hasFilter()) {
+            throw new IllegalArgumentException(
+                    "Indique al menos un filtro: debtorIban, creditorIban, status o fecha de ejecución");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException(
+                    "El límite debe estar entre 1 y " + MAX_SEARCH_LIMIT + ": " + limit);
+        }
+        if (criteria.isEmptyDateRange()) {
+            return new PaymentOrderPage(List.of(), null);
+        }
+        List<PaymentOrder> found = repository.search(criteria, after, limit + 1);
+        if (found.size() <= limit) {
+            return new PaymentOrderPage(found, null);
+        }
+        List<PaymentOrder> page = found.subList(0, limit);
+        return new PaymentOrderPage(page, PaymentOrderCursor.after(page.get(limit - 1)));
+    }
+
+    @Override
+    public void exportPaymentOrders(PaymentOrderSearchCriteria criteria, Consumer<PaymentOrder> action) {
+        if (!criteria.isEmptyDateRange()) {
+            repository.forEach(criteria, action);
+        }
+    }
+
+    /**
+     * Los totales los mantiene el repositorio en cada alta y cada cambio de estado, así que
+     * aquí solo se filtra por moneda: no se recorre ninguna orden.
+     */
+    @Override
+    public List<PaymentOrderTotals> getPaymentOrderTotals(String debtorIban, String currency,
+                                                          LocalDate requestedExecutionDate) {
+        if (debtorIban == null || debtorIban.isBlank()) {
+            throw new IllegalArgumentException("Indique el IBAN del deudor");
+        }
+        if (requestedExecutionDate == null) {
+            throw new IllegalArgumentException("Indique la fecha de ejecución solicitada");
+        }
+        List<PaymentOrderTotals> totals = repository.totals(debtorIban, requestedExecutionDate);
+        if (currency == null) {
+            return totals;
+        }
+        return totals.stream()
+                .filter(total -> total.currency().equals(currency))
+                .toList();
     }
 
 }
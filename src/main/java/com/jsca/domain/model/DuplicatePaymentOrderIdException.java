@@ -0,0 +1,14 @@
+package com.jsca.domain.model;
+
+/**
+ * Ya hay una orden guardada con el mismo paymentOrderId. El repositorio la rechaza en
+ * lugar de sobrescribir la existente.
+ */
+public class DuplicatePaymentOrderIdException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicatePaymentOrderIdException(String paymentOrderId) {
+        super("Ya existe una orden de pago con el ID " + paymentOrderId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.jsca.domain.model;
+
+/**
+ * Resultado de intentar iniciar una orden de pago.
+ */
+public enum InitiationOutcome {
+    /**
+     * Se creó una nueva orden.
+     */
+    CREATED,
+
+    /**
+     * Ya existía una orden con el mismo externalId; se devuelve la existente.
+     */
+    IDEMPOTENT,
+
+    /**
+     * La orden no superó las validaciones y no se creó.
+     */
+    REJECTED
+}
@@ -0,0 +1,50 @@
+package com.jsca.domain.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de la iniciación de una orden dentro de un lote.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PaymentInitiationResult {
+
+    /**
+     * Tipo de resultado.
+     */
+    private final InitiationOutcome outcome;
+
+    /**
+     * Orden creada o existente; nula si fue rechazada.
+     */
+    private final PaymentOrder paymentOrder;
+
+    /**
+     * Motivo del rechazo; nulo si la orden fue aceptada.
+     */
+    private final String errorDetail;
+
+    /**
+     * Regla de negocio que rechazó la orden; nula si fue aceptada o se rechazó por el
+     * formato de la petición.
+     */
+    private final PaymentOrderValidationException.Reason rejectionReason;
+
+    public static PaymentInitiationResult created(PaymentOrder paymentOrder) {
+        return new PaymentInitiationResult(InitiationOutcome.CREATED, paymentOrder, null, null);
+    }
+
+    public static PaymentInitiationResult idempotent(PaymentOrder paymentOrder) {
+        return new PaymentInitiationResult(InitiationOutcome.IDEMPOTENT, paymentOrder, null, null);
+    }
+
+    public static PaymentInitiationResult rejected(String errorDetail) {
+        return new PaymentInitiationResult(InitiationOutcome.REJECTED, null, errorDetail, null);
+    }
+
+    public static PaymentInitiationResult rejected(String errorDetail, PaymentOrderValidationException.Reason reason) {
+        return new PaymentInitiationResult(InitiationOutcome.REJECTED, null, errorDetail, reason);
+    }
+}
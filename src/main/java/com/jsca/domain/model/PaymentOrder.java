@@ -1,9 +1,7 @@
 package com.jsca.domain.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -11,83 +9,91 @@ import java.time.OffsetDateTime;
 
 /**
  * Entidad de dominio que representa una orden de pago.
+ *
+ * <p>Es una instantánea inmutable: iniciarla y programarla son pasos de su builder antes
+ * de guardarla ({@link PaymentOrderBuilder#initiate}, {@link PaymentOrderBuilder#schedule}),
+ * y cada cambio de estado produce una instancia nueva con la versión siguiente
+ * ({@link #withStatus}). Quien la tenga ve siempre estado, fecha y versión de un mismo
+ * momento.
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder(toBuilder = true)
 public class PaymentOrder {
 
     /**
      * Identificador único de la orden de pago generado por el sistema.
      */
-    private String paymentOrderId;
+    String paymentOrderId;
 
     /**
      * Identificador externo proporcionado por el cliente.
      */
-    private String externalId;
+    String externalId;
 
     /**
      * IBAN de la cuenta del deudor .
      */
-    private String debtorIban;
+    String debtorIban;
 
     /**
      * IBAN de la cuenta del acreedor.
      */
-    private String creditorIban;
+    String creditorIban;
 
     /**
      * Monto de la transacción.
      */
-    private BigDecimal amount;
+    BigDecimal amount;
 
     /**
      * Código de moneda.
      */
-    private String currency;
+    String currency;
 
     /**
      * Información de remesa.
      */
-    private String remittanceInfo;
+    String remittanceInfo;
 
     /**
      * Fecha solicitada para la ejecución del pago.
      */
-    private LocalDate requestedExecutionDate;
+    LocalDate requestedExecutionDate;
 
     /**
      * Estado actual de la orden de pago.
      */
-    private PaymentStatus status;
+    PaymentStatus status;
 
     /**
      * Timestamp de creación de la orden.
      */
-    private OffsetDateTime createdAt;
+    OffsetDateTime createdAt;
 
     /**
      * Timestamp de la última actualización del estado.
      */
-    private OffsetDateTime lastUpdate;
+    OffsetDateTime lastUpdate;
 
     /**
-     * Método de dominio para iniciar una orden de pago.
+     * Versión de la instantánea: 1 al iniciarse y una más en cada cambio de estado.
+     * Es la que comparan las transiciones de estado ({@link StatusTransition}).
      */
-    public void initiate() {
-        this.status = PaymentStatus.INITIATED;
-        this.createdAt = OffsetDateTime.now();
-        this.lastUpdate = OffsetDateTime.now();
-    }
+    long version;
 
     /**
-     * Método de dominio para cambiar el estado de la orden.
+     * Instantánea nueva con el estado indicado y la versión siguiente; esta no cambia.
+     * No comprueba la máquina de estados: para eso está {@link StatusTransition}.
+     *
+     * @param newStatus el nuevo estado
+     * @param at momento del cambio
      */
-    public void updateStatus(PaymentStatus newStatus) {
-        this.status = newStatus;
-        this.lastUpdate = OffsetDateTime.now();
+    public PaymentOrder withStatus(PaymentStatus newStatus, OffsetDateTime at) {
+        return toBuilder()
+                .status(newStatus)
+                .lastUpdate(at)
+                .version(version + 1)
+                .build();
     }
 
     /**
@@ -97,6 +103,28 @@ public class PaymentOrder {
         return amount != null && amount.compareTo(BigDecimal.ZERO) > 0;
     }
 
+    /**
+     * Validación de negocio: la moneda es una moneda activa de ISO 4217.
+     */
+    public boolean isCurrencySupported() {
+        return PaymentOrderFieldRules.minorUnits(currency) >= 0;
+    }
+
+    /**
+     * Validación de negocio: el monto se puede expresar en unidades menores de su moneda
+     * (no tiene más decimales de los que admite ni demasiadas cifras).
+     */
+    public boolean isAmountScaleValid() {
+        return amount != null && PaymentOrderFieldRules.fitsMinorUnits(amount, PaymentOrderFieldRules.minorUnits(currency));
+    }
+
+    /**
+     * Validación de negocio: los IBAN del deudor y del acreedor cumplen ISO 13616.
+     */
+    public boolean areIbansValid() {
+        return PaymentOrderFieldRules.isValidIban(debtorIban) && PaymentOrderFieldRules.isValidIban(creditorIban);
+    }
+
     /**
      * Validación de negocio: la fecha de ejecución debe ser hoy o en el futuro.
      */
@@ -104,4 +132,29 @@ public class PaymentOrder {
         return requestedExecutionDate != null
                 && !requestedExecutionDate.isBefore(LocalDate.now());
     }
+
+    /**
+     * Builder generado por Lombok con los pasos de dominio de una orden nueva.
+     */
+    public static class PaymentOrderBuilder {
+
+        /**
+         * Método de dominio para iniciar una orden de pago: estado {@code INITIATED},
+         * creada y actualizada ahora y primera versión.
+         */
+        public PaymentOrderBuilder initiate() {
+            OffsetDateTime now = OffsetDateTime.now();
+            return status(PaymentStatus.INITIATED)
+                    .createdAt(now)
+                    .lastUpdate(now)
+                    .version(1);
+        }
+
+        /**
+         * Deja una orden recién iniciada a la espera de su fecha de ejecución.
+         */
+        public PaymentOrderBuilder schedule() {
+            return status(PaymentStatus.SCHEDULED);
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.jsca.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Posición en el orden de las búsquedas: fecha de ejecución solicitada y, a igual
+ * fecha, ID de la orden. La página siguiente empieza justo después de esta clave.
+ *
+ * @param requestedExecutionDate fecha de ejecución de la última orden devuelta
+ * @param paymentOrderId ID de la última orden devuelta
+ */
+public record PaymentOrderCursor(LocalDate requestedExecutionDate, String paymentOrderId) {
+
+    /**
+     * Cursor que apunta a la orden dada.
+     */
+    public static PaymentOrderCursor after(PaymentOrder paymentOrder) {
+        return new PaymentOrderCursor(paymentOrder.getRequestedExecutionDate(), paymentOrder.getPaymentOrderId());
+    }
+}
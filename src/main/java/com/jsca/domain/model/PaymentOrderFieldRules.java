@@ -0,0 +1,220 @@
+package com.jsca.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Reglas de formato de los campos de una orden de pago: IBAN (ISO 13616), moneda
+ * (ISO 4217) e importe.
+ *
+ * <p>Cada regla recorre el texto una sola vez, carácter a carácter, contra tablas
+ * precalculadas: no usa expresiones regulares, no crea objetos intermedios y no lanza
+ * excepciones; quien llama decide qué hacer con un {@code false}. No sustituyen a las
+ * expresiones regulares del contrato, que Bean Validation sigue aplicando en los
+ * adaptadores: comprueban lo que esas no ven (módulo 97, monedas vigentes, decimales por
+ * moneda) y se suman a su coste.
+ */
+public final class PaymentOrderFieldRules {
+
+    /**
+     * Decimales máximos de un importe según el contrato de la API.
+     */
+    public static final int MAX_AMOUNT_SCALE = 2;
+
+    /**
+     * Cifras máximas de un importe expresado en unidades menores de su moneda.
+     */
+    public static final int MAX_MINOR_UNIT_DIGITS = 18;
+
+    private static final int MIN_IBAN_LENGTH = 15;
+    private static final int MAX_IBAN_LENGTH = 34;
+    private static final int IBAN_MODULUS = 97;
+    /**
+     * Por debajo de este valor, multiplicar por 100 y sumar 35 no desborda un {@code int}.
+     */
+    private static final int REDUCE_THRESHOLD = 10_000_000;
+    private static final int LETTERS = 26;
+
+    /**
+     * Longitud del IBAN de cada país del registro SWIFT (código de país + longitud).
+     */
+    private static final String IBAN_LENGTHS_BY_COUNTRY =
+            "AD24 AE23 AL28 AT20 AZ28 BA20 BE16 BG22 BH22 BI27 BR29 BY28 CH21 CR22 CY28 CZ24 DE22 DJ27 DK18 DO28 "
+            + "EE20 EG29 ES24 FI18 FK18 FO18 FR27 GB22 GE22 GI23 GL18 GR27 GT28 HN28 HR21 HU28 IE22 IL23 IQ23 IS26 "
+            + "IT27 JO30 KW30 KZ20 LB28 LC32 LI21 LT20 LU20 LV21 LY25 MC27 MD24 ME22 MK19 MN20 MR27 MT31 MU30 NI28 "
+            + "NL18 NO15 OM23 PK24 PL28 PS29 PT25 QA29 RO24 RS22 RU33 SA24 SC31 SD18 SE24 SI19 SK24 SM27 SO23 ST25 "
+            + "SV28 TL23 TN24 TR26 UA29 VA22 VG24 XK20 YE30";
+
+    /**
+     * Monedas activas de ISO 4217 con sus decimales (código + unidades menores). Quedan fuera
+     * los metales, las unidades de cuenta y los códigos de prueba ({@code XAU}, {@code XDR},
+     * {@code XTS}, {@code XXX}...), que no tienen decimales definidos.
+     */
+    private static final String CURRENCY_MINOR_UNITS =
+            "AED2 AFN2 ALL2 AMD2 ANG2 AOA2 ARS2 AUD2 AWG2 AZN2 BAM2 BBD2 BDT2 BGN2 BHD3 BIF0 BMD2 BND2 BOB2 BOV2 "
+            + "BRL2 BSD2 BTN2 BWP2 BYN2 BZD2 CAD2 CDF2 CHE2 CHF2 CHW2 CLF4 CLP0 CNY2 COP2 COU2 CRC2 CUC2 CUP2 CVE2 "
+            + "CZK2 DJF0 DKK2 DOP2 DZD2 EGP2 ERN2 ETB2 EUR2 FJD2 FKP2 GBP2 GEL2 GHS2 GIP2 GMD2 GNF0 GTQ2 GYD2 HKD2 "
+            + "HNL2 HTG2 HUF2 IDR2 ILS2 INR2 IQD3 IRR2 ISK0 JMD2 JOD3 JPY0 KES2 KGS2 KHR2 KMF0 KPW2 KRW0 KWD3 KYD2 "
+            + "KZT2 LAK2 LBP2 LKR2 LRD2 LSL2 LYD3 MAD2 MDL2 MGA2 MKD2 MMK2 MNT2 MOP2 MRU2 MUR2 MVR2 MWK2 MXN2 MXV2 "
+            + "MYR2 MZN2 NAD2 NGN2 NIO2 NOK2 NPR2 NZD2 OMR3 PAB2 PEN2 PGK2 PHP2 PKR2 PLN2 PYG0 QAR2 RON2 RSD2 RUB2 "
+            + "RWF0 SAR2 SBD2 SCR2 SDG2 SEK2 SGD2 SHP2 SLE2 SLL2 SOS2 SRD2 SSP2 STN2 SVC2 SYP2 SZL2 THB2 TJS2 TMT2 "
+            + "TND3 TOP2 TRY2 TTD2 TWD2 TZS2 UAH2 UGX0 USD2 USN2 UYI0 UYU2 UYW4 UZS2 VED2 VES2 VND0 VUV0 WST2 XAF0 "
+            + "XCD2 XCG2 XOF0 XPF0 YER2 ZAR2 ZMW2 ZWG2 ZWL2";
+
+    /**
+     * Longitud del IBAN indexada por las dos letras del país; 0 si el país no usa IBAN.
+     */
+    private static final byte[] IBAN_LENGTHS = new byte[LETTERS * LETTERS];
+
+    /**
+     * Decimales + 1 indexados por las tres letras de la moneda; 0 si no es una moneda activa.
+     */
+    private static final byte[] MINOR_UNITS = new byte[LETTERS * LETTERS * LETTERS];
+
+    static {
+        for (int i = 0; i < IBAN_LENGTHS_BY_COUNTRY.length(); i += 5) {
+            int country = letter(IBAN_LENGTHS_BY_COUNTRY.charAt(i)) * LETTERS + letter(IBAN_LENGTHS_BY_COUNTRY.charAt(i + 1));
+            IBAN_LENGTHS[country] = (byte) ((IBAN_LENGTHS_BY_COUNTRY.charAt(i + 2) - '0') * 10
+                    + IBAN_LENGTHS_BY_COUNTRY.charAt(i + 3) - '0');
+        }
+        for (int i = 0; i < CURRENCY_MINOR_UNITS.length(); i += 5) {
+            int currency = currencyIndex(CURRENCY_MINOR_UNITS, i);
+            MINOR_UNITS[currency] = (byte) (CURRENCY_MINOR_UNITS.charAt(i + 3) - '0' + 1);
+        }
+    }
+
+    private PaymentOrderFieldRules() {
+    }
+
+    /**
+     * IBAN según ISO 13616: país con IBAN, longitud de ese país, dígitos de control entre
+     * 02 y 98, cuenta alfanumérica en mayúsculas y resto 1 en el módulo 97.
+     *
+     * <p>El módulo se calcula de forma incremental sobre el IBAN reordenado (los cuatro
+     * primeros caracteres al final y cada letra como dos dígitos, A = 10), sin construir
+     * el número.
+     */
+    public static boolean isValidIban(CharSequence iban) {
+        if (iban == null || iban.length() < MIN_IBAN_LENGTH || iban.length() > MAX_IBAN_LENGTH) {
+            return false;
+        }
+        int first = letter(iban.charAt(0));
+        int second = letter(iban.charAt(1));
+        if (first < 0 || second < 0 || IBAN_LENGTHS[first * LETTERS + second] != iban.length()) {
+            return false;
+        }
+        int tens = digit(iban.charAt(2));
+        int units = digit(iban.charAt(3));
+        if (tens < 0 || units < 0 || tens * 10 + units < 2 || tens * 10 + units > 98) {
+            return false;
+        }
+        int remainder = 0;
+        for (int i = 4; i < iban.length(); i++) {
+            remainder = mod97(remainder, iban.charAt(i));
+            if (remainder < 0) {
+                return false;
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            remainder = mod97(remainder, iban.charAt(i));
+        }
+        return remainder % IBAN_MODULUS == 1;
+    }
+
+    /**
+     * Decimales de una moneda activa de ISO 4217, o -1 si el código no lo es.
+     */
+    public static int minorUnits(CharSequence currency) {
+        if (currency == null || currency.length() != 3) {
+            return -1;
+        }
+        int index = currencyIndex(currency, 0);
+        return index < 0 ? -1 : MINOR_UNITS[index] - 1;
+    }
+
+    /**
+     * Decimales significativos de un importe con el formato del contrato (dígitos y, como
+     * mucho, dos decimales tras un punto), sin contar los ceros finales; -1 si el formato
+     * no es válido. El signo no se admite, así que un importe válido nunca es negativo.
+     */
+    public static int amountScale(CharSequence amount) {
+        if (amount == null) {
+            return -1;
+        }
+        int length = amount.length();
+        int i = 0;
+        while (i < length && digit(amount.charAt(i)) >= 0) {
+            i++;
+        }
+        if (i == 0) {
+            return -1;
+        }
+        if (i == length) {
+            return 0;
+        }
+        if (amount.charAt(i) != '.' || length - i - 1 < 1 || length - i - 1 > MAX_AMOUNT_SCALE) {
+            return -1;
+        }
+        int scale = 0;
+        for (int decimal = 1; i + decimal < length; decimal++) {
+            int value = digit(amount.charAt(i + decimal));
+            if (value < 0) {
+                return -1;
+            }
+            if (value > 0) {
+                scale = decimal;
+            }
+        }
+        return scale;
+    }
+
+    /**
+     * Si el importe se puede expresar en unidades menores de su moneda: con no más decimales
+     * de los que admite ({@code 100.50 JPY} no) y con no más de {@value #MAX_MINOR_UNIT_DIGITS}
+     * cifras, para que quepa en un {@code long}. Compara la escala del {@link BigDecimal}, así
+     * que los ceros finales cuentan: quien parte de un texto los quita antes con
+     * {@link #amountScale}. Con una moneda desconocida ({@code minorUnits} negativo) nunca cabe.
+     */
+    public static boolean fitsMinorUnits(BigDecimal amount, int minorUnits) {
+        return minorUnits >= 0
+                && amount.scale() <= minorUnits
+                && amount.precision() - amount.scale() + minorUnits <= MAX_MINOR_UNIT_DIGITS;
+    }
+
+    private static int currencyIndex(CharSequence code, int offset) {
+        int first = letter(code.charAt(offset));
+        int second = letter(code.charAt(offset + 1));
+        int third = letter(code.charAt(offset + 2));
+        if (first < 0 || second < 0 || third < 0) {
+            return -1;
+        }
+        return (first * LETTERS + second) * LETTERS + third;
+    }
+
+    /**
+     * Acumulado tras añadir un carácter del IBAN, o -1 si no es alfanumérico en mayúsculas.
+     * Solo se reduce módulo 97 cuando el siguiente carácter podría desbordar el {@code int},
+     * así que se hace una división cada varios caracteres y no una por carácter.
+     */
+    private static int mod97(int remainder, char c) {
+        int value = digit(c);
+        int shift = 10;
+        if (value < 0) {
+            value = letter(c);
+            if (value < 0) {
+                return -1;
+            }
+            value += 10;
+            shift = 100;
+        }
+        int next = remainder * shift + value;
+        return next >= REDUCE_THRESHOLD ? next % IBAN_MODULUS : next;
+    }
+
+    private static int letter(char c) {
+        return c >= 'A' && c <= 'Z' ? c - 'A' : -1;
+    }
+
+    private static int digit(char c) {
+        return c >= '0' && c <= '9' ? c - '0' : -1;
+    }
+}
@@ -0,0 +1,16 @@
+package com.jsca.domain.model;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una búsqueda de órdenes de pago.
+ *
+ * @param paymentOrders órdenes de la página, en orden de fecha de ejecución e ID
+ * @param nextCursor posición desde la que pedir la página siguiente; nulo si no hay más
+ */
+public record PaymentOrderPage(List<PaymentOrder> paymentOrders, PaymentOrderCursor nextCursor) {
+
+    public PaymentOrderPage {
+        paymentOrders = List.copyOf(paymentOrders);
+    }
+}
@@ -0,0 +1,48 @@
+package com.jsca.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros de una búsqueda de órdenes de pago. Los nulos no filtran; las fechas
+ * de ejecución son un rango cerrado.
+ *
+ * @param debtorIban IBAN del deudor
+ * @param creditorIban IBAN del acreedor
+ * @param status estado actual
+ * @param executionDateFrom primera fecha de ejecución solicitada incluida
+ * @param executionDateTo última fecha de ejecución solicitada incluida
+ */
+public record PaymentOrderSearchCriteria(
+        String debtorIban,
+        String creditorIban,
+        PaymentStatus status,
+        LocalDate executionDateFrom,
+        LocalDate executionDateTo) {
+
+    /**
+     * Indica si hay al menos un filtro: una búsqueda sin filtros recorrería todas las órdenes.
+     */
+    public boolean hasFilter() {
+        return debtorIban != null || creditorIban != null || status != null
+                || executionDateFrom != null || executionDateTo != null;
+    }
+
+    /**
+     * Comprueba si la orden cumple todos los filtros.
+     */
+    public boolean matches(PaymentOrder paymentOrder) {
+        LocalDate executionDate = paymentOrder.getRequestedExecutionDate();
+        return (debtorIban == null || debtorIban.equals(paymentOrder.getDebtorIban()))
+                && (creditorIban == null || creditorIban.equals(paymentOrder.getCreditorIban()))
+                && (status == null || status == paymentOrder.getStatus())
+                && (executionDateFrom == null || executionDate != null && !executionDate.isBefore(executionDateFrom))
+                && (executionDateTo == null || executionDate != null && !executionDate.isAfter(executionDateTo));
+    }
+
+    /**
+     * Indica si el rango de fechas está vacío.
+     */
+    public boolean isEmptyDateRange() {
+        return executionDateFrom != null && executionDateTo != null && executionDateFrom.isAfter(executionDateTo);
+    }
+}
@@ -0,0 +1,75 @@
+package com.jsca.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Número de órdenes e importe total de un deudor en una moneda y una fecha de ejecución
+ * solicitada, desglosados por estado. Solo aparecen los estados con alguna orden.
+ *
+ * @param debtorIban IBAN del deudor
+ * @param currency código de moneda
+ * @param requestedExecutionDate fecha de ejecución solicitada
+ * @param byStatus totales por estado, en el orden de {@link PaymentStatus}
+ */
+public record PaymentOrderTotals(String debtorIban, String currency, LocalDate requestedExecutionDate,
+                                 List<StatusTotals> byStatus) {
+
+    public PaymentOrderTotals {
+        byStatus = List.copyOf(byStatus);
+    }
+
+    /**
+     * Órdenes en cualquier estado.
+     */
+    public long count() {
+        long count = 0;
+        for (StatusTotals totals : byStatus) {
+            count += totals.count();
+        }
+        return count;
+    }
+
+    /**
+     * Importe de las órdenes en cualquier estado.
+     */
+    public BigDecimal amount() {
+        BigDecimal amount = BigDecimal.ZERO;
+        for (StatusTotals totals : byStatus) {
+            amount = amount.add(totals.amount());
+        }
+        return amount;
+    }
+
+    /**
+     * Suma estado a estado los totales de la misma clave calculados en otra instancia.
+     */
+    public PaymentOrderTotals plus(PaymentOrderTotals other) {
+        Map<PaymentStatus, StatusTotals> merged = new EnumMap<>(PaymentStatus.class);
+        for (StatusTotals totals : byStatus) {
+            merged.put(totals.status(), totals);
+        }
+        for (StatusTotals totals : other.byStatus) {
+            merged.merge(totals.status(), totals, StatusTotals::plus);
+        }
+        return new PaymentOrderTotals(debtorIban, currency, requestedExecutionDate, new ArrayList<>(merged.values()));
+    }
+
+    /**
+     * Órdenes e importe en un estado.
+     *
+     * @param status el estado
+     * @param count número de órdenes
+     * @param amount importe total
+     */
+    public record StatusTotals(PaymentStatus status, long count, BigDecimal amount) {
+
+        StatusTotals plus(StatusTotals other) {
+            return new StatusTotals(status, count + other.count, amount.add(other.amount));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.jsca.domain.model;
+
+import lombok.Getter;
+
+/**
+ * Una orden de pago no supera las reglas de negocio. Se trata como cualquier
+ * {@link IllegalArgumentException} (400), pero indica además qué regla falló.
+ */
+@Getter
+public class PaymentOrderValidationException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Regla de negocio incumplida.
+     */
+    private final Reason reason;
+
+    public PaymentOrderValidationException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    /**
+     * Reglas de negocio de una orden de pago.
+     */
+    public enum Reason {
+        /**
+         * El importe no es mayor que cero.
+         */
+        INVALID_AMOUNT,
+
+        /**
+         * La moneda no es una moneda activa de ISO 4217.
+         */
+        UNSUPPORTED_CURRENCY,
+
+        /**
+         * El IBAN del deudor o del acreedor no cumple ISO 13616 (país, longitud o dígitos de control).
+         */
+        INVALID_IBAN,
+
+        /**
+         * La fecha de ejecución solicitada ya pasó.
+         */
+        PAST_EXECUTION_DATE,
+
+        /**
+         * Hay una orden reciente con el mismo deudor, acreedor, importe y moneda bajo otro externalId.
+         */
+        DUPLICATE_PAYMENT
+    }
+}
@@ -33,5 +33,25 @@ public enum PaymentStatus {
     /**
      * Error técnico durante el procesamiento.
      */
-    FAILED
-}
\ No newline at end of file
+    FAILED,
+
+    /**
+     * Orden aceptada que espera a su fecha de ejecución solicitada. Va al final para no
+     * cambiar el ordinal de los demás estados en el journal y el archivo.
+     */
+    SCHEDULED;
+
+    /**
+     * Indica si una orden en este estado puede pasar a {@code next}: SCHEDULED a INITIATED,
+     * REJECTED, CANCELLED o FAILED; INITIATED a PENDING, REJECTED, CANCELLED o FAILED;
+     * PENDING a EXECUTED, REJECTED o FAILED. Los demás estados son finales.
+     */
+    public boolean canTransitionTo(PaymentStatus next) {
+        return switch (this) {
+            case SCHEDULED -> next == INITIATED || next == REJECTED || next == CANCELLED || next == FAILED;
+            case INITIATED -> next == PENDING || next == REJECTED || next == CANCELLED || next == FAILED;
+            case PENDING -> next == EXECUTED || next == REJECTED || next == FAILED;
+            case EXECUTED, REJECTED, CANCELLED, FAILED -> false;
+        };
+    }
+}
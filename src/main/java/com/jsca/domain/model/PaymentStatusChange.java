@@ -0,0 +1,13 @@
+package com.jsca.domain.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Cambio de estado de una orden de pago ya registrado en el repositorio.
+ *
+ * @param paymentOrderId el ID de la orden
+ * @param status el nuevo estado
+ * @param lastUpdate momento del cambio
+ */
+public record PaymentStatusChange(String paymentOrderId, PaymentStatus status, OffsetDateTime lastUpdate) {
+}
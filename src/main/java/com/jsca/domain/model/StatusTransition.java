@@ -0,0 +1,52 @@
+package com.jsca.domain.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Cambio de estado condicionado (compare-and-set): solo se aplica si la orden sigue en
+ * {@code expectedVersion} y su estado actual permite pasar a {@code target}.
+ *
+ * @param paymentOrderId el ID de la orden
+ * @param expectedVersion versión de la instantánea sobre la que se decidió el cambio
+ * @param target el nuevo estado
+ */
+public record StatusTransition(String paymentOrderId, long expectedVersion, PaymentStatus target) {
+
+    /**
+     * Transición desde la instantánea que tiene quien decide el cambio.
+     */
+    public static StatusTransition of(PaymentOrder current, PaymentStatus target) {
+        return new StatusTransition(current.getPaymentOrderId(), current.getVersion(), target);
+    }
+
+    /**
+     * Comprueba versión y máquina de estados sin construir la orden, para repositorios
+     * que no guardan instancias de {@link PaymentOrder}.
+     */
+    public TransitionOutcome check(long currentVersion, PaymentStatus currentStatus) {
+        if (currentVersion != expectedVersion) {
+            return TransitionOutcome.VERSION_CONFLICT;
+        }
+        if (currentStatus == null || !currentStatus.canTransitionTo(target)) {
+            return TransitionOutcome.ILLEGAL_TRANSITION;
+        }
+        return TransitionOutcome.APPLIED;
+    }
+
+    /**
+     * Evalúa la transición sobre la instantánea actual y, si procede, construye la siguiente.
+     *
+     * @param current instantánea actual; {@code null} si la orden no existe
+     * @param at momento del cambio
+     */
+    public StatusTransitionResult applyTo(PaymentOrder current, OffsetDateTime at) {
+        if (current == null) {
+            return StatusTransitionResult.notFound();
+        }
+        return switch (check(current.getVersion(), current.getStatus())) {
+            case APPLIED -> StatusTransitionResult.applied(current.withStatus(target, at));
+            case VERSION_CONFLICT -> StatusTransitionResult.versionConflict(current);
+            default -> StatusTransitionResult.illegalTransition(current);
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.jsca.domain.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de un cambio de estado en el repositorio.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StatusTransitionResult {
+
+    private static final StatusTransitionResult NOT_FOUND =
+            new StatusTransitionResult(TransitionOutcome.NOT_FOUND, null);
+
+    /**
+     * Tipo de resultado.
+     */
+    private final TransitionOutcome outcome;
+
+    /**
+     * Nueva instantánea si se aplicó; la actual si hubo conflicto; nula si no existe.
+     */
+    private final PaymentOrder paymentOrder;
+
+    public boolean isApplied() {
+        return outcome == TransitionOutcome.APPLIED;
+    }
+
+    public static StatusTransitionResult applied(PaymentOrder paymentOrder) {
+        return new StatusTransitionResult(TransitionOutcome.APPLIED, paymentOrder);
+    }
+
+    public static StatusTransitionResult notFound() {
+        return NOT_FOUND;
+    }
+
+    public static StatusTransitionResult versionConflict(PaymentOrder current) {
+        return new StatusTransitionResult(TransitionOutcome.VERSION_CONFLICT, current);
+    }
+
+    public static StatusTransitionResult illegalTransition(PaymentOrder current) {
+        return new StatusTransitionResult(TransitionOutcome.ILLEGAL_TRANSITION, current);
+    }
+}
@@ -0,0 +1,26 @@
+package com.jsca.domain.model;
+
+/**
+ * Resultado de intentar un cambio de estado.
+ */
+public enum TransitionOutcome {
+    /**
+     * Se guardó la nueva instantánea.
+     */
+    APPLIED,
+
+    /**
+     * No existe ninguna orden con ese ID.
+     */
+    NOT_FOUND,
+
+    /**
+     * La orden cambió desde la versión esperada; se devuelve la actual.
+     */
+    VERSION_CONFLICT,
+
+    /**
+     * El estado actual no permite pasar al pedido; se devuelve la orden actual.
+     */
+    ILLEGAL_TRANSITION
+}
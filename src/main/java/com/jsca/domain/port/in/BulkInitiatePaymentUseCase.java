@@ -0,0 +1,20 @@
+package com.jsca.domain.port.in;
+
+import com.jsca.domain.model.PaymentInitiationResult;
+import com.jsca.domain.model.PaymentOrder;
+
+import java.util.List;
+
+/**
+ * Puerto de entrada: Iniciar un lote de órdenes de pago.
+ */
+public interface BulkInitiatePaymentUseCase {
+    /**
+     * Inicia todas las órdenes del lote de forma independiente. El rechazo de
+     * una orden no impide procesar las demás.
+     *
+     * @param paymentOrders las órdenes a iniciar
+     * @return un resultado por orden, en el mismo orden que la entrada
+     */
+    List<PaymentInitiationResult> initiatePayments(List<PaymentOrder> paymentOrders);
+}
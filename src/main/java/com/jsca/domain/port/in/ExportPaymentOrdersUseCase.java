@@ -0,0 +1,21 @@
+package com.jsca.domain.port.in;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+
+import java.util.function.Consumer;
+
+/**
+ * Puerto de entrada: Exportar todas las órdenes de pago, opcionalmente filtradas.
+ */
+public interface ExportPaymentOrdersUseCase {
+
+    /**
+     * Entrega una a una las órdenes que cumplen los filtros, sin orden garantizado y sin
+     * reunirlas en memoria.
+     *
+     * @param criteria los filtros; sin filtros se exportan todas
+     * @param action recibe cada orden; si lanza una excepción la exportación se detiene
+     */
+    void exportPaymentOrders(PaymentOrderSearchCriteria criteria, Consumer<PaymentOrder> action);
+}
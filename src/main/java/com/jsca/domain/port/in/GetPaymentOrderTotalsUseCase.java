@@ -0,0 +1,23 @@
+package com.jsca.domain.port.in;
+
+import com.jsca.domain.model.PaymentOrderTotals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Puerto de entrada: Consultar cuánto ha iniciado un deudor para una fecha de ejecución.
+ */
+public interface GetPaymentOrderTotalsUseCase {
+
+    /**
+     * Número de órdenes e importe del deudor en esa fecha, por moneda y por estado.
+     *
+     * @param debtorIban IBAN del deudor, obligatorio
+     * @param currency solo esta moneda; null para todas
+     * @param requestedExecutionDate fecha de ejecución solicitada
+     * @return los totales por moneda; vacío si no hay órdenes
+     * @throws IllegalArgumentException si falta el IBAN del deudor
+     */
+    List<PaymentOrderTotals> getPaymentOrderTotals(String debtorIban, String currency, LocalDate requestedExecutionDate);
+}
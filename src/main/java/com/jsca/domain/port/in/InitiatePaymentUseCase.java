@@ -1,6 +1,8 @@
 package com.jsca.domain.port.in;
 
+import com.jsca.domain.model.PaymentInitiationResult;
 import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderValidationException;
 
 /**
  * Puerto de entrada: Iniciar una nueva orden de pago.
@@ -10,7 +12,18 @@ public interface InitiatePaymentUseCase {
      * Inicia una nueva orden de pago.
      *
      * @param paymentOrder la orden de pago a iniciar
-     * @return la orden de pago creada con ID y estado asignados
+     * @return {@code CREATED} con la orden guardada, con ID y estado asignados, o
+     *         {@code IDEMPOTENT} con la orden que ya existía con el mismo externalId
+     * @throws PaymentOrderValidationException si la orden no cumple las reglas de negocio
      */
-    PaymentOrder initiatePayment(PaymentOrder paymentOrder);
+    PaymentInitiationResult initiate(PaymentOrder paymentOrder);
+
+    /**
+     * Inicia una nueva orden de pago y devuelve la orden guardada o la que ya existía.
+     *
+     * @throws PaymentOrderValidationException si la orden no cumple las reglas de negocio
+     */
+    default PaymentOrder initiatePayment(PaymentOrder paymentOrder) {
+        return initiate(paymentOrder).getPaymentOrder();
+    }
 }
@@ -0,0 +1,22 @@
+package com.jsca.domain.port.in;
+
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderPage;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+
+/**
+ * Puerto de entrada: Buscar órdenes de pago por deudor, acreedor, estado y fecha de ejecución.
+ */
+public interface SearchPaymentOrdersUseCase {
+
+    /**
+     * Devuelve una página de órdenes que cumplen los filtros.
+     *
+     * @param criteria los filtros; al menos uno es obligatorio
+     * @param after cursor de la página anterior, o null para la primera
+     * @param limit tamaño máximo de la página
+     * @return la página y el cursor de la siguiente
+     * @throws IllegalArgumentException si no hay filtros o el límite no es válido
+     */
+    PaymentOrderPage searchPaymentOrders(PaymentOrderSearchCriteria criteria, PaymentOrderCursor after, int limit);
+}
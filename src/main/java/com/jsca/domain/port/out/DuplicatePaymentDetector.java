@@ -0,0 +1,41 @@
+package com.jsca.domain.port.out;
+
+import com.jsca.domain.model.PaymentOrder;
+
+import java.util.Optional;
+
+/**
+ * Puerto de salida: Detección de pagos reenviados con otro externalId (mismo deudor,
+ * acreedor, importe y moneda en poco tiempo), que la idempotencia por externalId no cubre.
+ */
+public interface DuplicatePaymentDetector {
+
+    /**
+     * Sin detección: solo se reconocen las órdenes repetidas por su externalId.
+     */
+    DuplicatePaymentDetector NONE = new DuplicatePaymentDetector() {
+        @Override
+        public Optional<String> findDuplicate(PaymentOrder paymentOrder) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean rejectsDuplicates() {
+            return false;
+        }
+    };
+
+    /**
+     * Busca una orden reciente con los mismos datos y, si no la hay, registra esta. Una
+     * coincidencia con el mismo externalId no cuenta: es la misma orden.
+     *
+     * @param paymentOrder la orden a iniciar, ya validada
+     * @return el externalId de la orden anterior con los mismos datos, si la hay
+     */
+    Optional<String> findDuplicate(PaymentOrder paymentOrder);
+
+    /**
+     * Indica si una orden con duplicado se rechaza o solo se señala y se crea igualmente.
+     */
+    boolean rejectsDuplicates();
+}
@@ -0,0 +1,25 @@
+package com.jsca.domain.port.out;
+
+/**
+ * Puerto de salida: generación de identificadores de órdenes de pago.
+ */
+@FunctionalInterface
+public interface PaymentOrderIdGenerator {
+    /**
+     * Genera un ID nuevo, único entre todas las instancias del servicio.
+     *
+     * @return el ID de la orden, con el prefijo {@code PO-}
+     */
+    String nextId();
+
+    /**
+     * Genera el ID de la orden con el externalId indicado. Si las órdenes están
+     * particionadas entre instancias, el ID puede llevar la partición de esa clave.
+     *
+     * @param partitionKey externalId de la orden
+     * @return el ID de la orden, con el prefijo {@code PO-}
+     */
+    default String nextId(String partitionKey) {
+        return nextId();
+    }
+}
@@ -1,22 +1,44 @@
 package com.jsca.domain.port.out;
 
 import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
 import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Puerto de salida: Repositorio de órdenes de pago.
  */
 public interface PaymentOrderRepository {
     /**
-     * Guarda una nueva orden de pago.
+     * Guarda una nueva orden de pago. La orden pasa a ser del repositorio y no debe
+     * modificarse después.
      *
      * @param paymentOrder la orden a guardar
      * @return la orden guardada con ID asignado
      */
     PaymentOrder save(PaymentOrder paymentOrder);
 
+    /**
+     * Guarda la orden solo si no existe otra con el mismo externalId.
+     * La comprobación y la inserción se realizan de forma atómica. Una implementación
+     * puede recordar los externalId solo durante una retención configurada.
+     *
+     * @param paymentOrder la orden a guardar
+     * @return Optional con la orden existente si ya había una, vacío si se insertó la nueva
+     * @throws com.jsca.domain.model.DuplicatePaymentOrderIdException si otra orden tiene ya el mismo
+     *         paymentOrderId; no se guarda nada
+     */
+    Optional<PaymentOrder> saveIfAbsent(PaymentOrder paymentOrder);
+
     /**
      * Busca una orden de pago por su ID.
      *
@@ -26,12 +48,65 @@ public interface PaymentOrderRepository {
     Optional<PaymentOrder> findById(String paymentOrderId);
 
     /**
-     * Actualiza el estado de una orden de pago.
+     * Cambia el estado de una orden como compare-and-set: solo si sigue en la versión
+     * esperada y su estado actual permite la transición. Guarda una instantánea nueva y
+     * la anterior no cambia, así que quien la esté leyendo no ve un estado a medias.
      *
-     * @param paymentOrderId el ID de la orden
-     * @param status el nuevo estado
+     * @param transition la orden, la versión esperada y el nuevo estado
+     * @return la nueva instantánea si se aplicó; si no, el motivo y la orden actual
+     */
+    StatusTransitionResult transitionStatus(StatusTransition transition);
+
+    /**
+     * Aplica varias transiciones, cada una con su propio resultado. Las implementaciones
+     * persistentes pueden sobrescribirlo para confirmar todo el lote con una sola
+     * escritura a disco.
+     *
+     * @param transitions las transiciones
+     * @return un resultado por transición, en el mismo orden
+     */
+    default List<StatusTransitionResult> transitionStatuses(List<StatusTransition> transitions) {
+        List<StatusTransitionResult> results = new ArrayList<>(transitions.size());
+        for (StatusTransition transition : transitions) {
+            results.add(transitionStatus(transition));
+        }
+        return results;
+    }
+
+    /**
+     * Busca órdenes en un estado dado, sin orden garantizado.
+     *
+     * @param status el estado buscado
+     * @param limit número máximo de órdenes a devolver
+     * @return hasta {@code limit} órdenes en ese estado
+     */
+    List<PaymentOrder> findByStatus(PaymentStatus status, int limit);
+
+    /**
+     * Busca órdenes que cumplen los filtros usando índices secundarios, sin recorrer
+     * el repositorio completo. El orden es por fecha de ejecución solicitada y, a igual
+     * fecha, por un orden estable propio del repositorio, de modo que un cursor
+     * identifica siempre la misma posición.
+     *
+     * @param criteria los filtros
+     * @param after devolver solo órdenes posteriores a este cursor; null desde el principio
+     * @param limit número máximo de órdenes a devolver
+     * @return hasta {@code limit} órdenes en orden de cursor
      */
-    void updateStatus(String paymentOrderId, PaymentStatus status);
+    List<PaymentOrder> search(PaymentOrderSearchCriteria criteria, PaymentOrderCursor after, int limit);
+
+    /**
+     * Recorre las órdenes que cumplen los filtros, archivadas incluidas, sin reunirlas en
+     * una lista y sin orden garantizado. Sin filtros recorre todas.
+     *
+     * <p>El recorrido no bloquea las escrituras: una orden creada o modificada mientras
+     * dura puede aparecer con su estado anterior o no aparecer, y una orden archivada a
+     * la vez puede aparecer dos veces.
+     *
+     * @param criteria los filtros
+     * @param action recibe cada orden; si lanza una excepción el recorrido se detiene
+     */
+    void forEach(PaymentOrderSearchCriteria criteria, Consumer<PaymentOrder> action);
 
     /**
      * Verifica si existe una orden con el externalId dado.
@@ -40,4 +115,31 @@ public interface PaymentOrderRepository {
      * @return Optional con la orden si existe
      */
     Optional<PaymentOrder> findByExternalId(String externalId);
+
+    /**
+     * Número total de órdenes guardadas.
+     *
+     * @return el número de órdenes
+     */
+    long count();
+
+    /**
+     * Número de órdenes en un estado, sin recorrer el repositorio. Igual que
+     * {@link #findByStatus(PaymentStatus, int)}, no incluye las órdenes archivadas.
+     *
+     * @param status el estado
+     * @return el número de órdenes en ese estado
+     */
+    long countByStatus(PaymentStatus status);
+
+    /**
+     * Totales de las órdenes de un deudor con una fecha de ejecución solicitada, uno por
+     * moneda y desglosados por estado. Se mantienen al guardar y al cambiar de estado, así
+     * que el coste no depende del número de órdenes. Incluyen las órdenes archivadas.
+     *
+     * @param debtorIban IBAN del deudor
+     * @param requestedExecutionDate fecha de ejecución solicitada
+     * @return los totales por moneda, ordenados por código de moneda; vacío si no hay órdenes
+     */
+    List<PaymentOrderTotals> totals(String debtorIban, LocalDate requestedExecutionDate);
 }
@@ -0,0 +1,40 @@
+package com.jsca.domain.port.out;
+
+import com.jsca.domain.model.PaymentOrder;
+
+/**
+ * Puerto de salida: Retención de las órdenes hasta su fecha de ejecución solicitada.
+ */
+public interface PaymentOrderScheduler {
+
+    /**
+     * Sin programación: todas las órdenes se ejecutan al iniciarse, sea cual sea su fecha.
+     */
+    PaymentOrderScheduler NONE = new PaymentOrderScheduler() {
+        @Override
+        public boolean isForwardDated(PaymentOrder paymentOrder) {
+            return false;
+        }
+
+        @Override
+        public void schedule(PaymentOrder paymentOrder) {
+            throw new IllegalStateException("La programación por fecha de ejecución no está activa");
+        }
+    };
+
+    /**
+     * Indica si la orden debe esperar a su fecha de ejecución en lugar de ejecutarse ya.
+     *
+     * @param paymentOrder la orden a iniciar
+     * @return true si su fecha de ejecución es posterior a hoy
+     */
+    boolean isForwardDated(PaymentOrder paymentOrder);
+
+    /**
+     * Programa una orden ya guardada en estado SCHEDULED para liberarla en su fecha de
+     * ejecución. No debe bloquear al llamante.
+     *
+     * @param paymentOrder la orden programada
+     */
+    void schedule(PaymentOrder paymentOrder);
+}
@@ -0,0 +1,17 @@
+package com.jsca.domain.port.out;
+
+import com.jsca.domain.model.PaymentStatusChange;
+
+import java.util.List;
+
+/**
+ * Puerto de salida: Notificación de cambios de estado de órdenes de pago.
+ */
+public interface PaymentStatusChangePublisher {
+    /**
+     * Publica cambios de estado ya persistidos. No debe bloquear al llamante.
+     *
+     * @param changes los cambios, en el orden en que se aplicaron
+     */
+    void publish(List<PaymentStatusChange> changes);
+}
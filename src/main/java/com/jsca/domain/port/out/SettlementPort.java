@@ -0,0 +1,19 @@
+package com.jsca.domain.port.out;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+
+import java.util.List;
+
+/**
+ * Puerto de salida: Liquidación de órdenes de pago contra el sistema de pagos.
+ */
+public interface SettlementPort {
+    /**
+     * Liquida un lote de órdenes.
+     *
+     * @param paymentOrders las órdenes a liquidar, ya en estado PENDING
+     * @return el estado final de cada orden (EXECUTED, REJECTED o FAILED), en el mismo orden del lote
+     */
+    List<PaymentStatus> settle(List<PaymentOrder> paymentOrders);
+}
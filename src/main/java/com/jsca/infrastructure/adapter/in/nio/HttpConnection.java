@@ -0,0 +1,285 @@
+package com.jsca.infrastructure.adapter.in.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Estado de una conexión del adaptador: los bytes recibidos aún sin procesar y la
+ * respuesta pendiente de escribir. Solo la usa el hilo del bucle de eventos.
+ *
+ * <p>Las peticiones se procesan de una en una y en orden, así que con pipelining las
+ * respuestas salen en el mismo orden que las peticiones.
+ *
+ * <p>El buffer de lectura empieza en {@value #INITIAL_INPUT_BYTES} bytes, se duplica mientras
+ * la petición no cabe, hasta {@code maxRequestBytes}, y se suelta en cuanto no quedan bytes
+ * por procesar: una conexión keep-alive sin petición en curso no ocupa buffer.
+ */
+final class HttpConnection {
+
+    private static final byte[] HEADERS_END = {'\r', '\n', '\r', '\n'};
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final int INITIAL_INPUT_BYTES = 1024;
+    private static final byte[] NO_BYTES = new byte[0];
+    /**
+     * Marca de cuerpo aún incompleto; se compara por identidad.
+     */
+    private static final byte[] INCOMPLETE = new byte[0];
+
+    private final SocketChannel channel;
+    private final int maxRequestBytes;
+    private ByteBuffer input = ByteBuffer.wrap(NO_BYTES);
+    private ByteBuffer output;
+    private boolean busy;
+    private boolean closeAfterResponse;
+    private long lastActivityNanos;
+
+    HttpConnection(SocketChannel channel, int maxRequestBytes, long nowNanos) {
+        this.channel = channel;
+        this.maxRequestBytes = maxRequestBytes;
+        this.lastActivityNanos = nowNanos;
+    }
+
+    /**
+     * Lee lo disponible en el canal.
+     *
+     * @return false si el cliente cerró la conexión
+     */
+    boolean read(long nowNanos) throws IOException {
+        lastActivityNanos = nowNanos;
+        if (!input.hasRemaining() && input.capacity() < maxRequestBytes) {
+            int capacity = Math.min(Math.max(input.capacity() * 2, INITIAL_INPUT_BYTES), maxRequestBytes);
+            input = ByteBuffer.allocate(capacity).put(input.array(), 0, input.position());
+        }
+        return channel.read(input) >= 0;
+    }
+
+    boolean isInputFull() {
+        return input.position() >= maxRequestBytes;
+    }
+
+    /**
+     * Siguiente petición completa de lo recibido, o null si aún faltan bytes.
+     *
+     * @throws HttpProtocolException si la petición no es válida o no cabe en el buffer
+     */
+    HttpRequest nextRequest() {
+        int headersEnd = indexOf(HEADERS_END, 0);
+        if (headersEnd < 0) {
+            if (isInputFull()) {
+                throw new HttpProtocolException(431, "Cabeceras demasiado grandes");
+            }
+            return null;
+        }
+        String[] lines = new String(input.array(), 0, headersEnd, StandardCharsets.ISO_8859_1).split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+            throw new HttpProtocolException(400, "Línea de petición no válida");
+        }
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) {
+                throw new HttpProtocolException(400, "Cabecera no válida");
+            }
+            headers.put(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT), lines[i].substring(colon + 1).trim());
+        }
+        int bodyStart = headersEnd + HEADERS_END.length;
+        String transferEncoding = headers.get("transfer-encoding");
+        byte[] body;
+        if (transferEncoding == null) {
+            body = fixedLengthBody(bodyStart, contentLength(headers));
+        }
+        else if ("chunked".equalsIgnoreCase(transferEncoding)) {
+            body = chunkedBody(bodyStart);
+        }
+        else {
+            throw new HttpProtocolException(501, "Codificación del cuerpo no soportada: " + transferEncoding);
+        }
+        if (body == INCOMPLETE) {
+            return null;
+        }
+
+        String target = requestLine[1];
+        int query = target.indexOf('?');
+        String connection = headers.getOrDefault("connection", "");
+        closeAfterResponse = "HTTP/1.0".equals(requestLine[2])
+                ? !"keep-alive".equalsIgnoreCase(connection)
+                : "close".equalsIgnoreCase(connection);
+        return new HttpRequest(requestLine[0], query < 0 ? target : target.substring(0, query), headers, body);
+    }
+
+    /**
+     * Empieza a escribir la respuesta.
+     *
+     * @return true si se escribió entera; si no, queda pendiente para {@link #flush}
+     */
+    boolean respond(HttpResponse response, long nowNanos) throws IOException {
+        lastActivityNanos = nowNanos;
+        output = response.encode(closeAfterResponse);
+        return flush();
+    }
+
+    /**
+     * Escribe lo que quede de la respuesta.
+     *
+     * @return true si ya no queda nada pendiente
+     */
+    boolean flush() throws IOException {
+        channel.write(output);
+        if (output.hasRemaining()) {
+            return false;
+        }
+        output = null;
+        return true;
+    }
+
+    /**
+     * Tras un error de protocolo no se sabe dónde empieza la siguiente petición.
+     */
+    void closeAfterResponse() {
+        closeAfterResponse = true;
+    }
+
+    boolean isCloseAfterResponse() {
+        return closeAfterResponse;
+    }
+
+    /**
+     * Marcada mientras un hilo de trabajo atiende su petición: no se procesa la siguiente.
+     */
+    boolean isBusy() {
+        return busy;
+    }
+
+    void setBusy(boolean busy) {
+        this.busy = busy;
+    }
+
+    boolean isIdleSince(long deadlineNanos) {
+        return !busy && output == null && lastActivityNanos - deadlineNanos < 0;
+    }
+
+    private static int contentLength(Map<String, String> headers) {
+        String value = headers.get("content-length");
+        if (value == null) {
+            return 0;
+        }
+        try {
+            int length = Integer.parseInt(value);
+            if (length < 0) {
+                throw new HttpProtocolException(400, "Content-Length no válido");
+            }
+            return length;
+        }
+        catch (NumberFormatException ex) {
+            throw new HttpProtocolException(400, "Content-Length no válido");
+        }
+    }
+
+    private byte[] fixedLengthBody(int bodyStart, int length) {
+        if (length > maxRequestBytes - bodyStart) {
+            throw new HttpProtocolException(413, "Petición demasiado grande");
+        }
+        if (input.position() < bodyStart + length) {
+            return INCOMPLETE;
+        }
+        byte[] body = new byte[length];
+        System.arraycopy(input.array(), bodyStart, body, 0, length);
+        consume(bodyStart + length);
+        return body;
+    }
+
+    /**
+     * Cuerpo en chunks ({@code Transfer-Encoding: chunked}), o la marca si aún no ha llegado
+     * el último ({@link #INCOMPLETE}). Las extensiones de chunk y los trailers se ignoran.
+     */
+    private byte[] chunkedBody(int bodyStart) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int position = bodyStart;
+        while (true) {
+            int lineEnd = indexOf(CRLF, position);
+            if (lineEnd < 0) {
+                return incomplete();
+            }
+            int size = chunkSize(new String(input.array(), position, lineEnd - position, StandardCharsets.ISO_8859_1));
+            position = lineEnd + CRLF.length;
+            if (size == 0) {
+                int end = indexOf(CRLF, position);
+                while (end > position) {
+                    position = end + CRLF.length;
+                    end = indexOf(CRLF, position);
+                }
+                if (end < 0) {
+                    return incomplete();
+                }
+                consume(end + CRLF.length);
+                return body.toByteArray();
+            }
+            if (size > maxRequestBytes - position - CRLF.length) {
+                throw new HttpProtocolException(413, "Petición demasiado grande");
+            }
+            if (input.position() < position + size + CRLF.length) {
+                return incomplete();
+            }
+            body.write(input.array(), position, size);
+            position += size + CRLF.length;
+        }
+    }
+
+    private byte[] incomplete() {
+        if (isInputFull()) {
+            throw new HttpProtocolException(413, "Petición demasiado grande");
+        }
+        return INCOMPLETE;
+    }
+
+    private static int chunkSize(String line) {
+        int extension = line.indexOf(';');
+        try {
+            int size = Integer.parseInt((extension < 0 ? line : line.substring(0, extension)).trim(), 16);
+            if (size < 0) {
+                throw new HttpProtocolException(400, "Tamaño de chunk no válido");
+            }
+            return size;
+        }
+        catch (NumberFormatException ex) {
+            throw new HttpProtocolException(400, "Tamaño de chunk no válido");
+        }
+    }
+
+    private int indexOf(byte[] pattern, int from) {
+        byte[] bytes = input.array();
+        int limit = input.position() - pattern.length;
+        for (int i = from; i <= limit; i++) {
+            if (matches(bytes, i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] bytes, int offset, byte[] pattern) {
+        for (int j = 0; j < pattern.length; j++) {
+            if (bytes[offset + j] != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void consume(int length) {
+        if (length == input.position()) {
+            input = ByteBuffer.wrap(NO_BYTES);
+            return;
+        }
+        input.flip();
+        input.position(length);
+        input.compact();
+    }
+}
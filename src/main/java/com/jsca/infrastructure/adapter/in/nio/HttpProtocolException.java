@@ -0,0 +1,17 @@
+package com.jsca.infrastructure.adapter.in.nio;
+
+import lombok.Getter;
+
+/**
+ * Petición que no se puede leer; se responde con {@code status} y se cierra la conexión.
+ */
+@Getter
+final class HttpProtocolException extends RuntimeException {
+
+    private final int status;
+
+    HttpProtocolException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
@@ -0,0 +1,18 @@
+package com.jsca.infrastructure.adapter.in.nio;
+
+import java.util.Map;
+
+/**
+ * Petición HTTP/1.1 ya leída por completo de la conexión.
+ *
+ * @param method método en mayúsculas
+ * @param path ruta sin query string
+ * @param headers cabeceras con el nombre en minúsculas
+ * @param body cuerpo, vacío si no hay
+ */
+record HttpRequest(String method, String path, Map<String, String> headers, byte[] body) {
+
+    String header(String name) {
+        return headers.get(name);
+    }
+}
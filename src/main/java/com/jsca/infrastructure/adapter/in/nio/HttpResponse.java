@@ -0,0 +1,69 @@
+package com.jsca.infrastructure.adapter.in.nio;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Respuesta HTTP/1.1 con el cuerpo ya serializado.
+ */
+final class HttpResponse {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int status;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private byte[] body = EMPTY;
+
+    HttpResponse(int status) {
+        this.status = status;
+    }
+
+    int status() {
+        return status;
+    }
+
+    HttpResponse header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    HttpResponse body(String contentType, byte[] content) {
+        headers.put("Content-Type", contentType);
+        this.body = content;
+        return this;
+    }
+
+    /**
+     * Línea de estado, cabeceras y cuerpo listos para escribir en el canal.
+     */
+    ByteBuffer encode(boolean close) {
+        StringBuilder head = new StringBuilder(128)
+                .append("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n");
+        headers.forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+        head.append("Content-Length: ").append(body.length).append("\r\n");
+        if (close) {
+            head.append("Connection: close\r\n");
+        }
+        head.append("\r\n");
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        return ByteBuffer.allocate(headBytes.length + body.length).put(headBytes).put(body).flip();
+    }
+
+    private static String reason(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 413 -> "Content Too Large";
+            case 431 -> "Request Header Fields Too Large";
+            case 501 -> "Not Implemented";
+            case 503 -> "Service Unavailable";
+            default -> "Internal Server Error";
+        };
+    }
+}
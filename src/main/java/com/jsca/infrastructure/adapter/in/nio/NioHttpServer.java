@@ -0,0 +1,305 @@
+package com.jsca.infrastructure.adapter.in.nio;
+
+import com.jsca.infrastructure.config.NioServerProperties;
+import com.jsca.infrastructure.config.RetentionProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptador HTTP/1.1 no bloqueante sobre NIO, en su propio puerto y en paralelo al
+ * controlador de Tomcat ({@code payment.nio.enabled=true}, activado por el perfil {@code nio}).
+ *
+ * <p>Un único hilo multiplexa todas las conexiones con un {@link Selector}: una conexión
+ * abierta sin petición en curso no ocupa ningún hilo. Las consultas de estado y de
+ * detalle se responden en ese mismo hilo cuando el repositorio las resuelve en memoria;
+ * las altas, que pueden esperar al journal, y las consultas cuando hay archivo en disco
+ * ({@code payment.repository.retention.enabled=true}) van a un pool pequeño con cola
+ * acotada y su respuesta vuelve al bucle para escribirse.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payment.nio", name = "enabled", havingValue = "true")
+public class NioHttpServer {
+
+    private static final long SELECT_TIMEOUT_MILLIS = 1_000;
+
+    private final PaymentOrderHttpHandler handler;
+    private final NioServerProperties properties;
+    private final long idleTimeoutNanos;
+    private final boolean readsMayBlock;
+    private final Queue<Runnable> loopTasks = new ConcurrentLinkedQueue<>();
+    private final ThreadPoolExecutor workers;
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread loop;
+    private volatile boolean running;
+    private int connections;
+
+    public NioHttpServer(PaymentOrderHttpHandler handler, NioServerProperties properties, RetentionProperties retention) {
+        this.handler = handler;
+        this.properties = properties;
+        this.readsMayBlock = retention.isEnabled();
+        this.idleTimeoutNanos = properties.getIdleTimeout().toNanos();
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.getWorkerThreads(), properties.getWorkerThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getMaxQueuedRequests()), runnable -> {
+                    Thread thread = new Thread(runnable, "nio-http-worker-" + workerNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(properties.getPort()), 1024);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo abrir el adaptador NIO en el puerto " + properties.getPort(), ex);
+        }
+        running = true;
+        loop = new Thread(this::eventLoop, "nio-http-loop");
+        loop.setDaemon(true);
+        loop.start();
+        log.info("Adaptador HTTP no bloqueante escuchando en el puerto {}", getPort());
+    }
+
+    /**
+     * Puerto en el que escucha; útil con {@code payment.nio.port=0}.
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        loop.join(TimeUnit.SECONDS.toMillis(5));
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Altas sin responder al detener el adaptador NIO");
+        }
+    }
+
+    private void eventLoop() {
+        long nextSweep = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                Runnable task;
+                while ((task = loopTasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    handleKey(key);
+                }
+                long now = System.nanoTime();
+                if (now - nextSweep >= 0) {
+                    closeIdle(now);
+                    nextSweep = now + TimeUnit.SECONDS.toNanos(1);
+                }
+            }
+        }
+        catch (IOException | RuntimeException ex) {
+            log.error("Bucle del adaptador NIO detenido por un error", ex);
+        }
+        finally {
+            closeAll();
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        HttpConnection connection = (HttpConnection) key.attachment();
+        try {
+            if (key.isWritable()) {
+                if (connection.flush() && afterResponse(key, connection)) {
+                    process(key, connection);
+                }
+                return;
+            }
+            if (key.isReadable()) {
+                if (!connection.read(System.nanoTime())) {
+                    close(key);
+                    return;
+                }
+                process(key, connection);
+            }
+        }
+        catch (IOException ex) {
+            log.debug("Conexión cerrada por error de E/S: {}", ex.getMessage());
+            close(key);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                if (connections >= properties.getMaxConnections()) {
+                    channel.close();
+                    continue;
+                }
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                HttpConnection connection = new HttpConnection(channel, properties.getMaxRequestBytes(), System.nanoTime());
+                channel.register(selector, SelectionKey.OP_READ, connection);
+                connections++;
+            }
+        }
+        catch (IOException ex) {
+            log.warn("Error aceptando conexiones en el adaptador NIO", ex);
+        }
+    }
+
+    /**
+     * Atiende las peticiones completas que haya en el buffer hasta que una quede
+     * pendiente: en un hilo de trabajo o con la respuesta a medio escribir.
+     */
+    private void process(SelectionKey key, HttpConnection connection) throws IOException {
+        while (!connection.isBusy()) {
+            HttpRequest request;
+            try {
+                request = connection.nextRequest();
+            }
+            catch (HttpProtocolException ex) {
+                connection.closeAfterResponse();
+                respond(key, connection, new HttpResponse(ex.getStatus()));
+                return;
+            }
+            if (request == null) {
+                key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+            if (PaymentOrderHttpHandler.isBlocking(request, readsMayBlock)) {
+                dispatch(key, connection, request);
+                return;
+            }
+            if (!respond(key, connection, handler.handle(request))) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch(SelectionKey key, HttpConnection connection, HttpRequest request) throws IOException {
+        connection.setBusy(true);
+        key.interestOps(0);
+        try {
+            workers.execute(() -> {
+                HttpResponse response = handler.handle(request);
+                loopTasks.add(() -> completeDispatch(key, connection, response));
+                selector.wakeup();
+            });
+        }
+        catch (RejectedExecutionException ex) {
+            connection.setBusy(false);
+            respond(key, connection, new HttpResponse(503).header("Retry-After", "1"));
+        }
+    }
+
+    private void completeDispatch(SelectionKey key, HttpConnection connection, HttpResponse response) {
+        connection.setBusy(false);
+        if (!key.isValid()) {
+            return;
+        }
+        try {
+            if (respond(key, connection, response)) {
+                process(key, connection);
+            }
+        }
+        catch (IOException ex) {
+            close(key);
+        }
+    }
+
+    /**
+     * @return true si la respuesta se escribió entera y la conexión sigue abierta
+     */
+    private boolean respond(SelectionKey key, HttpConnection connection, HttpResponse response) throws IOException {
+        if (!connection.respond(response, System.nanoTime())) {
+            key.interestOps(SelectionKey.OP_WRITE);
+            return false;
+        }
+        return afterResponse(key, connection);
+    }
+
+    private boolean afterResponse(SelectionKey key, HttpConnection connection) throws IOException {
+        if (connection.isCloseAfterResponse()) {
+            close(key);
+            return false;
+        }
+        key.interestOps(SelectionKey.OP_READ);
+        return true;
+    }
+
+    private void closeIdle(long now) {
+        long deadline = now - idleTimeoutNanos;
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof HttpConnection connection && connection.isIdleSince(deadline)) {
+                close(key);
+            }
+        }
+    }
+
+    private void close(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        }
+        catch (IOException ex) {
+            log.debug("Error cerrando una conexión: {}", ex.getMessage());
+        }
+        if (key.attachment() instanceof HttpConnection) {
+            connections--;
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            close(key);
+        }
+        try {
+            selector.close();
+        }
+        catch (IOException ex) {
+            log.debug("Error cerrando el selector: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.jsca.infrastructure.adapter.in.nio;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.port.in.GetPaymentOrderUseCase;
+import com.jsca.domain.port.in.GetPaymentStatusUseCase;
+import com.jsca.domain.port.in.InitiatePaymentUseCase;
+import com.jsca.infrastructure.adapter.in.rest.ConditionalGet;
+import com.jsca.infrastructure.adapter.in.rest.cache.PaymentOrderDetailsCache;
+import com.jsca.infrastructure.adapter.in.rest.cache.SerializedPaymentOrderDetails;
+import com.jsca.infrastructure.adapter.in.rest.model.ErrorResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Las tres operaciones de la API de Payment Initiation sobre el adaptador no bloqueante:
+ * alta de una orden, detalle y estado. Usan los mismos casos de uso, mapper, caché de
+ * detalle y GET condicional que {@code PaymentOrderController}, y responden los mismos
+ * códigos y Problem Details que {@code GlobalExceptionHandler}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payment.nio", name = "enabled", havingValue = "true")
+public class PaymentOrderHttpHandler {
+
+    static final String BASE_PATH = "/payment-initiation/payment-orders";
+
+    private static final String JSON = "application/json";
+    private static final String PROBLEM_JSON = "application/problem+json";
+    private static final String STATUS_SUFFIX = "/status";
+
+    private final InitiatePaymentUseCase initiatePaymentUseCase;
+    private final GetPaymentOrderUseCase getPaymentOrderUseCase;
+    private final GetPaymentStatusUseCase getPaymentStatusUseCase;
+    private final PaymentOrderMapper mapper;
+    private final PaymentOrderDetailsCache detailsCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public PaymentOrderHttpHandler(
+            InitiatePaymentUseCase initiatePaymentUseCase,
+            GetPaymentOrderUseCase getPaymentOrderUseCase,
+            GetPaymentStatusUseCase getPaymentStatusUseCase,
+            PaymentOrderMapper mapper,
+            PaymentOrderDetailsCache detailsCache,
+            ObjectMapper objectMapper,
+            Validator validator) {
+        this.initiatePaymentUseCase = initiatePaymentUseCase;
+        this.getPaymentOrderUseCase = getPaymentOrderUseCase;
+        this.getPaymentStatusUseCase = getPaymentStatusUseCase;
+        this.mapper = mapper;
+        this.detailsCache = detailsCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Atiende una petición; los errores se convierten en Problem Details, nunca se propagan.
+     */
+    HttpResponse handle(HttpRequest request) {
+        try {
+            return route(request);
+        }
+        catch (IllegalArgumentException ex) {
+            return problem(400, "validation-error", "Validation Failed", ex.getMessage(), request);
+        }
+        catch (RuntimeException ex) {
+            log.error("Error atendiendo {} {}", request.method(), request.path(), ex);
+            return problem(500, "internal-error", "Internal Server Error", "Error inesperado en el servidor", request);
+        }
+    }
+
+    /**
+     * Las altas pueden esperar a que el repositorio las haga durables; las consultas solo
+     * bloquean si pueden acabar leyendo del archivo en disco.
+     *
+     * @param readsMayBlock si el repositorio archiva órdenes en disco
+     */
+    static boolean isBlocking(HttpRequest request, boolean readsMayBlock) {
+        return readsMayBlock || !"GET".equals(request.method());
+    }
+
+    private HttpResponse route(HttpRequest request) {
+        String path = request.path();
+        if (path.equals(BASE_PATH)) {
+            return "POST".equals(request.method()) ? submitPaymentOrder(request) : methodNotAllowed("POST", request);
+        }
+        if (!path.startsWith(BASE_PATH + "/")) {
+            return notFound("Recurso no encontrado: " + path, request);
+        }
+        String resource = path.substring(BASE_PATH.length() + 1);
+        boolean status = resource.endsWith(STATUS_SUFFIX);
+        String paymentOrderId = status ? resource.substring(0, resource.length() - STATUS_SUFFIX.length()) : resource;
+        if (paymentOrderId.isEmpty() || paymentOrderId.indexOf('/') >= 0) {
+            return notFound("Recurso no encontrado: " + path, request);
+        }
+        if (!"GET".equals(request.method())) {
+            return methodNotAllowed("GET", request);
+        }
+        return status ? getPaymentOrderStatus(paymentOrderId, request) : getPaymentOrder(paymentOrderId, request);
+    }
+
+    private HttpResponse submitPaymentOrder(HttpRequest request) {
+        PaymentOrderRequest body;
+        try {
+            body = objectMapper.readValue(request.body(), PaymentOrderRequest.class);
+        }
+        catch (IOException ex) {
+            return problem(400, "validation-error", "Validation Failed", "Cuerpo JSON no válido", request);
+        }
+        Set<ConstraintViolation<PaymentOrderRequest>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            String detail = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return problem(400, "validation-error", "Validation Failed", detail, request);
+        }
+        PaymentOrder created = initiatePaymentUseCase.initiatePayment(mapper.toDomain(body));
+        return json(201, mapper.toResponse(created));
+    }
+
+    private HttpResponse getPaymentOrder(String paymentOrderId, HttpRequest request) {
+        Optional<PaymentOrder> paymentOrder = getPaymentOrderUseCase.getPaymentOrder(paymentOrderId);
+        if (paymentOrder.isEmpty()) {
+            return notFound("Orden de pago no encontrada: " + paymentOrderId, request);
+        }
+        return conditional(ConditionalGet.of(paymentOrder.get()).respond(
+                request.header("if-none-match"), request.header("if-modified-since"),
+                () -> detailsCache.details(paymentOrder.get(), mapper::toDetailsResponse)));
+    }
+
+    private HttpResponse getPaymentOrderStatus(String paymentOrderId, HttpRequest request) {
+        Optional<PaymentOrder> paymentOrder = getPaymentStatusUseCase.getPaymentStatus(paymentOrderId);
+        if (paymentOrder.isEmpty()) {
+            return notFound("Orden de pago no encontrada: " + paymentOrderId, request);
+        }
+        return conditional(ConditionalGet.of(paymentOrder.get()).respond(
+                request.header("if-none-match"), request.header("if-modified-since"),
+                () -> mapper.toStatusResponse(paymentOrder.get())));
+    }
+
+    private HttpResponse conditional(ResponseEntity<?> entity) {
+        HttpResponse response = entity.getBody() == null
+                ? new HttpResponse(entity.getStatusCode().value())
+                : json(entity.getStatusCode().value(), entity.getBody());
+        HttpHeaders headers = entity.getHeaders();
+        if (headers.getETag() != null) {
+            response.header(HttpHeaders.ETAG, headers.getETag());
+            response.header(HttpHeaders.LAST_MODIFIED, headers.getFirst(HttpHeaders.LAST_MODIFIED));
+        }
+        return response;
+    }
+
+    private HttpResponse json(int status, Object body) {
+        try {
+            if (body instanceof SerializedPaymentOrderDetails serialized) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(serialized.length());
+                serialized.writeTo(out);
+                return new HttpResponse(status).body(JSON, out.toByteArray());
+            }
+            return new HttpResponse(status).body(JSON, objectMapper.writeValueAsBytes(body));
+        }
+        catch (JsonProcessingException ex) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", ex);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("No se pudo copiar la respuesta", ex);
+        }
+    }
+
+    private HttpResponse notFound(String detail, HttpRequest request) {
+        return problem(404, "resource-not-found", "Not Found", detail, request);
+    }
+
+    private HttpResponse methodNotAllowed(String allowed, HttpRequest request) {
+        return problem(405, "method-not-allowed", "Method Not Allowed", "Método no soportado: " + request.method(), request)
+                .header(HttpHeaders.ALLOW, allowed);
+    }
+
+    private HttpResponse problem(int status, String type, String title, String detail, HttpRequest request) {
+        ErrorResponse error = new ErrorResponse();
+        error.setType("https://api.bank.example.com/problems/" + type);
+        error.setTitle(title);
+        error.setStatus(status);
+        error.setDetail(detail);
+        error.setInstance(request.path());
+        try {
+            return new HttpResponse(status).body(PROBLEM_JSON, objectMapper.writeValueAsBytes(error));
+        }
+        catch (JsonProcessingException ex) {
+            throw new IllegalStateException("No se pudo serializar el error", ex);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.jsca.infrastructure.adapter.in.rest;
+
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Valida una orden recibida dentro de un lote (JSON o NDJSON) y la convierte a dominio.
+ */
+@Component
+public class BulkPaymentOrderItemValidator {
+
+    private final PaymentOrderMapper mapper;
+    private final Validator validator;
+
+    public BulkPaymentOrderItemValidator(PaymentOrderMapper mapper, Validator validator) {
+        this.mapper = mapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Aplica a una orden del lote las mismas validaciones de Bean Validation
+     * que a una orden individual.
+     */
+    public ItemValidation validate(BulkPaymentOrderItem item) {
+        PaymentOrderRequest paymentOrderRequest;
+        try {
+            paymentOrderRequest = mapper.toRequest(item);
+        }
+        catch (DateTimeParseException ex) {
+            return new ItemValidation(null, "requestedExecutionDate: formato de fecha inválido");
+        }
+        Set<ConstraintViolation<PaymentOrderRequest>> violations = validator.validate(paymentOrderRequest);
+        if (!violations.isEmpty()) {
+            String detail = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return new ItemValidation(null, detail);
+        }
+        return new ItemValidation(mapper.toDomain(paymentOrderRequest), null);
+    }
+
+    /**
+     * Orden válida en dominio, o el detalle de por qué se rechaza.
+     */
+    public record ItemValidation(PaymentOrder paymentOrder, String errorDetail) {
+    }
+}
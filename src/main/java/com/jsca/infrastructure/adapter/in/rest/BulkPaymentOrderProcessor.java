@@ -0,0 +1,122 @@
+package com.jsca.infrastructure.adapter.in.rest;
+
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentInitiationResult;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.port.in.BulkInitiatePaymentUseCase;
+import com.jsca.infrastructure.adapter.in.rest.BulkPaymentOrderItemValidator.ItemValidation;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResult;
+import com.jsca.infrastructure.config.BulkProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Procesa un lote de órdenes recibido por REST: valida cada orden, inicia las
+ * válidas y construye un resultado por orden en el orden de la solicitud.
+ *
+ * <p>Los lotes de más de un tramo ({@code payment.bulk.chunk-size}) se reparten entre
+ * hilos propios, compartidos por todas las peticiones y con una cola acotada: varios lotes
+ * a la vez no crean más hilos ni ocupan el pool común de {@code ForkJoinPool}, y con la
+ * cola llena el hilo de la petición procesa su tramo, lo que frena al cliente que la llena.
+ */
+@Component
+public class BulkPaymentOrderProcessor {
+
+    private final BulkInitiatePaymentUseCase bulkInitiatePaymentUseCase;
+    private final PaymentOrderMapper mapper;
+    private final BulkPaymentOrderItemValidator itemValidator;
+    private final int chunkSize;
+    private final ExecutorService workers;
+
+    public BulkPaymentOrderProcessor(
+            BulkInitiatePaymentUseCase bulkInitiatePaymentUseCase,
+            PaymentOrderMapper mapper,
+            BulkPaymentOrderItemValidator itemValidator,
+            BulkProperties properties) {
+        this.bulkInitiatePaymentUseCase = bulkInitiatePaymentUseCase;
+        this.mapper = mapper;
+        this.itemValidator = itemValidator;
+        this.chunkSize = properties.getChunkSize();
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getMaxQueuedChunks()), runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-payment-orders-" + workerNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // También tras cerrar: un tramo descartado dejaría la petición esperando
+                (task, executor) -> task.run());
+    }
+
+    public BulkPaymentOrderResponse process(BulkPaymentOrderRequest request) {
+        // Validación de formato por orden: un error no invalida el lote
+        List<ItemValidation> validations = inChunks(request.getOrders(),
+                chunk -> chunk.stream().map(itemValidator::validate).toList());
+        List<PaymentOrder> accepted = validations.stream()
+                .filter(validation -> validation.paymentOrder() != null)
+                .map(ItemValidation::paymentOrder)
+                .toList();
+        Iterator<PaymentInitiationResult> initiated = inChunks(accepted, bulkInitiatePaymentUseCase::initiatePayments)
+                .iterator();
+
+        List<BulkPaymentOrderResult> results = new ArrayList<>(validations.size());
+        for (int i = 0; i < validations.size(); i++) {
+            ItemValidation validation = validations.get(i);
+            PaymentInitiationResult result = validation.paymentOrder() != null
+                    ? initiated.next()
+                    : PaymentInitiationResult.rejected(validation.errorDetail());
+            results.add(mapper.toBulkResult(i, result));
+        }
+        return mapper.toBulkResponse(results);
+    }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Aplica la función por tramos: todos menos el último en los hilos del procesador y el
+     * último en el de la petición. Devuelve los resultados en el orden de entrada.
+     */
+    private <T, R> List<R> inChunks(List<T> items, Function<List<T>, List<R>> function) {
+        if (items.size() <= chunkSize) {
+            return function.apply(items);
+        }
+        List<CompletableFuture<List<R>>> chunks = new ArrayList<>();
+        int from = 0;
+        for (; items.size() - from > chunkSize; from += chunkSize) {
+            List<T> chunk = items.subList(from, from + chunkSize);
+            chunks.add(CompletableFuture.supplyAsync(() -> function.apply(chunk), workers));
+        }
+        List<R> last = function.apply(items.subList(from, items.size()));
+        List<R> results = new ArrayList<>(items.size());
+        for (CompletableFuture<List<R>> chunk : chunks) {
+            try {
+                results.addAll(chunk.join());
+            }
+            catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+        results.addAll(last);
+        return results;
+    }
+}
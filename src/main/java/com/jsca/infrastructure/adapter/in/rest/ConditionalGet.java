@@ -0,0 +1,103 @@
+package com.jsca.infrastructure.adapter.in.rest;
+
+import com.jsca.domain.model.PaymentOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional (RFC 9110) sobre la versión de una orden de pago.
+ *
+ * <p>El ETag es fuerte y se deriva del ID y de la {@code version} de la orden, que sube
+ * con cada transición de estado; no depende del reloj, así que dos cambios en el mismo
+ * instante o un reloj que retrocede no repiten ETag. {@code Last-Modified} sale de
+ * {@code lastUpdate}. Si la petición ya tiene la versión actual se responde 304 sin
+ * invocar al mapper ni serializar el cuerpo.
+ */
+public final class ConditionalGet {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private final String etag;
+    private final Instant lastModified;
+
+    private ConditionalGet(String etag, Instant lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Validadores de la versión actual de la orden; sin versión (0) no hay ninguno.
+     */
+    public static ConditionalGet of(PaymentOrder paymentOrder) {
+        if (paymentOrder.getVersion() <= 0) {
+            return new ConditionalGet(null, null);
+        }
+        String tag = paymentOrder.getPaymentOrderId() + "." + Long.toString(paymentOrder.getVersion(), 36);
+        OffsetDateTime lastUpdate = paymentOrder.getLastUpdate();
+        return new ConditionalGet("\"" + tag + "\"", lastUpdate == null ? null : lastUpdate.toInstant());
+    }
+
+    /**
+     * 304 si la versión del cliente es la actual; si no, 200 con el cuerpo que
+     * construye {@code body}, evaluado solo en ese caso.
+     */
+    public <T> ResponseEntity<T> respond(String ifNoneMatch, String ifModifiedSince, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        HttpStatus status = isNotModified(ifNoneMatch, ifModifiedSince) ? HttpStatus.NOT_MODIFIED : HttpStatus.OK;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status).eTag(etag);
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        return status == HttpStatus.NOT_MODIFIED ? response.build() : response.body(body.get());
+    }
+
+    private boolean isNotModified(String ifNoneMatch, String ifModifiedSince) {
+        // If-None-Match tiene prioridad: si viene, If-Modified-Since se ignora
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            return matchesAny(ifNoneMatch);
+        }
+        if (ifModifiedSince != null && !ifModifiedSince.isBlank() && lastModified != null) {
+            Instant since = parseHttpDate(ifModifiedSince);
+            // Las fechas HTTP tienen resolución de segundos
+            return since != null && lastModified.getEpochSecond() <= since.getEpochSecond();
+        }
+        return false;
+    }
+
+    private boolean matchesAny(String ifNoneMatch) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(ANY)) {
+                return true;
+            }
+            // Comparación débil, la que exige If-None-Match
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Instant parseHttpDate(String value) {
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        }
+        catch (DateTimeParseException ex) {
+            // Una fecha inválida se ignora, como indica RFC 9110
+            return null;
+        }
+    }
+}
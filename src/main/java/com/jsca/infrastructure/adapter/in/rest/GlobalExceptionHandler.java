@@ -1,14 +1,18 @@
 package com.jsca.infrastructure.adapter.in.rest;
 
 import com.jsca.infrastructure.adapter.in.rest.model.ErrorResponse;
+import com.jsca.infrastructure.adapter.in.rest.ratelimit.RateLimitExceededException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolationException;
 
 /**
  * Manejador global de excepciones según RFC 7807 (Problem Details).
@@ -87,6 +91,54 @@ public class GlobalExceptionHandler {
                 .body(error);
     }
 
+    /**
+     * Maneja parámetros que no cumplen las restricciones del contrato (mínimos,
+     * máximos...) o que no se pueden convertir a su tipo (enum, fecha...).
+     */
+    @ExceptionHandler({ConstraintViolationException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleInvalidParameter(
+            Exception ex,
+            HttpServletRequest request) {
+
+        String detail = ex instanceof MethodArgumentTypeMismatchException mismatch
+                ? mismatch.getName() + ": valor no válido '" + mismatch.getValue() + "'"
+                : ex.getMessage();
+
+        ErrorResponse error = new ErrorResponse();
+        error.setType("https://api.bank.example.com/problems/validation-error");
+        error.setTitle("Validation Failed");
+        error.setStatus(400);
+        error.setDetail(detail);
+        error.setInstance(request.getRequestURI());
+
+        return ResponseEntity
+                .badRequest()
+                .header("Content-Type", "application/problem+json")
+                .body(error);
+    }
+
+    /**
+     * Maneja las peticiones de un cliente que ha agotado su cuota (429 con Retry-After).
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(
+            RateLimitExceededException ex,
+            HttpServletRequest request) {
+
+        ErrorResponse error = new ErrorResponse();
+        error.setType("https://api.bank.example.com/problems/too-many-requests");
+        error.setTitle("Too Many Requests");
+        error.setStatus(429);
+        error.setDetail(ex.getMessage() + "; reintentar en " + ex.getRetryAfterSeconds() + " s");
+        error.setInstance(request.getRequestURI());
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Content-Type", "application/problem+json")
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     /**
      * Maneja todas las demás excepciones no capturadas (fallback).
      */
@@ -2,19 +2,30 @@ package com.jsca.infrastructure.adapter.in.rest;
 
 import com.jsca.application.mapper.PaymentOrderMapper;
 import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderPage;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
 import com.jsca.domain.port.in.GetPaymentOrderUseCase;
 import com.jsca.domain.port.in.GetPaymentStatusUseCase;
 import com.jsca.domain.port.in.InitiatePaymentUseCase;
+import com.jsca.domain.port.in.SearchPaymentOrdersUseCase;
 import com.jsca.infrastructure.adapter.in.rest.api.PaymentInitiationApi;
+import com.jsca.infrastructure.adapter.in.rest.cache.PaymentOrderDetailsCache;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResponse;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderSearchResponse;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderStatusResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentStatus;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+
 /**
  * Controlador REST que implementa la API de Payment Initiation.
  */
@@ -24,17 +35,26 @@ public class PaymentOrderController implements PaymentInitiationApi {
     private final InitiatePaymentUseCase initiatePaymentUseCase;
     private final GetPaymentOrderUseCase getPaymentOrderUseCase;
     private final GetPaymentStatusUseCase getPaymentStatusUseCase;
+    private final SearchPaymentOrdersUseCase searchPaymentOrdersUseCase;
     private final PaymentOrderMapper mapper;
+    private final PaymentOrderDetailsCache detailsCache;
+    private final BulkPaymentOrderProcessor bulkProcessor;
 
     public PaymentOrderController(
             InitiatePaymentUseCase initiatePaymentUseCase,
             GetPaymentOrderUseCase getPaymentOrderUseCase,
             GetPaymentStatusUseCase getPaymentStatusUseCase,
-            PaymentOrderMapper mapper) {
+            SearchPaymentOrdersUseCase searchPaymentOrdersUseCase,
+            PaymentOrderMapper mapper,
+            PaymentOrderDetailsCache detailsCache,
+            BulkPaymentOrderProcessor bulkProcessor) {
         this.initiatePaymentUseCase = initiatePaymentUseCase;
         this.getPaymentOrderUseCase = getPaymentOrderUseCase;
         this.getPaymentStatusUseCase = getPaymentStatusUseCase;
+        this.searchPaymentOrdersUseCase = searchPaymentOrdersUseCase;
         this.mapper = mapper;
+        this.detailsCache = detailsCache;
+        this.bulkProcessor = bulkProcessor;
     }
 
     @Override
@@ -46,27 +66,53 @@ public class PaymentOrderController implements PaymentInitiationApi {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Override
+    public ResponseEntity<BulkPaymentOrderResponse> submitBulkPaymentOrders(
+            BulkPaymentOrderRequest request) {
+        return ResponseEntity.ok(bulkProcessor.process(request));
+    }
+
     @Override
     public ResponseEntity<PaymentOrderDetailsResponse> getPaymentOrder(
-            String paymentOrderId) {
+            String paymentOrderId,
+            String ifNoneMatch,
+            String ifModifiedSince) {
         PaymentOrder paymentOrder = getPaymentOrderUseCase
                 .getPaymentOrder(paymentOrderId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Orden de pago no encontrada: " + paymentOrderId));
-        PaymentOrderDetailsResponse response = mapper.toDetailsResponse(paymentOrder);
-        return ResponseEntity.ok(response);
+        return ConditionalGet.of(paymentOrder)
+                .respond(ifNoneMatch, ifModifiedSince, () -> detailsCache.details(paymentOrder, mapper::toDetailsResponse));
     }
 
     @Override
     public ResponseEntity<PaymentOrderStatusResponse> getPaymentOrderStatus(
-            String paymentOrderId) {
+            String paymentOrderId,
+            String ifNoneMatch,
+            String ifModifiedSince) {
         PaymentOrder paymentOrder = getPaymentStatusUseCase
                 .getPaymentStatus(paymentOrderId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Orden de pago no encontrada: " + paymentOrderId));
-        PaymentOrderStatusResponse response = mapper.toStatusResponse(paymentOrder);
-        return ResponseEntity.ok(response);
+        return ConditionalGet.of(paymentOrder)
+                .respond(ifNoneMatch, ifModifiedSince, () -> mapper.toStatusResponse(paymentOrder));
+    }
+
+    @Override
+    public ResponseEntity<PaymentOrderSearchResponse> searchPaymentOrders(
+            String debtorIban,
+            String creditorIban,
+            PaymentStatus status,
+            LocalDate requestedExecutionDateFrom,
+            LocalDate requestedExecutionDateTo,
+            Integer limit,
+            String cursor) {
+        PaymentOrderSearchCriteria criteria = mapper.toSearchCriteria(
+                debtorIban, creditorIban, status, requestedExecutionDateFrom, requestedExecutionDateTo);
+        PaymentOrderCursor after = cursor == null || cursor.isBlank() ? null : mapper.toCursor(cursor);
+        PaymentOrderPage page = searchPaymentOrdersUseCase.searchPaymentOrders(criteria, after, limit);
+        return ResponseEntity.ok(mapper.toSearchResponse(page));
     }
 }
@@ -0,0 +1,252 @@
+package com.jsca.infrastructure.adapter.in.rest.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.domain.port.out.PaymentStatusChangePublisher;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
+import com.jsca.infrastructure.config.DetailsCacheProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché acotada del JSON del detalle de cada orden de pago.
+ *
+ * <p>Cada entrada guarda la {@code version} y la {@code lastUpdate} de la instantánea
+ * serializada: un acierto exige que ambas coincidan con las de la orden leída del
+ * repositorio (dos cambios en el mismo instante tienen distinta versión), así que ninguna
+ * escritura (alta, cambio de estado, replay del journal) puede servir un JSON obsoleto.
+ * Además los cambios de estado publicados por el motor de ejecución borran la entrada
+ * en cuanto se producen. Cada segmento es un LRU con su parte del tamaño máximo.
+ */
+@Slf4j
+@Component
+public class PaymentOrderDetailsCache implements PaymentStatusChangePublisher, MeterBinder {
+
+    static final String CACHE_NAME = "paymentOrderDetails";
+
+    /**
+     * Coste aproximado de la entrada, el nodo del mapa y la clave, además del JSON.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final ObjectMapper objectMapper;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PaymentOrderDetailsCache(ObjectMapper objectMapper, DetailsCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        int segmentCount = Math.max(1, properties.getSegments());
+        long segmentBytes = properties.getMaxSize().toBytes() / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentBytes);
+        }
+    }
+
+    /**
+     * Devuelve el detalle de la orden ya serializado, desde la caché si está la
+     * versión vigente o mapeándolo y serializándolo una vez en caso contrario.
+     */
+    public PaymentOrderDetailsResponse details(PaymentOrder paymentOrder,
+                                               Function<PaymentOrder, PaymentOrderDetailsResponse> mapping) {
+        if (paymentOrder.getLastUpdate() == null) {
+            return mapping.apply(paymentOrder);
+        }
+        String paymentOrderId = paymentOrder.getPaymentOrderId();
+        long version = paymentOrder.getVersion();
+        Instant lastUpdate = paymentOrder.getLastUpdate().toInstant();
+        Segment segment = segmentFor(paymentOrderId);
+        Entry cached = segment.get(paymentOrderId, version, lastUpdate);
+        if (cached != null) {
+            hits.increment();
+            return new SerializedPaymentOrderDetails(cached.json());
+        }
+        misses.increment();
+
+        PaymentOrderDetailsResponse response = mapping.apply(paymentOrder);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        }
+        catch (JsonProcessingException ex) {
+            log.warn("No se pudo serializar el detalle de {}; se responde sin caché", paymentOrderId, ex);
+            return response;
+        }
+        if (segment.put(paymentOrderId, new Entry(version, lastUpdate, json))) {
+            puts.increment();
+        }
+        return new SerializedPaymentOrderDetails(json);
+    }
+
+    /**
+     * Borra una entrada; la siguiente lectura volverá a serializar la orden.
+     */
+    public void invalidate(String paymentOrderId) {
+        segmentFor(paymentOrderId).remove(paymentOrderId);
+    }
+
+    @Override
+    public void publish(List<PaymentStatusChange> changes) {
+        for (PaymentStatusChange change : changes) {
+            invalidate(change.paymentOrderId());
+        }
+    }
+
+    /**
+     * Número de entradas cacheadas.
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Bytes contabilizados por las entradas cacheadas.
+     */
+    public long sizeBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.bytes();
+        }
+        return bytes;
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Publica las métricas con los nombres estándar de Micrometer para cachés
+     * ({@code cache.gets}, {@code cache.puts}, {@code cache.evictions}, {@code cache.size})
+     * más la ratio de aciertos y los bytes ocupados.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Lecturas servidas desde la caché")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Lecturas que tuvieron que serializar la orden")
+                .register(registry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .description("Entradas expulsadas por tamaño")
+                .register(registry);
+        Gauge.builder("cache.size", this, PaymentOrderDetailsCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+        Gauge.builder("cache.size.bytes", this, PaymentOrderDetailsCache::sizeBytes)
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", this, PaymentOrderDetailsCache::hitRatio)
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+    }
+
+    double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private Segment segmentFor(String paymentOrderId) {
+        int hash = paymentOrderId.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    private record Entry(long version, Instant lastUpdate, byte[] json) {
+
+        long weight(String paymentOrderId) {
+            return ENTRY_OVERHEAD + 2L * paymentOrderId.length() + json.length;
+        }
+    }
+
+    /**
+     * LRU por orden de acceso con presupuesto de bytes; protegido por su propio monitor.
+     */
+    private final class Segment {
+
+        private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private final long maxBytes;
+        private long bytes;
+
+        Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized Entry get(String paymentOrderId, long version, Instant lastUpdate) {
+            Entry entry = entries.get(paymentOrderId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.version() != version || !entry.lastUpdate().equals(lastUpdate)) {
+                // Versión anterior: la orden cambió desde que se serializó
+                entries.remove(paymentOrderId);
+                bytes -= entry.weight(paymentOrderId);
+                return null;
+            }
+            return entry;
+        }
+
+        synchronized boolean put(String paymentOrderId, Entry entry) {
+            long weight = entry.weight(paymentOrderId);
+            if (weight > maxBytes) {
+                return false;
+            }
+            Entry previous = entries.put(paymentOrderId, entry);
+            if (previous != null) {
+                bytes -= previous.weight(paymentOrderId);
+            }
+            bytes += weight;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                bytes -= evicted.getValue().weight(evicted.getKey());
+                eldest.remove();
+                evictions.increment();
+            }
+            return true;
+        }
+
+        synchronized void remove(String paymentOrderId) {
+            Entry removed = entries.remove(paymentOrderId);
+            if (removed != null) {
+                bytes -= removed.weight(paymentOrderId);
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+}
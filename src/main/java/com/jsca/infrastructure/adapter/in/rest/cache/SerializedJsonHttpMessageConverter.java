@@ -0,0 +1,49 @@
+package com.jsca.infrastructure.adapter.in.rest.cache;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Escribe las respuestas ya serializadas copiando sus bytes a la salida.
+ * Spring Boot registra los converters declarados como bean por delante de Jackson.
+ */
+@Component
+public class SerializedJsonHttpMessageConverter extends AbstractHttpMessageConverter<SerializedPaymentOrderDetails> {
+
+    public SerializedJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SerializedPaymentOrderDetails.class.equals(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SerializedPaymentOrderDetails readInternal(Class<? extends SerializedPaymentOrderDetails> clazz,
+                                                         HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Solo escritura", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(SerializedPaymentOrderDetails details, MediaType contentType) {
+        return (long) details.length();
+    }
+
+    @Override
+    protected void writeInternal(SerializedPaymentOrderDetails details, HttpOutputMessage outputMessage)
+            throws IOException {
+        details.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,29 @@
+package com.jsca.infrastructure.adapter.in.rest.cache;
+
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Detalle de una orden ya serializado a JSON.
+ *
+ * <p>Extiende el DTO generado para poder devolverse desde la interfaz de la API;
+ * {@link SerializedJsonHttpMessageConverter} escribe los bytes tal cual, sin Jackson.
+ */
+public final class SerializedPaymentOrderDetails extends PaymentOrderDetailsResponse {
+
+    private final transient byte[] json;
+
+    SerializedPaymentOrderDetails(byte[] json) {
+        this.json = json;
+    }
+
+    public int length() {
+        return json.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(json);
+    }
+}
@@ -0,0 +1,111 @@
+package com.jsca.infrastructure.adapter.in.rest.export;
+
+import com.jsca.domain.model.PaymentOrder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * CSV RFC 4180 con cabecera y las mismas columnas que la exportación NDJSON. Los campos
+ * con comas, comillas o saltos de línea van entre comillas; los nulos, vacíos.
+ */
+final class CsvPaymentOrderExportWriter implements PaymentOrderExportWriter {
+
+    static final String HEADER = "paymentOrderId,externalId,debtorIban,creditorIban,amount,currency,"
+            + "remittanceInfo,requestedExecutionDate,status,createdAt,lastUpdate";
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final Writer writer;
+    private final IsoText iso = new IsoText();
+
+    CsvPaymentOrderExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(PaymentOrder paymentOrder) throws IOException {
+        field(paymentOrder.getPaymentOrderId());
+        writer.write(',');
+        field(paymentOrder.getExternalId());
+        writer.write(',');
+        field(paymentOrder.getDebtorIban());
+        writer.write(',');
+        field(paymentOrder.getCreditorIban());
+        writer.write(',');
+        field(paymentOrder.getAmount());
+        writer.write(',');
+        field(paymentOrder.getCurrency());
+        writer.write(',');
+        field(paymentOrder.getRemittanceInfo());
+        writer.write(',');
+        date(paymentOrder.getRequestedExecutionDate());
+        writer.write(',');
+        field(paymentOrder.getStatus());
+        writer.write(',');
+        dateTime(paymentOrder.getCreatedAt());
+        writer.write(',');
+        dateTime(paymentOrder.getLastUpdate());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Las fechas nunca llevan caracteres que obliguen a entrecomillar.
+     */
+    private void date(LocalDate date) throws IOException {
+        if (date != null) {
+            iso.date(date);
+            writer.write(iso.buffer(), 0, iso.length());
+        }
+    }
+
+    private void dateTime(OffsetDateTime dateTime) throws IOException {
+        if (dateTime != null) {
+            iso.dateTime(dateTime);
+            writer.write(iso.buffer(), 0, iso.length());
+        }
+    }
+
+    private void field(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (!needsQuotes(text)) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package com.jsca.infrastructure.adapter.in.rest.export;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Fechas en ISO 8601 sobre un buffer reutilizable, con el mismo texto que
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE} y {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME}
+ * (el que escribe Jackson en el resto de la API) pero sin crear objetos por fecha: en una
+ * exportación el {@code toString()} de las fechas era la mayor parte de la memoria asignada.
+ *
+ * <p>No es thread-safe: cada exportación usa el suyo.
+ */
+final class IsoText {
+
+    private static final int MAX_FAST_YEAR = 9999;
+
+    private final char[] buffer = new char[64];
+    private int length;
+
+    char[] buffer() {
+        return buffer;
+    }
+
+    int length() {
+        return length;
+    }
+
+    IsoText date(LocalDate date) {
+        length = 0;
+        if (date.getYear() < 0 || date.getYear() > MAX_FAST_YEAR) {
+            return text(DateTimeFormatter.ISO_LOCAL_DATE.format(date));
+        }
+        appendDate(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        return this;
+    }
+
+    IsoText dateTime(OffsetDateTime dateTime) {
+        length = 0;
+        if (dateTime.getYear() < 0 || dateTime.getYear() > MAX_FAST_YEAR) {
+            return text(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime));
+        }
+        appendDate(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+        buffer[length++] = 'T';
+        appendTwoDigits(dateTime.getHour());
+        buffer[length++] = ':';
+        appendTwoDigits(dateTime.getMinute());
+        buffer[length++] = ':';
+        appendTwoDigits(dateTime.getSecond());
+        appendFraction(dateTime.getNano());
+        // "Z" o "+HH:MM": ZoneOffset guarda su ID, no se construye al pedirlo
+        String offset = dateTime.getOffset().getId();
+        offset.getChars(0, offset.length(), buffer, length);
+        length += offset.length();
+        return this;
+    }
+
+    private IsoText text(String text) {
+        text.getChars(0, text.length(), buffer, 0);
+        length = text.length();
+        return this;
+    }
+
+    private void appendDate(int year, int month, int day) {
+        appendTwoDigits(year / 100);
+        appendTwoDigits(year % 100);
+        buffer[length++] = '-';
+        appendTwoDigits(month);
+        buffer[length++] = '-';
+        appendTwoDigits(day);
+    }
+
+    /**
+     * Nanosegundos sin los ceros finales y sin la parte decimal si son cero.
+     */
+    private void appendFraction(int nano) {
+        if (nano == 0) {
+            return;
+        }
+        buffer[length++] = '.';
+        int divisor = 100_000_000;
+        int remaining = nano;
+        while (remaining > 0) {
+            buffer[length++] = (char) ('0' + remaining / divisor);
+            remaining %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    private void appendTwoDigits(int value) {
+        buffer[length++] = (char) ('0' + value / 10);
+        buffer[length++] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,73 @@
+package com.jsca.infrastructure.adapter.in.rest.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.jsca.domain.model.PaymentOrder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Una orden por línea con los campos de {@code PaymentOrderDetailsResponse}, escrita con
+ * el generador de Jackson campo a campo en lugar de pasar por el DTO.
+ */
+final class NdjsonPaymentOrderExportWriter implements PaymentOrderExportWriter {
+
+    private final JsonGenerator generator;
+    private final IsoText iso = new IsoText();
+
+    NdjsonPaymentOrderExportWriter(OutputStream out, JsonFactory factory) throws IOException {
+        this.generator = factory.createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void write(PaymentOrder paymentOrder) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("paymentOrderId", paymentOrder.getPaymentOrderId());
+        generator.writeStringField("externalId", paymentOrder.getExternalId());
+        generator.writeStringField("debtorIban", paymentOrder.getDebtorIban());
+        generator.writeStringField("creditorIban", paymentOrder.getCreditorIban());
+        generator.writeStringField("amount", text(paymentOrder.getAmount()));
+        generator.writeStringField("currency", paymentOrder.getCurrency());
+        generator.writeStringField("remittanceInfo", paymentOrder.getRemittanceInfo());
+        dateField("requestedExecutionDate", paymentOrder.getRequestedExecutionDate());
+        generator.writeStringField("status", text(paymentOrder.getStatus()));
+        dateTimeField("createdAt", paymentOrder.getCreatedAt());
+        dateTimeField("lastUpdate", paymentOrder.getLastUpdate());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+
+    private void dateField(String name, LocalDate date) throws IOException {
+        generator.writeFieldName(name);
+        if (date == null) {
+            generator.writeNull();
+            return;
+        }
+        iso.date(date);
+        generator.writeString(iso.buffer(), 0, iso.length());
+    }
+
+    private void dateTimeField(String name, OffsetDateTime dateTime) throws IOException {
+        generator.writeFieldName(name);
+        if (dateTime == null) {
+            generator.writeNull();
+            return;
+        }
+        iso.dateTime(dateTime);
+        generator.writeString(iso.buffer(), 0, iso.length());
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
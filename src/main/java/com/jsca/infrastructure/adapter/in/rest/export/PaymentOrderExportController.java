@@ -0,0 +1,76 @@
+package com.jsca.infrastructure.adapter.in.rest.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.port.in.ExportPaymentOrdersUseCase;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+/**
+ * Exportación de órdenes de pago en NDJSON o CSV, con los mismos filtros de estado y
+ * fecha de ejecución que la búsqueda.
+ *
+ * <p>Cada orden se escribe en la respuesta según se recorre el repositorio, sin construir
+ * la lista: la respuesta va en chunks y la memoria no depende del número de órdenes. Queda
+ * fuera de la interfaz generada desde OpenAPI por ese motivo; el formato de cada orden son
+ * los campos del esquema {@code PaymentOrderDetailsResponse}.
+ */
+@RestController
+public class PaymentOrderExportController {
+
+    private final ExportPaymentOrdersUseCase exportPaymentOrdersUseCase;
+    private final PaymentOrderMapper mapper;
+    private final ObjectMapper objectMapper;
+
+    public PaymentOrderExportController(ExportPaymentOrdersUseCase exportPaymentOrdersUseCase,
+                                        PaymentOrderMapper mapper, ObjectMapper objectMapper) {
+        this.exportPaymentOrdersUseCase = exportPaymentOrdersUseCase;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/payment-initiation/payment-orders/export")
+    public void exportPaymentOrders(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate requestedExecutionDateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate requestedExecutionDateTo,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        PaymentOrderExportFormat exportFormat = PaymentOrderExportFormat.of(format);
+        PaymentOrderSearchCriteria criteria = mapper.toSearchCriteria(
+                null, null, status, requestedExecutionDateFrom, requestedExecutionDateTo);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + exportFormat.fileName() + "\"");
+        PaymentOrderExportWriter writer = exportFormat.open(response.getOutputStream(), objectMapper.getFactory());
+        try {
+            exportPaymentOrdersUseCase.exportPaymentOrders(criteria, paymentOrder -> {
+                try {
+                    writer.write(paymentOrder);
+                }
+                catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        catch (UncheckedIOException ex) {
+            // Normalmente el cliente ha cerrado la conexión: se corta el recorrido
+            throw ex.getCause();
+        }
+        writer.finish();
+    }
+}
@@ -0,0 +1,48 @@
+package com.jsca.infrastructure.adapter.in.rest.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Formatos de exportación, elegidos con el parámetro {@code format}.
+ */
+enum PaymentOrderExportFormat {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv;charset=UTF-8");
+
+    private final String contentType;
+
+    PaymentOrderExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    String contentType() {
+        return contentType;
+    }
+
+    String fileName() {
+        return "payment-orders." + name().toLowerCase(Locale.ROOT);
+    }
+
+    PaymentOrderExportWriter open(OutputStream out, JsonFactory jsonFactory) throws IOException {
+        return this == CSV
+                ? new CsvPaymentOrderExportWriter(out)
+                : new NdjsonPaymentOrderExportWriter(out, jsonFactory);
+    }
+
+    /**
+     * @throws IllegalArgumentException si el formato no existe
+     */
+    static PaymentOrderExportFormat of(String format) {
+        for (PaymentOrderExportFormat candidate : values()) {
+            if (candidate.name().equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportación no soportado: " + format + " (ndjson o csv)");
+    }
+}
@@ -0,0 +1,18 @@
+package com.jsca.infrastructure.adapter.in.rest.export;
+
+import com.jsca.domain.model.PaymentOrder;
+
+import java.io.IOException;
+
+/**
+ * Escribe órdenes de una exportación directamente en la salida, sin guardarlas.
+ */
+interface PaymentOrderExportWriter {
+
+    void write(PaymentOrder paymentOrder) throws IOException;
+
+    /**
+     * Vacía lo que quede en el buffer; no cierra la salida.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,109 @@
+package com.jsca.infrastructure.adapter.in.rest.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Lee un cuerpo NDJSON línea a línea con dos buffers fijos: uno de lectura y otro con
+ * la línea actual. Una línea más larga que {@code maxLineBytes} se descarta entera y
+ * queda marcada con {@link #isTooLong()}, así que la memoria no depende del cuerpo.
+ */
+final class NdjsonLineReader {
+
+    private static final int READ_BUFFER_BYTES = 8192;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[READ_BUFFER_BYTES];
+    private final byte[] line;
+    private int position;
+    private int limit;
+    private int length;
+    private boolean tooLong;
+    private boolean endOfStream;
+
+    NdjsonLineReader(InputStream in, int maxLineBytes) {
+        this.in = in;
+        this.line = new byte[maxLineBytes];
+    }
+
+    /**
+     * Avanza a la siguiente línea; la última puede no terminar en salto de línea.
+     *
+     * @return {@code false} al llegar al final del cuerpo
+     */
+    boolean next() throws IOException {
+        length = 0;
+        tooLong = false;
+        boolean read = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                return read;
+            }
+            read = true;
+            int end = position;
+            while (end < limit && buffer[end] != '\n') {
+                end++;
+            }
+            append(position, end - position);
+            if (end < limit) {
+                position = end + 1;
+                if (length > 0 && line[length - 1] == '\r') {
+                    length--;
+                }
+                return true;
+            }
+            position = limit;
+        }
+    }
+
+    /**
+     * {@code true} si la siguiente lectura tendría que esperar a que el cliente envíe más datos.
+     */
+    boolean wouldBlock() throws IOException {
+        return position == limit && !endOfStream && in.available() == 0;
+    }
+
+    byte[] bytes() {
+        return line;
+    }
+
+    int length() {
+        return length;
+    }
+
+    boolean isTooLong() {
+        return tooLong;
+    }
+
+    boolean isBlank() {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(line[i])) {
+                return false;
+            }
+        }
+        return !tooLong;
+    }
+
+    private void append(int from, int count) {
+        if (tooLong || length + count > line.length) {
+            tooLong = true;
+            return;
+        }
+        System.arraycopy(buffer, from, line, length, count);
+        length += count;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        int read = in.read(buffer);
+        if (read < 0) {
+            endOfStream = true;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
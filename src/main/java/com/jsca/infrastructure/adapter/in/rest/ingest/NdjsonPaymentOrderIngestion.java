@@ -0,0 +1,200 @@
+package com.jsca.infrastructure.adapter.in.rest.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentInitiationResult;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderValidationException;
+import com.jsca.domain.port.in.InitiatePaymentUseCase;
+import com.jsca.infrastructure.adapter.in.rest.BulkPaymentOrderItemValidator;
+import com.jsca.infrastructure.adapter.in.rest.BulkPaymentOrderItemValidator.ItemValidation;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResult;
+import com.jsca.infrastructure.adapter.in.rest.partition.PartitionForwarder;
+import com.jsca.infrastructure.adapter.in.rest.ratelimit.PaymentOrderAdmission;
+import com.jsca.infrastructure.adapter.in.rest.ratelimit.RateLimitExceededException;
+import com.jsca.infrastructure.config.IngestionProperties;
+import com.jsca.infrastructure.partition.PaymentOrderPartitioner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Inicia las órdenes de un cuerpo NDJSON una línea cada vez y escribe el resultado de
+ * cada línea como otra línea NDJSON mientras el cliente sigue enviando el fichero.
+ *
+ * <p>La memoria no depende del tamaño del fichero: solo se guarda la línea actual y, en
+ * un despliegue particionado, como mucho {@code payment.ingestion.max-in-flight} líneas
+ * reenviadas a su instancia propietaria. La lectura es bloqueante, así que si el
+ * servicio va más lento que el cliente el buffer TCP se llena y el cliente espera; lo
+ * mismo ocurre si el cliente no lee las respuestas.
+ *
+ * <p>Los resultados salen en el orden de las líneas y su {@code index} es el número de
+ * línea (base 0). Las líneas en blanco se ignoran.
+ *
+ * <p>Con cuotas por cliente, cada línea que se atiende aquí consume un token antes de
+ * validarse, igual que una orden suelta; sin cuota, la línea sale {@code REJECTED} y el
+ * fichero sigue. Las líneas reenviadas las cuenta su instancia propietaria.
+ */
+@Slf4j
+@Component
+public final class NdjsonPaymentOrderIngestion {
+
+    private final InitiatePaymentUseCase initiatePaymentUseCase;
+    private final BulkPaymentOrderItemValidator itemValidator;
+    private final PaymentOrderMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final PaymentOrderPartitioner partitioner;
+    private final PartitionForwarder forwarder;
+    private final PaymentOrderAdmission admission;
+    private final int maxLineBytes;
+    private final int maxInFlight;
+
+    public NdjsonPaymentOrderIngestion(
+            InitiatePaymentUseCase initiatePaymentUseCase,
+            BulkPaymentOrderItemValidator itemValidator,
+            PaymentOrderMapper mapper,
+            ObjectMapper objectMapper,
+            ObjectProvider<PartitionForwarder> forwarder,
+            ObjectProvider<PaymentOrderAdmission> admission,
+            IngestionProperties properties) {
+        this.initiatePaymentUseCase = initiatePaymentUseCase;
+        this.itemValidator = itemValidator;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.forwarder = forwarder.getIfAvailable();
+        this.partitioner = this.forwarder == null ? null : this.forwarder.getPartitioner();
+        this.admission = admission.getIfAvailable();
+        this.maxLineBytes = properties.getMaxLineBytes();
+        this.maxInFlight = properties.getMaxInFlight();
+    }
+
+    public void ingest(HttpServletRequest request, InputStream body, OutputStream out) throws IOException {
+        NdjsonLineReader reader = new NdjsonLineReader(body, maxLineBytes);
+        Deque<CompletableFuture<BulkPaymentOrderResult>> pending = new ArrayDeque<>();
+        int index = -1;
+        while (true) {
+            // Antes de esperar al cliente se le envía todo lo que ya está resuelto
+            if (reader.wouldBlock()) {
+                write(pending, 0, out);
+                out.flush();
+            }
+            if (!reader.next()) {
+                break;
+            }
+            index++;
+            if (!reader.isBlank()) {
+                pending.add(process(index, reader, request));
+                write(pending, maxInFlight, out);
+            }
+        }
+        write(pending, 0, out);
+        out.flush();
+    }
+
+    /**
+     * Escribe los resultados ya resueltos en orden y espera a los primeros mientras
+     * haya más de {@code keep} pendientes.
+     */
+    private void write(Deque<CompletableFuture<BulkPaymentOrderResult>> pending, int keep, OutputStream out)
+            throws IOException {
+        while (!pending.isEmpty() && (pending.size() > keep || pending.peek().isDone())) {
+            out.write(objectMapper.writeValueAsBytes(pending.poll().join()));
+            out.write('\n');
+        }
+    }
+
+    private CompletableFuture<BulkPaymentOrderResult> process(int index, NdjsonLineReader reader,
+                                                              HttpServletRequest request) {
+        if (reader.isTooLong()) {
+            return rejected(index, "La línea supera el máximo de " + maxLineBytes + " bytes");
+        }
+        BulkPaymentOrderItem item;
+        try {
+            item = objectMapper.readValue(reader.bytes(), 0, reader.length(), BulkPaymentOrderItem.class);
+        }
+        catch (IOException ex) {
+            return rejected(index, "La línea no es un objeto JSON válido");
+        }
+        if (item == null) {
+            return rejected(index, "La línea no es un objeto JSON válido");
+        }
+        if (partitioner != null && item.getExternalId() != null) {
+            String owner = partitioner.ownerOfExternalId(item.getExternalId());
+            if (!partitioner.isSelf(owner)) {
+                return forward(owner, index, Arrays.copyOf(reader.bytes(), reader.length()), request);
+            }
+        }
+        if (admission != null) {
+            long waitMicros = admission.tryAdmit(request.getHeader(admission.getClientKeyHeader()),
+                    item.getDebtorIban(), 1);
+            if (waitMicros > 0) {
+                return rejected(index, "Cuota de peticiones agotada para el cliente; reintentar en "
+                        + RateLimitExceededException.retryAfterSeconds(waitMicros) + " s");
+            }
+        }
+        ItemValidation validation = itemValidator.validate(item);
+        PaymentInitiationResult result = validation.paymentOrder() == null
+                ? PaymentInitiationResult.rejected(validation.errorDetail())
+                : initiate(validation.paymentOrder());
+        return CompletableFuture.completedFuture(mapper.toBulkResult(index, result));
+    }
+
+    private PaymentInitiationResult initiate(PaymentOrder paymentOrder) {
+        try {
+            return initiatePaymentUseCase.initiate(paymentOrder);
+        }
+        catch (PaymentOrderValidationException ex) {
+            return PaymentInitiationResult.rejected(ex.getMessage(), ex.getReason());
+        }
+        catch (IllegalArgumentException ex) {
+            return PaymentInitiationResult.rejected(ex.getMessage());
+        }
+    }
+
+    /**
+     * Envía la línea como un cuerpo NDJSON de una sola línea a la instancia propietaria de
+     * su externalId. La respuesta ya ha empezado, así que si no responde el fallo se
+     * devuelve como resultado de la línea en lugar de un 503.
+     */
+    private CompletableFuture<BulkPaymentOrderResult> forward(String owner, int index, byte[] line,
+                                                              HttpServletRequest request) {
+        return forwarder.send(owner, request, request.getRequestURI(), line)
+                .thenApply(response -> forwardedResult(owner, index, response))
+                .exceptionally(ex -> {
+                    log.warn("La instancia {} no respondió a la línea {} de una ingesta NDJSON", owner, index, ex);
+                    return mapper.toBulkResult(index, PaymentInitiationResult.rejected(
+                            "La instancia " + owner + " propietaria de la orden no está disponible"));
+                });
+    }
+
+    private BulkPaymentOrderResult forwardedResult(String owner, int index, HttpResponse<byte[]> response) {
+        if (response.statusCode() != HttpStatus.OK.value()) {
+            return mapper.toBulkResult(index, PaymentInitiationResult.rejected(
+                    "La instancia " + owner + " respondió " + response.statusCode()));
+        }
+        try {
+            BulkPaymentOrderResult result = objectMapper.readValue(response.body(), BulkPaymentOrderResult.class);
+            result.setIndex(index);
+            return result;
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Respuesta NDJSON inválida de la instancia " + owner, ex);
+        }
+    }
+
+    private CompletableFuture<BulkPaymentOrderResult> rejected(int index, String detail) {
+        return CompletableFuture.completedFuture(mapper.toBulkResult(index, PaymentInitiationResult.rejected(detail)));
+    }
+}
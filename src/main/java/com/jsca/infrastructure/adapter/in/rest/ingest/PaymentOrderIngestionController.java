@@ -0,0 +1,38 @@
+package com.jsca.infrastructure.adapter.in.rest.ingest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Lote de órdenes en NDJSON ({@code application/x-ndjson}): una orden por línea y un
+ * resultado por línea en la respuesta, escritos según se procesan.
+ *
+ * <p>Comparte ruta con el lote JSON, que se elige por {@code Content-Type}. Queda fuera
+ * de la interfaz generada desde OpenAPI porque el cuerpo se lee y se escribe en
+ * streaming; el formato de cada línea son los esquemas {@code BulkPaymentOrderItem} y
+ * {@code BulkPaymentOrderResult} del contrato.
+ */
+@RestController
+public class PaymentOrderIngestionController {
+
+    private final NdjsonPaymentOrderIngestion ingestion;
+
+    public PaymentOrderIngestionController(NdjsonPaymentOrderIngestion ingestion) {
+        this.ingestion = ingestion;
+    }
+
+    @PostMapping(path = "/payment-initiation/payment-orders/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void ingestPaymentOrders(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ingestion.ingest(request, request.getInputStream(), response.getOutputStream());
+    }
+}
@@ -0,0 +1,126 @@
+package com.jsca.infrastructure.adapter.in.rest.partition;
+
+import com.jsca.infrastructure.config.PartitionProperties;
+import com.jsca.infrastructure.partition.PaymentOrderPartitioner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reenvía peticiones HTTP a otra instancia del despliegue particionado.
+ *
+ * <p>Las peticiones reenviadas llevan {@link #FORWARDED_HEADER}: la instancia que las
+ * recibe las atiende siempre en local, así que una petición nunca da más de un salto
+ * aunque dos instancias tuvieran configuraciones distintas.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.partition", name = "enabled", havingValue = "true")
+public class PartitionForwarder {
+
+    public static final String FORWARDED_HEADER = "X-Payment-Partition-Forwarded";
+
+    /**
+     * Cabeceras de conexión que no se copian; el cliente HTTP del JDK rechaza algunas.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "keep-alive", "te", "trailer",
+            "transfer-encoding", "upgrade", "http2-settings");
+
+    private final PaymentOrderPartitioner partitioner;
+    private final HttpClient client;
+    private final Duration timeout;
+
+    public PartitionForwarder(PaymentOrderPartitioner partitioner, PartitionProperties properties) {
+        this.partitioner = partitioner;
+        this.timeout = properties.getForwardTimeout();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public PaymentOrderPartitioner getPartitioner() {
+        return partitioner;
+    }
+
+    /**
+     * Envía a {@code node} la petición recibida con el cuerpo indicado, que puede ser
+     * distinto del original (p. ej. la parte de un lote que le corresponde).
+     *
+     * @param pathAndQuery ruta y query string de la petición reenviada
+     * @param body cuerpo de la petición; {@code null} si no tiene
+     */
+    public CompletableFuture<HttpResponse<byte[]>> send(String node, HttpServletRequest request,
+                                                         String pathAndQuery, byte[] body) {
+        return client.sendAsync(forwarded(node, request, pathAndQuery, body), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Envía a {@code node} la petición recibida, sin cuerpo, y devuelve la respuesta en
+     * cuanto llegan las cabeceras, con el cuerpo por leer. El llamante debe cerrarlo.
+     *
+     * @param pathAndQuery ruta y query string de la petición reenviada
+     */
+    public HttpResponse<InputStream> stream(String node, HttpServletRequest request, String pathAndQuery)
+            throws IOException {
+        try {
+            return client.send(forwarded(node, request, pathAndQuery, null), HttpResponse.BodyHandlers.ofInputStream());
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reenvío a " + node + " interrumpido");
+        }
+    }
+
+    private HttpRequest forwarded(String node, HttpServletRequest request, String pathAndQuery, byte[] body) {
+        HttpRequest.Builder forwarded = HttpRequest.newBuilder(URI.create(partitioner.urlOf(node) + pathAndQuery))
+                .timeout(timeout)
+                .method(request.getMethod(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    forwarded.header(name, value);
+                }
+            }
+        }
+        forwarded.header(FORWARDED_HEADER, partitioner.self());
+        return forwarded.build();
+    }
+
+    /**
+     * Copia estado, cabeceras y cuerpo de la respuesta de la instancia propietaria.
+     */
+    public static void copy(HttpResponse<byte[]> from, HttpServletResponse to) throws IOException {
+        copyHeaders(from, to);
+        to.setContentLength(from.body().length);
+        to.getOutputStream().write(from.body());
+    }
+
+    /**
+     * Copia estado y cabeceras de la respuesta de otra instancia, sin el cuerpo.
+     */
+    public static void copyHeaders(HttpResponse<?> from, HttpServletResponse to) {
+        to.setStatus(from.statusCode());
+        from.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> to.addHeader(name, value));
+            }
+        });
+    }
+}
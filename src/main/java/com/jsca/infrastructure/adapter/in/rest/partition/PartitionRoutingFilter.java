@@ -0,0 +1,443 @@
+package com.jsca.infrastructure.adapter.in.rest.partition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResult;
+import com.jsca.infrastructure.adapter.in.rest.model.ErrorResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderSearchResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderTotalsResponse;
+import com.jsca.infrastructure.partition.PaymentOrderPartitioner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Envía cada petición de órdenes de pago a la instancia propietaria de sus datos
+ * ({@code payment.partition.enabled=true}).
+ *
+ * <ul>
+ *   <li>Alta: por el externalId del cuerpo, la clave de idempotencia.</li>
+ *   <li>Detalle y estado: por el slot que lleva el ID de la orden.</li>
+ *   <li>Lote: se divide por propietario, cada parte se procesa en su instancia y los
+ *       resultados se devuelven en el orden original. El lote NDJSON no pasa por aquí:
+ *       se lee en streaming y cada línea se reenvía a su instancia al procesarla.</li>
+ *   <li>Búsqueda: se pide la página a todas las instancias y se mezclan por fecha de
+ *       ejecución e ID, el mismo orden que el cursor.</li>
+ *   <li>Totales de un deudor: se piden a todas las instancias y se suman por moneda y
+ *       estado.</li>
+ *   <li>Exportación: se escribe en la respuesta la exportación de cada instancia, una
+ *       tras otra y sin guardarlas; en CSV solo se deja la cabecera de la primera.</li>
+ *   <li>Stream SSE: redirección 307 a la instancia propietaria; las órdenes de una
+ *       suscripción deben pertenecer a la misma instancia.</li>
+ * </ul>
+ *
+ * <p>Las peticiones que ya vienen reenviadas se atienden en local.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payment.partition", name = "enabled", havingValue = "true")
+public class PartitionRoutingFilter extends OncePerRequestFilter {
+
+    static final String BASE_PATH = "/payment-initiation/payment-orders";
+
+    /**
+     * Límites del contrato OpenAPI; fuera de ellos la petición se valida en local.
+     */
+    private static final int MAX_BULK_ORDERS = 10_000;
+    private static final int DEFAULT_SEARCH_LIMIT = 50;
+    /**
+     * Rutas cuya respuesta se compone con las de todas las instancias.
+     */
+    private static final Set<String> GATHERED_PATHS = Set.of("/totals", "/export");
+    private static final Comparator<PaymentOrderDetailsResponse> SEARCH_ORDER = Comparator
+            .comparing(PaymentOrderDetailsResponse::getRequestedExecutionDate,
+                    Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PaymentOrderDetailsResponse::getPaymentOrderId);
+
+    private final PaymentOrderPartitioner partitioner;
+    private final PartitionForwarder forwarder;
+    private final ObjectMapper objectMapper;
+    private final PaymentOrderMapper mapper;
+
+    public PartitionRoutingFilter(PaymentOrderPartitioner partitioner, PartitionForwarder forwarder,
+                                  ObjectMapper objectMapper, PaymentOrderMapper mapper) {
+        this.partitioner = partitioner;
+        this.forwarder = forwarder;
+        this.objectMapper = objectMapper;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(PartitionForwarder.FORWARDED_HEADER) != null
+                || !request.getRequestURI().startsWith(BASE_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(BASE_PATH.length());
+        String method = request.getMethod();
+        if (path.isEmpty() && "POST".equals(method)) {
+            routeCreate(request, response, chain);
+        }
+        else if (path.isEmpty() && "GET".equals(method)) {
+            scatterSearch(request, response);
+        }
+        else if ("/bulk".equals(path) && "POST".equals(method) && !isNdjson(request)) {
+            routeBulk(request, response, chain);
+        }
+        else if (GATHERED_PATHS.contains(path) && "GET".equals(method)) {
+            gather(path, request, response);
+        }
+        else if ("/status-stream".equals(path) && "GET".equals(method)) {
+            routeStatusStream(request, response, chain);
+        }
+        else if ("GET".equals(method) && isPaymentOrderPath(path)) {
+            String paymentOrderId = path.substring(1).split("/", -1)[0];
+            route(partitioner.ownerOfPaymentOrderId(paymentOrderId), request, null, response, chain);
+        }
+        else {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private void routeCreate(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        String externalId = externalIdOf(body);
+        // Sin externalId legible la petición es inválida: se valida en local
+        String owner = externalId == null ? partitioner.self() : partitioner.ownerOfExternalId(externalId);
+        route(owner, new CachedBodyRequest(request, body), body, response, chain);
+    }
+
+    private void routeBulk(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        List<BulkPaymentOrderItem> orders = bulkOrdersOf(body);
+        Map<String, List<Integer>> indexesByOwner = new LinkedHashMap<>();
+        if (orders != null && !orders.isEmpty() && orders.size() <= MAX_BULK_ORDERS) {
+            for (int i = 0; i < orders.size(); i++) {
+                BulkPaymentOrderItem item = orders.get(i);
+                String owner = item == null || item.getExternalId() == null
+                        ? partitioner.self()
+                        : partitioner.ownerOfExternalId(item.getExternalId());
+                indexesByOwner.computeIfAbsent(owner, k -> new ArrayList<>()).add(i);
+            }
+        }
+        if (indexesByOwner.isEmpty() || indexesByOwner.size() == 1 && indexesByOwner.containsKey(partitioner.self())) {
+            chain.doFilter(new CachedBodyRequest(request, body), response);
+            return;
+        }
+
+        // Cada parte, también la propia, se envía como un lote a su instancia y en paralelo
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> parts = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : indexesByOwner.entrySet()) {
+            BulkPaymentOrderRequest part = new BulkPaymentOrderRequest();
+            part.setOrders(entry.getValue().stream().map(orders::get).toList());
+            parts.put(entry.getKey(), forwarder.send(entry.getKey(), request, pathAndQuery(request),
+                    objectMapper.writeValueAsBytes(part)));
+        }
+        BulkPaymentOrderResult[] results = new BulkPaymentOrderResult[orders.size()];
+        for (Map.Entry<String, CompletableFuture<HttpResponse<byte[]>>> entry : parts.entrySet()) {
+            HttpResponse<byte[]> partResponse = await(entry.getKey(), entry.getValue(), request, response);
+            if (partResponse == null) {
+                return;
+            }
+            if (partResponse.statusCode() != HttpStatus.OK.value()) {
+                PartitionForwarder.copy(partResponse, response);
+                return;
+            }
+            List<Integer> indexes = indexesByOwner.get(entry.getKey());
+            for (BulkPaymentOrderResult result : objectMapper.readValue(partResponse.body(),
+                    BulkPaymentOrderResponse.class).getResults()) {
+                int index = indexes.get(result.getIndex());
+                result.setIndex(index);
+                results[index] = result;
+            }
+        }
+        writeJson(response, mapper.toBulkResponse(Arrays.asList(results)));
+    }
+
+    private void scatterSearch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> pages = new LinkedHashMap<>();
+        for (String node : partitioner.nodes()) {
+            pages.put(node, forwarder.send(node, request, pathAndQuery(request), null));
+        }
+        List<PaymentOrderDetailsResponse> items = new ArrayList<>();
+        boolean more = false;
+        for (Map.Entry<String, CompletableFuture<HttpResponse<byte[]>>> entry : pages.entrySet()) {
+            HttpResponse<byte[]> page = await(entry.getKey(), entry.getValue(), request, response);
+            if (page == null) {
+                return;
+            }
+            // Un error de validación es el mismo en todas las instancias: se devuelve tal cual
+            if (page.statusCode() != HttpStatus.OK.value()) {
+                PartitionForwarder.copy(page, response);
+                return;
+            }
+            PaymentOrderSearchResponse partial = objectMapper.readValue(page.body(), PaymentOrderSearchResponse.class);
+            items.addAll(partial.getItems());
+            more |= partial.getNextCursor() != null;
+        }
+
+        // Cada instancia devuelve sus primeras "limit" órdenes tras el cursor, así que
+        // las primeras "limit" del conjunto están entre ellas
+        int limit = searchLimit(request);
+        items.sort(SEARCH_ORDER);
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            more = true;
+        }
+        PaymentOrderSearchResponse merged = new PaymentOrderSearchResponse();
+        merged.setItems(items);
+        if (more && !items.isEmpty()) {
+            PaymentOrderDetailsResponse last = items.get(items.size() - 1);
+            merged.setNextCursor(mapper.toCursorToken(
+                    new PaymentOrderCursor(last.getRequestedExecutionDate(), last.getPaymentOrderId())));
+        }
+        writeJson(response, merged);
+    }
+
+    private void gather(String path, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if ("/totals".equals(path)) {
+            sumTotals(request, response);
+        }
+        else {
+            concatenateExport(request, response);
+        }
+    }
+
+    /**
+     * Las órdenes de un deudor se reparten por externalId, así que cada instancia tiene
+     * una parte de sus totales.
+     */
+    private void sumTotals(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, CompletableFuture<HttpResponse<byte[]>>> parts = new LinkedHashMap<>();
+        for (String node : partitioner.nodes()) {
+            parts.put(node, forwarder.send(node, request, pathAndQuery(request), null));
+        }
+        Map<String, PaymentOrderTotals> byCurrency = new TreeMap<>();
+        PaymentOrderTotalsResponse first = null;
+        for (Map.Entry<String, CompletableFuture<HttpResponse<byte[]>>> entry : parts.entrySet()) {
+            HttpResponse<byte[]> part = await(entry.getKey(), entry.getValue(), request, response);
+            if (part == null) {
+                return;
+            }
+            // Un error de validación es el mismo en todas las instancias: se devuelve tal cual
+            if (part.statusCode() != HttpStatus.OK.value()) {
+                PartitionForwarder.copy(part, response);
+                return;
+            }
+            PaymentOrderTotalsResponse partial = objectMapper.readValue(part.body(), PaymentOrderTotalsResponse.class);
+            if (first == null) {
+                first = partial;
+            }
+            for (PaymentOrderTotals totals : mapper.toTotals(partial)) {
+                byCurrency.merge(totals.currency(), totals, PaymentOrderTotals::plus);
+            }
+        }
+        writeJson(response, mapper.toTotalsResponse(first.getDebtorIban(), first.getRequestedExecutionDate(),
+                new ArrayList<>(byCurrency.values())));
+    }
+
+    /**
+     * Si una instancia falla con parte de la respuesta ya enviada, solo queda cortar la
+     * conexión: el cliente ve la respuesta chunked incompleta en lugar de un fichero parcial
+     * que parezca correcto.
+     */
+    private void concatenateExport(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean first = true;
+        for (String node : partitioner.nodes()) {
+            HttpResponse<InputStream> part;
+            try {
+                part = forwarder.stream(node, request, pathAndQuery(request));
+            }
+            catch (IOException ex) {
+                if (!first) {
+                    throw ex;
+                }
+                log.warn("La instancia {} no respondió a {} {}", node, request.getMethod(), request.getRequestURI(), ex);
+                writeProblem(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                        "https://api.bank.example.com/problems/partition-unavailable", "Partition Unavailable",
+                        "La instancia " + node + " propietaria de los datos no está disponible");
+                return;
+            }
+            try (InputStream body = part.body()) {
+                if (first) {
+                    // Un error de validación es el mismo en todas las instancias: se devuelve tal cual
+                    PartitionForwarder.copyHeaders(part, response);
+                    if (part.statusCode() != HttpStatus.OK.value()) {
+                        body.transferTo(response.getOutputStream());
+                        return;
+                    }
+                }
+                else if (part.statusCode() != HttpStatus.OK.value()) {
+                    throw new IOException("La instancia " + node + " respondió " + part.statusCode() + " a la exportación");
+                }
+                else if (isCsv(part)) {
+                    skipLine(body);
+                }
+                body.transferTo(response.getOutputStream());
+            }
+            first = false;
+        }
+    }
+
+    private void routeStatusStream(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Set<String> owners = new LinkedHashSet<>();
+        String[] values = request.getParameterValues("paymentOrderIds");
+        for (String value : values == null ? new String[0] : values) {
+            for (String paymentOrderId : value.split(",")) {
+                if (!paymentOrderId.isBlank()) {
+                    owners.add(partitioner.ownerOfPaymentOrderId(paymentOrderId.trim()));
+                }
+            }
+        }
+        if (owners.isEmpty() || owners.size() == 1 && owners.contains(partitioner.self())) {
+            chain.doFilter(request, response);
+        }
+        else if (owners.size() == 1) {
+            // Un stream es una conexión larga: se redirige en lugar de mantener un proxy abierto
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader("Location", partitioner.urlOf(owners.iterator().next()) + pathAndQuery(request));
+        }
+        else {
+            writeProblem(request, response, HttpStatus.BAD_REQUEST,
+                    "https://api.bank.example.com/problems/validation-error", "Validation Failed",
+                    "Las órdenes de la suscripción pertenecen a varias instancias " + owners
+                            + "; abra una suscripción por instancia");
+        }
+    }
+
+    private void route(String owner, HttpServletRequest request, byte[] body, HttpServletResponse response,
+                       FilterChain chain) throws ServletException, IOException {
+        if (partitioner.isSelf(owner)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        HttpResponse<byte[]> forwarded = await(owner, forwarder.send(owner, request, pathAndQuery(request), body),
+                request, response);
+        if (forwarded != null) {
+            PartitionForwarder.copy(forwarded, response);
+        }
+    }
+
+    /**
+     * Espera la respuesta de una instancia; si no responde, contesta 503 y devuelve {@code null}.
+     */
+    private HttpResponse<byte[]> await(String node, CompletableFuture<HttpResponse<byte[]>> pending,
+                                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            return pending.join();
+        }
+        catch (CompletionException ex) {
+            log.warn("La instancia {} no respondió a {} {}", node, request.getMethod(), request.getRequestURI(),
+                    ex.getCause());
+            writeProblem(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "https://api.bank.example.com/problems/partition-unavailable", "Partition Unavailable",
+                    "La instancia " + node + " propietaria de los datos no está disponible");
+            return null;
+        }
+    }
+
+    private String externalIdOf(byte[] body) {
+        try {
+            JsonNode externalId = objectMapper.readTree(body).get("externalId");
+            return externalId != null && externalId.isTextual() ? externalId.asText() : null;
+        }
+        catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private List<BulkPaymentOrderItem> bulkOrdersOf(byte[] body) {
+        try {
+            return objectMapper.readValue(body, BulkPaymentOrderRequest.class).getOrders();
+        }
+        catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static int searchLimit(HttpServletRequest request) {
+        String limit = request.getParameter("limit");
+        return limit == null ? DEFAULT_SEARCH_LIMIT : Integer.parseInt(limit);
+    }
+
+    private static boolean isPaymentOrderPath(String path) {
+        String[] segments = path.substring(1).split("/", -1);
+        return path.startsWith("/") && !segments[0].isEmpty()
+                && (segments.length == 1 || segments.length == 2 && "status".equals(segments[1]));
+    }
+
+    private static boolean isNdjson(HttpServletRequest request) {
+        return request.getContentType() != null && request.getContentType().startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    private static boolean isCsv(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type").filter(type -> type.startsWith("text/csv")).isPresent();
+    }
+
+    private static void skipLine(InputStream body) throws IOException {
+        int b = body.read();
+        while (b != -1 && b != '\n') {
+            b = body.read();
+        }
+    }
+
+    private static String pathAndQuery(HttpServletRequest request) {
+        return request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+    }
+
+    private void writeJson(HttpServletResponse response, Object body) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private void writeProblem(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                              String type, String title, String detail) throws IOException {
+        ErrorResponse error = new ErrorResponse();
+        error.setType(type);
+        error.setTitle(title);
+        error.setStatus(status.value());
+        error.setDetail(detail);
+        error.setInstance(request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
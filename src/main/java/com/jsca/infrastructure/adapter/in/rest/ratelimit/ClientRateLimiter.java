@@ -0,0 +1,165 @@
+package com.jsca.infrastructure.adapter.in.rest.ratelimit;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cuotas por cliente con cubos de tokens de {@code burst} tokens que se rellenan a
+ * {@code requestsPerSecond} por segundo.
+ *
+ * <p>Cada cubo es un único {@code long} en una tabla de tamaño fijo: una huella de 16 bits
+ * de la clave y el instante, en microsegundos, en que el cubo vuelve a estar lleno
+ * (algoritmo GCRA, equivalente a un token bucket sin guardar los tokens aparte). Pedir
+ * tokens es una lectura y un compare-and-set sobre ese {@code long}, sin bloqueos.
+ *
+ * <p>Un cubo lleno es igual que uno sin usar, así que su hueco lo puede ocupar otra clave:
+ * la memoria depende de los clientes que consumen a la vez, no de los que han llegado
+ * alguna vez. Cada clave tiene dos huecos candidatos; si los dos están en uso por otras
+ * claves, comparte el primero y agota antes su cuota.
+ *
+ * <p>La huella y los huecos salen de un hash de 64 bits de la clave completa con una
+ * semilla aleatoria de cada instancia: un cliente no puede elegir una cabecera que caiga
+ * en el cubo de otro para gastarle la cuota.
+ */
+public final class ClientRateLimiter {
+
+    private static final int FINGERPRINT_SHIFT = 48;
+    private static final long TIME_MASK = (1L << FINGERPRINT_SHIFT) - 1;
+    private static final double MICROS_PER_SECOND = 1_000_000;
+    private static final SecureRandom SEEDS = new SecureRandom();
+
+    private final AtomicLongArray buckets;
+    private final int mask;
+    private final long seed;
+    private final long originNanos = System.nanoTime();
+    private volatile Limits limits;
+
+    /**
+     * @param buckets huecos de la tabla; se redondea a la siguiente potencia de dos
+     */
+    public ClientRateLimiter(int buckets, double requestsPerSecond, int burst) {
+        this(buckets, requestsPerSecond, burst, SEEDS.nextLong());
+    }
+
+    ClientRateLimiter(int buckets, double requestsPerSecond, int burst, long seed) {
+        int size = Integer.highestOneBit(Math.max(buckets, 2) - 1) << 1;
+        this.buckets = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.seed = seed;
+        this.limits = new Limits(requestsPerSecond, burst);
+    }
+
+    public Limits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Cambia los límites en caliente; los cubos conservan su estado.
+     */
+    public void setLimits(Limits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Consume {@code permits} tokens del cubo del cliente si los tiene.
+     *
+     * @return 0 si se admite; si no, microsegundos hasta que se admitiría
+     */
+    public long tryAcquire(String clientKey, int permits) {
+        return tryAcquire(clientKey, permits, (System.nanoTime() - originNanos) / 1_000);
+    }
+
+    /**
+     * Una petición de más tokens que {@code burst} se admite con el cubo lleno y deja
+     * la deuda: las siguientes esperan hasta que se haya rellenado.
+     */
+    long tryAcquire(String clientKey, int permits, long nowMicros) {
+        Limits current = limits;
+        long hash = hash(clientKey, seed);
+        long fingerprint = hash >>> FINGERPRINT_SHIFT | 1;
+        int first = (int) hash & mask;
+        int second = (int) (hash >>> 24) & mask;
+        while (true) {
+            int index = slot(fingerprint, first, second, nowMicros);
+            long state = buckets.get(index);
+            long full = Math.max(state & TIME_MASK, nowMicros);
+            long admitted = full + Math.min(permits, current.burst()) * current.intervalMicros() - current.windowMicros();
+            if (admitted > nowMicros) {
+                return admitted - nowMicros;
+            }
+            long next = Math.min(full + permits * current.intervalMicros(), TIME_MASK);
+            if (buckets.compareAndSet(index, state, fingerprint << FINGERPRINT_SHIFT | next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * El hueco propio si ya lo tiene; si no, el primero libre (cubo lleno); si no, el primero.
+     */
+    private int slot(long fingerprint, int first, int second, long nowMicros) {
+        long a = buckets.get(first);
+        if (a >>> FINGERPRINT_SHIFT == fingerprint) {
+            return first;
+        }
+        long b = buckets.get(second);
+        if (b >>> FINGERPRINT_SHIFT == fingerprint) {
+            return second;
+        }
+        if ((a & TIME_MASK) <= nowMicros || (b & TIME_MASK) > nowMicros) {
+            return first;
+        }
+        return second;
+    }
+
+    /**
+     * Hash de 64 bits de toda la clave, de 4 en 4 caracteres (pasos de MurmurHash3).
+     */
+    private static long hash(String key, long seed) {
+        int length = key.length();
+        long hash = seed ^ length * 0x9e3779b97f4a7c15L;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            hash = mix(hash, key.charAt(i) | (long) key.charAt(i + 1) << 16
+                    | (long) key.charAt(i + 2) << 32 | (long) key.charAt(i + 3) << 48);
+        }
+        if (i < length) {
+            long tail = 0;
+            for (int shift = 0; i < length; i++, shift += Character.SIZE) {
+                tail |= (long) key.charAt(i) << shift;
+            }
+            hash = mix(hash, tail);
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static long mix(long hash, long block) {
+        return Long.rotateLeft(hash ^ Long.rotateLeft(block * 0x87c37b91114253d5L, 31) * 0x4cf5ad432745937fL, 27)
+                * 5 + 0x52dce729;
+    }
+
+    /**
+     * Límites de cada cliente.
+     *
+     * @param requestsPerSecond tokens que recupera cada cubo por segundo
+     * @param burst tokens de un cubo lleno
+     */
+    public record Limits(double requestsPerSecond, int burst) {
+
+        public Limits {
+            if (!(requestsPerSecond > 0) || burst < 1) {
+                throw new IllegalArgumentException("requestsPerSecond debe ser positivo y burst al menos 1");
+            }
+        }
+
+        long intervalMicros() {
+            return Math.max(1, Math.round(MICROS_PER_SECOND / requestsPerSecond));
+        }
+
+        long windowMicros() {
+            return burst * intervalMicros();
+        }
+    }
+}
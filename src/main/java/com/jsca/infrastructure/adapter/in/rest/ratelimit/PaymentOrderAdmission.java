@@ -0,0 +1,44 @@
+package com.jsca.infrastructure.adapter.in.rest.ratelimit;
+
+import com.jsca.infrastructure.config.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cuota que consume cada alta de órdenes ({@code payment.rate-limit.enabled=true}), sea cual
+ * sea el formato en que llega: orden suelta, lote JSON o línea de un lote NDJSON.
+ *
+ * <p>La clave del cliente es la cabecera {@code payment.rate-limit.client-key-header} o, sin
+ * ella, el IBAN del deudor. Sin ninguna de las dos la orden no consume cuota.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.rate-limit", name = "enabled", havingValue = "true")
+public class PaymentOrderAdmission {
+
+    private final ClientRateLimiter rateLimiter;
+    private final String clientKeyHeader;
+
+    public PaymentOrderAdmission(ClientRateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.clientKeyHeader = properties.getClientKeyHeader();
+    }
+
+    public String getClientKeyHeader() {
+        return clientKeyHeader;
+    }
+
+    /**
+     * Consume {@code permits} tokens de la cuota del cliente si los tiene.
+     *
+     * @param headerValue valor de la cabecera del cliente; {@code null} si no viene
+     * @return 0 si se admite; si no, microsegundos hasta que se admitiría
+     */
+    public long tryAdmit(String headerValue, String debtorIban, int permits) {
+        String clientKey = isBlank(headerValue) ? debtorIban : headerValue;
+        return isBlank(clientKey) ? 0 : rateLimiter.tryAcquire(clientKey, permits);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
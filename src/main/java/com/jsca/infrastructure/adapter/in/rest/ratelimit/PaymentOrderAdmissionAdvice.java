@@ -0,0 +1,81 @@
+package com.jsca.infrastructure.adapter.in.rest.ratelimit;
+
+import com.jsca.infrastructure.adapter.in.rest.PaymentOrderController;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Control de admisión del alta de órdenes ({@code payment.rate-limit.enabled=true}): cada
+ * orden consume un token de la cuota de su cliente antes de validarse e iniciarse.
+ *
+ * <p>Un lote JSON cuenta todas sus órdenes contra la clave de la cabecera o, sin ella,
+ * cada orden contra su deudor: un lote con varios deudores no carga a uno solo los pagos
+ * de los demás. Si a uno le falta cuota se rechaza el lote entero, y lo ya consumido por
+ * los anteriores no se devuelve. Se aplica tras leer el cuerpo y antes de
+ * validarlo, así que las peticiones no válidas también consumen cuota. El lote NDJSON no
+ * pasa por aquí: lo cuenta {@code NdjsonPaymentOrderIngestion} línea a línea.
+ */
+@ControllerAdvice(assignableTypes = PaymentOrderController.class)
+@ConditionalOnProperty(prefix = "payment.rate-limit", name = "enabled", havingValue = "true")
+public class PaymentOrderAdmissionAdvice extends RequestBodyAdviceAdapter {
+
+    private final PaymentOrderAdmission admission;
+
+    public PaymentOrderAdmissionAdvice(PaymentOrderAdmission admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == PaymentOrderRequest.class || targetType == BulkPaymentOrderRequest.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        String headerValue = inputMessage.getHeaders().getFirst(admission.getClientKeyHeader());
+        long waitMicros;
+        if (body instanceof BulkPaymentOrderRequest bulk) {
+            waitMicros = admitBulk(headerValue, bulk.getOrders() == null ? List.of() : bulk.getOrders());
+        }
+        else {
+            waitMicros = admission.tryAdmit(headerValue, ((PaymentOrderRequest) body).getDebtorIban(), 1);
+        }
+        if (waitMicros > 0) {
+            throw new RateLimitExceededException(waitMicros);
+        }
+        return body;
+    }
+
+    private long admitBulk(String headerValue, List<BulkPaymentOrderItem> orders) {
+        if (headerValue != null && !headerValue.isBlank()) {
+            return admission.tryAdmit(headerValue, null, Math.max(1, orders.size()));
+        }
+        Map<String, Integer> permitsByDebtor = new LinkedHashMap<>();
+        for (BulkPaymentOrderItem order : orders) {
+            if (order != null && order.getDebtorIban() != null) {
+                permitsByDebtor.merge(order.getDebtorIban(), 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<String, Integer> debtor : permitsByDebtor.entrySet()) {
+            long waitMicros = admission.tryAdmit(null, debtor.getKey(), debtor.getValue());
+            if (waitMicros > 0) {
+                return waitMicros;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.jsca.infrastructure.adapter.in.rest.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consulta y ajuste en caliente de las cuotas por cliente (endpoint {@code ratelimit}, solo
+ * expuesto por JMX). Los cambios se aplican a la siguiente petición y no sobreviven a un reinicio.
+ */
+@Component
+@Endpoint(id = "ratelimit")
+@ConditionalOnProperty(prefix = "payment.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitEndpoint {
+
+    private final ClientRateLimiter rateLimiter;
+
+    public RateLimitEndpoint(ClientRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @ReadOperation
+    public ClientRateLimiter.Limits limits() {
+        return rateLimiter.getLimits();
+    }
+
+    /**
+     * Cambia los límites indicados; los que no se envían se mantienen.
+     */
+    @WriteOperation
+    public ClientRateLimiter.Limits update(@Nullable Double requestsPerSecond, @Nullable Integer burst) {
+        ClientRateLimiter.Limits current = rateLimiter.getLimits();
+        ClientRateLimiter.Limits updated = new ClientRateLimiter.Limits(
+                requestsPerSecond == null ? current.requestsPerSecond() : requestsPerSecond,
+                burst == null ? current.burst() : burst);
+        rateLimiter.setLimits(updated);
+        return updated;
+    }
+}
@@ -0,0 +1,24 @@
+package com.jsca.infrastructure.adapter.in.rest.ratelimit;
+
+import lombok.Getter;
+
+/**
+ * Petición rechazada porque el cliente ha agotado su cuota; se responde con 429.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * Segundos que debe esperar el cliente, redondeados hacia arriba ({@code Retry-After}).
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long waitMicros) {
+        super("Cuota de peticiones agotada para el cliente");
+        this.retryAfterSeconds = retryAfterSeconds(waitMicros);
+    }
+
+    public static long retryAfterSeconds(long waitMicros) {
+        return Math.max(1, (waitMicros + 999_999) / 1_000_000);
+    }
+}
@@ -0,0 +1,174 @@
+package com.jsca.infrastructure.adapter.in.rest.stream;
+
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.domain.port.out.PaymentStatusChangePublisher;
+import com.jsca.infrastructure.config.StatusStreamProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Reparte los cambios de estado entre las suscripciones SSE abiertas.
+ *
+ * <p>Las suscripciones se indexan por ID de orden, así que publicar un cambio cuesta
+ * una búsqueda en un mapa más un encolado por suscriptor interesado. La escritura en
+ * las conexiones la hace un pool propio: quien publica nunca espera a un cliente.
+ */
+@Slf4j
+@Component
+public class PaymentStatusBroadcaster implements PaymentStatusChangePublisher {
+
+    private final Map<String, Set<StatusSubscription>> subscriptionsByOrder = new ConcurrentHashMap<>();
+    private final Set<StatusSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final PaymentOrderMapper mapper;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    public PaymentStatusBroadcaster(PaymentOrderMapper mapper, StatusStreamProperties properties) {
+        this.mapper = mapper;
+        this.maxSubscribers = properties.getMaxSubscribers();
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        AtomicInteger senderNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "status-stream-sender-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHeartbeatInterval().toMillis();
+        this.heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre una suscripción y le envía como primeros eventos los estados actuales.
+     *
+     * <p>Los estados actuales se leen una vez registrada la suscripción: un cambio publicado
+     * entre la lectura y el registro no se pierde, y si llega antes que el estado leído, el
+     * más antiguo se descarta. Si la lectura falla, la suscripción se cierra y se propaga
+     * el error.
+     *
+     * @return el emitter, o null si se alcanzó el máximo de suscripciones
+     */
+    public SseEmitter subscribe(Collection<String> paymentOrderIds, Supplier<List<PaymentStatusChange>> currentStatuses) {
+        return subscribe(new SseEmitter(timeoutMillis), paymentOrderIds, currentStatuses);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Collection<String> paymentOrderIds,
+                         Supplier<List<PaymentStatusChange>> currentStatuses) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        StatusSubscription subscription = new StatusSubscription(emitter, paymentOrderIds);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(ex -> unsubscribe(subscription));
+
+        subscriptions.add(subscription);
+        for (String paymentOrderId : subscription.paymentOrderIds()) {
+            subscriptionsByOrder.compute(paymentOrderId, (key, interested) -> {
+                Set<StatusSubscription> updated = interested == null ? ConcurrentHashMap.newKeySet() : interested;
+                updated.add(subscription);
+                return updated;
+            });
+        }
+        List<PaymentStatusChange> statuses;
+        try {
+            statuses = currentStatuses.get();
+        }
+        catch (RuntimeException ex) {
+            unsubscribe(subscription);
+            throw ex;
+        }
+        statuses.forEach(change -> offer(subscription, change));
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<PaymentStatusChange> changes) {
+        for (PaymentStatusChange change : changes) {
+            Set<StatusSubscription> interested = subscriptionsByOrder.get(change.paymentOrderId());
+            if (interested != null) {
+                interested.forEach(subscription -> offer(subscription, change));
+            }
+        }
+    }
+
+    /**
+     * Número de suscripciones abiertas.
+     */
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter().complete());
+    }
+
+    private void offer(StatusSubscription subscription, PaymentStatusChange change) {
+        if (subscription.offer(change)) {
+            schedule(subscription);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (StatusSubscription subscription : subscriptions) {
+            if (subscription.requestHeartbeat()) {
+                schedule(subscription);
+            }
+        }
+    }
+
+    private void schedule(StatusSubscription subscription) {
+        try {
+            senders.execute(() -> {
+                subscription.drain(mapper::toStatusEvent);
+                if (subscription.isClosed()) {
+                    unsubscribe(subscription);
+                }
+            });
+        }
+        catch (RejectedExecutionException ex) {
+            log.debug("Stream de estados detenido; se descarta el envío");
+        }
+    }
+
+    private void unsubscribe(StatusSubscription subscription) {
+        subscription.close();
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        for (String paymentOrderId : subscription.paymentOrderIds()) {
+            subscriptionsByOrder.computeIfPresent(paymentOrderId, (key, interested) -> {
+                interested.remove(subscription);
+                return interested.isEmpty() ? null : interested;
+            });
+        }
+    }
+}
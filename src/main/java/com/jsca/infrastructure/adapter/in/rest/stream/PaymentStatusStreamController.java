@@ -0,0 +1,61 @@
+package com.jsca.infrastructure.adapter.in.rest.stream;
+
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.domain.port.in.GetPaymentStatusUseCase;
+import com.jsca.infrastructure.config.StatusStreamProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stream Server-Sent Events con los cambios de estado de una o varias órdenes de pago.
+ *
+ * <p>Queda fuera de la interfaz generada desde OpenAPI porque el generador no admite
+ * devolver un {@link SseEmitter}; el formato del evento sí está en el contrato
+ * ({@code PaymentStatusEvent}).
+ */
+@RestController
+public class PaymentStatusStreamController {
+
+    private final GetPaymentStatusUseCase getPaymentStatusUseCase;
+    private final PaymentStatusBroadcaster broadcaster;
+    private final int maxPaymentOrdersPerSubscription;
+
+    public PaymentStatusStreamController(
+            GetPaymentStatusUseCase getPaymentStatusUseCase,
+            PaymentStatusBroadcaster broadcaster,
+            StatusStreamProperties properties) {
+        this.getPaymentStatusUseCase = getPaymentStatusUseCase;
+        this.broadcaster = broadcaster;
+        this.maxPaymentOrdersPerSubscription = properties.getMaxPaymentOrdersPerSubscription();
+    }
+
+    @GetMapping(path = "/payment-initiation/payment-orders/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPaymentOrderStatus(@RequestParam List<String> paymentOrderIds) {
+        Set<String> distinctIds = new LinkedHashSet<>(paymentOrderIds);
+        if (distinctIds.isEmpty() || distinctIds.size() > maxPaymentOrdersPerSubscription) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Se deben indicar entre 1 y " + maxPaymentOrdersPerSubscription + " órdenes de pago");
+        }
+        SseEmitter emitter = broadcaster.subscribe(distinctIds, () -> distinctIds.stream()
+                .map(paymentOrderId -> getPaymentStatusUseCase.getPaymentStatus(paymentOrderId)
+                        .map(order -> new PaymentStatusChange(paymentOrderId, order.getStatus(), order.getLastUpdate()))
+                        .orElseThrow(() -> new ResponseStatusException(
+                                HttpStatus.NOT_FOUND,
+                                "Orden de pago no encontrada: " + paymentOrderId)))
+                .toList());
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Se alcanzó el máximo de suscripciones al stream de estados");
+        }
+        return emitter;
+    }
+}
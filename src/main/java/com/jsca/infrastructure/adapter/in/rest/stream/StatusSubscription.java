@@ -0,0 +1,120 @@
+package com.jsca.infrastructure.adapter.in.rest.stream;
+
+import com.jsca.domain.model.PaymentStatusChange;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Suscripción SSE a un conjunto fijo de órdenes de pago.
+ *
+ * <p>El buffer guarda solo el último cambio pendiente de cada orden: su tamaño está
+ * acotado por el número de órdenes suscritas y un cliente lento recibe directamente
+ * el estado más reciente. Un único drain por suscripción escribe en la conexión.
+ */
+final class StatusSubscription {
+
+    private static final String EVENT_NAME = "status";
+
+    private final SseEmitter emitter;
+    private final Set<String> paymentOrderIds;
+    private final Map<String, PaymentStatusChange> latest = new HashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private boolean heartbeatDue;
+    private volatile boolean closed;
+
+    StatusSubscription(SseEmitter emitter, Collection<String> paymentOrderIds) {
+        this.emitter = emitter;
+        this.paymentOrderIds = Set.copyOf(paymentOrderIds);
+    }
+
+    Set<String> paymentOrderIds() {
+        return paymentOrderIds;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Registra un cambio, ignorando los anteriores al último conocido de esa orden.
+     *
+     * @return true si el llamante debe programar un drain
+     */
+    boolean offer(PaymentStatusChange change) {
+        synchronized (this) {
+            PaymentStatusChange known = latest.get(change.paymentOrderId());
+            if (known != null && change.lastUpdate().isBefore(known.lastUpdate())) {
+                return false;
+            }
+            latest.put(change.paymentOrderId(), change);
+            dirty.add(change.paymentOrderId());
+        }
+        return !closed && scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * @return true si el llamante debe programar un drain
+     */
+    boolean requestHeartbeat() {
+        synchronized (this) {
+            heartbeatDue = true;
+        }
+        return !closed && scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Escribe todo lo pendiente. Si la conexión falla la suscripción queda cerrada.
+     */
+    void drain(Function<PaymentStatusChange, Object> payload) {
+        while (!closed) {
+            List<PaymentStatusChange> changes;
+            boolean heartbeat;
+            synchronized (this) {
+                changes = new ArrayList<>(dirty.size());
+                for (String paymentOrderId : dirty) {
+                    changes.add(latest.get(paymentOrderId));
+                }
+                dirty.clear();
+                heartbeat = heartbeatDue;
+                heartbeatDue = false;
+                if (changes.isEmpty() && !heartbeat) {
+                    scheduled.set(false);
+                    return;
+                }
+            }
+            try {
+                for (PaymentStatusChange change : changes) {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME)
+                            .data(payload.apply(change), MediaType.APPLICATION_JSON));
+                }
+                if (heartbeat) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+            catch (IOException | IllegalStateException ex) {
+                close();
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
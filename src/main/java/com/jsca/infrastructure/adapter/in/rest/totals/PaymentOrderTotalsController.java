@@ -0,0 +1,47 @@
+package com.jsca.infrastructure.adapter.in.rest.totals;
+
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.port.in.GetPaymentOrderTotalsUseCase;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderTotalsResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * Totales de un deudor para una fecha de ejecución solicitada: número de órdenes e importe
+ * por moneda y por estado, leídos de los contadores que mantiene el repositorio.
+ *
+ * <p>Queda fuera de la interfaz generada desde OpenAPI porque una ruta nueva bajo
+ * {@code /payment-initiation} se añadiría a {@code PaymentInitiationApi}, que ya implementa
+ * el controlador principal; el formato de la respuesta es el esquema
+ * {@code PaymentOrderTotalsResponse} del contrato.
+ */
+@RestController
+public class PaymentOrderTotalsController {
+
+    private final GetPaymentOrderTotalsUseCase getPaymentOrderTotalsUseCase;
+    private final PaymentOrderMapper mapper;
+
+    public PaymentOrderTotalsController(GetPaymentOrderTotalsUseCase getPaymentOrderTotalsUseCase,
+                                        PaymentOrderMapper mapper) {
+        this.getPaymentOrderTotalsUseCase = getPaymentOrderTotalsUseCase;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Sin {@code requestedExecutionDate} se usa la fecha de hoy.
+     */
+    @GetMapping("/payment-initiation/payment-orders/totals")
+    public PaymentOrderTotalsResponse getPaymentOrderTotals(
+            @RequestParam(required = false) String debtorIban,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate requestedExecutionDate) {
+        LocalDate date = requestedExecutionDate == null ? LocalDate.now() : requestedExecutionDate;
+        return mapper.toTotalsResponse(debtorIban, date,
+                getPaymentOrderTotalsUseCase.getPaymentOrderTotals(debtorIban, currency, date));
+    }
+}
@@ -0,0 +1,286 @@
+package com.jsca.infrastructure.adapter.out.duplicate;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detecta órdenes con el mismo deudor, acreedor, importe y moneda que otra iniciada hace
+ * menos de {@code window}, con un índice hash por intervalos de tiempo.
+ *
+ * <p>Cada orden se reduce a una huella de 64 bits (FNV-1a de los campos y una mezcla
+ * final; el importe sin ceros finales, así que {@code 100.0} y {@code 100.00} coinciden)
+ * que se guarda con su externalId en la tabla del intervalo en curso. La ventana se
+ * divide en {@code buckets} intervalos y hay una tabla más que intervalos: al empezar un
+ * intervalo se vacía la tabla más antigua, así que las órdenes caducan sin recorrer nada y
+ * la memoria queda acotada por las órdenes de una ventana, con {@code maxEntries} como tope.
+ * Una orden cuenta como duplicado de las de los últimos {@code buckets} intervalos
+ * completos y del actual: la ventana efectiva llega a ser un intervalo más larga.
+ *
+ * <p>Las huellas se reparten en {@value #STRIPES} franjas con su propio bloqueo, así que
+ * la comprobación son unas pocas lecturas de tabla sin contención apreciable. Dos órdenes
+ * distintas solo se confunden si coinciden los 64 bits de la huella.
+ */
+@Slf4j
+public final class SlidingWindowDuplicateDetector implements DuplicatePaymentDetector, MeterBinder {
+
+    private static final int STRIPES = 64;
+    private static final int STRIPE_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(STRIPES);
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long bucketMillis;
+    private final boolean rejects;
+    private final Clock clock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * @param window     tiempo durante el que una orden cuenta como posible duplicado
+     * @param buckets    intervalos en que se divide la ventana
+     * @param maxEntries órdenes que se recuerdan como mucho
+     * @param rejects    si los duplicados se rechazan en lugar de solo señalarse
+     * @param clock      reloj de los intervalos
+     */
+    public SlidingWindowDuplicateDetector(Duration window, int buckets, int maxEntries, boolean rejects, Clock clock) {
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("La ventana de duplicados necesita al menos 1 ms por intervalo: "
+                    + window + " en " + buckets + " intervalos");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("El máximo de órdenes recordadas debe ser positivo: " + maxEntries);
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.rejects = rejects;
+        this.clock = clock;
+        int maxPerTable = Math.max(1, maxEntries / STRIPES / (buckets + 1));
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(buckets + 1, maxPerTable);
+        }
+    }
+
+    @Override
+    public Optional<String> findDuplicate(PaymentOrder paymentOrder) {
+        long fingerprint = fingerprint(paymentOrder);
+        String externalId = paymentOrder.getExternalId();
+        String previous = stripes[(int) (fingerprint >>> STRIPE_SHIFT)]
+                .findOrAdd(fingerprint, clock.millis() / bucketMillis, externalId);
+        if (previous == null || previous.equals(externalId)) {
+            return Optional.empty();
+        }
+        duplicates.increment();
+        if (!rejects) {
+            log.warn("Posible pago duplicado: la orden {} repite deudor, acreedor, importe y moneda de la orden {}",
+                    externalId, previous);
+        }
+        return Optional.of(previous);
+    }
+
+    @Override
+    public boolean rejectsDuplicates() {
+        return rejects;
+    }
+
+    /**
+     * Órdenes guardadas en el índice, incluidas las de la tabla caducada que aún no se ha
+     * reutilizado.
+     */
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("payment.duplicates", duplicates, LongAdder::sum)
+                .tag("action", rejects ? "rejected" : "flagged")
+                .description("Órdenes con los mismos datos que otra reciente bajo otro externalId")
+                .register(registry);
+        FunctionCounter.builder("payment.duplicates.untracked", untracked, LongAdder::sum)
+                .description("Órdenes que no se registraron por estar lleno el índice de duplicados")
+                .register(registry);
+        Gauge.builder("payment.duplicates.index.entries", this, SlidingWindowDuplicateDetector::size)
+                .description("Órdenes guardadas en el índice de duplicados")
+                .register(registry);
+    }
+
+    static long fingerprint(PaymentOrder paymentOrder) {
+        BigDecimal amount = paymentOrder.getAmount().stripTrailingZeros();
+        long hash = hash(FNV_OFFSET, paymentOrder.getDebtorIban());
+        hash = hash(hash, paymentOrder.getCreditorIban());
+        hash = hash(hash, paymentOrder.getCurrency());
+        hash = (hash ^ amount.unscaledValue().longValue()) * FNV_PRIME;
+        hash = (hash ^ amount.scale()) * FNV_PRIME;
+        return mix(hash);
+    }
+
+    /**
+     * FNV-1a de los caracteres seguido de la longitud, para que los límites entre campos
+     * cuenten.
+     */
+    private static long hash(long hash, String text) {
+        long result = hash;
+        for (int i = 0; i < text.length(); i++) {
+            result = (result ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return (result ^ text.length()) * FNV_PRIME;
+    }
+
+    /**
+     * Mezcla final de MurmurHash3: reparte los bits entre la franja (bits altos) y la
+     * posición en la tabla (bits bajos).
+     */
+    private static long mix(long hash) {
+        long result = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        result = (result ^ (result >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return result ^ (result >>> 33);
+    }
+
+    /**
+     * Tablas de una franja, una por intervalo en un anillo.
+     */
+    private final class Stripe {
+
+        private final Table[] tables;
+        private long latestBucket = Long.MIN_VALUE;
+
+        Stripe(int tableCount, int maxPerTable) {
+            this.tables = new Table[tableCount];
+            for (int i = 0; i < tableCount; i++) {
+                tables[i] = new Table(maxPerTable);
+            }
+        }
+
+        /**
+         * Devuelve el externalId guardado con la misma huella dentro de la ventana o, si no
+         * lo hay, guarda este y devuelve {@code null}. Si el reloj retrocede se sigue en el
+         * último intervalo visto, para no vaciar tablas vigentes.
+         */
+        synchronized String findOrAdd(long fingerprint, long bucket, String externalId) {
+            latestBucket = Math.max(latestBucket, bucket);
+            for (int age = 0; age < tables.length; age++) {
+                Table table = tables[Math.floorMod(latestBucket - age, tables.length)];
+                if (table.bucket == latestBucket - age) {
+                    String found = table.get(fingerprint);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+            }
+            Table current = tables[Math.floorMod(latestBucket, tables.length)];
+            if (current.bucket != latestBucket) {
+                current.reset(latestBucket);
+            }
+            if (!current.put(fingerprint, externalId)) {
+                untracked.increment();
+            }
+            return null;
+        }
+
+        synchronized long size() {
+            long size = 0;
+            for (Table table : tables) {
+                size += table.size;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Tabla hash de direccionamiento abierto (sondeo lineal, ocupación hasta la mitad) de
+     * huella a externalId; una posición libre tiene el externalId a {@code null}.
+     */
+    private static final class Table {
+
+        private final int maxSize;
+        private long bucket = Long.MIN_VALUE;
+        private long[] fingerprints = new long[INITIAL_CAPACITY];
+        private String[] externalIds = new String[INITIAL_CAPACITY];
+        private int size;
+
+        Table(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        String get(long fingerprint) {
+            int mask = externalIds.length - 1;
+            for (int i = (int) fingerprint & mask; externalIds[i] != null; i = (i + 1) & mask) {
+                if (fingerprints[i] == fingerprint) {
+                    return externalIds[i];
+                }
+            }
+            return null;
+        }
+
+        boolean put(long fingerprint, String externalId) {
+            if (size == maxSize) {
+                return false;
+            }
+            if ((size + 1) * 2 > externalIds.length) {
+                resize(externalIds.length * 2);
+            }
+            insert(fingerprint, externalId);
+            size++;
+            return true;
+        }
+
+        /**
+         * Vacía la tabla para un intervalo nuevo, con la capacidad justa para tantas órdenes
+         * como tuvo: la memoria sigue a la carga y no al pico.
+         */
+        void reset(long newBucket) {
+            int capacity = capacityFor(size);
+            if (capacity < externalIds.length) {
+                fingerprints = new long[capacity];
+                externalIds = new String[capacity];
+            }
+            else {
+                Arrays.fill(externalIds, null);
+            }
+            size = 0;
+            bucket = newBucket;
+        }
+
+        private void resize(int capacity) {
+            long[] oldFingerprints = fingerprints;
+            String[] oldExternalIds = externalIds;
+            fingerprints = new long[capacity];
+            externalIds = new String[capacity];
+            for (int i = 0; i < oldExternalIds.length; i++) {
+                if (oldExternalIds[i] != null) {
+                    insert(oldFingerprints[i], oldExternalIds[i]);
+                }
+            }
+        }
+
+        private void insert(long fingerprint, String externalId) {
+            int mask = externalIds.length - 1;
+            int i = (int) fingerprint & mask;
+            while (externalIds[i] != null) {
+                i = (i + 1) & mask;
+            }
+            fingerprints[i] = fingerprint;
+            externalIds[i] = externalId;
+        }
+
+        private static int capacityFor(int entries) {
+            return Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, entries * 2 - 1)) << 1);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.jsca.infrastructure.adapter.out.id;
+
+import com.jsca.domain.port.out.PaymentOrderIdGenerator;
+import com.jsca.infrastructure.partition.PaymentOrderPartitioner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * IDs ordenados por tiempo con el slot de partición de su externalId al final
+ * ({@code payment.partition.enabled=true}), para que cualquier instancia sepa a cuál
+ * reenviar una petición por ID. Requiere {@code payment.id-generator.type=time-ordered}.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "payment.partition", name = "enabled", havingValue = "true")
+public final class PartitionedPaymentOrderIdGenerator implements PaymentOrderIdGenerator {
+
+    private final TimeOrderedPaymentOrderIdGenerator delegate;
+
+    public PartitionedPaymentOrderIdGenerator(TimeOrderedPaymentOrderIdGenerator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String nextId() {
+        return delegate.nextId();
+    }
+
+    @Override
+    public String nextId(String partitionKey) {
+        String id = delegate.nextId();
+        return partitionKey == null ? id : id + PaymentOrderPartitioner.partitionSuffix(partitionKey);
+    }
+}
@@ -0,0 +1,100 @@
+package com.jsca.infrastructure.adapter.out.id;
+
+import com.jsca.domain.port.out.PaymentOrderIdGenerator;
+import com.jsca.infrastructure.config.IdGeneratorProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IDs ordenados por tiempo al estilo Snowflake ({@code payment.id-generator.type=time-ordered}).
+ *
+ * <p>Cada ID es un entero de 63 bits: 41 de milisegundos desde 2024-01-01 (hasta 2093),
+ * 10 de nodo y 12 de secuencia, escrito como {@code PO-} y 13 caracteres Crockford
+ * base32 de ancho fijo. El orden alfabético de los IDs es el de creación.
+ *
+ * <p>El estado es un único {@link AtomicLong} con milisegundo y secuencia: cada ID es
+ * el máximo entre el anterior más uno y el reloj actual, sin bloqueos. Si el reloj
+ * retrocede o se agotan las 4096 secuencias de un milisegundo, se sigue contando
+ * sobre el último milisegundo emitido, así que los IDs de un nodo nunca se repiten ni
+ * retroceden. Tras un reinicio el contador empieza de cero: si el reloj ha retrocedido,
+ * un ID puede repetir uno anterior, y el repositorio lo rechaza en lugar de sobrescribir
+ * la orden que ya lo tenía.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payment.id-generator", name = "type", havingValue = "time-ordered", matchIfMissing = true)
+public final class TimeOrderedPaymentOrderIdGenerator implements PaymentOrderIdGenerator {
+
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final String PREFIX = "PO-";
+    private static final int ENCODED_LENGTH = 13;
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    private final long node;
+    private final AtomicLong lastTick = new AtomicLong();
+
+    @Autowired
+    public TimeOrderedPaymentOrderIdGenerator(IdGeneratorProperties properties, Environment environment) {
+        this(nodeIdOf(properties, environment));
+        log.info("Generador de IDs de órdenes con nodo {}", node);
+    }
+
+    public TimeOrderedPaymentOrderIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("El nodo del generador de IDs debe estar entre 0 y " + MAX_NODE_ID
+                    + ": " + nodeId);
+        }
+        this.node = nodeId;
+    }
+
+    @Override
+    public String nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long tick = lastTick.updateAndGet(last -> Math.max(last + 1, now));
+        long sequence = tick & ((1L << SEQUENCE_BITS) - 1);
+        long id = ((tick >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+        return encode(id);
+    }
+
+    /**
+     * Escribe el ID en base32 de ancho fijo; un solo array y la String resultante.
+     */
+    static String encode(long id) {
+        byte[] chars = new byte[PREFIX.length() + ENCODED_LENGTH];
+        chars[0] = 'P';
+        chars[1] = 'O';
+        chars[2] = '-';
+        long remaining = id;
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (remaining & 0x1F)];
+            remaining >>>= 5;
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Nodo configurado. Sin {@code payment.id-generator.node-id} solo se arranca con una
+     * única instancia, que usa el nodo 0: con varias no hay forma de derivar uno distinto
+     * en cada una sin riesgo de que dos coincidan.
+     */
+    static int nodeIdOf(IdGeneratorProperties properties, Environment environment) {
+        if (properties.getNodeId() >= 0) {
+            return properties.getNodeId();
+        }
+        if ("true".equalsIgnoreCase(environment.getProperty("payment.partition.enabled", ""))) {
+            throw new IllegalStateException("payment.partition.enabled=true necesita "
+                    + "payment.id-generator.node-id, distinto en cada instancia, para que los IDs no se repitan");
+        }
+        return 0;
+    }
+}
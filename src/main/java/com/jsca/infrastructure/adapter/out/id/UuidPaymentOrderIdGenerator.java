@@ -0,0 +1,25 @@
+package com.jsca.infrastructure.adapter.out.id;
+
+import com.jsca.domain.port.out.PaymentOrderIdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Formato anterior de IDs, {@code PO-<fecha>-<8 hex de un UUID>}
+ * ({@code payment.id-generator.type=uuid}). Con 32 bits aleatorios por día las
+ * colisiones son probables a partir de decenas de miles de órdenes diarias.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.id-generator", name = "type", havingValue = "uuid")
+public final class UuidPaymentOrderIdGenerator implements PaymentOrderIdGenerator {
+
+    @Override
+    public String nextId() {
+        String timestamp = LocalDate.now().toString();
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+        return String.format("PO-%s-%s", timestamp, uniqueId);
+    }
+}
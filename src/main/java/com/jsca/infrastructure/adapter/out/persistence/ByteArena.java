@@ -0,0 +1,63 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Memoria append-only de bytes organizada en páginas de 1 MB sobre el heap.
+ * Cada bloque reservado vive entero en una página y se identifica por una dirección
+ * {@code (página << 20) | offset}. No es thread-safe: el llamante sincroniza.
+ */
+final class ByteArena {
+
+    static final int PAGE_BITS = 20;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private byte[][] pages = new byte[8][];
+    private int pageCount;
+    private int position = PAGE_SIZE;
+
+    /**
+     * Copia los bytes restantes del buffer en un bloque nuevo y devuelve su dirección.
+     */
+    long append(ByteBuffer source) {
+        int length = source.remaining();
+        if (length > PAGE_SIZE) {
+            throw new IllegalArgumentException("Bloque mayor que una página de la arena: " + length);
+        }
+        if (position + length > PAGE_SIZE) {
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            pages[pageCount++] = new byte[PAGE_SIZE];
+            position = 0;
+        }
+        long address = ((long) (pageCount - 1) << PAGE_BITS) | position;
+        source.get(pages[pageCount - 1], position, length);
+        position += length;
+        return address;
+    }
+
+    /**
+     * Buffer posicionado al inicio del bloque; no debe usarse para escribir.
+     */
+    ByteBuffer read(long address) {
+        int offset = offset(address);
+        return ByteBuffer.wrap(page(address), offset, PAGE_SIZE - offset).slice();
+    }
+
+    byte[] page(long address) {
+        return pages[(int) (address >>> PAGE_BITS)];
+    }
+
+    static int offset(long address) {
+        return (int) (address & (PAGE_SIZE - 1));
+    }
+
+    /**
+     * Bytes reservados en páginas, usados o no.
+     */
+    long reservedBytes() {
+        return (long) pageCount * PAGE_SIZE;
+    }
+}
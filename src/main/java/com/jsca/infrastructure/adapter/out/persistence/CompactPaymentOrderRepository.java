@@ -0,0 +1,675 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.DuplicatePaymentOrderIdException;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
+import com.jsca.domain.model.TransitionOutcome;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.config.TotalsProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Repositorio en memoria con disposición compacta ({@code payment.repository.type=compact}).
+ *
+ * <p>Cada orden ocupa un slot en columnas de arrays primitivos paginados: importe como
+ * long sin escala más un byte de escala, estado como byte, fecha como día epoch y
+ * timestamps como nanosegundos epoch con el offset en un diccionario. Los campos de texto
+ * van en una arena de bytes compartida, con IBAN y moneda empaquetados a 6 bits por
+ * carácter. Los índices por ID y externalId son tablas hash de {@code int} y los de
+ * búsqueda, bloques ordenados de claves {@code long} (fecha y slot).
+ * Las lecturas construyen un {@link PaymentOrder} nuevo en cada llamada.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "payment.repository", name = "type", havingValue = "compact")
+public final class CompactPaymentOrderRepository implements PaymentOrderRepository {
+
+    private static final int PAGE_BITS = 14;
+    private static final int PAGE_SLOTS = 1 << PAGE_BITS;
+    private static final int SLOT_BYTES = 2 * Long.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES + 4 * Byte.BYTES;
+    private static final int MAX_RECORD_BYTES = 4096;
+    private static final int FOR_EACH_CHUNK = 1024;
+    private static final int MAX_OFFSETS = 127;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final byte NULL_STATUS = -1;
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+    private static final byte SCALE_IN_RECORD = Byte.MIN_VALUE + 1;
+    private static final int NULL_SHORT_STRING = 0xFF;
+    private static final int NULL_TEXT = 0xFFFF;
+    private static final int PACKED = 0x80;
+    private static final int MAX_PACKED_LENGTH = 0x7F;
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ByteArena arena = new ByteArena();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_BYTES);
+    private final SlotHashIndex idIndex = new SlotHashIndex(new RecordKey(false));
+    private final SlotHashIndex externalIdIndex = new SlotHashIndex(new RecordKey(true));
+    private final AtomicIntegerArray statusLowWater = new AtomicIntegerArray(STATUSES.length);
+    private final long[] statusCounts = new long[STATUSES.length];
+    private final SecondaryIndexes<Long> searchIndexes = new SecondaryIndexes<>(SortedLongSet::new);
+    private final RunningTotals totals;
+    private ZoneOffset[] offsets = new ZoneOffset[0];
+    private Page[] pages = new Page[0];
+    private int size;
+
+    public CompactPaymentOrderRepository() {
+        this(new TotalsProperties());
+    }
+
+    @Autowired
+    public CompactPaymentOrderRepository(TotalsProperties totalsProperties) {
+        this.totals = new RunningTotals(totalsProperties.getRetention(), Clock.systemDefaultZone());
+    }
+
+    @Override
+    public PaymentOrder save(PaymentOrder paymentOrder) {
+        byte[] id = utf8(paymentOrder.getPaymentOrderId());
+        lock.writeLock().lock();
+        try {
+            int slot = idIndex.find(id);
+            if (slot >= 0) {
+                PaymentOrder previous = view(slot);
+                searchIndexes.remove(searchKey(slot), previous.getDebtorIban(), previous.getCreditorIban(), previous.getStatus());
+                countStatus(previous.getStatus(), -1);
+                totals.remove(previous);
+            }
+            write(slot < 0 ? size++ : slot, paymentOrder);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+        return paymentOrder;
+    }
+
+    @Override
+    public Optional<PaymentOrder> saveIfAbsent(PaymentOrder paymentOrder) {
+        byte[] externalId = utf8(paymentOrder.getExternalId());
+        lock.writeLock().lock();
+        try {
+            int existing = externalIdIndex.find(externalId);
+            if (existing >= 0) {
+                return Optional.of(view(existing));
+            }
+            if (idIndex.find(utf8(paymentOrder.getPaymentOrderId())) >= 0) {
+                throw new DuplicatePaymentOrderIdException(paymentOrder.getPaymentOrderId());
+            }
+            write(size++, paymentOrder);
+            return Optional.empty();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<PaymentOrder> findById(String paymentOrderId) {
+        return find(idIndex, paymentOrderId);
+    }
+
+    @Override
+    public Optional<PaymentOrder> findByExternalId(String externalId) {
+        return find(externalIdIndex, externalId);
+    }
+
+    @Override
+    public StatusTransitionResult transitionStatus(StatusTransition transition) {
+        return transitionStatuses(List.of(transition)).get(0);
+    }
+
+    /**
+     * Las transiciones se comprueban y aplican bajo el bloqueo de escritura, así que una
+     * lectura ve las columnas de un slot antes o después del cambio, nunca a medias.
+     */
+    @Override
+    public List<StatusTransitionResult> transitionStatuses(List<StatusTransition> transitions) {
+        List<StatusTransitionResult> results = new ArrayList<>(transitions.size());
+        OffsetDateTime now = OffsetDateTime.now();
+        lock.writeLock().lock();
+        try {
+            for (StatusTransition transition : transitions) {
+                int slot = idIndex.find(utf8(transition.paymentOrderId()));
+                if (slot < 0) {
+                    results.add(StatusTransitionResult.notFound());
+                    continue;
+                }
+                Page page = pages[slot >>> PAGE_BITS];
+                int i = slot & (PAGE_SLOTS - 1);
+                PaymentStatus current = statusAt(slot);
+                TransitionOutcome outcome = transition.check(page.version[i], current);
+                if (outcome == TransitionOutcome.APPLIED) {
+                    searchIndexes.changeStatus(searchKey(slot), current, transition.target());
+                    countStatus(current, -1);
+                    countStatus(transition.target(), 1);
+                    setStatus(slot, transition.target());
+                    page.lastUpdate[i] = toNanos(now);
+                    page.lastUpdateOffset[i] = offsetIndex(now);
+                    page.version[i]++;
+                }
+                PaymentOrder order = view(slot);
+                if (outcome == TransitionOutcome.APPLIED) {
+                    totals.changeStatus(order, current, transition.target());
+                }
+                StatusTransitionResult result = switch (outcome) {
+                    case APPLIED -> StatusTransitionResult.applied(order);
+                    case VERSION_CONFLICT -> StatusTransitionResult.versionConflict(order);
+                    default -> StatusTransitionResult.illegalTransition(order);
+                };
+                results.add(result);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Recorre la columna de estado desde el primer slot que puede estar en ese estado.
+     * Como las órdenes INITIATED son casi siempre las más recientes, el recorrido es corto.
+     */
+    @Override
+    public List<PaymentOrder> findByStatus(PaymentStatus status, int limit) {
+        List<PaymentOrder> orders = new ArrayList<>();
+        int ordinal = status.ordinal();
+        lock.readLock().lock();
+        try {
+            int first = -1;
+            for (int slot = statusLowWater.get(ordinal); slot < size && orders.size() < limit; slot++) {
+                if (pages[slot >>> PAGE_BITS].status[slot & (PAGE_SLOTS - 1)] == ordinal) {
+                    first = first < 0 ? slot : first;
+                    orders.add(view(slot));
+                }
+            }
+            int lowWater = first < 0 ? size : first;
+            statusLowWater.accumulateAndGet(ordinal, lowWater, Math::max);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        return orders;
+    }
+
+    /**
+     * Los índices secundarios guardan {@code (día << 32) | slot}: a igual fecha el orden
+     * es el de inserción, y el cursor se traduce a su slot con el índice por ID.
+     */
+    @Override
+    public List<PaymentOrder> search(PaymentOrderSearchCriteria criteria, PaymentOrderCursor after, int limit) {
+        long from = startKey(criteria);
+        long to = endKey(criteria);
+        List<PaymentOrder> orders = new ArrayList<>(Math.min(limit, 1024));
+        lock.readLock().lock();
+        try {
+            boolean fromInclusive = true;
+            if (after != null) {
+                int cursorSlot = idIndex.find(utf8(after.paymentOrderId()));
+                if (cursorSlot < 0) {
+                    throw new IllegalArgumentException("Cursor de búsqueda no válido");
+                }
+                long cursor = searchKey(cursorSlot);
+                if (cursor >= from) {
+                    from = cursor;
+                    fromInclusive = false;
+                }
+            }
+            Iterator<Long> candidates = searchIndexes.candidates(criteria, from, fromInclusive, to);
+            while (orders.size() < limit && candidates.hasNext()) {
+                PaymentOrder order = view((int) (candidates.next() & 0xFFFF_FFFFL));
+                if (criteria.matches(order)) {
+                    orders.add(order);
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        return orders;
+    }
+
+    /**
+     * Recorre los slots por tramos de {@value #FOR_EACH_CHUNK}: el bloqueo de lectura se
+     * toma para construir las órdenes de un tramo y se suelta antes de entregarlas, así
+     * que un consumidor lento no bloquea las escrituras.
+     */
+    @Override
+    public void forEach(PaymentOrderSearchCriteria criteria, Consumer<PaymentOrder> action) {
+        List<PaymentOrder> chunk = new ArrayList<>(FOR_EACH_CHUNK);
+        for (int from = 0; ; from += FOR_EACH_CHUNK) {
+            chunk.clear();
+            lock.readLock().lock();
+            try {
+                if (from >= size) {
+                    return;
+                }
+                for (int slot = from; slot < Math.min(size, from + FOR_EACH_CHUNK); slot++) {
+                    if (criteria.status() == null || criteria.status() == statusAt(slot)) {
+                        PaymentOrder order = view(slot);
+                        if (criteria.matches(order)) {
+                            chunk.add(order);
+                        }
+                    }
+                }
+            }
+            finally {
+                lock.readLock().unlock();
+            }
+            chunk.forEach(action);
+        }
+    }
+
+    /**
+     * Número de órdenes almacenadas.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        return size();
+    }
+
+    @Override
+    public long countByStatus(PaymentStatus status) {
+        lock.readLock().lock();
+        try {
+            return statusCounts[status.ordinal()];
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los contadores no dependen del bloqueo: se leen sin esperar a las escrituras.
+     */
+    @Override
+    public List<PaymentOrderTotals> totals(String debtorIban, LocalDate requestedExecutionDate) {
+        return totals.totals(debtorIban, requestedExecutionDate);
+    }
+
+    /**
+     * Bytes reservados por columnas, arena e índices.
+     */
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) pages.length * PAGE_SLOTS * SLOT_BYTES + arena.reservedBytes()
+                    + idIndex.tableBytes() + externalIdIndex.tableBytes();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Optional<PaymentOrder> find(SlotHashIndex index, String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        byte[] bytes = utf8(key);
+        lock.readLock().lock();
+        try {
+            int slot = index.find(bytes);
+            return slot < 0 ? Optional.empty() : Optional.of(view(slot));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(int slot, PaymentOrder order) {
+        if (slot >>> PAGE_BITS == pages.length) {
+            pages = Arrays.copyOf(pages, pages.length + 1);
+            pages[pages.length - 1] = new Page();
+        }
+        final Page page = pages[slot >>> PAGE_BITS];
+        final int i = slot & (PAGE_SLOTS - 1);
+
+        scratch.clear();
+        putShortString(scratch, order.getPaymentOrderId());
+        putShortString(scratch, order.getExternalId());
+        putPacked(scratch, order.getDebtorIban());
+        putPacked(scratch, order.getCreditorIban());
+        putPacked(scratch, order.getCurrency());
+        putText(scratch, order.getRemittanceInfo());
+        writeAmount(page, i, order.getAmount());
+        scratch.flip();
+        page.record[i] = arena.append(scratch);
+
+        page.executionDate[i] = order.getRequestedExecutionDate() == null
+                ? NULL_DATE
+                : Math.toIntExact(order.getRequestedExecutionDate().toEpochDay());
+        page.createdAt[i] = toNanos(order.getCreatedAt());
+        page.createdOffset[i] = offsetIndex(order.getCreatedAt());
+        page.lastUpdate[i] = toNanos(order.getLastUpdate());
+        page.lastUpdateOffset[i] = offsetIndex(order.getLastUpdate());
+        page.version[i] = Math.toIntExact(order.getVersion());
+        setStatus(slot, order.getStatus());
+        countStatus(order.getStatus(), 1);
+        totals.add(order);
+        searchIndexes.add(searchKey(slot), order.getDebtorIban(), order.getCreditorIban(), order.getStatus());
+
+        idIndex.put(utf8(order.getPaymentOrderId()), slot);
+        if (order.getExternalId() != null) {
+            externalIdIndex.put(utf8(order.getExternalId()), slot);
+        }
+    }
+
+    /**
+     * Importes que no caben en un long sin escala se guardan como texto al final del registro.
+     */
+    private void writeAmount(Page page, int i, BigDecimal amount) {
+        if (amount == null) {
+            page.amountScale[i] = NULL_SCALE;
+            return;
+        }
+        if (amount.scale() > SCALE_IN_RECORD && amount.scale() <= Byte.MAX_VALUE && amount.unscaledValue().bitLength() < Long.SIZE) {
+            page.amountUnscaled[i] = amount.unscaledValue().longValue();
+            page.amountScale[i] = (byte) amount.scale();
+            return;
+        }
+        page.amountScale[i] = SCALE_IN_RECORD;
+        putShortString(scratch, amount.toString());
+    }
+
+    private void setStatus(int slot, PaymentStatus status) {
+        pages[slot >>> PAGE_BITS].status[slot & (PAGE_SLOTS - 1)] = status == null ? NULL_STATUS : (byte) status.ordinal();
+        if (status != null) {
+            statusLowWater.accumulateAndGet(status.ordinal(), slot, Math::min);
+        }
+    }
+
+    private void countStatus(PaymentStatus status, int delta) {
+        if (status != null) {
+            statusCounts[status.ordinal()] += delta;
+        }
+    }
+
+    private PaymentStatus statusAt(int slot) {
+        byte status = pages[slot >>> PAGE_BITS].status[slot & (PAGE_SLOTS - 1)];
+        return status == NULL_STATUS ? null : STATUSES[status];
+    }
+
+    private long searchKey(int slot) {
+        return (long) pages[slot >>> PAGE_BITS].executionDate[slot & (PAGE_SLOTS - 1)] << Integer.SIZE | slot;
+    }
+
+    private static long startKey(PaymentOrderSearchCriteria criteria) {
+        long day = SecondaryIndexes.epochDay(criteria.executionDateFrom());
+        return Math.max(day, NULL_DATE) << Integer.SIZE;
+    }
+
+    private static long endKey(PaymentOrderSearchCriteria criteria) {
+        long day = SecondaryIndexes.endEpochDay(criteria);
+        return day > Integer.MAX_VALUE ? Long.MAX_VALUE : Math.max(day, NULL_DATE) << Integer.SIZE;
+    }
+
+    private PaymentOrder view(int slot) {
+        Page page = pages[slot >>> PAGE_BITS];
+        int i = slot & (PAGE_SLOTS - 1);
+        ByteBuffer record = arena.read(page.record[i]);
+
+        PaymentOrder.PaymentOrderBuilder order = PaymentOrder.builder()
+                .paymentOrderId(getShortString(record))
+                .externalId(getShortString(record))
+                .debtorIban(getPacked(record))
+                .creditorIban(getPacked(record))
+                .currency(getPacked(record))
+                .remittanceInfo(getText(record));
+        byte scale = page.amountScale[i];
+        if (scale == SCALE_IN_RECORD) {
+            order.amount(new BigDecimal(getShortString(record)));
+        }
+        else if (scale != NULL_SCALE) {
+            order.amount(BigDecimal.valueOf(page.amountUnscaled[i], scale));
+        }
+        int epochDay = page.executionDate[i];
+        byte status = page.status[i];
+        return order
+                .requestedExecutionDate(epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay))
+                .status(status == NULL_STATUS ? null : STATUSES[status])
+                .createdAt(toTimestamp(page.createdAt[i], page.createdOffset[i]))
+                .lastUpdate(toTimestamp(page.lastUpdate[i], page.lastUpdateOffset[i]))
+                .version(page.version[i])
+                .build();
+    }
+
+    private static long toNanos(OffsetDateTime timestamp) {
+        if (timestamp == null) {
+            return NULL_TIMESTAMP;
+        }
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(), NANOS_PER_SECOND), timestamp.getNano());
+    }
+
+    private OffsetDateTime toTimestamp(long nanos, byte offset) {
+        if (nanos == NULL_TIMESTAMP) {
+            return null;
+        }
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND));
+        return OffsetDateTime.ofInstant(instant, offsets[offset]);
+    }
+
+    /**
+     * Los offsets distintos son muy pocos (normalmente uno), así que se guardan por índice.
+     */
+    private byte offsetIndex(OffsetDateTime timestamp) {
+        if (timestamp == null) {
+            return 0;
+        }
+        ZoneOffset offset = timestamp.getOffset();
+        for (int i = 0; i < offsets.length; i++) {
+            if (offsets[i].equals(offset)) {
+                return (byte) i;
+            }
+        }
+        if (offsets.length == MAX_OFFSETS) {
+            throw new IllegalArgumentException("Demasiados offsets horarios distintos");
+        }
+        offsets = Arrays.copyOf(offsets, offsets.length + 1);
+        offsets[offsets.length - 1] = offset;
+        return (byte) (offsets.length - 1);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putShortString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.put((byte) NULL_SHORT_STRING);
+            return;
+        }
+        byte[] bytes = utf8(value);
+        if (bytes.length >= NULL_SHORT_STRING) {
+            throw new IllegalArgumentException("Valor demasiado largo para el almacenamiento compacto: " + value);
+        }
+        buffer.put((byte) bytes.length).put(bytes);
+    }
+
+    private static String getShortString(ByteBuffer buffer) {
+        int length = buffer.get() & 0xFF;
+        return length == NULL_SHORT_STRING ? null : getUtf8(buffer, length);
+    }
+
+    private static void putText(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) NULL_TEXT);
+            return;
+        }
+        byte[] bytes = utf8(value);
+        if (bytes.length >= MAX_RECORD_BYTES / 2) {
+            throw new IllegalArgumentException("Texto demasiado largo para el almacenamiento compacto");
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getText(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        return length == NULL_TEXT ? null : getUtf8(buffer, length);
+    }
+
+    private static String getUtf8(ByteBuffer buffer, int length) {
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Texto alfanumérico en mayúsculas (IBAN, moneda) a 6 bits por carácter; el resto
+     * se guarda tal cual. Cabecera: bit alto = empaquetado, 7 bits bajos = longitud.
+     */
+    private static void putPacked(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.put((byte) NULL_SHORT_STRING);
+            return;
+        }
+        if (value.length() > MAX_PACKED_LENGTH) {
+            throw new IllegalArgumentException("Valor demasiado largo para el almacenamiento compacto: " + value);
+        }
+        if (!isPackable(value)) {
+            byte[] bytes = utf8(value);
+            if (bytes.length > MAX_PACKED_LENGTH) {
+                throw new IllegalArgumentException("Valor demasiado largo para el almacenamiento compacto: " + value);
+            }
+            buffer.put((byte) bytes.length).put(bytes);
+            return;
+        }
+        buffer.put((byte) (PACKED | value.length()));
+        int bits = 0;
+        int accumulator = 0;
+        for (int i = 0; i < value.length(); i++) {
+            accumulator = ((accumulator << 6) | ALPHABET.indexOf(value.charAt(i))) & 0xFFFF;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                buffer.put((byte) (accumulator >>> bits));
+            }
+        }
+        if (bits > 0) {
+            buffer.put((byte) (accumulator << (8 - bits)));
+        }
+    }
+
+    private static String getPacked(ByteBuffer buffer) {
+        int header = buffer.get() & 0xFF;
+        if (header == NULL_SHORT_STRING) {
+            return null;
+        }
+        if ((header & PACKED) == 0) {
+            return getUtf8(buffer, header);
+        }
+        char[] chars = new char[header & MAX_PACKED_LENGTH];
+        int bits = 0;
+        int accumulator = 0;
+        for (int i = 0; i < chars.length; i++) {
+            if (bits < 6) {
+                accumulator = ((accumulator << 8) | (buffer.get() & 0xFF)) & 0xFFFF;
+                bits += 8;
+            }
+            bits -= 6;
+            chars[i] = ALPHABET.charAt((accumulator >>> bits) & 0x3F);
+        }
+        return new String(chars);
+    }
+
+    private static boolean isPackable(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Columnas de {@link #PAGE_SLOTS} órdenes.
+     */
+    private static final class Page {
+        private final long[] record = new long[PAGE_SLOTS];
+        private final long[] amountUnscaled = new long[PAGE_SLOTS];
+        private final byte[] amountScale = new byte[PAGE_SLOTS];
+        private final byte[] status = new byte[PAGE_SLOTS];
+        private final int[] executionDate = new int[PAGE_SLOTS];
+        private final long[] createdAt = new long[PAGE_SLOTS];
+        private final long[] lastUpdate = new long[PAGE_SLOTS];
+        private final byte[] createdOffset = new byte[PAGE_SLOTS];
+        private final byte[] lastUpdateOffset = new byte[PAGE_SLOTS];
+        private final int[] version = new int[PAGE_SLOTS];
+    }
+
+    /**
+     * Compara claves directamente sobre los bytes del registro en la arena:
+     * el ID va al principio y el externalId justo después.
+     */
+    private final class RecordKey implements SlotHashIndex.KeySource {
+
+        private final boolean externalId;
+
+        private RecordKey(boolean externalId) {
+            this.externalId = externalId;
+        }
+
+        @Override
+        public boolean matches(int slot, byte[] key) {
+            long address = address(slot);
+            byte[] page = arena.page(address);
+            int offset = keyOffset(page, ByteArena.offset(address));
+            int length = page[offset] & 0xFF;
+            return length == key.length && Arrays.equals(page, offset + 1, offset + 1 + length, key, 0, key.length);
+        }
+
+        @Override
+        public int hash(int slot) {
+            long address = address(slot);
+            byte[] page = arena.page(address);
+            int offset = keyOffset(page, ByteArena.offset(address));
+            return SlotHashIndex.hash(page, offset + 1, page[offset] & 0xFF);
+        }
+
+        private long address(int slot) {
+            return pages[slot >>> PAGE_BITS].record[slot & (PAGE_SLOTS - 1)];
+        }
+
+        private int keyOffset(byte[] page, int recordOffset) {
+            if (!externalId) {
+                return recordOffset;
+            }
+            int idLength = page[recordOffset] & 0xFF;
+            return recordOffset + 1 + (idLength == NULL_SHORT_STRING ? 0 : idLength);
+        }
+    }
+}
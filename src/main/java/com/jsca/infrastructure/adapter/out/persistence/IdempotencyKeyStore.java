@@ -0,0 +1,376 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.infrastructure.config.IdempotencyProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Claves de idempotencia (externalId a ID de orden) de la última {@code retention}, con un
+ * filtro de Bloom delante para que la consulta de un externalId nuevo, el caso habitual, no
+ * llegue al mapa.
+ *
+ * <p>La retención se divide en {@code buckets} intervalos y cada clave pertenece al de la
+ * creación de su orden. Una clave cuenta mientras su intervalo sea uno de los últimos
+ * {@code buckets} completos o el actual, así que se recuerda al menos {@code retention}.
+ * Las caducadas dejan de verse en el acto y se retiran del mapa poco a poco: cada alta
+ * revisa {@value #SWEEP_PER_INSERT} entradas, así que sin hilo propio ni pausas el mapa no
+ * pasa de unas 4/3 partes de las claves vigentes.
+ *
+ * <p>El filtro va por franjas de bits: cada posición es un {@code long} con un bit por
+ * intervalo del anillo, los {@code buckets + 1} que cuentan y uno de reserva. Comprobar una
+ * clave son {@code k} lecturas y un AND sea cual sea el número de intervalos. La franja de
+ * reserva es la del intervalo que acaba de caducar: no se consulta, y cada alta borra unas
+ * pocas posiciones suyas, así que cuando empieza el intervalo siguiente ya está vacía y el
+ * cambio de intervalo no recorre el filtro. Si un intervalo termina sin altas suficientes
+ * para vaciarla, o el reloj salta varios intervalos, la franja reutilizada conserva bits de
+ * claves caducadas: solo suben los falsos positivos hasta que vuelva a ser la de reserva.
+ * Está dimensionado para {@code expectedKeys} claves por retención con la tasa de falsos
+ * positivos configurada, repartida entre las franjas; con más claves la tasa sube, y la
+ * métrica de la tasa observada lo muestra. Un filtro de más de {@value #MAX_POSITIONS}
+ * posiciones o de más de una cuarta parte del heap se rechaza al arrancar.
+ *
+ * <p>El filtro solo acelera {@link #find}: {@link #putIfAbsent} decide siempre sobre el mapa,
+ * así que una clave que se está dando de alta en ese instante y aún no está en el filtro no
+ * rompe la idempotencia.
+ */
+public final class IdempotencyKeyStore implements MeterBinder {
+
+    private static final int MAX_BUCKETS = Long.SIZE - 2;
+    private static final int MAX_HASHES = 16;
+    private static final int MAX_POSITIONS = 1 << 24;
+    private static final int SWEEP_PER_INSERT = 4;
+
+    private final ConcurrentHashMap<String, Entry> keys = new ConcurrentHashMap<>();
+    private final AtomicLongArray bloom;
+    private final int positions;
+    private final int hashes;
+    private final int buckets;
+    private final int slots;
+    private final int clearPerInsert;
+    private final long bucketMillis;
+    private final Clock clock;
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private final ReentrantLock clearLock = new ReentrantLock();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder found = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private volatile long currentBucket;
+    private Iterator<Map.Entry<String, Entry>> sweep;
+    private volatile int cleared;
+
+    /**
+     * @param clock reloj de los intervalos
+     */
+    public IdempotencyKeyStore(IdempotencyProperties properties, Clock clock) {
+        int buckets = properties.getBuckets();
+        Duration retention = properties.getRetention();
+        double falsePositiveRate = properties.getFalsePositiveRate();
+        if (buckets < 1 || buckets > MAX_BUCKETS || retention.toMillis() < buckets) {
+            throw new IllegalArgumentException("La retención de idempotencia necesita entre 1 y " + MAX_BUCKETS
+                    + " intervalos de al menos 1 ms: " + retention + " en " + buckets + " intervalos");
+        }
+        if (properties.getExpectedKeys() < 1 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("El filtro de Bloom necesita claves esperadas positivas y una tasa"
+                    + " de falsos positivos entre 0 y 1: " + properties.getExpectedKeys() + ", " + falsePositiveRate);
+        }
+        this.buckets = buckets;
+        this.slots = buckets + 2;
+        this.bucketMillis = retention.toMillis() / buckets;
+        this.clock = clock;
+        // Una clave ausente da positivo si lo da en cualquiera de las franjas que cuentan: cada una lleva su parte de la tasa
+        double keysPerBucket = Math.max(1.0, (double) properties.getExpectedKeys() / buckets);
+        double bits = Math.max(Long.SIZE, Math.ceil(-keysPerBucket * Math.log(falsePositiveRate / (buckets + 1))
+                / (Math.log(2) * Math.log(2))));
+        if (bits > MAX_POSITIONS || bits * Long.BYTES > Runtime.getRuntime().maxMemory() / 4.0) {
+            throw new IllegalArgumentException("El filtro de Bloom de " + properties.getExpectedKeys() + " claves con una tasa de "
+                    + falsePositiveRate + " necesita " + (long) bits * Long.BYTES + " bytes, más de lo que admite el heap"
+                    + " o el máximo de " + (long) MAX_POSITIONS * Long.BYTES + "; hay que bajar expected-keys o subir la tasa");
+        }
+        this.positions = (int) bits;
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(positions / keysPerBucket * Math.log(2))));
+        // El doble de lo justo para vaciar la franja de reserva con la mitad de las altas esperadas por intervalo
+        this.clearPerInsert = (int) Math.min(positions, Math.ceil(2 * positions / keysPerBucket));
+        this.bloom = new AtomicLongArray(positions);
+        this.currentBucket = Math.floorDiv(clock.millis(), bucketMillis);
+        this.cleared = positions;
+    }
+
+    /**
+     * ID de la orden registrada con el externalId dentro de la retención, o {@code null}.
+     * Si el filtro de Bloom descarta la clave no se consulta el mapa. No lee el reloj: vale
+     * el intervalo de la última alta, así que sin altas una clave puede durar algo más.
+     */
+    public String find(String externalId) {
+        long bucket = currentBucket;
+        if (!mightContain(hash(externalId), bucket)) {
+            skipped.increment();
+            return null;
+        }
+        Entry entry = keys.get(externalId);
+        if (entry == null || isExpired(entry, bucket)) {
+            falsePositives.increment();
+            return null;
+        }
+        found.increment();
+        return entry.paymentOrderId();
+    }
+
+    /**
+     * Registra el externalId con el ID de la orden salvo que ya haya otro dentro de la
+     * retención. {@code onInsert} se ejecuta bajo el bloqueo de la clave antes de
+     * registrarla: dos altas con el mismo externalId se serializan y solo una lo ejecuta.
+     *
+     * @param createdAt creación de la orden, que decide cuándo caduca la clave; {@code null} es ahora
+     * @return ID de la orden ya registrada, o {@code null} si se ha registrado esta
+     */
+    public String putIfAbsent(String externalId, String paymentOrderId, OffsetDateTime createdAt, Runnable onInsert) {
+        long current = currentBucket();
+        long bucket = Math.max(bucketOf(createdAt, current), current - buckets);
+        String[] existing = new String[1];
+        keys.compute(externalId, (key, entry) -> {
+            if (entry != null && !isExpired(entry, current)) {
+                existing[0] = entry.paymentOrderId();
+                return entry;
+            }
+            onInsert.run();
+            return new Entry(paymentOrderId, bucket);
+        });
+        if (existing[0] == null) {
+            add(hash(externalId), bucket);
+            clearSpare();
+            sweep();
+        }
+        return existing[0];
+    }
+
+    /**
+     * Registra el externalId sin comprobar si ya estaba. Una orden creada antes de la
+     * retención no se registra: al reconstruir el estado solo entran las claves vigentes.
+     *
+     * @param createdAt creación de la orden; {@code null} es ahora
+     */
+    public void put(String externalId, String paymentOrderId, OffsetDateTime createdAt) {
+        long current = currentBucket();
+        long bucket = bucketOf(createdAt, current);
+        if (bucket < current - buckets) {
+            return;
+        }
+        keys.put(externalId, new Entry(paymentOrderId, bucket));
+        add(hash(externalId), bucket);
+        clearSpare();
+        sweep();
+    }
+
+    /**
+     * Claves en el mapa, incluidas las caducadas que el barrido aún no ha retirado.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Memoria del filtro de Bloom, fija desde la creación.
+     */
+    public long bloomFilterBytes() {
+        return (long) positions * Long.BYTES;
+    }
+
+    /**
+     * Proporción de consultas de claves no registradas que el filtro de Bloom no descartó.
+     */
+    public double falsePositiveRate() {
+        long positives = falsePositives.sum();
+        long negatives = positives + skipped.sum();
+        return negatives == 0 ? 0.0 : (double) positives / negatives;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lookupCounter(registry, "skipped", skipped, "Consultas de externalId descartadas por el filtro de Bloom");
+        lookupCounter(registry, "found", found, "Consultas de externalId registrado en la retención");
+        lookupCounter(registry, "false_positive", falsePositives,
+                "Consultas de externalId que el filtro de Bloom no descartó sin estar registrado");
+        FunctionCounter.builder("payment.idempotency.expired", expired, LongAdder::sum)
+                .description("Claves de idempotencia retiradas al caducar")
+                .register(registry);
+        Gauge.builder("payment.idempotency.keys", this, IdempotencyKeyStore::size)
+                .description("Claves de idempotencia en memoria, incluidas las caducadas aún sin retirar")
+                .register(registry);
+        Gauge.builder("payment.idempotency.bloom.false_positive_rate", this, IdempotencyKeyStore::falsePositiveRate)
+                .description("Proporción de consultas de claves no registradas que el filtro de Bloom no descartó")
+                .register(registry);
+        Gauge.builder("payment.idempotency.bloom.bytes", this, IdempotencyKeyStore::bloomFilterBytes)
+                .description("Memoria del filtro de Bloom de claves de idempotencia")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static void lookupCounter(MeterRegistry registry, String result, LongAdder counter, String description) {
+        FunctionCounter.builder("payment.idempotency.lookups", counter, LongAdder::sum)
+                .tag("result", result)
+                .description(description)
+                .register(registry);
+    }
+
+    private long bucketOf(OffsetDateTime createdAt, long current) {
+        return createdAt == null ? current : Math.min(current, Math.floorDiv(createdAt.toInstant().toEpochMilli(), bucketMillis));
+    }
+
+    private boolean isExpired(Entry entry, long current) {
+        return entry.bucket() < current - buckets;
+    }
+
+    /**
+     * Intervalo en curso; si el reloj retrocede se sigue en el último visto. Pasar al
+     * siguiente no toca el filtro: su franja es la de reserva, que las altas ya han vaciado.
+     */
+    private long currentBucket() {
+        long bucket = Math.floorDiv(clock.millis(), bucketMillis);
+        long current = currentBucket;
+        return bucket > current ? advance(bucket) : current;
+    }
+
+    /**
+     * Cambia de intervalo bajo el mismo bloqueo que el vaciado de la franja de reserva, que
+     * así nunca borra bits de un intervalo que ya cuenta; como mucho espera a un tramo.
+     */
+    private long advance(long bucket) {
+        clearLock.lock();
+        try {
+            long previous = currentBucket;
+            if (bucket <= previous) {
+                return previous;
+            }
+            currentBucket = bucket;
+            cleared = 0;
+            return bucket;
+        }
+        finally {
+            clearLock.unlock();
+        }
+    }
+
+    /**
+     * Borra el siguiente tramo de la franja de reserva; si otra alta lo está haciendo, no espera.
+     */
+    private void clearSpare() {
+        if (cleared >= positions || !clearLock.tryLock()) {
+            return;
+        }
+        try {
+            long mask = ~(1L << Math.floorMod(currentBucket + 1, slots));
+            int end = Math.min(positions, cleared + clearPerInsert);
+            for (int i = cleared; i < end; i++) {
+                if ((bloom.get(i) & ~mask) != 0) {
+                    bloom.getAndAccumulate(i, mask, (word, bits) -> word & bits);
+                }
+            }
+            cleared = end;
+        }
+        finally {
+            clearLock.unlock();
+        }
+    }
+
+    /**
+     * Posiciones por doble hash (Kirsch-Mitzenmacher) sobre las dos mitades del hash de 64
+     * bits, llevadas al rango con una multiplicación en lugar de un módulo. La franja de
+     * reserva no cuenta: tiene claves caducadas o bits a medio borrar.
+     */
+    private boolean mightContain(long hash, long current) {
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        long live = ~(1L << Math.floorMod(current + 1, slots));
+        for (int i = 0; i < hashes && live != 0; i++) {
+            live &= bloom.get(position(first + i * second));
+        }
+        return live != 0;
+    }
+
+    private void add(long hash, long bucket) {
+        long bit = 1L << Math.floorMod(bucket, slots);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int position = position(first + i * second);
+            if ((bloom.get(position) & bit) == 0) {
+                bloom.getAndAccumulate(position, bit, (word, mask) -> word | mask);
+            }
+        }
+    }
+
+    private int position(int hash) {
+        return (int) (((hash & 0xffffffffL) * positions) >>> 32);
+    }
+
+    /**
+     * Avanza el barrido de claves caducadas; si otro hilo está barriendo, no espera.
+     */
+    private void sweep() {
+        if (!sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            long current = currentBucket;
+            for (int i = 0; i < SWEEP_PER_INSERT; i++) {
+                if (sweep == null || !sweep.hasNext()) {
+                    sweep = keys.entrySet().iterator();
+                    return;
+                }
+                Map.Entry<String, Entry> next = sweep.next();
+                if (isExpired(next.getValue(), current) && keys.remove(next.getKey(), next.getValue())) {
+                    expired.increment();
+                }
+            }
+        }
+        finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * Hash de 64 bits de todos los caracteres del externalId, de cuatro en cuatro con las
+     * constantes de MurmurHash3 y su mezcla final. Partir del {@code hashCode} de 32 bits
+     * haría que dos claves con el mismo {@code hashCode} coincidieran en todas las posiciones.
+     */
+    private static long hash(String externalId) {
+        int length = externalId.length();
+        long hash = length * 0x9e3779b97f4a7c15L;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            hash = mix(hash, externalId.charAt(i) | (long) externalId.charAt(i + 1) << 16
+                    | (long) externalId.charAt(i + 2) << 32 | (long) externalId.charAt(i + 3) << 48);
+        }
+        if (i < length) {
+            long tail = 0;
+            for (int shift = 0; i < length; i++, shift += Character.SIZE) {
+                tail |= (long) externalId.charAt(i) << shift;
+            }
+            hash = mix(hash, tail);
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static long mix(long hash, long block) {
+        return Long.rotateLeft(hash ^ Long.rotateLeft(block * 0x87c37b91114253d5L, 31) * 0x4cf5ad432745937fL, 27)
+                * 5 + 0x52dce729;
+    }
+
+    private record Entry(String paymentOrderId, long bucket) {
+    }
+}
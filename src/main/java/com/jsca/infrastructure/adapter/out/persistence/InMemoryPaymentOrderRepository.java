@@ -1,50 +1,447 @@
 package com.jsca.infrastructure.adapter.out.persistence;
 
+import com.jsca.domain.model.DuplicatePaymentOrderIdException;
 import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
 import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
+import com.jsca.domain.model.TransitionOutcome;
 import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.config.IdempotencyProperties;
+import com.jsca.infrastructure.config.RetentionProperties;
+import com.jsca.infrastructure.config.TotalsProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Implementación en memoria del repositorio de órdenes de pago.
+ * Es la implementación por defecto ({@code payment.repository.type=memory}).
+ *
+ * <p>Con la retención activada ({@code payment.repository.retention.enabled}) las órdenes
+ * en estado terminal pasan periódicamente a un {@link PaymentOrderArchive} en disco y
+ * {@code findById}, {@code findByExternalId} y la idempotencia de {@code saveIfAbsent}
+ * siguen encontrándolas allí. Las búsquedas y {@code findByStatus} cubren solo memoria;
+ * los totales por deudor ({@code totals}) incluyen también las archivadas.
+ *
+ * <p>La idempotencia por externalId la resuelve un {@link IdempotencyKeyStore}: un externalId
+ * se recuerda durante la retención configurada ({@code payment.repository.idempotency}) y
+ * después el mismo externalId crea una orden nueva. Un externalId que no ha llegado nunca
+ * lo descarta su filtro de Bloom sin consultar índices ni archivo.
  */
+@Slf4j
 @Repository
+@ConditionalOnProperty(prefix = "payment.repository", name = "type", havingValue = "memory", matchIfMissing = true)
 public class InMemoryPaymentOrderRepository  implements PaymentOrderRepository {
 
+    private static final int ARCHIVE_BATCH = 1024;
+
     private final Map<String, PaymentOrder> storage = new ConcurrentHashMap<>();
-    private final Map<String, String> externalIdIndex = new ConcurrentHashMap<>();
+    private final IdempotencyKeyStore idempotencyKeys;
+    private final Map<PaymentStatus, Set<String>> statusIndex = new EnumMap<>(PaymentStatus.class);
+    private final SecondaryIndexes<SearchKey> searchIndexes = SecondaryIndexes.concurrent();
+    private final RunningTotals totals;
+    private final PaymentOrderArchive archive;
+    private final Set<String> archivedInMemory = ConcurrentHashMap.newKeySet();
+    private final Set<PaymentStatus> archivedStatuses = EnumSet.noneOf(PaymentStatus.class);
+    private final Duration archiveMinAge;
+    private final ScheduledExecutorService retentionScheduler;
+
+    public InMemoryPaymentOrderRepository() {
+        this(new RetentionProperties());
+    }
+
+    public InMemoryPaymentOrderRepository(RetentionProperties retention) {
+        this(retention, new IdempotencyKeyStore(new IdempotencyProperties(), Clock.systemUTC()), new TotalsProperties());
+    }
+
+    @Autowired
+    public InMemoryPaymentOrderRepository(RetentionProperties retention, IdempotencyKeyStore idempotencyKeys,
+                                          TotalsProperties totalsProperties) {
+        this.idempotencyKeys = idempotencyKeys;
+        this.totals = new RunningTotals(totalsProperties.getRetention(), Clock.systemDefaultZone());
+        for (PaymentStatus status : PaymentStatus.values()) {
+            statusIndex.put(status, ConcurrentHashMap.newKeySet());
+        }
+        this.archive = retention.isEnabled()
+                ? new PaymentOrderArchive(Path.of(retention.getDirectory()), retention.getSegmentSize().toBytes())
+                : null;
+        if (archive != null) {
+            // Las órdenes archivadas en ejecuciones anteriores ya no vuelven a memoria
+            archive.forEach(order -> {
+                totals.add(order);
+                idempotencyKeys.put(order.getExternalId(), order.getPaymentOrderId(), order.getCreatedAt());
+            });
+        }
+        this.archivedStatuses.addAll(retention.getStatuses());
+        this.archiveMinAge = retention.getMinAge();
+        this.retentionScheduler = scheduleRetention(retention.getInterval());
+    }
 
     @Override
     public PaymentOrder save(PaymentOrder paymentOrder) {
-        storage.put(paymentOrder.getPaymentOrderId(), paymentOrder);
-        externalIdIndex.put(paymentOrder.getExternalId(), paymentOrder.getPaymentOrderId());
+        String paymentOrderId = paymentOrder.getPaymentOrderId();
+        storage.compute(paymentOrderId, (key, previous) -> {
+            if (previous == null && archive != null && archive.contains(key)) {
+                archivedInMemory.add(key);
+            }
+            if (previous != null) {
+                statusIndex.values().forEach(ids -> ids.remove(key));
+                searchIndexes.remove(SearchKey.of(previous), previous.getDebtorIban(),
+                        previous.getCreditorIban(), previous.getStatus());
+                totals.remove(previous);
+            }
+            index(key, paymentOrder.getStatus());
+            totals.add(paymentOrder);
+            searchIndexes.add(SearchKey.of(paymentOrder), paymentOrder.getDebtorIban(),
+                    paymentOrder.getCreditorIban(), paymentOrder.getStatus());
+            return paymentOrder;
+        });
+        idempotencyKeys.put(paymentOrder.getExternalId(), paymentOrderId, paymentOrder.getCreatedAt());
         return paymentOrder;
     }
 
+    /**
+     * El alta se hace bajo el bloqueo de la clave en {@link IdempotencyKeyStore}, así que
+     * inserciones con distinto externalId no compiten entre sí. Las claves de órdenes ya
+     * archivadas siguen registradas y {@code findById} las encuentra en disco. Un
+     * paymentOrderId que ya existe, en memoria o archivado, se rechaza sin tocar la orden guardada.
+     */
     @Override
-    public Optional<PaymentOrder> findById(String paymentOrderId) {
-        return Optional.ofNullable(storage.get(paymentOrderId));
+    public Optional<PaymentOrder> saveIfAbsent(PaymentOrder paymentOrder) {
+        String paymentOrderId = paymentOrder.getPaymentOrderId();
+        String storedId = idempotencyKeys.putIfAbsent(paymentOrder.getExternalId(), paymentOrderId,
+                paymentOrder.getCreatedAt(), () -> {
+                    if ((archive != null && archive.contains(paymentOrderId))
+                            || storage.putIfAbsent(paymentOrderId, paymentOrder) != null) {
+                        throw new DuplicatePaymentOrderIdException(paymentOrderId);
+                    }
+                    index(paymentOrderId, paymentOrder.getStatus());
+                    totals.add(paymentOrder);
+                    searchIndexes.add(SearchKey.of(paymentOrder), paymentOrder.getDebtorIban(),
+                            paymentOrder.getCreditorIban(), paymentOrder.getStatus());
+                });
+        if (storedId == null || storedId.equals(paymentOrderId)) {
+            return Optional.empty();
+        }
+        return findById(storedId);
     }
 
     @Override
-    public void updateStatus(String paymentOrderId, PaymentStatus status) {
+    public Optional<PaymentOrder> findById(String paymentOrderId) {
         PaymentOrder order = storage.get(paymentOrderId);
-        if (order != null) {
-            order.updateStatus(status);
-            storage.put(paymentOrderId, order);
+        if (order != null || archive == null) {
+            return Optional.ofNullable(order);
+        }
+        return archive.findById(paymentOrderId);
+    }
+
+    /**
+     * La instantánea nueva sustituye a la actual dentro del compute de la orden, junto con
+     * los índices, así que dos transiciones de la misma orden se serializan y la segunda
+     * ve la versión que dejó la primera. Las lecturas ({@code storage.get}) no esperan a
+     * ningún bloqueo: ven la instantánea anterior o la nueva, nunca una mezcla.
+     *
+     * <p>Una orden que solo está en el archivo tiene estado terminal: ninguna transición es legal.
+     */
+    @Override
+    public StatusTransitionResult transitionStatus(StatusTransition transition) {
+        StatusTransitionResult[] result = {StatusTransitionResult.notFound()};
+        storage.computeIfPresent(transition.paymentOrderId(), (key, current) -> {
+            result[0] = transition.applyTo(current, OffsetDateTime.now());
+            if (!result[0].isApplied()) {
+                return current;
+            }
+            PaymentOrder next = result[0].getPaymentOrder();
+            reindex(current, next.getStatus());
+            return next;
+        });
+        if (result[0].getOutcome() == TransitionOutcome.NOT_FOUND && archive != null) {
+            return archive.findById(transition.paymentOrderId())
+                    .map(StatusTransitionResult::illegalTransition)
+                    .orElse(result[0]);
+        }
+        return result[0];
+    }
+
+    @Override
+    public List<PaymentOrder> findByStatus(PaymentStatus status, int limit) {
+        Set<String> ids = statusIndex.get(status);
+        List<PaymentOrder> orders = new ArrayList<>(Math.min(limit, ids.size()));
+        for (String paymentOrderId : ids) {
+            if (orders.size() >= limit) {
+                break;
+            }
+            PaymentOrder order = storage.get(paymentOrderId);
+            if (order != null && order.getStatus() == status) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Recorre el índice secundario más selectivo desde el cursor y comprueba el resto
+     * de filtros contra la orden almacenada.
+     */
+    @Override
+    public List<PaymentOrder> search(PaymentOrderSearchCriteria criteria, PaymentOrderCursor after, int limit) {
+        SearchKey from = new SearchKey(SecondaryIndexes.epochDay(criteria.executionDateFrom()), "");
+        boolean fromInclusive = true;
+        if (after != null) {
+            SearchKey cursor = new SearchKey(SecondaryIndexes.epochDay(after.requestedExecutionDate()), after.paymentOrderId());
+            if (cursor.compareTo(from) >= 0) {
+                from = cursor;
+                fromInclusive = false;
+            }
+        }
+        SearchKey to = new SearchKey(SecondaryIndexes.endEpochDay(criteria), "");
+        Iterator<SearchKey> candidates = searchIndexes.candidates(criteria, from, fromInclusive, to);
+        List<PaymentOrder> orders = new ArrayList<>(Math.min(limit, 1024));
+        while (orders.size() < limit && candidates.hasNext()) {
+            PaymentOrder order = storage.get(candidates.next().paymentOrderId());
+            if (order != null && criteria.matches(order)) {
+                orders.add(order);
+            }
         }
+        return orders;
     }
 
     @Override
     public Optional<PaymentOrder> findByExternalId(String externalId) {
-        String paymentOrderId = externalIdIndex.get(externalId);
-        if (paymentOrderId == null) {
-            return Optional.empty();
+        String paymentOrderId = idempotencyKeys.find(externalId);
+        return paymentOrderId == null ? Optional.empty() : findById(paymentOrderId);
+    }
+
+    /**
+     * Recorre primero la memoria y después el archivo, saltando las órdenes archivadas que
+     * siguen en memoria porque cambiaron después de archivarse.
+     */
+    @Override
+    public void forEach(PaymentOrderSearchCriteria criteria, Consumer<PaymentOrder> action) {
+        for (PaymentOrder order : storage.values()) {
+            if (criteria.matches(order)) {
+                action.accept(order);
+            }
+        }
+        if (archive != null && (criteria.status() == null || archivedStatuses.contains(criteria.status()))) {
+            archive.forEach(order -> {
+                if (criteria.matches(order) && !storage.containsKey(order.getPaymentOrderId())) {
+                    action.accept(order);
+                }
+            });
+        }
+    }
+
+    /**
+     * Pasa al archivo las órdenes en estado terminal cuya última actualización supera la
+     * antigüedad configurada y las retira de memoria. Cada lote está en disco antes de
+     * retirarse, así que una orden siempre se encuentra en alguno de los dos niveles.
+     *
+     * @return número de órdenes retiradas de memoria
+     */
+    public int archiveTerminalOrders() {
+        if (archive == null) {
+            return 0;
+        }
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(archiveMinAge);
+        List<PaymentOrder> batch = new ArrayList<>(ARCHIVE_BATCH);
+        int archived = 0;
+        for (PaymentStatus status : archivedStatuses) {
+            for (String paymentOrderId : statusIndex.get(status)) {
+                PaymentOrder order = storage.get(paymentOrderId);
+                if (order != null && order.getStatus() == status
+                        && order.getLastUpdate() != null && order.getLastUpdate().isBefore(cutoff)) {
+                    batch.add(order);
+                }
+                if (batch.size() == ARCHIVE_BATCH) {
+                    archived += evict(batch);
+                    batch.clear();
+                }
+            }
+        }
+        return archived + evict(batch);
+    }
+
+    /**
+     * Órdenes en memoria más las archivadas, sin contar dos veces las que siguen en memoria
+     * porque cambiaron después de archivarse.
+     */
+    @Override
+    public long count() {
+        return (long) storage.size() + archivedSize() - archivedInMemory.size();
+    }
+
+    @Override
+    public long countByStatus(PaymentStatus status) {
+        return statusIndex.get(status).size();
+    }
+
+    /**
+     * Las órdenes siguen contando al archivarse: el archivo no cambia sus totales.
+     */
+    @Override
+    public List<PaymentOrderTotals> totals(String debtorIban, LocalDate requestedExecutionDate) {
+        return totals.totals(debtorIban, requestedExecutionDate);
+    }
+
+    /**
+     * Número de órdenes en el archivo en disco.
+     */
+    public int archivedSize() {
+        return archive == null ? 0 : archive.size();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (retentionScheduler != null) {
+            retentionScheduler.shutdownNow();
+        }
+        if (archive != null) {
+            archive.close();
+        }
+    }
+
+    /**
+     * Recorre todas las órdenes almacenadas sin copiar el mapa.
+     */
+    public void forEach(Consumer<PaymentOrder> action) {
+        storage.values().forEach(action);
+    }
+
+    /**
+     * Número de órdenes almacenadas en memoria.
+     */
+    public int size() {
+        return storage.size();
+    }
+
+    /**
+     * Restaura un cambio de estado ya persistido conservando su timestamp original, sin
+     * comprobar versión ni máquina de estados. Lo usa la reproducción del journal.
+     *
+     * @param version versión tras el cambio; 0 si el registro no la guarda (la siguiente)
+     */
+    public void restoreStatus(String paymentOrderId, PaymentStatus status, OffsetDateTime lastUpdate, long version) {
+        storage.computeIfPresent(paymentOrderId, (key, order) -> {
+            reindex(order, status);
+            PaymentOrder restored = order.withStatus(status, lastUpdate);
+            return version > 0 ? restored.toBuilder().version(version).build() : restored;
+        });
+    }
+
+    /**
+     * Escribe el lote en el archivo y retira de memoria las órdenes que no han cambiado
+     * desde que se leyeron; las que sí, siguen en memoria y las lecturas las ven primero.
+     * Cada cambio guarda una instantánea nueva, así que basta con comparar la instancia.
+     */
+    private int evict(List<PaymentOrder> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        archive.append(batch);
+        int evicted = 0;
+        for (PaymentOrder order : batch) {
+            PaymentOrder remaining = storage.computeIfPresent(order.getPaymentOrderId(), (key, current) -> {
+                if (current != order) {
+                    return current;
+                }
+                statusIndex.get(current.getStatus()).remove(key);
+                searchIndexes.remove(SearchKey.of(current), current.getDebtorIban(),
+                        current.getCreditorIban(), current.getStatus());
+                return null;
+            });
+            if (remaining == null) {
+                archivedInMemory.remove(order.getPaymentOrderId());
+                evicted++;
+            }
+            else {
+                archivedInMemory.add(order.getPaymentOrderId());
+            }
+        }
+        return evicted;
+    }
+
+    private ScheduledExecutorService scheduleRetention(Duration interval) {
+        if (archive == null || interval.isZero() || interval.isNegative()) {
+            return null;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                int archived = archiveTerminalOrders();
+                if (archived > 0) {
+                    log.info("Archivadas {} órdenes terminales; {} en memoria, {} en disco",
+                            archived, size(), archivedSize());
+                }
+            }
+            catch (RuntimeException ex) {
+                log.error("Error archivando órdenes terminales", ex);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    private void index(String paymentOrderId, PaymentStatus status) {
+        if (status != null) {
+            statusIndex.get(status).add(paymentOrderId);
+        }
+    }
+
+    /**
+     * Mueve la orden, con su estado aún sin cambiar, a los índices y totales del nuevo estado.
+     */
+    private void reindex(PaymentOrder order, PaymentStatus status) {
+        if (order.getStatus() != null) {
+            statusIndex.get(order.getStatus()).remove(order.getPaymentOrderId());
+        }
+        index(order.getPaymentOrderId(), status);
+        searchIndexes.changeStatus(SearchKey.of(order), order.getStatus(), status);
+        totals.changeStatus(order, order.getStatus(), status);
+    }
+
+    /**
+     * Clave de los índices secundarios: fecha de ejecución solicitada y, a igual fecha, ID.
+     */
+    private record SearchKey(long epochDay, String paymentOrderId) implements Comparable<SearchKey> {
+
+        static SearchKey of(PaymentOrder order) {
+            return new SearchKey(SecondaryIndexes.epochDay(order.getRequestedExecutionDate()), order.getPaymentOrderId());
+        }
+
+        @Override
+        public int compareTo(SearchKey other) {
+            int byDate = Long.compare(epochDay, other.epochDay);
+            return byDate != 0 ? byDate : paymentOrderId.compareTo(other.paymentOrderId);
         }
-        return findById(paymentOrderId);
     }
 }
@@ -0,0 +1,22 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+/**
+ * Política de sincronización a disco del journal.
+ */
+public enum JournalSyncMode {
+    /**
+     * Fuerza a disco cada registro antes de confirmar la escritura.
+     */
+    ALWAYS,
+
+    /**
+     * Group commit: un hilo fuerza a disco en cuanto hay escrituras pendientes y
+     * cada flush confirma a la vez todas las que esperaban.
+     */
+    GROUP,
+
+    /**
+     * Deja el volcado al sistema operativo; solo se fuerza al rotar y al cerrar.
+     */
+    OS
+}
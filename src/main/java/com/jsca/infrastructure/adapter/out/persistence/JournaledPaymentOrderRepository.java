@@ -0,0 +1,359 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.config.IdempotencyProperties;
+import com.jsca.infrastructure.config.JournalProperties;
+import com.jsca.infrastructure.config.RetentionProperties;
+import com.jsca.infrastructure.config.TotalsProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Repositorio persistente: mantiene las órdenes en memoria y registra cada alta y
+ * cada cambio de estado en un journal mapeado en memoria ({@code payment.repository.type=journal}).
+ *
+ * <p>Periódicamente escribe un snapshot compacto con el estado actual y descarta el journal
+ * ya cubierto. Al arrancar reconstruye el estado cargando el último snapshot y reproduciendo
+ * el journal posterior.
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(prefix = "payment.repository", name = "type", havingValue = "journal")
+public final class JournaledPaymentOrderRepository implements PaymentOrderRepository {
+
+    private static final byte SAVE_RECORD = 1;
+    private static final byte STATUS_RECORD = 2;
+    private static final int SNAPSHOT_MAGIC = 0x504F534E;
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final int SNAPSHOT_BUFFER_BYTES = 1 << 20;
+
+    private final InMemoryPaymentOrderRepository delegate;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(PaymentOrderCodec.MAX_RECORD_BYTES);
+    private final Object snapshotMonitor = new Object();
+    private final Path directory;
+    private final MappedJournal journal;
+    private final ScheduledExecutorService snapshotScheduler;
+
+    public JournaledPaymentOrderRepository(JournalProperties properties) {
+        this(properties, new IdempotencyKeyStore(new IdempotencyProperties(), Clock.systemUTC()), new TotalsProperties());
+    }
+
+    /**
+     * Al reconstruir el estado solo se registran las claves de idempotencia de las órdenes
+     * creadas dentro de la retención.
+     */
+    @Autowired
+    public JournaledPaymentOrderRepository(JournalProperties properties, IdempotencyKeyStore idempotencyKeys,
+                                           TotalsProperties totalsProperties) {
+        this.delegate = new InMemoryPaymentOrderRepository(new RetentionProperties(), idempotencyKeys, totalsProperties);
+        this.directory = Path.of(properties.getDirectory());
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            long firstGeneration = loadSnapshot();
+            this.journal = new MappedJournal(directory, (int) properties.getSegmentSize().toBytes(),
+                    properties.getSyncMode(), properties.getGroupCommitInterval(),
+                    firstGeneration, this::replay);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo abrir el journal en " + directory, ex);
+        }
+        log.info("Recuperadas {} órdenes de {} en {} ms", delegate.size(), directory,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        this.snapshotScheduler = scheduleSnapshots(properties.getSnapshotInterval());
+    }
+
+    @Override
+    public PaymentOrder save(PaymentOrder paymentOrder) {
+        long sequence;
+        writeLock.lock();
+        try {
+            delegate.save(paymentOrder);
+            sequence = append(SAVE_RECORD, paymentOrder);
+        }
+        finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(sequence);
+        return paymentOrder;
+    }
+
+    @Override
+    public Optional<PaymentOrder> saveIfAbsent(PaymentOrder paymentOrder) {
+        Optional<PaymentOrder> existing;
+        long sequence;
+        writeLock.lock();
+        try {
+            existing = delegate.saveIfAbsent(paymentOrder);
+            if (existing.isPresent()) {
+                return existing;
+            }
+            sequence = append(SAVE_RECORD, paymentOrder);
+        }
+        finally {
+            writeLock.unlock();
+        }
+        journal.awaitDurable(sequence);
+        return existing;
+    }
+
+    @Override
+    public Optional<PaymentOrder> findById(String paymentOrderId) {
+        return delegate.findById(paymentOrderId);
+    }
+
+    /**
+     * Solo se registran las transiciones aplicadas; un conflicto no escribe en el journal.
+     */
+    @Override
+    public StatusTransitionResult transitionStatus(StatusTransition transition) {
+        return transitionStatuses(List.of(transition)).get(0);
+    }
+
+    /**
+     * Aplica y registra todas las transiciones bajo un único bloqueo y espera una sola vez
+     * a disco. Los resultados se devuelven cuando las aplicadas ya son durables.
+     */
+    @Override
+    public List<StatusTransitionResult> transitionStatuses(List<StatusTransition> transitions) {
+        List<StatusTransitionResult> results = new ArrayList<>(transitions.size());
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            for (StatusTransition transition : transitions) {
+                StatusTransitionResult result = delegate.transitionStatus(transition);
+                if (result.isApplied()) {
+                    sequence = append(STATUS_RECORD, result.getPaymentOrder());
+                }
+                results.add(result);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+        if (sequence > 0) {
+            journal.awaitDurable(sequence);
+        }
+        return results;
+    }
+
+    @Override
+    public List<PaymentOrder> findByStatus(PaymentStatus status, int limit) {
+        return delegate.findByStatus(status, limit);
+    }
+
+    @Override
+    public List<PaymentOrder> search(PaymentOrderSearchCriteria criteria, PaymentOrderCursor after, int limit) {
+        return delegate.search(criteria, after, limit);
+    }
+
+    @Override
+    public Optional<PaymentOrder> findByExternalId(String externalId) {
+        return delegate.findByExternalId(externalId);
+    }
+
+    @Override
+    public void forEach(PaymentOrderSearchCriteria criteria, Consumer<PaymentOrder> action) {
+        delegate.forEach(criteria, action);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countByStatus(PaymentStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    /**
+     * La reproducción del journal pasa por el repositorio en memoria, así que los totales
+     * se reconstruyen al arrancar sin guardarse aparte.
+     */
+    @Override
+    public List<PaymentOrderTotals> totals(String debtorIban, LocalDate requestedExecutionDate) {
+        return delegate.totals(debtorIban, requestedExecutionDate);
+    }
+
+    /**
+     * Escribe un snapshot con el estado actual y elimina el journal que cubre.
+     * El journal se rota antes de recorrer las órdenes, así que los cambios
+     * concurrentes quedan en la nueva generación y se reaplican al arrancar.
+     */
+    public void snapshot() {
+        synchronized (snapshotMonitor) {
+            try {
+                long firstGeneration = journal.rotate();
+                writeSnapshot(firstGeneration);
+                journal.deleteGenerationsBefore(firstGeneration);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException("No se pudo escribir el snapshot en " + directory, ex);
+            }
+        }
+    }
+
+    /**
+     * Escribe un snapshot final para que el siguiente arranque no reproduzca el journal.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        snapshot();
+        journal.close();
+    }
+
+    private long append(byte type, PaymentOrder paymentOrder) {
+        scratch.clear();
+        if (type == SAVE_RECORD) {
+            PaymentOrderCodec.writeOrder(scratch, paymentOrder);
+        }
+        else {
+            PaymentOrderCodec.writeStatusChange(scratch, paymentOrder);
+        }
+        scratch.flip();
+        return journal.append(type, scratch);
+    }
+
+    private void replay(byte type, ByteBuffer payload) {
+        if (type == SAVE_RECORD) {
+            delegate.save(PaymentOrderCodec.readOrder(payload));
+            return;
+        }
+        String paymentOrderId = PaymentOrderCodec.readString(payload);
+        PaymentStatus status = PaymentOrderCodec.readStatus(payload);
+        OffsetDateTime lastUpdate = PaymentOrderCodec.readTimestamp(payload);
+        delegate.restoreStatus(paymentOrderId, status, lastUpdate, PaymentOrderCodec.readVersion(payload));
+    }
+
+    /**
+     * Carga el snapshot si existe y devuelve la primera generación del journal a reproducir.
+     */
+    private long loadSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Snapshot con formato desconocido: " + file);
+            }
+            long firstGeneration = buffer.getLong();
+            int length = buffer.getInt();
+            while (length > 0) {
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                delegate.save(PaymentOrderCodec.readOrder(record));
+                buffer.position(buffer.position() + length);
+                length = buffer.getInt();
+            }
+            long expected = buffer.getLong();
+            if (expected != delegate.size()) {
+                throw new IOException("Snapshot incompleto: se esperaban " + expected
+                        + " órdenes y se leyeron " + delegate.size());
+            }
+            return firstGeneration;
+        }
+    }
+
+    /**
+     * Escribe en un fichero temporal y lo renombra de forma atómica al terminar.
+     */
+    private void writeSnapshot(long firstGeneration) throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_BYTES);
+            ByteBuffer record = ByteBuffer.allocate(PaymentOrderCodec.MAX_RECORD_BYTES);
+            buffer.putInt(SNAPSHOT_MAGIC).putLong(firstGeneration);
+            long[] count = {0};
+            delegate.forEach(order -> {
+                record.clear();
+                PaymentOrderCodec.writeOrder(record, order);
+                record.flip();
+                if (buffer.remaining() < Integer.BYTES + record.remaining()) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(record.remaining()).put(record);
+                count[0]++;
+            });
+            if (buffer.remaining() < Integer.BYTES + Long.BYTES) {
+                drain(channel, buffer);
+            }
+            buffer.putInt(0).putLong(count[0]);
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        buffer.clear();
+    }
+
+    private ScheduledExecutorService scheduleSnapshots(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            return null;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            }
+            catch (RuntimeException ex) {
+                log.error("Error escribiendo el snapshot del journal", ex);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+}
@@ -0,0 +1,378 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal append-only sobre ficheros mapeados en memoria.
+ *
+ * <p>Cada generación es un fichero {@code journal-<n>.log} que crece por regiones de
+ * {@code segmentSize} bytes. Un registro es {@code [longitud][crc32c][tipo][payload]}
+ * y nunca cruza regiones; una longitud -1 indica salto a la siguiente región y una
+ * longitud 0 el final de los datos. Al reabrir, la reproducción se detiene en el primer
+ * registro incompleto o con CRC inválido y las escrituras continúan desde ahí.
+ */
+final class MappedJournal implements Closeable {
+
+    /**
+     * Recibe cada registro válido durante la reproducción.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(byte type, ByteBuffer payload);
+    }
+
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Byte.BYTES;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String FILE_PREFIX = "journal-";
+    private static final String FILE_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final JournalSyncMode syncMode;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Object durableMonitor = new Object();
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private int segmentSyncedOffset;
+    private long writtenSequence;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+
+    /**
+     * Abre el journal reproduciendo todas las generaciones desde {@code firstGeneration}.
+     */
+    MappedJournal(Path directory, int segmentSize, JournalSyncMode syncMode,
+                  Duration groupCommitInterval, long firstGeneration,
+                  RecordHandler handler) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncMode = syncMode;
+        deleteGenerationsBefore(firstGeneration);
+
+        List<Long> generations = listGenerations();
+        long resumeOffset = 0;
+        for (long existing : generations) {
+            resumeOffset = replay(existing, handler);
+        }
+        this.generation = generations.isEmpty() ? firstGeneration : generations.get(generations.size() - 1);
+        openForAppend(resumeOffset);
+
+        if (syncMode == JournalSyncMode.GROUP) {
+            long lingerNanos = groupCommitInterval.toNanos();
+            this.flusher = new Thread(() -> flushLoop(lingerNanos), "journal-group-commit");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        }
+        else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Añade un registro y devuelve su número de secuencia para {@link #awaitDurable}.
+     */
+    long append(byte type, ByteBuffer payload) {
+        int recordSize = HEADER_BYTES + payload.remaining();
+        if (recordSize + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("Registro mayor que el segmento del journal: " + recordSize);
+        }
+        lock.lock();
+        try {
+            ensureOpen();
+            if (segment.remaining() < recordSize) {
+                nextSegment();
+            }
+            int offset = segment.position();
+            crc.reset();
+            crc.update(type);
+            crc.update(payload.duplicate());
+            segment.putInt(payload.remaining())
+                    .putInt((int) crc.getValue())
+                    .put(type)
+                    .put(payload);
+            writtenSequence += recordSize;
+            if (syncMode == JournalSyncMode.ALWAYS) {
+                segment.force(offset, recordSize);
+                segmentSyncedOffset = segment.position();
+                durableSequence = writtenSequence;
+            }
+            else if (flusher != null) {
+                LockSupport.unpark(flusher);
+            }
+            return writtenSequence;
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Con group commit, bloquea hasta que el registro con esa secuencia está en disco.
+     */
+    void awaitDurable(long sequence) {
+        if (syncMode != JournalSyncMode.GROUP) {
+            return;
+        }
+        synchronized (durableMonitor) {
+            while (durableSequence < sequence && !closed) {
+                try {
+                    durableMonitor.wait();
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cierra la generación actual y empieza una nueva. Devuelve la nueva generación:
+     * todo lo escrito antes está en generaciones anteriores y ya en disco.
+     */
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            ensureOpen();
+            forceSegment();
+            channel.close();
+            generation++;
+            openForAppend(0);
+            return generation;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Borra los ficheros de generaciones anteriores a la indicada.
+     */
+    void deleteGenerationsBefore(long firstGeneration) throws IOException {
+        for (long existing : listGenerations()) {
+            if (existing < firstGeneration) {
+                Files.deleteIfExists(fileFor(existing));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            forceSegment();
+            channel.close();
+        }
+        finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        signalDurable();
+    }
+
+    private long replay(long replayGeneration, RecordHandler handler) throws IOException {
+        try (FileChannel file = FileChannel.open(fileFor(replayGeneration),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = file.size();
+            for (long start = 0; start < size; start += segmentSize) {
+                MappedByteBuffer region = file.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(segmentSize, size - start));
+                int end = replaySegment(region, handler);
+                if (end >= 0) {
+                    return start + end;
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Devuelve el offset donde terminan los datos, o -1 si continúan en la siguiente región.
+     */
+    private int replaySegment(ByteBuffer region, RecordHandler handler) {
+        while (region.remaining() >= HEADER_BYTES) {
+            int start = region.position();
+            int length = region.getInt();
+            if (length == END_OF_SEGMENT) {
+                return -1;
+            }
+            if (length <= 0 || length > region.remaining() - Integer.BYTES - Byte.BYTES) {
+                return start;
+            }
+            int expectedCrc = region.getInt();
+            byte type = region.get();
+            ByteBuffer payload = region.slice(region.position(), length);
+            crc.reset();
+            crc.update(type);
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                return start;
+            }
+            handler.accept(type, payload);
+            region.position(region.position() + length);
+        }
+        if (region.remaining() >= Integer.BYTES) {
+            return region.getInt(region.position()) == END_OF_SEGMENT ? -1 : region.position();
+        }
+        return -1;
+    }
+
+    private void openForAppend(long offset) throws IOException {
+        channel = FileChannel.open(fileFor(generation), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapSegment(offset - offset % segmentSize);
+        int position = (int) (offset % segmentSize);
+        segment.position(position);
+        // Borra los restos de un registro incompleto tras una caída
+        if (segment.remaining() >= Integer.BYTES && segment.getInt(position) != 0) {
+            while (segment.hasRemaining()) {
+                segment.put((byte) 0);
+            }
+            segment.force();
+            segment.position(position);
+        }
+        segmentSyncedOffset = position;
+    }
+
+    private void nextSegment() throws IOException {
+        if (segment.remaining() >= Integer.BYTES) {
+            segment.putInt(END_OF_SEGMENT);
+        }
+        forceSegment();
+        mapSegment(segmentStart + segmentSize);
+    }
+
+    private void mapSegment(long start) throws IOException {
+        segmentStart = start;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, start, segmentSize);
+        segmentSyncedOffset = 0;
+    }
+
+    private void forceSegment() {
+        segment.force();
+        segmentSyncedOffset = segment.position();
+        durableSequence = writtenSequence;
+        signalDurable();
+    }
+
+    /**
+     * Mientras un flush está en curso se acumulan nuevas escrituras, que se confirman
+     * juntas en el siguiente. La espera opcional agrupa aún más a costa de latencia.
+     */
+    private void flushLoop(long lingerNanos) {
+        while (!closed) {
+            if (durableSequence == writtenSequenceSnapshot()) {
+                LockSupport.park(this);
+                continue;
+            }
+            if (lingerNanos > 0) {
+                LockSupport.parkNanos(lingerNanos);
+            }
+            flushPending();
+        }
+    }
+
+    private long writtenSequenceSnapshot() {
+        lock.lock();
+        try {
+            return writtenSequence;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fuerza a disco lo escrito desde el último flush y libera a las escrituras en espera.
+     */
+    private void flushPending() {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        long sequence;
+        lock.lock();
+        try {
+            if (closed || writtenSequence == durableSequence) {
+                return;
+            }
+            target = segment;
+            from = segmentSyncedOffset;
+            to = segment.position();
+            sequence = writtenSequence;
+        }
+        finally {
+            lock.unlock();
+        }
+        target.force(from, to - from);
+        lock.lock();
+        try {
+            if (target == segment) {
+                segmentSyncedOffset = Math.max(segmentSyncedOffset, to);
+            }
+            durableSequence = Math.max(durableSequence, sequence);
+        }
+        finally {
+            lock.unlock();
+        }
+        signalDurable();
+    }
+
+    private void signalDurable() {
+        synchronized (durableMonitor) {
+            durableMonitor.notifyAll();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("El journal está cerrado");
+        }
+    }
+
+    private List<Long> listGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> String.valueOf(path.getFileName()))
+                    .filter(name -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(FILE_PREFIX.length(),
+                            name.length() - FILE_SUFFIX.length())))
+                    .sorted()
+                    .forEach(generations::add);
+        }
+        return generations;
+    }
+
+    private Path fileFor(long fileGeneration) {
+        return directory.resolve(String.format("%s%020d%s", FILE_PREFIX, fileGeneration, FILE_SUFFIX));
+    }
+
+}
@@ -0,0 +1,529 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.PaymentOrder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Archivo en disco de órdenes que ya no se modifican: segmentos de solo añadido con
+ * bloques comprimidos de hasta {@value #ORDERS_PER_BLOCK} órdenes.
+ *
+ * <p>Cada bloque lleva una cabecera (magic, número de órdenes, longitudes y CRC32) y las
+ * órdenes en el formato de {@link PaymentOrderCodec} comprimidas con Deflate. En memoria
+ * solo quedan dos tablas de huellas de 64 bits, por ID y por externalId, con el número
+ * de bloque: unos 50 bytes por orden archivada. Al abrirlo se reconstruyen
+ * recorriendo los segmentos; un bloque final incompleto, de una escritura interrumpida,
+ * se descarta.
+ */
+@Slf4j
+public final class PaymentOrderArchive implements Closeable {
+
+    static final int ORDERS_PER_BLOCK = 64;
+
+    private static final int BLOCK_MAGIC = 0x504F4152;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final int MAX_RAW_BYTES = ORDERS_PER_BLOCK * (Integer.BYTES + PaymentOrderCodec.MAX_RECORD_BYTES);
+    private static final String SEGMENT_PREFIX = "archive-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int OFFSET_BITS = 40;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final List<FileChannel> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final FingerprintTable byId = new FingerprintTable();
+    private final FingerprintTable byExternalId = new FingerprintTable();
+    private final Object appendMonitor = new Object();
+    private long[] blockPositions = new long[1024];
+    private int blockCount;
+    private long appendPosition;
+
+    public PaymentOrderArchive(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        try {
+            if (Files.isDirectory(directory)) {
+                openSegments();
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo abrir el archivo de órdenes en " + directory, ex);
+        }
+        if (size() > 0) {
+            log.info("Archivo de órdenes abierto en {}: {} órdenes en {} segmentos", directory, size(), segments.size());
+        }
+    }
+
+    /**
+     * Añade las órdenes al final del archivo y espera a que estén en disco antes de
+     * volver; desde ese momento se encuentran por ID y por externalId.
+     */
+    public void append(List<PaymentOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        synchronized (appendMonitor) {
+            ByteBuffer raw = ByteBuffer.allocate(Math.min(orders.size(), ORDERS_PER_BLOCK)
+                    * (Integer.BYTES + PaymentOrderCodec.MAX_RECORD_BYTES));
+            try {
+                for (int from = 0; from < orders.size(); from += ORDERS_PER_BLOCK) {
+                    List<PaymentOrder> chunk = orders.subList(from, Math.min(orders.size(), from + ORDERS_PER_BLOCK));
+                    ByteBuffer block = encode(chunk, raw);
+                    FileChannel channel = channelFor(block.remaining());
+                    long position = ((long) (segments.size() - 1) << OFFSET_BITS) | appendPosition;
+                    appendPosition += block.remaining();
+                    writeFully(channel, block, position & OFFSET_MASK);
+                    index(chunk, position);
+                }
+                segments.get(segments.size() - 1).force(false);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException("No se pudo escribir en el archivo de órdenes " + directory, ex);
+            }
+        }
+    }
+
+    public Optional<PaymentOrder> findById(String paymentOrderId) {
+        return find(byId, paymentOrderId, false);
+    }
+
+    public Optional<PaymentOrder> findByExternalId(String externalId) {
+        return find(byExternalId, externalId, true);
+    }
+
+    /**
+     * Si la orden está archivada, solo con la huella en memoria y sin leer el disco.
+     */
+    public boolean contains(String paymentOrderId) {
+        indexLock.readLock().lock();
+        try {
+            return byId.get(fingerprint(paymentOrderId)) >= 0;
+        }
+        finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre las órdenes archivadas bloque a bloque, con un solo bloque descomprimido en
+     * memoria. Una orden archivada varias veces se entrega solo desde su último bloque.
+     */
+    public void forEach(Consumer<PaymentOrder> action) {
+        int blocks;
+        indexLock.readLock().lock();
+        try {
+            blocks = blockCount;
+        }
+        finally {
+            indexLock.readLock().unlock();
+        }
+        for (int blockNumber = 0; blockNumber < blocks; blockNumber++) {
+            for (PaymentOrder order : readCurrentOrders(blockNumber)) {
+                action.accept(order);
+            }
+        }
+    }
+
+    /**
+     * Número de órdenes distintas archivadas.
+     */
+    public int size() {
+        indexLock.readLock().lock();
+        try {
+            return byId.size();
+        }
+        finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendMonitor) {
+            for (FileChannel channel : segments) {
+                channel.close();
+            }
+        }
+    }
+
+    private Optional<PaymentOrder> find(FingerprintTable table, String key, boolean byExternal) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        long location;
+        indexLock.readLock().lock();
+        try {
+            int blockNumber = table.get(fingerprint(key));
+            location = blockNumber < 0 ? -1 : blockPositions[blockNumber];
+        }
+        finally {
+            indexLock.readLock().unlock();
+        }
+        if (location < 0) {
+            return Optional.empty();
+        }
+        try {
+            Block block = readBlock(segments.get((int) (location >>> OFFSET_BITS)), location & OFFSET_MASK);
+            if (block == null) {
+                log.error("Bloque dañado en el archivo de órdenes {} (posición {})", directory, location);
+                return Optional.empty();
+            }
+            ByteBuffer records = block.records();
+            while (records.hasRemaining()) {
+                ByteBuffer record = nextRecord(records);
+                String paymentOrderId = PaymentOrderCodec.readString(record);
+                String candidate = byExternal ? PaymentOrderCodec.readString(record) : paymentOrderId;
+                if (key.equals(candidate)) {
+                    return Optional.of(PaymentOrderCodec.readOrder(record.rewind()));
+                }
+            }
+            // Colisión de huellas: la clave buscada no está en el bloque
+            return Optional.empty();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo leer el archivo de órdenes " + directory, ex);
+        }
+    }
+
+    /**
+     * Órdenes del bloque cuya copia más reciente está en ese bloque.
+     */
+    private List<PaymentOrder> readCurrentOrders(int blockNumber) {
+        long location;
+        indexLock.readLock().lock();
+        try {
+            location = blockPositions[blockNumber];
+        }
+        finally {
+            indexLock.readLock().unlock();
+        }
+        Block block;
+        try {
+            block = readBlock(segments.get((int) (location >>> OFFSET_BITS)), location & OFFSET_MASK);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo leer el archivo de órdenes " + directory, ex);
+        }
+        if (block == null) {
+            log.error("Bloque dañado en el archivo de órdenes {} (posición {})", directory, location);
+            return List.of();
+        }
+        List<PaymentOrder> orders = new ArrayList<>(ORDERS_PER_BLOCK);
+        ByteBuffer records = block.records();
+        indexLock.readLock().lock();
+        try {
+            while (records.hasRemaining()) {
+                ByteBuffer record = nextRecord(records);
+                if (byId.get(fingerprint(PaymentOrderCodec.readString(record))) == blockNumber) {
+                    orders.add(PaymentOrderCodec.readOrder(record.rewind()));
+                }
+            }
+        }
+        finally {
+            indexLock.readLock().unlock();
+        }
+        return orders;
+    }
+
+    private void index(List<PaymentOrder> orders, long position) {
+        indexLock.writeLock().lock();
+        try {
+            int blockNumber = addBlock(position);
+            for (PaymentOrder order : orders) {
+                byId.put(fingerprint(order.getPaymentOrderId()), blockNumber);
+                if (order.getExternalId() != null) {
+                    byExternalId.put(fingerprint(order.getExternalId()), blockNumber);
+                }
+            }
+        }
+        finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void openSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(PaymentOrderArchive::isSegment).sorted().toList();
+        }
+        for (Path file : files) {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segments.add(channel);
+            appendPosition = indexSegment(segments.size() - 1, channel);
+        }
+    }
+
+    /**
+     * Registra la posición (segmento y offset) de un bloque nuevo y devuelve su número.
+     */
+    private int addBlock(long position) {
+        if (blockCount == blockPositions.length) {
+            blockPositions = Arrays.copyOf(blockPositions, blockCount * 2);
+        }
+        blockPositions[blockCount] = position;
+        return blockCount++;
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = String.valueOf(file.getFileName());
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Indexa los bloques válidos del segmento y devuelve la posición donde termina el último.
+     */
+    private long indexSegment(int segment, FileChannel channel) throws IOException {
+        long position = 0;
+        long end = channel.size();
+        while (position < end) {
+            Block block = readBlock(channel, position);
+            if (block == null) {
+                log.warn("Bloque incompleto en el segmento {} del archivo {} (posición {}); se descarta",
+                        segment, directory, position);
+                channel.truncate(position);
+                break;
+            }
+            int blockNumber = addBlock(((long) segment << OFFSET_BITS) | position);
+            ByteBuffer records = block.records();
+            while (records.hasRemaining()) {
+                ByteBuffer record = nextRecord(records);
+                String paymentOrderId = PaymentOrderCodec.readString(record);
+                String externalId = PaymentOrderCodec.readString(record);
+                byId.put(fingerprint(paymentOrderId), blockNumber);
+                if (externalId != null) {
+                    byExternalId.put(fingerprint(externalId), blockNumber);
+                }
+            }
+            position += block.length();
+        }
+        return position;
+    }
+
+    /**
+     * Segmento donde cabe el bloque, abriendo uno nuevo si el actual está lleno.
+     */
+    private FileChannel channelFor(int blockBytes) throws IOException {
+        if (!segments.isEmpty() && (appendPosition == 0 || appendPosition + blockBytes <= segmentBytes)) {
+            return segments.get(segments.size() - 1);
+        }
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).force(false);
+        }
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.add(channel);
+        appendPosition = 0;
+        return channel;
+    }
+
+    /**
+     * Codifica y comprime las órdenes en un bloque con su cabecera.
+     */
+    private static ByteBuffer encode(List<PaymentOrder> orders, ByteBuffer raw) {
+        raw.clear();
+        for (PaymentOrder order : orders) {
+            int start = raw.position();
+            raw.putInt(0);
+            PaymentOrderCodec.writeOrder(raw, order);
+            raw.putInt(start, raw.position() - start - Integer.BYTES);
+        }
+        int rawLength = raw.position();
+        byte[] compressed = new byte[HEADER_BYTES + rawLength / 2 + 64];
+        int length = HEADER_BYTES;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw.array(), 0, rawLength);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+        }
+        finally {
+            deflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(compressed, HEADER_BYTES, length - HEADER_BYTES);
+        ByteBuffer block = ByteBuffer.wrap(compressed, 0, length);
+        block.putInt(BLOCK_MAGIC)
+                .putInt(orders.size())
+                .putInt(rawLength)
+                .putInt(length - HEADER_BYTES)
+                .putInt((int) crc.getValue());
+        return block.rewind();
+    }
+
+    /**
+     * Lee, comprueba y descomprime un bloque; null si está incompleto o dañado.
+     */
+    private static Block readBlock(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (!readFully(channel, header, position) || header.getInt() != BLOCK_MAGIC) {
+            return null;
+        }
+        int count = header.getInt();
+        int rawLength = header.getInt();
+        int compressedLength = header.getInt();
+        int checksum = header.getInt();
+        if (count <= 0 || count > ORDERS_PER_BLOCK || rawLength <= 0 || rawLength > MAX_RAW_BYTES
+                || compressedLength <= 0 || compressedLength > MAX_RAW_BYTES) {
+            return null;
+        }
+        byte[] compressed = new byte[compressedLength];
+        if (!readFully(channel, ByteBuffer.wrap(compressed), position + HEADER_BYTES)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            if (inflater.inflate(raw) != rawLength) {
+                return null;
+            }
+        }
+        catch (DataFormatException ex) {
+            return null;
+        }
+        finally {
+            inflater.end();
+        }
+        return new Block(ByteBuffer.wrap(raw), HEADER_BYTES + compressedLength);
+    }
+
+    private static ByteBuffer nextRecord(ByteBuffer records) {
+        int length = records.getInt();
+        ByteBuffer record = records.slice(records.position(), length);
+        records.position(records.position() + length);
+        return record;
+    }
+
+    /**
+     * Lee hasta llenar el buffer y lo deja listo para leer; false si el fichero termina antes.
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                return false;
+            }
+            offset += read;
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    /**
+     * Huella de 64 bits de una clave (FNV-1a con mezcla final); nunca es cero.
+     */
+    static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Órdenes descomprimidas de un bloque y lo que ocupa en el segmento.
+     */
+    private record Block(ByteBuffer records, int length) {
+    }
+
+    /**
+     * Tabla hash abierta de huella a número de bloque con sondeo lineal; la huella
+     * cero marca un hueco libre. La protege {@code indexLock}.
+     */
+    private static final class FingerprintTable {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int size;
+
+        int get(long fingerprint) {
+            int mask = keys.length - 1;
+            for (int i = (int) fingerprint & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == fingerprint) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(long fingerprint, int value) {
+            if ((size + 1) * 4L > keys.length * 3L) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = (int) fingerprint & mask;
+            while (keys[i] != 0 && keys[i] != fingerprint) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                keys[i] = fingerprint;
+                size++;
+            }
+            values[i] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+}
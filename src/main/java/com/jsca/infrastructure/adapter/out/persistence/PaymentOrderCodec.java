@@ -0,0 +1,151 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codificación binaria de órdenes de pago para el journal y los snapshots.
+ * El estado se guarda por ordinal: los valores de PaymentStatus solo pueden añadirse al final.
+ *
+ * <p>La versión va al final de cada registro. Los registros se leen siempre delimitados
+ * por su longitud, así que los escritos antes de que existiera se reconocen porque no
+ * queda nada por leer.
+ */
+final class PaymentOrderCodec {
+
+    /**
+     * Tamaño máximo de un registro codificado. Los campos de la orden están acotados
+     * por el contrato OpenAPI (IBAN 34, externalId 50, remittanceInfo 140 caracteres).
+     */
+    static final int MAX_RECORD_BYTES = 4096;
+
+    private static final short NULL_STRING = -1;
+    private static final long NULL_VALUE = Long.MIN_VALUE;
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private PaymentOrderCodec() {
+    }
+
+    /**
+     * Escribe la orden completa.
+     */
+    static void writeOrder(ByteBuffer buffer, PaymentOrder order) {
+        writeString(buffer, order.getPaymentOrderId());
+        writeString(buffer, order.getExternalId());
+        writeString(buffer, order.getDebtorIban());
+        writeString(buffer, order.getCreditorIban());
+        writeString(buffer, order.getAmount() == null ? null : order.getAmount().toPlainString());
+        writeString(buffer, order.getCurrency());
+        writeString(buffer, order.getRemittanceInfo());
+        buffer.putLong(order.getRequestedExecutionDate() == null
+                ? NULL_VALUE
+                : order.getRequestedExecutionDate().toEpochDay());
+        writeStatus(buffer, order.getStatus());
+        writeTimestamp(buffer, order.getCreatedAt());
+        writeTimestamp(buffer, order.getLastUpdate());
+        buffer.putLong(order.getVersion());
+    }
+
+    /**
+     * Lee una orden escrita con {@link #writeOrder}.
+     */
+    static PaymentOrder readOrder(ByteBuffer buffer) {
+        PaymentOrder.PaymentOrderBuilder order = PaymentOrder.builder()
+                .paymentOrderId(readString(buffer))
+                .externalId(readString(buffer))
+                .debtorIban(readString(buffer))
+                .creditorIban(readString(buffer));
+        String amount = readString(buffer);
+        order.amount(amount == null ? null : new BigDecimal(amount))
+                .currency(readString(buffer))
+                .remittanceInfo(readString(buffer));
+        long epochDay = buffer.getLong();
+        order.requestedExecutionDate(epochDay == NULL_VALUE ? null : LocalDate.ofEpochDay(epochDay))
+                .status(readStatus(buffer))
+                .createdAt(readTimestamp(buffer))
+                .lastUpdate(readTimestamp(buffer));
+        long version = readVersion(buffer);
+        return order.version(version > 0 ? version : 1).build();
+    }
+
+    /**
+     * Escribe un cambio de estado: ID, nuevo estado, timestamp de actualización y versión.
+     */
+    static void writeStatusChange(ByteBuffer buffer, PaymentOrder order) {
+        writeString(buffer, order.getPaymentOrderId());
+        writeStatus(buffer, order.getStatus());
+        writeTimestamp(buffer, order.getLastUpdate());
+        buffer.putLong(order.getVersion());
+    }
+
+    /**
+     * Versión al final del registro; 0 si el registro es anterior a las versiones.
+     */
+    static long readVersion(ByteBuffer buffer) {
+        return buffer.remaining() >= Long.BYTES ? buffer.getLong() : 0;
+    }
+
+    static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (!buffer.hasArray()) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    static PaymentStatus readStatus(ByteBuffer buffer) {
+        byte ordinal = buffer.get();
+        return ordinal < 0 ? null : STATUSES[ordinal];
+    }
+
+    static OffsetDateTime readTimestamp(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        if (epochSecond == NULL_VALUE) {
+            return null;
+        }
+        int nanos = buffer.getInt();
+        int offsetSeconds = buffer.getInt();
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos),
+                ZoneOffset.ofTotalSeconds(offsetSeconds));
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static void writeStatus(ByteBuffer buffer, PaymentStatus status) {
+        buffer.put(status == null ? -1 : (byte) status.ordinal());
+    }
+
+    private static void writeTimestamp(ByteBuffer buffer, OffsetDateTime timestamp) {
+        if (timestamp == null) {
+            buffer.putLong(NULL_VALUE);
+            return;
+        }
+        buffer.putLong(timestamp.toEpochSecond());
+        buffer.putInt(timestamp.getNano());
+        buffer.putInt(timestamp.getOffset().getTotalSeconds());
+    }
+}
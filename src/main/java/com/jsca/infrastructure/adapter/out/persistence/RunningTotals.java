@@ -0,0 +1,182 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderFieldRules;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Número de órdenes e importe por deudor, fecha de ejecución solicitada y moneda,
+ * desglosados por estado, que los repositorios actualizan en cada alta y cada cambio de
+ * estado. Consultar un deudor y una fecha cuesta lo mismo con mil órdenes que con millones.
+ *
+ * <p>Cada contador es un {@link LongAdder}: las actualizaciones de un mismo deudor desde
+ * varios hilos van a celdas distintas en lugar de competir por un único valor. Los importes
+ * se suman en unidades menores de la moneda (céntimos en EUR), así que no hay redondeos.
+ * Número e importe se leen por separado: durante un cambio de estado la orden puede
+ * aparecer un instante en ninguno de los dos estados, nunca en los dos.
+ *
+ * <p>Solo se guardan las fechas de ejecución de los últimos {@code retention} días, y las
+ * futuras: el primer cambio de cada día retira las fechas que han salido del horizonte, que
+ * son una entrada del mapa por fecha. Las órdenes de esas fechas ya no suman ni restan, y
+ * sus totales no se consultan.
+ */
+final class RunningTotals {
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    /**
+     * Decimales de las monedas fuera de ISO 4217 que se guardaron antes de validarse.
+     */
+    private static final int DEFAULT_SCALE = 2;
+
+    private final Map<LocalDate, Map<String, Map<String, Counters>>> totals = new ConcurrentHashMap<>();
+    private final long retentionDays;
+    private final Clock clock;
+    private volatile LocalDate oldest;
+
+    /**
+     * @param clock reloj del día en curso
+     */
+    RunningTotals(Duration retention, Clock clock) {
+        this.retentionDays = retention.toDays();
+        this.clock = clock;
+        this.oldest = LocalDate.now(clock).minusDays(retentionDays);
+    }
+
+    /**
+     * Suma una orden nueva en su estado.
+     */
+    void add(PaymentOrder order) {
+        Counters counters = counters(order);
+        if (counters != null) {
+            counters.add(order.getStatus(), 1, counters.minorUnits(order.getAmount()));
+        }
+    }
+
+    /**
+     * Resta una orden que se va a sustituir por otra con el mismo ID.
+     */
+    void remove(PaymentOrder order) {
+        Counters counters = counters(order);
+        if (counters != null) {
+            counters.add(order.getStatus(), -1, -counters.minorUnits(order.getAmount()));
+        }
+    }
+
+    /**
+     * Pasa una orden de un estado a otro; el resto de sus datos no cambia.
+     */
+    void changeStatus(PaymentOrder order, PaymentStatus from, PaymentStatus to) {
+        if (from == to) {
+            return;
+        }
+        Counters counters = counters(order);
+        if (counters != null) {
+            long amount = counters.minorUnits(order.getAmount());
+            counters.add(from, -1, -amount);
+            counters.add(to, 1, amount);
+        }
+    }
+
+    /**
+     * Totales del deudor en esa fecha, uno por moneda y ordenados por código.
+     */
+    List<PaymentOrderTotals> totals(String debtorIban, LocalDate requestedExecutionDate) {
+        Map<String, Map<String, Counters>> byDebtor = requestedExecutionDate.isBefore(oldest)
+                ? null : totals.get(requestedExecutionDate);
+        Map<String, Counters> byCurrency = byDebtor == null ? null : byDebtor.get(debtorIban);
+        if (byCurrency == null) {
+            return List.of();
+        }
+        List<PaymentOrderTotals> result = new ArrayList<>(byCurrency.size());
+        byCurrency.forEach((currency, counters) -> {
+            List<PaymentOrderTotals.StatusTotals> byStatus = counters.byStatus();
+            if (!byStatus.isEmpty()) {
+                result.add(new PaymentOrderTotals(debtorIban, currency, requestedExecutionDate, byStatus));
+            }
+        });
+        result.sort((a, b) -> a.currency().compareTo(b.currency()));
+        return result;
+    }
+
+    /**
+     * Contadores de la orden, o null si le falta alguno de los datos que se agregan o su
+     * fecha de ejecución ha salido del horizonte.
+     */
+    private Counters counters(PaymentOrder order) {
+        LocalDate date = order.getRequestedExecutionDate();
+        if (order.getDebtorIban() == null || order.getCurrency() == null || order.getAmount() == null
+                || date == null || date.isBefore(oldest())) {
+            return null;
+        }
+        return totals.computeIfAbsent(date, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(order.getDebtorIban(), key -> new ConcurrentHashMap<>(4))
+                .computeIfAbsent(order.getCurrency(), Counters::new);
+    }
+
+    /**
+     * Primera fecha del horizonte. Al cambiar de día retira las fechas anteriores; si dos
+     * hilos lo ven a la vez, los dos las retiran y no pasa nada.
+     */
+    private LocalDate oldest() {
+        LocalDate oldest = LocalDate.now(clock).minusDays(retentionDays);
+        if (oldest.isAfter(this.oldest)) {
+            this.oldest = oldest;
+            totals.keySet().removeIf(date -> date.isBefore(oldest));
+        }
+        return oldest;
+    }
+
+    /**
+     * Número de órdenes e importe en unidades menores por estado, de una moneda.
+     */
+    private static final class Counters {
+
+        private final int scale;
+        private final LongAdder[] counts = new LongAdder[STATUSES.length];
+        private final LongAdder[] amounts = new LongAdder[STATUSES.length];
+
+        Counters(String currency) {
+            int minorUnits = PaymentOrderFieldRules.minorUnits(currency);
+            this.scale = minorUnits < 0 ? DEFAULT_SCALE : minorUnits;
+            for (int i = 0; i < STATUSES.length; i++) {
+                counts[i] = new LongAdder();
+                amounts[i] = new LongAdder();
+            }
+        }
+
+        long minorUnits(BigDecimal amount) {
+            return amount.movePointRight(scale).setScale(0, RoundingMode.HALF_EVEN).longValue();
+        }
+
+        void add(PaymentStatus status, int count, long amount) {
+            if (status != null) {
+                counts[status.ordinal()].add(count);
+                amounts[status.ordinal()].add(amount);
+            }
+        }
+
+        List<PaymentOrderTotals.StatusTotals> byStatus() {
+            List<PaymentOrderTotals.StatusTotals> byStatus = new ArrayList<>(STATUSES.length);
+            for (PaymentStatus status : STATUSES) {
+                long count = counts[status.ordinal()].sum();
+                if (count > 0) {
+                    byStatus.add(new PaymentOrderTotals.StatusTotals(status, count,
+                            BigDecimal.valueOf(amounts[status.ordinal()].sum(), scale)));
+                }
+            }
+            return byStatus;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentStatus;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+/**
+ * Índices secundarios por IBAN del deudor, IBAN del acreedor, estado y fecha de
+ * ejecución solicitada.
+ *
+ * <p>Cada índice es un conjunto ordenado por la clave de búsqueda del repositorio
+ * (fecha de ejecución y, a igual fecha, la orden), así que un rango de fechas y la
+ * posición de un cursor son un subconjunto contiguo: una página cuesta
+ * O(log n + página) sin recorrer el resto de órdenes. El tipo de conjunto lo elige el
+ * repositorio: skip lists concurrentes o bloques de {@code long} bajo su propio lock.
+ *
+ * @param <E> clave de búsqueda de cada orden, ordenada por fecha de ejecución
+ */
+final class SecondaryIndexes<E extends Comparable<E>> {
+
+    private final Supplier<KeySet<E>> keySets;
+    private final Map<String, KeySet<E>> byDebtorIban = new ConcurrentHashMap<>();
+    private final Map<String, KeySet<E>> byCreditorIban = new ConcurrentHashMap<>();
+    private final Map<PaymentStatus, KeySet<E>> byStatus = new EnumMap<>(PaymentStatus.class);
+    private final KeySet<E> byExecutionDate;
+
+    SecondaryIndexes(Supplier<KeySet<E>> keySets) {
+        this.keySets = keySets;
+        this.byExecutionDate = keySets.get();
+        for (PaymentStatus status : PaymentStatus.values()) {
+            byStatus.put(status, keySets.get());
+        }
+    }
+
+    /**
+     * Índices sobre {@link ConcurrentSkipListSet}, seguros para escrituras concurrentes.
+     */
+    static <E extends Comparable<E>> SecondaryIndexes<E> concurrent() {
+        return new SecondaryIndexes<>(SkipListKeySet::new);
+    }
+
+    void add(E key, String debtorIban, String creditorIban, PaymentStatus status) {
+        add(byDebtorIban, debtorIban, key);
+        add(byCreditorIban, creditorIban, key);
+        if (status != null) {
+            byStatus.get(status).add(key);
+        }
+        byExecutionDate.add(key);
+    }
+
+    void remove(E key, String debtorIban, String creditorIban, PaymentStatus status) {
+        remove(byDebtorIban, debtorIban, key);
+        remove(byCreditorIban, creditorIban, key);
+        if (status != null) {
+            byStatus.get(status).remove(key);
+        }
+        byExecutionDate.remove(key);
+    }
+
+    void changeStatus(E key, PaymentStatus previous, PaymentStatus status) {
+        if (previous == status) {
+            return;
+        }
+        if (previous != null) {
+            byStatus.get(previous).remove(key);
+        }
+        if (status != null) {
+            byStatus.get(status).add(key);
+        }
+    }
+
+    /**
+     * Claves candidatas entre {@code from} y {@code to} (excluida), tomadas del índice
+     * más selectivo de los filtros presentes: IBAN del deudor, IBAN del acreedor,
+     * estado y, si no hay otro, fecha. El llamante comprueba el resto de filtros.
+     */
+    Iterator<E> candidates(PaymentOrderSearchCriteria criteria, E from, boolean fromInclusive, E to) {
+        if (from.compareTo(to) >= 0) {
+            return Collections.emptyIterator();
+        }
+        KeySet<E> index;
+        if (criteria.debtorIban() != null) {
+            index = byDebtorIban.get(criteria.debtorIban());
+        }
+        else if (criteria.creditorIban() != null) {
+            index = byCreditorIban.get(criteria.creditorIban());
+        }
+        else if (criteria.status() != null) {
+            index = byStatus.get(criteria.status());
+        }
+        else {
+            index = byExecutionDate;
+        }
+        return index == null
+                ? Collections.emptyIterator()
+                : index.range(from, fromInclusive, to);
+    }
+
+    /**
+     * Día de la fecha para las claves de búsqueda; las órdenes sin fecha van primero.
+     */
+    static long epochDay(LocalDate date) {
+        return date == null ? Long.MIN_VALUE : date.toEpochDay();
+    }
+
+    /**
+     * Primer día que queda fuera del rango de la búsqueda.
+     */
+    static long endEpochDay(PaymentOrderSearchCriteria criteria) {
+        return criteria.executionDateTo() == null ? Long.MAX_VALUE : criteria.executionDateTo().toEpochDay() + 1;
+    }
+
+    private void add(Map<String, KeySet<E>> index, String value, E key) {
+        if (value == null) {
+            return;
+        }
+        index.compute(value, (k, keys) -> {
+            KeySet<E> updated = keys == null ? keySets.get() : keys;
+            updated.add(key);
+            return updated;
+        });
+    }
+
+    private static <E> void remove(Map<String, KeySet<E>> index, String value, E key) {
+        if (value == null) {
+            return;
+        }
+        index.computeIfPresent(value, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Conjunto ordenado de claves de un índice.
+     */
+    interface KeySet<E> {
+
+        boolean add(E key);
+
+        boolean remove(E key);
+
+        boolean isEmpty();
+
+        /**
+         * Claves desde {@code from} hasta {@code to} (excluida) en orden ascendente.
+         */
+        Iterator<E> range(E from, boolean fromInclusive, E to);
+    }
+
+    private static final class SkipListKeySet<E extends Comparable<E>> implements KeySet<E> {
+
+        private final ConcurrentSkipListSet<E> keys = new ConcurrentSkipListSet<>();
+
+        @Override
+        public boolean add(E key) {
+            return keys.add(key);
+        }
+
+        @Override
+        public boolean remove(E key) {
+            return keys.remove(key);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return keys.isEmpty();
+        }
+
+        @Override
+        public Iterator<E> range(E from, boolean fromInclusive, E to) {
+            return keys.subSet(from, fromInclusive, to, false).iterator();
+        }
+    }
+}
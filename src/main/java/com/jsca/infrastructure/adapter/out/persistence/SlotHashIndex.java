@@ -0,0 +1,97 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+/**
+ * Índice hash de direccionamiento abierto (sondeo lineal) de clave a slot.
+ * Solo guarda {@code slot + 1} en un {@code int[]}: las claves se comparan contra
+ * el almacenamiento a través de {@link KeySource}, sin objetos por entrada.
+ * No es thread-safe: el llamante sincroniza.
+ */
+final class SlotHashIndex {
+
+    /**
+     * Acceso a la clave almacenada para un slot.
+     */
+    interface KeySource {
+        boolean matches(int slot, byte[] key);
+
+        int hash(int slot);
+    }
+
+    private static final int EMPTY = 0;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final float MAX_LOAD = 0.7f;
+
+    private final KeySource keys;
+    private int[] table = new int[INITIAL_CAPACITY];
+    private int size;
+
+    SlotHashIndex(KeySource keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Devuelve el slot asociado a la clave o -1 si no existe.
+     */
+    int find(byte[] key) {
+        int mask = table.length - 1;
+        for (int i = hash(key, 0, key.length) & mask; ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (keys.matches(entry - 1, key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Asocia la clave al slot, sustituyendo la asociación anterior si existía.
+     */
+    void put(byte[] key, int slot) {
+        int mask = table.length - 1;
+        int i = hash(key, 0, key.length) & mask;
+        while (table[i] != EMPTY) {
+            if (keys.matches(table[i] - 1, key)) {
+                table[i] = slot + 1;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = slot + 1;
+        if (++size > table.length * MAX_LOAD) {
+            resize();
+        }
+    }
+
+    /**
+     * Bytes ocupados por la tabla.
+     */
+    long tableBytes() {
+        return (long) table.length * Integer.BYTES;
+    }
+
+    static int hash(byte[] bytes, int from, int length) {
+        int h = 1;
+        for (int i = from; i < from + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void resize() {
+        int[] previous = table;
+        table = new int[previous.length * 2];
+        int mask = table.length - 1;
+        for (int entry : previous) {
+            if (entry != EMPTY) {
+                int i = keys.hash(entry - 1) & mask;
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = entry;
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Conjunto ordenado de {@code long} en bloques de arrays primitivos ordenados, unos
+ * 8-16 bytes por clave frente a los ~45 de un {@code ConcurrentSkipListSet<Long>}.
+ * Los bloques crecen hasta {@value #MAX_BLOCK} claves y se parten al llenarse; si la
+ * clave va al final del último bloque se abre uno nuevo, así que las inserciones en
+ * orden creciente dejan los bloques llenos. No es thread-safe: el llamante sincroniza.
+ */
+final class SortedLongSet implements SecondaryIndexes.KeySet<Long> {
+
+    static final int MAX_BLOCK = 256;
+    private static final int MIN_BLOCK = 4;
+
+    private long[][] blocks = new long[1][];
+    private int[] sizes = new int[1];
+    private int blockCount;
+
+    @Override
+    public boolean add(Long boxed) {
+        long key = boxed;
+        if (blockCount == 0) {
+            insertBlock(0, new long[MIN_BLOCK]);
+        }
+        int b = blockFor(key);
+        int size = sizes[b];
+        int position = Arrays.binarySearch(blocks[b], 0, size, key);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (size == MAX_BLOCK) {
+            if (b == blockCount - 1 && position == MAX_BLOCK) {
+                // Inserción al final: bloque nuevo en lugar de dejar dos a medias
+                insertBlock(b + 1, new long[MIN_BLOCK]);
+                blocks[b + 1][0] = key;
+                sizes[b + 1] = 1;
+                return true;
+            }
+            split(b);
+            if (position > MAX_BLOCK / 2) {
+                b++;
+                position -= MAX_BLOCK / 2;
+            }
+            size = sizes[b];
+        }
+        if (size == blocks[b].length) {
+            blocks[b] = Arrays.copyOf(blocks[b], Math.min(MAX_BLOCK, size * 2));
+        }
+        long[] block = blocks[b];
+        System.arraycopy(block, position, block, position + 1, size - position);
+        block[position] = key;
+        sizes[b]++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Long boxed) {
+        long key = boxed;
+        if (blockCount == 0) {
+            return false;
+        }
+        int b = blockFor(key);
+        int size = sizes[b];
+        int position = Arrays.binarySearch(blocks[b], 0, size, key);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(blocks[b], position + 1, blocks[b], position, size - position - 1);
+        if (--sizes[b] == 0) {
+            removeBlock(b);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return blockCount == 0;
+    }
+
+    @Override
+    public Iterator<Long> range(Long from, boolean fromInclusive, Long to) {
+        return new RangeIterator(from, fromInclusive, to);
+    }
+
+    /**
+     * Bloque donde está o iría la clave: el último cuyo primer elemento no es mayor.
+     */
+    private int blockFor(long key) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (blocks[middle][0] <= key) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private void split(int b) {
+        int half = MAX_BLOCK / 2;
+        insertBlock(b + 1, Arrays.copyOfRange(blocks[b], half, MAX_BLOCK));
+        sizes[b + 1] = MAX_BLOCK - half;
+        sizes[b] = half;
+    }
+
+    private void insertBlock(int index, long[] block) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            sizes = Arrays.copyOf(sizes, blockCount * 2);
+        }
+        System.arraycopy(blocks, index, blocks, index + 1, blockCount - index);
+        System.arraycopy(sizes, index, sizes, index + 1, blockCount - index);
+        blocks[index] = block;
+        sizes[index] = 0;
+        blockCount++;
+    }
+
+    private void removeBlock(int index) {
+        System.arraycopy(blocks, index + 1, blocks, index, blockCount - index - 1);
+        System.arraycopy(sizes, index + 1, sizes, index, blockCount - index - 1);
+        blockCount--;
+        blocks[blockCount] = null;
+    }
+
+    private final class RangeIterator implements Iterator<Long> {
+
+        private final long to;
+        private int block;
+        private int position;
+
+        RangeIterator(long from, boolean fromInclusive, long to) {
+            this.to = to;
+            if (blockCount == 0) {
+                block = 0;
+                position = 0;
+                return;
+            }
+            block = blockFor(from);
+            int found = Arrays.binarySearch(blocks[block], 0, sizes[block], from);
+            position = found >= 0 ? (fromInclusive ? found : found + 1) : -found - 1;
+            skipExhaustedBlocks();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return block < blockCount && blocks[block][position] < to;
+        }
+
+        @Override
+        public Long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long key = blocks[block][position++];
+            skipExhaustedBlocks();
+            return key;
+        }
+
+        private void skipExhaustedBlocks() {
+            while (block < blockCount && position >= sizes[block]) {
+                block++;
+                position = 0;
+            }
+        }
+    }
+}
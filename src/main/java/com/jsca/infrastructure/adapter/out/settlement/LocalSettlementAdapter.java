@@ -0,0 +1,28 @@
+package com.jsca.infrastructure.adapter.out.settlement;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.port.out.SettlementPort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Liquidación simulada en local ({@code payment.execution.settlement=local}).
+ * Ejecuta todas las órdenes salvo las que tienen el mismo IBAN de deudor y acreedor,
+ * que se rechazan. No liquida nada: solo se activa si se elige explícitamente.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.execution", name = "settlement", havingValue = "local")
+public class LocalSettlementAdapter implements SettlementPort {
+
+    @Override
+    public List<PaymentStatus> settle(List<PaymentOrder> paymentOrders) {
+        return paymentOrders.stream()
+                .map(order -> order.getDebtorIban() != null && order.getDebtorIban().equals(order.getCreditorIban())
+                        ? PaymentStatus.REJECTED
+                        : PaymentStatus.EXECUTED)
+                .toList();
+    }
+}
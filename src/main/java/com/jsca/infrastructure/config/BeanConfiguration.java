@@ -1,12 +1,101 @@
 package com.jsca.infrastructure.config;
 
+import com.jsca.application.service.ExecutionDateScheduler;
+import com.jsca.application.service.PaymentExecutionEngine;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
+import com.jsca.domain.port.out.PaymentStatusChangePublisher;
+import com.jsca.domain.port.out.SettlementPort;
+import com.jsca.infrastructure.adapter.in.rest.ratelimit.ClientRateLimiter;
+import com.jsca.infrastructure.adapter.out.duplicate.SlidingWindowDuplicateDetector;
+import com.jsca.infrastructure.adapter.out.persistence.IdempotencyKeyStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+import java.util.List;
+
 /**
  * Configuración de Spring para escanear todos los paquetes del proyecto.
  */
 @Configuration
 @ComponentScan(basePackages = "com.jsca")
+@EnableConfigurationProperties({JournalProperties.class, ExecutionProperties.class, StatusStreamProperties.class,
+        DetailsCacheProperties.class, RetentionProperties.class, IdGeneratorProperties.class, PartitionProperties.class,
+        IngestionProperties.class, RateLimitProperties.class, NioServerProperties.class, SchedulerProperties.class,
+        DuplicateDetectionProperties.class, IdempotencyProperties.class, BulkProperties.class,
+        TotalsProperties.class})
 public class BeanConfiguration {
-}
\ No newline at end of file
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "payment.execution", name = "enabled", havingValue = "true")
+    public PaymentExecutionEngine paymentExecutionEngine(PaymentOrderRepository repository,
+                                                         ObjectProvider<SettlementPort> settlementPort,
+                                                         List<PaymentStatusChangePublisher> statusChangePublishers,
+                                                         ExecutionProperties properties) {
+        SettlementPort settlement = settlementPort.getIfAvailable();
+        if (properties.getSettlement() == null || properties.getSettlement().isBlank() || settlement == null) {
+            throw new IllegalStateException("payment.execution.enabled=true necesita un adaptador de liquidación "
+                    + "en payment.execution.settlement (local para la simulada): " + properties.getSettlement());
+        }
+        return new PaymentExecutionEngine(repository, settlement, toAll(statusChangePublishers),
+                properties.getBatchSize(), properties.getWorkers(), properties.getMaxQueuedBatches(),
+                properties.getPollInterval());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "payment.scheduler", name = "enabled", havingValue = "true")
+    public ExecutionDateScheduler executionDateScheduler(PaymentOrderRepository repository,
+                                                         List<PaymentStatusChangePublisher> statusChangePublishers,
+                                                         SchedulerProperties properties) {
+        return new ExecutionDateScheduler(repository, toAll(statusChangePublishers), properties.getBatchSize(),
+                properties.getCheckInterval(), Clock.system(properties.getZone()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.scheduler", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public PaymentOrderScheduler immediatePaymentOrderScheduler() {
+        return PaymentOrderScheduler.NONE;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.duplicate-detection", name = "enabled", havingValue = "true")
+    public SlidingWindowDuplicateDetector slidingWindowDuplicateDetector(DuplicateDetectionProperties properties) {
+        return new SlidingWindowDuplicateDetector(properties.getWindow(), properties.getBuckets(),
+                properties.getMaxEntries(), properties.getAction() == DuplicateDetectionProperties.Action.REJECT,
+                Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.duplicate-detection", name = "enabled", havingValue = "false",
+            matchIfMissing = true)
+    public DuplicatePaymentDetector noDuplicatePaymentDetector() {
+        return DuplicatePaymentDetector.NONE;
+    }
+
+    /**
+     * Claves de idempotencia de los repositorios {@code memory} y {@code journal}.
+     */
+    @Bean
+    public IdempotencyKeyStore idempotencyKeyStore(IdempotencyProperties properties) {
+        return new IdempotencyKeyStore(properties, Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.rate-limit", name = "enabled", havingValue = "true")
+    public ClientRateLimiter clientRateLimiter(RateLimitProperties properties) {
+        return new ClientRateLimiter(properties.getBuckets(), properties.getRequestsPerSecond(), properties.getBurst());
+    }
+
+    /**
+     * Cada cambio llega a todos los interesados: stream SSE, caché de respuestas...
+     */
+    private static PaymentStatusChangePublisher toAll(List<PaymentStatusChangePublisher> statusChangePublishers) {
+        return changes -> statusChangePublishers.forEach(publisher -> publisher.publish(changes));
+    }
+}
@@ -0,0 +1,30 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del alta de órdenes en lote ({@code POST /payment-orders/bulk} con JSON).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.bulk")
+public class BulkProperties {
+
+    /**
+     * Hilos que validan e inician los tramos de los lotes, compartidos por todas las peticiones.
+     */
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Órdenes por tramo; un lote que no pasa de un tramo se procesa en el hilo de la petición.
+     */
+    private int chunkSize = 256;
+
+    /**
+     * Tramos que pueden esperar a un hilo libre; con la cola llena el hilo de la petición
+     * procesa el tramo él mismo.
+     */
+    private int maxQueuedChunks = 64;
+}
@@ -0,0 +1,25 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuración de la caché de respuestas serializadas del detalle de órdenes.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.details-cache")
+public class DetailsCacheProperties {
+
+    /**
+     * Memoria máxima ocupada por el JSON cacheado; con cero la caché queda desactivada.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Particiones independientes de la caché, cada una con su propio lock y su parte del tamaño.
+     */
+    private int segments = 16;
+}
@@ -0,0 +1,51 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la detección de pagos reenviados con otro externalId.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.duplicate-detection")
+public class DuplicateDetectionProperties {
+
+    /**
+     * Activa la detección; desactivada, solo se reconocen las órdenes repetidas por su externalId.
+     * El índice es de cada instancia, así que no admite {@code payment.partition.enabled=true}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Qué hacer con una orden duplicada: {@code FLAG} la crea y la señala (log y métrica),
+     * {@code REJECT} la rechaza como regla de negocio.
+     */
+    private Action action = Action.FLAG;
+
+    /**
+     * Tiempo durante el que una orden cuenta como posible duplicado de las siguientes.
+     */
+    private Duration window = Duration.ofMinutes(10);
+
+    /**
+     * Intervalos en que se divide la ventana: las órdenes caducan de intervalo en intervalo.
+     */
+    private int buckets = 10;
+
+    /**
+     * Órdenes que se recuerdan como mucho; por encima, las nuevas no se registran.
+     */
+    private int maxEntries = 2_000_000;
+
+    /**
+     * Qué hacer con una orden duplicada.
+     */
+    public enum Action {
+        FLAG,
+        REJECT
+    }
+}
@@ -0,0 +1,46 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del motor de ejecución asíncrona de órdenes de pago.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.execution")
+public class ExecutionProperties {
+
+    /**
+     * Activa el motor que lleva las órdenes de INITIATED a su estado final.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Implementación de la liquidación, obligatoria con el motor activo; {@code local} usa el stub en memoria.
+     */
+    private String settlement;
+
+    /**
+     * Número máximo de órdenes por lote.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Hilos que liquidan lotes en paralelo.
+     */
+    private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Lotes reclamados que pueden esperar a un worker libre antes de frenar al despachador.
+     */
+    private int maxQueuedBatches = 4;
+
+    /**
+     * Espera entre consultas cuando no hay órdenes pendientes.
+     */
+    private Duration pollInterval = Duration.ofMillis(50);
+}
@@ -0,0 +1,25 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del generador de IDs de órdenes de pago.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.id-generator")
+public class IdGeneratorProperties {
+
+    /**
+     * Implementación: {@code time-ordered} (por defecto) o {@code uuid}, el formato anterior.
+     */
+    private String type = "time-ordered";
+
+    /**
+     * Nodo de esta instancia (0-1023); debe ser distinto en cada instancia para que los IDs
+     * no colisionen. Negativo (sin configurar): nodo 0, solo admitido sin particionado.
+     */
+    private int nodeId = -1;
+}
@@ -0,0 +1,38 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las claves de idempotencia (externalId) de los repositorios
+ * {@code memory} y {@code journal}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.repository.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Tiempo durante el que un externalId repetido devuelve la orden original; pasado ese
+     * tiempo se olvida y el mismo externalId crea una orden nueva.
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    /**
+     * Intervalos en que se divide la retención (1 a 62): las claves caducan de intervalo en intervalo.
+     */
+    private int buckets = 24;
+
+    /**
+     * Claves esperadas en una retención, para dimensionar el filtro de Bloom.
+     */
+    private int expectedKeys = 1_000_000;
+
+    /**
+     * Tasa de falsos positivos del filtro de Bloom con las claves esperadas.
+     */
+    private double falsePositiveRate = 0.01;
+}
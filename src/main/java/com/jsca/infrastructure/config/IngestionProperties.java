@@ -0,0 +1,25 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración de la ingesta NDJSON de ficheros de órdenes.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.ingestion")
+public class IngestionProperties {
+
+    /**
+     * Tamaño máximo de una línea; una línea más larga se rechaza sin leerla en memoria.
+     */
+    private int maxLineBytes = 16_384;
+
+    /**
+     * Líneas reenviadas a otras instancias pendientes de respuesta
+     * ({@code payment.partition.enabled=true}); al llegar al máximo se deja de leer.
+     */
+    private int maxInFlight = 64;
+}
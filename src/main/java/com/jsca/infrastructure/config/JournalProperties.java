@@ -0,0 +1,45 @@
+package com.jsca.infrastructure.config;
+
+import com.jsca.infrastructure.adapter.out.persistence.JournalSyncMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuración del repositorio persistente basado en journal
+ * ({@code payment.repository.type=journal}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.repository.journal")
+public class JournalProperties {
+
+    /**
+     * Directorio donde se guardan el journal y los snapshots.
+     */
+    private String directory = "data/journal";
+
+    /**
+     * Tamaño de cada región mapeada en memoria del journal.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Política de sincronización a disco de las escrituras.
+     */
+    private JournalSyncMode syncMode = JournalSyncMode.GROUP;
+
+    /**
+     * Espera adicional para agrupar escrituras antes de cada flush (solo con syncMode=GROUP).
+     * Con cero, cada flush confirma lo acumulado mientras se ejecutaba el anterior.
+     */
+    private Duration groupCommitInterval = Duration.ZERO;
+
+    /**
+     * Cada cuánto se escribe un snapshot compacto; cero lo desactiva.
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+}
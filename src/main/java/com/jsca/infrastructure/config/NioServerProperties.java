@@ -0,0 +1,49 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del adaptador HTTP no bloqueante (perfil {@code nio}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.nio")
+public class NioServerProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Puerto propio del adaptador; el de Tomcat sigue sirviendo la API completa.
+     */
+    private int port = 8082;
+
+    /**
+     * Hilos que atienden las altas, que pueden esperar a que el journal las haga durables.
+     * Las consultas se responden en el hilo del bucle de eventos.
+     */
+    private int workerThreads = 4;
+
+    /**
+     * Altas en cola para los hilos de trabajo; con la cola llena se responde 503.
+     */
+    private int maxQueuedRequests = 1024;
+
+    /**
+     * Conexiones abiertas a la vez; las que superan el máximo se cierran al aceptarlas.
+     */
+    private int maxConnections = 50_000;
+
+    /**
+     * Tamaño máximo de una petición (línea, cabeceras y cuerpo).
+     */
+    private int maxRequestBytes = 16_384;
+
+    /**
+     * Tiempo que una conexión puede estar sin actividad antes de cerrarla.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(60);
+}
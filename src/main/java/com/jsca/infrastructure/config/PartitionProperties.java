@@ -0,0 +1,47 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración del particionado de órdenes de pago entre varias instancias.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.partition")
+public class PartitionProperties {
+
+    /**
+     * Si está activo, cada instancia solo guarda las órdenes de su rango del anillo y
+     * reenvía el resto de peticiones a la instancia propietaria.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Nombre de esta instancia; debe ser una de las claves de {@link #nodes}.
+     */
+    private String self;
+
+    /**
+     * Instancias del despliegue: nombre y URL base con la que se alcanzan entre ellas.
+     * Todas las instancias deben tener la misma lista, y no puede cambiar sin perder datos:
+     * las órdenes de los slots que cambian de dueño no se migran.
+     */
+    private Map<String, String> nodes = new LinkedHashMap<>();
+
+    /**
+     * Puntos de cada instancia en el anillo; más puntos reparten los slots de forma más
+     * uniforme.
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * Tiempo máximo de una petición reenviada a otra instancia.
+     */
+    private Duration forwardTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,41 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración de las cuotas por cliente en el alta de órdenes.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Activa las cuotas; desactivadas no se cuenta ninguna petición.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Cabecera con la clave del cliente; sin ella, la clave es el IBAN del deudor.
+     */
+    private String clientKeyHeader = "X-Client-Id";
+
+    /**
+     * Órdenes por segundo que recupera cada cliente. Se puede cambiar en caliente
+     * con {@code POST /actuator/ratelimit}.
+     */
+    private double requestsPerSecond = 50;
+
+    /**
+     * Órdenes que un cliente puede enviar de golpe con la cuota llena.
+     */
+    private int burst = 100;
+
+    /**
+     * Huecos de la tabla de cubos (8 bytes cada uno): clientes que pueden estar
+     * consumiendo cuota a la vez sin compartirla.
+     */
+    private int buckets = 262_144;
+}
@@ -0,0 +1,52 @@
+package com.jsca.infrastructure.config;
+
+import com.jsca.domain.model.PaymentStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Retención por niveles del repositorio en memoria ({@code payment.repository.type=memory}):
+ * las órdenes en estado terminal pasan de memoria a un archivo comprimido en disco.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.repository.retention")
+public class RetentionProperties {
+
+    /**
+     * Activa el archivado de órdenes terminales.
+     */
+    private boolean enabled;
+
+    /**
+     * Directorio de los segmentos del archivo.
+     */
+    private String directory = "data/archive";
+
+    /**
+     * Antigüedad mínima de la última actualización para archivar una orden.
+     */
+    private Duration minAge = Duration.ofHours(1);
+
+    /**
+     * Cada cuánto se buscan órdenes que archivar; cero desactiva la tarea periódica.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+
+    /**
+     * Estados que se consideran terminales y pueden archivarse.
+     */
+    private Set<PaymentStatus> statuses = EnumSet.of(PaymentStatus.EXECUTED, PaymentStatus.REJECTED,
+            PaymentStatus.CANCELLED);
+
+    /**
+     * Tamaño a partir del cual se abre un nuevo segmento del archivo.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+}
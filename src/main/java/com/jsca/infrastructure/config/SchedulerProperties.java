@@ -0,0 +1,38 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * Configuración de la retención de órdenes hasta su fecha de ejecución solicitada.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.scheduler")
+public class SchedulerProperties {
+
+    /**
+     * Activa la retención; desactivada, toda orden se ejecuta al iniciarse sea cual sea su fecha.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Órdenes por transición en lote al liberar un día.
+     */
+    private int batchSize = 5000;
+
+    /**
+     * Cada cuánto se comprueba si hay días vencidos: como mucho, el retraso de la liberación
+     * tras medianoche.
+     */
+    private Duration checkInterval = Duration.ofMinutes(1);
+
+    /**
+     * Zona horaria del día hábil; por defecto la del sistema.
+     */
+    private ZoneId zone = ZoneId.systemDefault();
+}
@@ -0,0 +1,41 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del stream SSE de cambios de estado.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.status-stream")
+public class StatusStreamProperties {
+
+    /**
+     * Cada cuánto se envía un comentario SSE a cada suscriptor para mantener viva la conexión.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Duración máxima de una conexión; el cliente SSE se reconecta al expirar.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Órdenes de pago que puede seguir una misma suscripción.
+     */
+    private int maxPaymentOrdersPerSubscription = 100;
+
+    /**
+     * Suscripciones abiertas a la vez en esta instancia.
+     */
+    private int maxSubscribers = 10_000;
+
+    /**
+     * Hilos que escriben los eventos en las conexiones.
+     */
+    private int senderThreads = 2;
+}
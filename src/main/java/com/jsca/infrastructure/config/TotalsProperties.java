@@ -0,0 +1,23 @@
+package com.jsca.infrastructure.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de los totales por deudor y fecha de ejecución de los repositorios
+ * {@code memory}, {@code journal} y {@code compact}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "payment.repository.totals")
+public class TotalsProperties {
+
+    /**
+     * Días hacia atrás desde hoy con totales; los de fechas de ejecución anteriores se
+     * descartan y la consulta de esas fechas no devuelve nada.
+     */
+    private Duration retention = Duration.ofDays(90);
+}
@@ -0,0 +1,50 @@
+package com.jsca.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timers de latencia con los mismos buckets en todos los decoradores.
+ *
+ * <p>Los percentiles se calculan en Prometheus con {@code histogram_quantile} sobre los
+ * buckets: son agregables entre instancias y no añaden trabajo a cada llamada, a
+ * diferencia de los percentiles calculados en cliente.
+ */
+final class LatencyTimers {
+
+    /**
+     * Buckets 1-2,5-5 desde 1 µs (repositorio en memoria) hasta 1 s (journal con fsync
+     * por escritura).
+     */
+    private static final Duration[] BUCKETS = buckets(Duration.ofNanos(1_000), Duration.ofSeconds(1));
+
+    private LatencyTimers() {
+    }
+
+    /**
+     * Timer registrado una sola vez: el decorador guarda la referencia y cada llamada
+     * solo registra la duración, sin buscar el meter por nombre y tags.
+     */
+    static Timer timer(MeterRegistry registry, String name, String tag, String value) {
+        return Timer.builder(name)
+                .tag(tag, value)
+                .serviceLevelObjectives(BUCKETS)
+                .register(registry);
+    }
+
+    private static Duration[] buckets(Duration min, Duration max) {
+        List<Duration> buckets = new ArrayList<>();
+        for (long decade = min.toNanos(); decade <= max.toNanos(); decade *= 10) {
+            buckets.add(Duration.ofNanos(decade));
+            if (decade < max.toNanos()) {
+                buckets.add(Duration.ofNanos(decade * 5 / 2));
+                buckets.add(Duration.ofNanos(decade * 5));
+            }
+        }
+        return buckets.toArray(Duration[]::new);
+    }
+}
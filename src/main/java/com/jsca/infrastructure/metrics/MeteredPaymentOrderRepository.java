@@ -0,0 +1,203 @@
+package com.jsca.infrastructure.metrics;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Métricas del repositorio de órdenes, como decorador de la implementación elegida en
+ * {@code payment.repository.type} ({@code payment.metrics.enabled}, activo por defecto).
+ *
+ * <ul>
+ *   <li>{@code payment.repository}: latencia por operación, con histograma para calcular percentiles.</li>
+ *   <li>{@code payment.repository.orders}: órdenes guardadas, archivadas incluidas.</li>
+ *   <li>{@code payment.orders}: órdenes por estado; se leen del repositorio en cada scrape.</li>
+ * </ul>
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "payment.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MeteredPaymentOrderRepository implements PaymentOrderRepository {
+
+    private static final String TIMER = "payment.repository";
+    private static final String TAG = "operation";
+
+    private final PaymentOrderRepository delegate;
+    private final Timer saveTimer;
+    private final Timer saveIfAbsentTimer;
+    private final Timer findByIdTimer;
+    private final Timer findByExternalIdTimer;
+    private final Timer transitionStatusTimer;
+    private final Timer transitionStatusesTimer;
+    private final Timer findByStatusTimer;
+    private final Timer searchTimer;
+    private final Timer forEachTimer;
+    private final Timer totalsTimer;
+
+    /**
+     * Spring no se inyecta a sí mismo un bean aunque sea {@code @Primary}: {@code delegate}
+     * es siempre el repositorio real.
+     */
+    public MeteredPaymentOrderRepository(PaymentOrderRepository delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.saveTimer = LatencyTimers.timer(registry, TIMER, TAG, "save");
+        this.saveIfAbsentTimer = LatencyTimers.timer(registry, TIMER, TAG, "save_if_absent");
+        this.findByIdTimer = LatencyTimers.timer(registry, TIMER, TAG, "find_by_id");
+        this.findByExternalIdTimer = LatencyTimers.timer(registry, TIMER, TAG, "find_by_external_id");
+        this.transitionStatusTimer = LatencyTimers.timer(registry, TIMER, TAG, "transition_status");
+        this.transitionStatusesTimer = LatencyTimers.timer(registry, TIMER, TAG, "transition_statuses");
+        this.findByStatusTimer = LatencyTimers.timer(registry, TIMER, TAG, "find_by_status");
+        this.searchTimer = LatencyTimers.timer(registry, TIMER, TAG, "search");
+        this.forEachTimer = LatencyTimers.timer(registry, TIMER, TAG, "for_each");
+        this.totalsTimer = LatencyTimers.timer(registry, TIMER, TAG, "totals");
+        Gauge.builder("payment.repository.orders", delegate, PaymentOrderRepository::count)
+                .description("Órdenes de pago guardadas")
+                .register(registry);
+        for (PaymentStatus status : PaymentStatus.values()) {
+            Gauge.builder("payment.orders", delegate, repository -> repository.countByStatus(status))
+                    .tag("status", status.name())
+                    .description("Órdenes de pago por estado")
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public PaymentOrder save(PaymentOrder paymentOrder) {
+        long start = System.nanoTime();
+        try {
+            return delegate.save(paymentOrder);
+        }
+        finally {
+            saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<PaymentOrder> saveIfAbsent(PaymentOrder paymentOrder) {
+        long start = System.nanoTime();
+        try {
+            return delegate.saveIfAbsent(paymentOrder);
+        }
+        finally {
+            saveIfAbsentTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<PaymentOrder> findById(String paymentOrderId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findById(paymentOrderId);
+        }
+        finally {
+            findByIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public StatusTransitionResult transitionStatus(StatusTransition transition) {
+        long start = System.nanoTime();
+        try {
+            return delegate.transitionStatus(transition);
+        }
+        finally {
+            transitionStatusTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<StatusTransitionResult> transitionStatuses(List<StatusTransition> transitions) {
+        long start = System.nanoTime();
+        try {
+            return delegate.transitionStatuses(transitions);
+        }
+        finally {
+            transitionStatusesTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<PaymentOrder> findByStatus(PaymentStatus status, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findByStatus(status, limit);
+        }
+        finally {
+            findByStatusTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<PaymentOrder> search(PaymentOrderSearchCriteria criteria, PaymentOrderCursor after, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.search(criteria, after, limit);
+        }
+        finally {
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Mide el recorrido completo, incluido el tiempo del consumidor.
+     */
+    @Override
+    public void forEach(PaymentOrderSearchCriteria criteria, Consumer<PaymentOrder> action) {
+        long start = System.nanoTime();
+        try {
+            delegate.forEach(criteria, action);
+        }
+        finally {
+            forEachTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<PaymentOrder> findByExternalId(String externalId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findByExternalId(externalId);
+        }
+        finally {
+            findByExternalIdTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countByStatus(PaymentStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public List<PaymentOrderTotals> totals(String debtorIban, LocalDate requestedExecutionDate) {
+        long start = System.nanoTime();
+        try {
+            return delegate.totals(debtorIban, requestedExecutionDate);
+        }
+        finally {
+            totalsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.jsca.infrastructure.metrics;
+
+import com.jsca.application.service.PaymentOrderService;
+import com.jsca.domain.model.InitiationOutcome;
+import com.jsca.domain.model.PaymentInitiationResult;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderValidationException;
+import com.jsca.domain.port.in.BulkInitiatePaymentUseCase;
+import com.jsca.domain.port.in.GetPaymentOrderUseCase;
+import com.jsca.domain.port.in.GetPaymentStatusUseCase;
+import com.jsca.domain.port.in.InitiatePaymentUseCase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de los casos de uso de iniciación y consulta, como decorador de
+ * {@link PaymentOrderService} ({@code payment.metrics.enabled}, activo por defecto).
+ *
+ * <ul>
+ *   <li>{@code payment.usecase}: latencia por caso de uso, con histograma para calcular percentiles.</li>
+ *   <li>{@code payment.initiations}: órdenes iniciadas por resultado
+ *       ({@code created}, {@code idempotent}), individuales o en lote.</li>
+ *   <li>{@code payment.initiations.rejected}: órdenes rechazadas por regla de negocio.</li>
+ * </ul>
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "payment.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MeteredPaymentOrderUseCases implements
+        InitiatePaymentUseCase,
+        BulkInitiatePaymentUseCase,
+        GetPaymentOrderUseCase,
+        GetPaymentStatusUseCase {
+
+    private static final String TIMER = "payment.usecase";
+    private static final String TAG = "usecase";
+
+    private final PaymentOrderService delegate;
+    private final Timer initiateTimer;
+    private final Timer bulkInitiateTimer;
+    private final Timer getOrderTimer;
+    private final Timer getStatusTimer;
+    private final Counter created;
+    private final Counter idempotent;
+    private final Map<PaymentOrderValidationException.Reason, Counter> rejected =
+            new EnumMap<>(PaymentOrderValidationException.Reason.class);
+    private final Counter rejectedOther;
+
+    public MeteredPaymentOrderUseCases(PaymentOrderService delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.initiateTimer = LatencyTimers.timer(registry, TIMER, TAG, "initiate_payment");
+        this.bulkInitiateTimer = LatencyTimers.timer(registry, TIMER, TAG, "bulk_initiate_payments");
+        this.getOrderTimer = LatencyTimers.timer(registry, TIMER, TAG, "get_payment_order");
+        this.getStatusTimer = LatencyTimers.timer(registry, TIMER, TAG, "get_payment_status");
+        this.created = Counter.builder("payment.initiations")
+                .tag("outcome", "created")
+                .description("Órdenes de pago creadas")
+                .register(registry);
+        this.idempotent = Counter.builder("payment.initiations")
+                .tag("outcome", "idempotent")
+                .description("Órdenes de pago que ya existían para el mismo externalId")
+                .register(registry);
+        for (PaymentOrderValidationException.Reason reason : PaymentOrderValidationException.Reason.values()) {
+            rejected.put(reason, rejectedCounter(registry, reason.name().toLowerCase(Locale.ROOT)));
+        }
+        this.rejectedOther = rejectedCounter(registry, "other");
+    }
+
+    @Override
+    public PaymentInitiationResult initiate(PaymentOrder paymentOrder) {
+        long start = System.nanoTime();
+        try {
+            PaymentInitiationResult result = delegate.initiate(paymentOrder);
+            count(result);
+            return result;
+        }
+        catch (PaymentOrderValidationException ex) {
+            rejected.get(ex.getReason()).increment();
+            throw ex;
+        }
+        catch (IllegalArgumentException ex) {
+            rejectedOther.increment();
+            throw ex;
+        }
+        finally {
+            initiateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<PaymentInitiationResult> initiatePayments(List<PaymentOrder> paymentOrders) {
+        long start = System.nanoTime();
+        try {
+            List<PaymentInitiationResult> results = delegate.initiatePayments(paymentOrders);
+            for (PaymentInitiationResult result : results) {
+                count(result);
+            }
+            return results;
+        }
+        finally {
+            bulkInitiateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<PaymentOrder> getPaymentOrder(String paymentOrderId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPaymentOrder(paymentOrderId);
+        }
+        finally {
+            getOrderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Optional<PaymentOrder> getPaymentStatus(String paymentOrderId) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getPaymentStatus(paymentOrderId);
+        }
+        finally {
+            getStatusTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void count(PaymentInitiationResult result) {
+        if (result.getOutcome() == InitiationOutcome.CREATED) {
+            created.increment();
+        }
+        else if (result.getOutcome() == InitiationOutcome.IDEMPOTENT) {
+            idempotent.increment();
+        }
+        else if (result.getRejectionReason() != null) {
+            rejected.get(result.getRejectionReason()).increment();
+        }
+        else {
+            rejectedOther.increment();
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("payment.initiations.rejected")
+                .tag("reason", reason)
+                .description("Órdenes de pago rechazadas por reglas de negocio")
+                .register(registry);
+    }
+}
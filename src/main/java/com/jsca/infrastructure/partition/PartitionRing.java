@@ -0,0 +1,87 @@
+package com.jsca.infrastructure.partition;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Anillo de hash consistente que reparte {@value #SLOTS} slots lógicos entre las instancias.
+ *
+ * <p>Cada clave cae en un slot fijo (los 10 bits altos de su hash), y cada slot pertenece a
+ * la primera instancia que aparece en el anillo a partir de la posición del slot. Cada
+ * instancia ocupa {@code virtualNodes} puntos del anillo, así que al añadir una instancia
+ * solo cambian de dueño los slots que caen justo antes de sus puntos: en torno a
+ * 1/(N+1) de los datos, todos hacia la instancia nueva.
+ */
+public final class PartitionRing {
+
+    public static final int SLOTS = 1024;
+
+    private static final int SLOT_BITS = 10;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String[] owners = new String[SLOTS];
+    private final Set<String> nodes;
+
+    public PartitionRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("El anillo necesita al menos una instancia y un punto por instancia");
+        }
+        this.nodes = Collections.unmodifiableSet(new LinkedHashSet<>(nodes));
+        TreeMap<Long, String> points = new TreeMap<>();
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // Ante una colisión gana siempre el mismo nombre, sea cual sea el orden de la lista
+                points.merge(hash(node + "#" + i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            Map.Entry<Long, String> owner = points.ceilingEntry(mix(slot * 0x9E3779B97F4A7C15L));
+            owners[slot] = owner != null ? owner.getValue() : points.firstEntry().getValue();
+        }
+    }
+
+    /**
+     * Slot de una clave (externalId o ID de orden sin sufijo de partición).
+     */
+    public static int slotOf(String key) {
+        return (int) (hash(key) >>> (Long.SIZE - SLOT_BITS));
+    }
+
+    /**
+     * Instancia propietaria de un slot.
+     */
+    public String ownerOf(int slot) {
+        return owners[slot];
+    }
+
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * FNV-1a sobre los caracteres más una mezcla final para repartir bien los bits altos.
+     */
+    static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        long mixed = value;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xff51afd7ed558ccdL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xc4ceb9fe1a85ec53L;
+        mixed ^= mixed >>> 33;
+        return mixed;
+    }
+}
@@ -0,0 +1,117 @@
+package com.jsca.infrastructure.partition;
+
+import com.jsca.infrastructure.config.PartitionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decide qué instancia es la propietaria de cada orden de pago
+ * ({@code payment.partition.enabled=true}).
+ *
+ * <p>La partición se decide por el externalId, que es la clave de idempotencia: todos los
+ * intentos de crear la misma orden llegan a la misma instancia. Para encontrar después la
+ * orden por su ID sin consultar a nadie, el ID lleva al final el slot de su externalId
+ * ({@code PO-038CYPJG00401-0K}); los IDs sin ese sufijo se reparten por su propio hash.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payment.partition", name = "enabled", havingValue = "true")
+public final class PaymentOrderPartitioner {
+
+    private static final int SUFFIX_LENGTH = 3;
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private final PartitionRing ring;
+    private final String self;
+    private final Map<String, URI> nodes = new LinkedHashMap<>();
+
+    @Autowired
+    public PaymentOrderPartitioner(PartitionProperties properties, Environment environment) {
+        this(properties);
+        requireNot(environment, "payment.repository.type", "compact",
+                "la búsqueda entre instancias necesita un cursor por fecha e ID, y el repositorio compact "
+                        + "ordena los empates por posición y busca el cursor solo en local");
+        requireNot(environment, "payment.nio.enabled", "true",
+                "el adaptador NIO atiende todas las peticiones en local, sin reenviarlas a la instancia propietaria");
+        requireNot(environment, "payment.duplicate-detection.enabled", "true",
+                "cada instancia solo compara las órdenes de sus externalId, así que los reenvíos con otro "
+                        + "externalId que caen en otra instancia no se detectan");
+    }
+
+    public PaymentOrderPartitioner(PartitionProperties properties) {
+        properties.getNodes().forEach((name, url) -> nodes.put(name, URI.create(url)));
+        if (properties.getSelf() == null || !nodes.containsKey(properties.getSelf())) {
+            throw new IllegalStateException("payment.partition.self debe ser una de las instancias de "
+                    + "payment.partition.nodes: " + properties.getSelf());
+        }
+        this.self = properties.getSelf();
+        this.ring = new PartitionRing(nodes.keySet(), properties.getVirtualNodes());
+        log.info("Particionado activo: instancia {} de {}", self, nodes.keySet());
+    }
+
+    /**
+     * Rechaza el arranque si {@code property} tiene un valor con el que el particionado no funciona.
+     */
+    private static void requireNot(Environment environment, String property, String value, String reason) {
+        if (value.equalsIgnoreCase(environment.getProperty(property, ""))) {
+            throw new IllegalStateException("payment.partition.enabled=true no admite " + property + "="
+                    + value + ": " + reason);
+        }
+    }
+
+    public String ownerOfExternalId(String externalId) {
+        return ring.ownerOf(PartitionRing.slotOf(externalId));
+    }
+
+    public String ownerOfPaymentOrderId(String paymentOrderId) {
+        return ring.ownerOf(slotOfPaymentOrderId(paymentOrderId));
+    }
+
+    public boolean isSelf(String node) {
+        return self.equals(node);
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public Set<String> nodes() {
+        return ring.nodes();
+    }
+
+    public URI urlOf(String node) {
+        return nodes.get(node);
+    }
+
+    /**
+     * Sufijo que se añade al ID de una orden nueva: {@code -} y el slot de su externalId
+     * en dos caracteres Crockford base32.
+     */
+    public static String partitionSuffix(String externalId) {
+        int slot = PartitionRing.slotOf(externalId);
+        return new String(new char[] {'-', ALPHABET.charAt(slot >>> 5), ALPHABET.charAt(slot & 0x1F)});
+    }
+
+    /**
+     * Slot del sufijo del ID o, si no lo tiene, el del propio ID.
+     */
+    static int slotOfPaymentOrderId(String paymentOrderId) {
+        int length = paymentOrderId.length();
+        if (length > SUFFIX_LENGTH && paymentOrderId.charAt(length - SUFFIX_LENGTH) == '-') {
+            int high = ALPHABET.indexOf(paymentOrderId.charAt(length - 2));
+            int low = ALPHABET.indexOf(paymentOrderId.charAt(length - 1));
+            if (high >= 0 && low >= 0) {
+                return (high << 5) | low;
+            }
+        }
+        return PartitionRing.slotOf(paymentOrderId);
+    }
+}
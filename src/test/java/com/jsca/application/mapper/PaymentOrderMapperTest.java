@@ -0,0 +1,62 @@
+package com.jsca.application.mapper;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderValidationException;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios de la conversión del importe de una petición de alta.
+ */
+class PaymentOrderMapperTest {
+
+    private final PaymentOrderMapper mapper = new PaymentOrderMapper();
+
+    @Test
+    void testToDomain_withTrailingZerosBeyondCurrency_shouldDropThemFromAmount() {
+        // Given
+        PaymentOrderRequest yen = request("100.00", "JPY");
+        PaymentOrderRequest euro = request("100.50", "EUR");
+        PaymentOrderRequest yenWithDecimals = request("100.50", "JPY");
+
+        // When
+        PaymentOrder yenOrder = mapper.toDomain(yen);
+        PaymentOrder euroOrder = mapper.toDomain(euro);
+        PaymentOrder yenWithDecimalsOrder = mapper.toDomain(yenWithDecimals);
+
+        // Then
+        assertThat(yenOrder.getAmount()).hasToString("100");
+        assertThat(yenOrder.isAmountScaleValid()).isTrue();
+        assertThat(euroOrder.getAmount()).hasToString("100.50");
+        assertThat(euroOrder.isAmountScaleValid()).isTrue();
+        assertThat(yenWithDecimalsOrder.getAmount()).hasToString("100.50");
+        assertThat(yenWithDecimalsOrder.isAmountScaleValid()).isFalse();
+    }
+
+    @Test
+    void testToDomain_withMalformedAmount_shouldThrowException() {
+        // Given
+        PaymentOrderRequest request = request("1e3", "EUR");
+
+        // When / Then
+        assertThatThrownBy(() -> mapper.toDomain(request))
+                .isInstanceOf(PaymentOrderValidationException.class)
+                .extracting("reason").isEqualTo(PaymentOrderValidationException.Reason.INVALID_AMOUNT);
+    }
+
+    private static PaymentOrderRequest request(String amount, String currency) {
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId("EXT-MAP-1");
+        request.setDebtorIban("ES9121000418450200051332");
+        request.setCreditorIban("ES7921000813610123456789");
+        request.setAmount(amount);
+        request.setCurrency(currency);
+        request.setRequestedExecutionDate(LocalDate.now().plusDays(1));
+        return request;
+    }
+}
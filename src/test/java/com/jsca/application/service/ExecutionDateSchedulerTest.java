@@ -0,0 +1,116 @@
+package com.jsca.application.service;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import com.jsca.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la retención de órdenes hasta su fecha de ejecución con el repositorio en memoria real.
+ */
+class ExecutionDateSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 3, 1);
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private final InMemoryPaymentOrderRepository repository = new InMemoryPaymentOrderRepository();
+    private final List<PaymentStatusChange> publishedChanges = Collections.synchronizedList(new ArrayList<>());
+    private final MutableClock clock = new MutableClock(TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC));
+    private final ExecutionDateScheduler scheduler = new ExecutionDateScheduler(
+            repository, publishedChanges::addAll, 1_000, Duration.ofMinutes(1), clock);
+
+    @Test
+    void testReleaseDue_shouldReleaseEachDayOnItsDateInBatches() {
+        // Given - 5.000 órdenes mañana, una de ellas cancelada, y 2 pasado mañana
+        for (int i = 0; i < 5_000; i++) {
+            schedule("PO-SCHED-1-" + i, TODAY.plusDays(1));
+        }
+        schedule("PO-SCHED-2-0", TODAY.plusDays(2));
+        schedule("PO-SCHED-2-1", TODAY.plusDays(2));
+        PaymentOrder cancelled = repository.findById("PO-SCHED-1-7").orElseThrow();
+        repository.transitionStatus(StatusTransition.of(cancelled, PaymentStatus.CANCELLED));
+
+        // When
+        int releasedToday = scheduler.releaseDue();
+        clock.advance(Duration.ofDays(1));
+        int releasedTomorrow = scheduler.releaseDue();
+
+        // Then
+        assertThat(releasedToday).isZero();
+        assertThat(releasedTomorrow).isEqualTo(4_999);
+        assertThat(repository.findByStatus(PaymentStatus.INITIATED, Integer.MAX_VALUE)).hasSize(4_999)
+                .allSatisfy(order -> assertThat(order.getRequestedExecutionDate()).isEqualTo(TODAY.plusDays(1)));
+        assertThat(repository.findById("PO-SCHED-1-7"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.CANCELLED));
+        assertThat(publishedChanges).hasSize(4_999)
+                .allSatisfy(change -> assertThat(change.status()).isEqualTo(PaymentStatus.INITIATED));
+        assertThat(scheduler.scheduledCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testStart_withScheduledOrdersInRepository_shouldRebuildQueuesAndReleaseDueDays() throws Exception {
+        // Given - órdenes guardadas antes de arrancar, una con un día que ya pasó
+        repository.save(scheduledOrder("PO-SCHED-R-0", TODAY.minusDays(1)));
+        repository.save(scheduledOrder("PO-SCHED-R-1", TODAY));
+        repository.save(scheduledOrder("PO-SCHED-R-2", TODAY.plusDays(30)));
+
+        // When
+        scheduler.start();
+        try {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (repository.countByStatus(PaymentStatus.INITIATED) < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        finally {
+            scheduler.stop();
+        }
+
+        // Then
+        assertThat(repository.countByStatus(PaymentStatus.INITIATED)).isEqualTo(2);
+        assertThat(repository.findById("PO-SCHED-R-2"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.SCHEDULED));
+        assertThat(scheduler.scheduledCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testIsForwardDated_shouldHoldOnlyDatesAfterToday() {
+        // Given / When / Then
+        assertThat(scheduler.isForwardDated(scheduledOrder("PO-SCHED-F-0", TODAY))).isFalse();
+        assertThat(scheduler.isForwardDated(scheduledOrder("PO-SCHED-F-1", TODAY.plusDays(1)))).isTrue();
+    }
+
+    private void schedule(String paymentOrderId, LocalDate executionDate) {
+        PaymentOrder order = scheduledOrder(paymentOrderId, executionDate);
+        repository.save(order);
+        scheduler.schedule(order);
+    }
+
+    private static PaymentOrder scheduledOrder(String paymentOrderId, LocalDate executionDate) {
+        PaymentOrder order = PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId("EXT-" + paymentOrderId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("100.00"))
+                .currency("EUR")
+                .requestedExecutionDate(executionDate)
+                .initiate()
+                .schedule()
+                .build();
+        return order;
+    }
+}
@@ -0,0 +1,143 @@
+package com.jsca.application.service;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.domain.port.out.SettlementPort;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests del motor de ejecución asíncrona con el repositorio en memoria real.
+ */
+class PaymentExecutionEngineTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private final InMemoryPaymentOrderRepository repository = new InMemoryPaymentOrderRepository();
+    private final List<PaymentStatusChange> publishedChanges = Collections.synchronizedList(new ArrayList<>());
+    private PaymentExecutionEngine engine;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void testEngine_withInitiatedOrders_shouldSettleEveryOrder() throws Exception {
+        // Given
+        for (int i = 0; i < 5_000; i++) {
+            repository.save(initiatedOrder("PO-EXEC-" + i));
+        }
+        repository.save(initiatedOrder("PO-EXEC-SAME"));
+        engine = start(orders -> orders.stream()
+                .map(order -> order.getPaymentOrderId().endsWith("SAME") ? PaymentStatus.REJECTED : PaymentStatus.EXECUTED)
+                .toList());
+
+        // When
+        awaitNoOrdersIn(PaymentStatus.INITIATED, PaymentStatus.PENDING);
+
+        // Then
+        assertThat(repository.findByStatus(PaymentStatus.EXECUTED, Integer.MAX_VALUE)).hasSize(5_000);
+        assertThat(repository.findById("PO-EXEC-SAME"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.REJECTED));
+        engine.stop();
+        engine = null;
+        assertThat(publishedChanges).hasSize(2 * 5_001);
+        assertThat(publishedChanges)
+                .filteredOn(change -> change.paymentOrderId().equals("PO-EXEC-SAME"))
+                .extracting(PaymentStatusChange::status)
+                .containsExactly(PaymentStatus.PENDING, PaymentStatus.REJECTED);
+    }
+
+    @Test
+    void testEngine_whenSettlementFails_shouldMarkBatchAsFailed() throws Exception {
+        // Given
+        repository.save(initiatedOrder("PO-EXEC-FAIL"));
+        engine = start(orders -> {
+            throw new IllegalStateException("Sistema de liquidación no disponible");
+        });
+
+        // When
+        awaitNoOrdersIn(PaymentStatus.INITIATED, PaymentStatus.PENDING);
+
+        // Then
+        assertThat(repository.findById("PO-EXEC-FAIL"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.FAILED));
+    }
+
+    @Test
+    void testEngine_withIllegalSettlementResult_shouldMarkOrderAsFailed() throws Exception {
+        // Given - una orden PENDING no puede pasar a CANCELLED
+        repository.save(initiatedOrder("PO-EXEC-ILLEGAL"));
+        engine = start(orders -> orders.stream().map(order -> PaymentStatus.CANCELLED).toList());
+
+        // When
+        awaitNoOrdersIn(PaymentStatus.INITIATED, PaymentStatus.PENDING);
+
+        // Then
+        assertThat(repository.findById("PO-EXEC-ILLEGAL")).hasValueSatisfying(order -> {
+            assertThat(order.getStatus()).isEqualTo(PaymentStatus.FAILED);
+            assertThat(order.getVersion()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void testEngine_withOrdersSavedWhileRunning_shouldPickThemUp() throws Exception {
+        // Given
+        engine = start(orders -> orders.stream().map(order -> PaymentStatus.EXECUTED).toList());
+
+        // When
+        repository.save(initiatedOrder("PO-EXEC-LATE"));
+        awaitNoOrdersIn(PaymentStatus.INITIATED, PaymentStatus.PENDING);
+
+        // Then
+        assertThat(repository.findById("PO-EXEC-LATE"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.EXECUTED));
+    }
+
+    private PaymentExecutionEngine start(SettlementPort settlementPort) {
+        PaymentExecutionEngine started = new PaymentExecutionEngine(repository, settlementPort,
+                publishedChanges::addAll, 100, 2, 2, Duration.ofMillis(5));
+        started.start();
+        return started;
+    }
+
+    private void awaitNoOrdersIn(PaymentStatus... statuses) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            if (Arrays.stream(statuses).allMatch(status -> repository.findByStatus(status, 1).isEmpty())) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Quedan órdenes sin procesar tras " + TIMEOUT_MILLIS + " ms");
+    }
+
+    private PaymentOrder initiatedOrder(String paymentOrderId) {
+        PaymentOrder order = PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId("EXT-" + paymentOrderId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("100.00"))
+                .currency("EUR")
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .initiate()
+                .build();
+        return order;
+    }
+}
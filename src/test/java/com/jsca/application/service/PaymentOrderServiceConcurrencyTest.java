@@ -0,0 +1,77 @@
+package com.jsca.application.service;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
+import com.jsca.infrastructure.adapter.out.id.TimeOrderedPaymentOrderIdGenerator;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de concurrencia para la idempotencia de PaymentOrderService
+ * con el repositorio en memoria real.
+ */
+class PaymentOrderServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int SUBMISSIONS = 5_000;
+
+    @Test
+    void testInitiatePayment_withParallelDuplicates_shouldCreateExactlyOneOrder() throws Exception {
+        // Given
+        InMemoryPaymentOrderRepository repository = new InMemoryPaymentOrderRepository();
+        PaymentOrderService service = new PaymentOrderService(repository, new TimeOrderedPaymentOrderIdGenerator(0),
+                PaymentOrderScheduler.NONE, DuplicatePaymentDetector.NONE);
+        Set<String> returnedIds = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When - miles de envíos simultáneos con el mismo externalId
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < SUBMISSIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    returnedIds.add(service.initiatePayment(newOrder("CONC-EXT-001")).getPaymentOrderId());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then - todos reciben el mismo ID y es el que queda indexado
+        assertThat(returnedIds).hasSize(1);
+        String paymentOrderId = returnedIds.iterator().next();
+        assertThat(repository.findByExternalId("CONC-EXT-001"))
+                .hasValueSatisfying(order -> assertThat(order.getPaymentOrderId()).isEqualTo(paymentOrderId));
+    }
+
+    private PaymentOrder newOrder(String externalId) {
+        return PaymentOrder.builder()
+                .externalId(externalId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("100.00"))
+                .currency("EUR")
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .build();
+    }
+}
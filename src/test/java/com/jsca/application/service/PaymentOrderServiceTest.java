@@ -1,8 +1,19 @@
 package com.jsca.application.service;
 
+import com.jsca.domain.model.DuplicatePaymentOrderIdException;
+import com.jsca.domain.model.InitiationOutcome;
+import com.jsca.domain.model.PaymentInitiationResult;
 import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderPage;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentOrderValidationException;
 import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderIdGenerator;
 import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,12 +23,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +45,15 @@ class PaymentOrderServiceTest {
     @Mock
     private PaymentOrderRepository repository;
 
+    @Mock
+    private PaymentOrderIdGenerator idGenerator;
+
+    @Mock
+    private PaymentOrderScheduler scheduler;
+
+    @Mock
+    private DuplicatePaymentDetector duplicateDetector;
+
     @InjectMocks
     private PaymentOrderService service;
 
@@ -37,6 +61,7 @@ class PaymentOrderServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(idGenerator.nextId(any())).thenReturn("PO-0J8ZK3V5G0001");
         validPaymentOrder = PaymentOrder.builder()
                 .externalId("TEST-EXT-001")
                 .debtorIban("ES9121000418450200051332")
@@ -52,7 +77,7 @@ class PaymentOrderServiceTest {
     void testInitiatePayment_withValidOrder_shouldCreateNewOrder() {
         // Given
         when(repository.findByExternalId("TEST-EXT-001")).thenReturn(Optional.empty());
-        when(repository.save(any(PaymentOrder.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.saveIfAbsent(any(PaymentOrder.class))).thenReturn(Optional.empty());
 
         // When
         PaymentOrder result = service.initiatePayment(validPaymentOrder);
@@ -64,9 +89,78 @@ class PaymentOrderServiceTest {
         assertThat(result.getStatus()).isEqualTo(PaymentStatus.INITIATED);
         assertThat(result.getCreatedAt()).isNotNull();
         assertThat(result.getLastUpdate()).isNotNull();
+        assertThat(validPaymentOrder.getPaymentOrderId()).isNull();
+        assertThat(validPaymentOrder.getStatus()).isNull();
 
         verify(repository).findByExternalId("TEST-EXT-001");
-        verify(repository).save(any(PaymentOrder.class));
+        verify(repository).saveIfAbsent(result);
+    }
+
+    @Test
+    void testInitiatePayment_whenConcurrentInsertWins_shouldReturnWinningOrder() {
+        // Given
+        PaymentOrder winningOrder = PaymentOrder.builder()
+                .paymentOrderId("PO-WINNER-001")
+                .externalId("TEST-EXT-001")
+                .status(PaymentStatus.INITIATED)
+                .build();
+
+        when(repository.findByExternalId("TEST-EXT-001")).thenReturn(Optional.empty());
+        when(repository.saveIfAbsent(any(PaymentOrder.class))).thenReturn(Optional.of(winningOrder));
+
+        // When
+        PaymentOrder result = service.initiatePayment(validPaymentOrder);
+
+        // Then
+        assertThat(result).isSameAs(winningOrder);
+        verify(scheduler, never()).schedule(any());
+    }
+
+    @Test
+    void testInitiatePayment_whenGeneratedIdAlreadyExists_shouldRetryWithNewId() {
+        // Given - el primer ID ya lo tiene otra orden
+        when(idGenerator.nextId(any())).thenReturn("PO-0J8ZK3V5G0001", "PO-0J8ZK3V5G0002");
+        when(repository.findByExternalId("TEST-EXT-001")).thenReturn(Optional.empty());
+        when(repository.saveIfAbsent(any(PaymentOrder.class)))
+                .thenThrow(new DuplicatePaymentOrderIdException("PO-0J8ZK3V5G0001"))
+                .thenReturn(Optional.empty());
+
+        // When
+        PaymentOrder result = service.initiatePayment(validPaymentOrder);
+
+        // Then
+        assertThat(result.getPaymentOrderId()).isEqualTo("PO-0J8ZK3V5G0002");
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.INITIATED);
+    }
+
+    @Test
+    void testInitiatePayment_whenGeneratedIdsKeepRepeating_shouldFailWithoutOverwriting() {
+        // Given
+        when(repository.findByExternalId("TEST-EXT-001")).thenReturn(Optional.empty());
+        when(repository.saveIfAbsent(any(PaymentOrder.class)))
+                .thenThrow(new DuplicatePaymentOrderIdException("PO-0J8ZK3V5G0001"));
+
+        // When / Then
+        assertThatThrownBy(() -> service.initiatePayment(validPaymentOrder))
+                .isInstanceOf(DuplicatePaymentOrderIdException.class);
+        verify(repository, times(3)).saveIfAbsent(any(PaymentOrder.class));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testInitiatePayment_withForwardDatedOrder_shouldSaveScheduledAndScheduleIt() {
+        // Given
+        when(repository.findByExternalId("TEST-EXT-001")).thenReturn(Optional.empty());
+        when(repository.saveIfAbsent(any(PaymentOrder.class))).thenReturn(Optional.empty());
+        when(scheduler.isForwardDated(validPaymentOrder)).thenReturn(true);
+
+        // When
+        PaymentOrder result = service.initiatePayment(validPaymentOrder);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.SCHEDULED);
+        assertThat(result.getVersion()).isEqualTo(1);
+        verify(scheduler).schedule(result);
     }
 
     @Test
@@ -88,13 +182,47 @@ class PaymentOrderServiceTest {
         assertThat(result.getPaymentOrderId()).isEqualTo("PO-EXISTING-001");
 
         verify(repository).findByExternalId("TEST-EXT-001");
-        verify(repository, never()).save(any(PaymentOrder.class));
+        verify(repository, never()).saveIfAbsent(any(PaymentOrder.class));
+    }
+
+    @Test
+    void testInitiatePayment_withRecentDuplicateAndRejectAction_shouldThrowException() {
+        // Given
+        when(repository.findByExternalId("TEST-EXT-001")).thenReturn(Optional.empty());
+        when(duplicateDetector.findDuplicate(validPaymentOrder)).thenReturn(Optional.of("TEST-EXT-000"));
+        when(duplicateDetector.rejectsDuplicates()).thenReturn(true);
+
+        // When / Then
+        assertThatThrownBy(() -> service.initiatePayment(validPaymentOrder))
+                .isInstanceOf(PaymentOrderValidationException.class)
+                .hasMessage("Posible pago duplicado de la orden TEST-EXT-000: mismo deudor, acreedor, importe y moneda")
+                .extracting("reason").isEqualTo(PaymentOrderValidationException.Reason.DUPLICATE_PAYMENT);
+
+        verify(repository, never()).saveIfAbsent(any(PaymentOrder.class));
+    }
+
+    @Test
+    void testInitiatePayment_withRecentDuplicateAndFlagAction_shouldCreateOrder() {
+        // Given
+        when(repository.findByExternalId("TEST-EXT-001")).thenReturn(Optional.empty());
+        when(repository.saveIfAbsent(any(PaymentOrder.class))).thenReturn(Optional.empty());
+        when(duplicateDetector.findDuplicate(validPaymentOrder)).thenReturn(Optional.of("TEST-EXT-000"));
+        when(duplicateDetector.rejectsDuplicates()).thenReturn(false);
+
+        // When
+        PaymentOrder result = service.initiatePayment(validPaymentOrder);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.INITIATED);
+        verify(repository).saveIfAbsent(result);
     }
 
     @Test
     void testInitiatePayment_withInvalidAmount_shouldThrowException() {
         // Given
-        validPaymentOrder.setAmount(new BigDecimal("-100.00"));
+        validPaymentOrder = validPaymentOrder.toBuilder()
+                .amount(new BigDecimal("-100.00"))
+                .build();
 
         when(repository.findByExternalId(any())).thenReturn(Optional.empty());
 
@@ -103,13 +231,15 @@ class PaymentOrderServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("El monto debe ser mayor a cero");
 
-        verify(repository, never()).save(any(PaymentOrder.class));
+        verify(repository, never()).saveIfAbsent(any(PaymentOrder.class));
     }
 
     @Test
     void testInitiatePayment_withPastExecutionDate_shouldThrowException() {
         // Given
-        validPaymentOrder.setRequestedExecutionDate(LocalDate.now().minusDays(1));
+        validPaymentOrder = validPaymentOrder.toBuilder()
+                .requestedExecutionDate(LocalDate.now().minusDays(1))
+                .build();
 
         when(repository.findByExternalId(any())).thenReturn(Optional.empty());
 
@@ -118,7 +248,60 @@ class PaymentOrderServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("La fecha de ejecución debe ser hoy o en el futuro");
 
-        verify(repository, never()).save(any(PaymentOrder.class));
+        verify(repository, never()).saveIfAbsent(any(PaymentOrder.class));
+    }
+
+    @Test
+    void testInitiatePayment_withWrongIbanCheckDigits_shouldThrowException() {
+        // Given
+        validPaymentOrder = validPaymentOrder.toBuilder()
+                .creditorIban("ES7921000813610123456798")
+                .build();
+
+        when(repository.findByExternalId(any())).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> service.initiatePayment(validPaymentOrder))
+                .isInstanceOf(PaymentOrderValidationException.class)
+                .hasMessage("IBAN no válido (ISO 13616): ES7921000813610123456798")
+                .extracting("reason").isEqualTo(PaymentOrderValidationException.Reason.INVALID_IBAN);
+
+        verify(repository, never()).saveIfAbsent(any(PaymentOrder.class));
+    }
+
+    @Test
+    void testInitiatePayment_withUnknownCurrency_shouldThrowException() {
+        // Given
+        validPaymentOrder = validPaymentOrder.toBuilder()
+                .currency("ABC")
+                .build();
+
+        when(repository.findByExternalId(any())).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> service.initiatePayment(validPaymentOrder))
+                .isInstanceOf(PaymentOrderValidationException.class)
+                .extracting("reason").isEqualTo(PaymentOrderValidationException.Reason.UNSUPPORTED_CURRENCY);
+
+        verify(repository, never()).saveIfAbsent(any(PaymentOrder.class));
+    }
+
+    @Test
+    void testInitiatePayment_withMoreDecimalsThanCurrency_shouldThrowException() {
+        // Given
+        validPaymentOrder = validPaymentOrder.toBuilder()
+                .currency("JPY")
+                .build();
+
+        when(repository.findByExternalId(any())).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> service.initiatePayment(validPaymentOrder))
+                .isInstanceOf(PaymentOrderValidationException.class)
+                .hasMessageContaining("El monto no se puede expresar en unidades de JPY")
+                .extracting("reason").isEqualTo(PaymentOrderValidationException.Reason.INVALID_AMOUNT);
+
+        verify(repository, never()).saveIfAbsent(any(PaymentOrder.class));
     }
 
     @Test
@@ -175,5 +358,103 @@ class PaymentOrderServiceTest {
         verify(repository).findById("PO-TEST-001");
     }
 
-}
+    @Test
+    void testInitiatePayments_withMixedBatch_shouldReturnOneResultPerOrderInOrder() {
+        // Given
+        PaymentOrder existingOrder = PaymentOrder.builder()
+                .paymentOrderId("PO-EXISTING-001")
+                .externalId("TEST-EXT-EXISTING")
+                .status(PaymentStatus.INITIATED)
+                .build();
+        PaymentOrder duplicate = PaymentOrder.builder()
+                .externalId("TEST-EXT-EXISTING")
+                .build();
+        PaymentOrder invalidAmount = PaymentOrder.builder()
+                .externalId("TEST-EXT-INVALID")
+                .amount(BigDecimal.ZERO)
+                .requestedExecutionDate(LocalDate.now())
+                .build();
 
+        when(repository.findByExternalId(any())).thenReturn(Optional.empty());
+        when(repository.findByExternalId("TEST-EXT-EXISTING")).thenReturn(Optional.of(existingOrder));
+        when(repository.saveIfAbsent(any(PaymentOrder.class))).thenReturn(Optional.empty());
+
+        // When
+        List<PaymentInitiationResult> results = service.initiatePayments(
+                List.of(validPaymentOrder, duplicate, invalidAmount));
+
+        // Then
+        assertThat(results).extracting(PaymentInitiationResult::getOutcome)
+                .containsExactly(InitiationOutcome.CREATED, InitiationOutcome.IDEMPOTENT, InitiationOutcome.REJECTED);
+        assertThat(results.get(0).getPaymentOrder().getStatus()).isEqualTo(PaymentStatus.INITIATED);
+        assertThat(results.get(1).getPaymentOrder()).isSameAs(existingOrder);
+        assertThat(results.get(2).getPaymentOrder()).isNull();
+        assertThat(results.get(2).getErrorDetail()).contains("El monto debe ser mayor a cero");
+    }
+
+    @Test
+    void testSearchPaymentOrders_withMoreResultsThanLimit_shouldReturnCursorOfLastItem() {
+        // Given
+        PaymentOrderSearchCriteria criteria = new PaymentOrderSearchCriteria(
+                "ES9121000418450200051332", null, PaymentStatus.PENDING, null, null);
+        List<PaymentOrder> found = List.of(searchResult("PO-S-1"), searchResult("PO-S-2"), searchResult("PO-S-3"));
+        when(repository.search(criteria, null, 3)).thenReturn(found);
+
+        // When
+        PaymentOrderPage page = service.searchPaymentOrders(criteria, null, 2);
+
+        // Then
+        assertThat(page.paymentOrders()).extracting(PaymentOrder::getPaymentOrderId).containsExactly("PO-S-1", "PO-S-2");
+        assertThat(page.nextCursor()).isEqualTo(new PaymentOrderCursor(LocalDate.now().plusDays(1), "PO-S-2"));
+    }
+
+    @Test
+    void testSearchPaymentOrders_withoutFilters_shouldThrowExceptionWithoutQueryingRepository() {
+        // Given
+        PaymentOrderSearchCriteria criteria = new PaymentOrderSearchCriteria(null, null, null, null, null);
+
+        // When & Then
+        assertThatThrownBy(() -> service.searchPaymentOrders(criteria, null, 50))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("al menos un filtro");
+        verify(repository, never()).search(any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetPaymentOrderTotals_withCurrency_shouldKeepOnlyThatCurrency() {
+        // Given
+        LocalDate day = LocalDate.now().plusDays(1);
+        String debtor = "ES9121000418450200051332";
+        PaymentOrderTotals eur = new PaymentOrderTotals(debtor, "EUR", day, List.of(
+                new PaymentOrderTotals.StatusTotals(PaymentStatus.INITIATED, 2, new BigDecimal("20.00"))));
+        PaymentOrderTotals usd = new PaymentOrderTotals(debtor, "USD", day, List.of(
+                new PaymentOrderTotals.StatusTotals(PaymentStatus.PENDING, 1, new BigDecimal("5.00"))));
+        when(repository.totals(debtor, day)).thenReturn(List.of(eur, usd));
+
+        // When
+        List<PaymentOrderTotals> all = service.getPaymentOrderTotals(debtor, null, day);
+        List<PaymentOrderTotals> onlyUsd = service.getPaymentOrderTotals(debtor, "USD", day);
+
+        // Then
+        assertThat(all).containsExactly(eur, usd);
+        assertThat(onlyUsd).containsExactly(usd);
+    }
+
+    @Test
+    void testGetPaymentOrderTotals_withoutDebtor_shouldThrowExceptionWithoutQueryingRepository() {
+        // When & Then
+        assertThatThrownBy(() -> service.getPaymentOrderTotals(" ", null, LocalDate.now()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("IBAN del deudor");
+        verify(repository, never()).totals(any(), any());
+    }
+
+    private PaymentOrder searchResult(String paymentOrderId) {
+        return PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .status(PaymentStatus.PENDING)
+                .build();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.jsca.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios de las reglas de formato de IBAN, moneda e importe.
+ */
+class PaymentOrderFieldRulesTest {
+
+    @Test
+    void testIsValidIban_withRegistryExamples_shouldReturnTrue() {
+        // Given / When / Then
+        assertThat(PaymentOrderFieldRules.isValidIban("ES9121000418450200051332")).isTrue();
+        assertThat(PaymentOrderFieldRules.isValidIban("DE89370400440532013000")).isTrue();
+        assertThat(PaymentOrderFieldRules.isValidIban("FR1420041010050500013M02606")).isTrue();
+        assertThat(PaymentOrderFieldRules.isValidIban("GB29NWBK60161331926819")).isTrue();
+        assertThat(PaymentOrderFieldRules.isValidIban("NO9386011117947")).isTrue();
+        assertThat(PaymentOrderFieldRules.isValidIban("MT84MALT011000012345MTLCAST001S")).isTrue();
+    }
+
+    @Test
+    void testIsValidIban_withWrongCheckDigitsOrTypo_shouldReturnFalse() {
+        // Given / When / Then
+        assertThat(PaymentOrderFieldRules.isValidIban("ES9221000418450200051332")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("ES9121000418450200051323")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("ES0021000418450200051332")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("ES9921000418450200051332")).isFalse();
+    }
+
+    @Test
+    void testIsValidIban_withWrongCountryLengthOrCharacters_shouldReturnFalse() {
+        // Given / When / Then
+        assertThat(PaymentOrderFieldRules.isValidIban("ES91210004184502000513")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("US64SVBKUS6S3300958879")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("es9121000418450200051332")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("ES91 2100 0418 4502 0005 13")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("FR1420041010050500013m02606")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("ESAB21000418450200051332")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban("not-an-iban")).isFalse();
+        assertThat(PaymentOrderFieldRules.isValidIban(null)).isFalse();
+    }
+
+    @Test
+    void testMinorUnits_shouldFollowIso4217() {
+        // Given / When / Then
+        assertThat(PaymentOrderFieldRules.minorUnits("EUR")).isEqualTo(2);
+        assertThat(PaymentOrderFieldRules.minorUnits("JPY")).isZero();
+        assertThat(PaymentOrderFieldRules.minorUnits("KWD")).isEqualTo(3);
+        assertThat(PaymentOrderFieldRules.minorUnits("CLF")).isEqualTo(4);
+        assertThat(PaymentOrderFieldRules.minorUnits("ABC")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.minorUnits("XXX")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.minorUnits("eur")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.minorUnits("EURO")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.minorUnits(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void testAmountScale_withContractFormat_shouldIgnoreTrailingZeros() {
+        // Given / When / Then
+        assertThat(PaymentOrderFieldRules.amountScale("1500")).isZero();
+        assertThat(PaymentOrderFieldRules.amountScale("1500.00")).isZero();
+        assertThat(PaymentOrderFieldRules.amountScale("1500.50")).isEqualTo(1);
+        assertThat(PaymentOrderFieldRules.amountScale("0.05")).isEqualTo(2);
+    }
+
+    @Test
+    void testAmountScale_withInvalidFormat_shouldReturnMinusOne() {
+        // Given / When / Then
+        assertThat(PaymentOrderFieldRules.amountScale("")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.amountScale("-10.00")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.amountScale(".50")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.amountScale("10.")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.amountScale("10.505")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.amountScale("10,50")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.amountScale("10.5a")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.amountScale("1e3")).isEqualTo(-1);
+        assertThat(PaymentOrderFieldRules.amountScale(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void testFitsMinorUnits_shouldBoundScaleAndDigits() {
+        // Given / When / Then
+        assertThat(PaymentOrderFieldRules.fitsMinorUnits(new BigDecimal("100.50"), 2)).isTrue();
+        assertThat(PaymentOrderFieldRules.fitsMinorUnits(new BigDecimal("100"), 0)).isTrue();
+        assertThat(PaymentOrderFieldRules.fitsMinorUnits(new BigDecimal("100.00"), 0)).isFalse();
+        assertThat(PaymentOrderFieldRules.fitsMinorUnits(new BigDecimal("100.50"), 0)).isFalse();
+        assertThat(PaymentOrderFieldRules.fitsMinorUnits(new BigDecimal("100"), -1)).isFalse();
+        assertThat(PaymentOrderFieldRules.fitsMinorUnits(new BigDecimal("9999999999999999.99"), 2)).isTrue();
+        assertThat(PaymentOrderFieldRules.fitsMinorUnits(new BigDecimal("99999999999999999"), 2)).isFalse();
+    }
+}
@@ -25,34 +25,96 @@ public class PaymentOrderTest {
                 .build();
 
         // When
-        order.initiate();
+        PaymentOrder initiated = order.toBuilder().paymentOrderId("PO-TEST-000").initiate().build();
 
         // Then
-        assertThat(order.getStatus()).isEqualTo(PaymentStatus.INITIATED);
-        assertThat(order.getCreatedAt()).isNotNull();
-        assertThat(order.getLastUpdate()).isNotNull();
-        assertThat(order.getCreatedAt()).isEqualToIgnoringNanos(order.getLastUpdate());
+        assertThat(initiated.getPaymentOrderId()).isEqualTo("PO-TEST-000");
+        assertThat(initiated.getStatus()).isEqualTo(PaymentStatus.INITIATED);
+        assertThat(initiated.getCreatedAt()).isNotNull();
+        assertThat(initiated.getLastUpdate()).isNotNull();
+        assertThat(initiated.getCreatedAt()).isEqualToIgnoringNanos(initiated.getLastUpdate());
+        assertThat(initiated.getVersion()).isEqualTo(1);
+        assertThat(order.getStatus()).isNull();
     }
 
     @Test
-    void testUpdateStatus_shouldChangeStatusAndUpdateTimestamp() throws InterruptedException {
+    void testWithStatus_shouldReturnNextVersionAndKeepSnapshot() {
         // Given
         PaymentOrder order = PaymentOrder.builder()
                 .paymentOrderId("PO-TEST-001")
-                .status(PaymentStatus.INITIATED)
-                .createdAt(OffsetDateTime.now())
-                .lastUpdate(OffsetDateTime.now())
+                .initiate()
                 .build();
+        OffsetDateTime at = order.getLastUpdate().plusSeconds(1);
+
+        // When
+        PaymentOrder pending = order.withStatus(PaymentStatus.PENDING, at);
+
+        // Then
+        assertThat(pending.getStatus()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(pending.getLastUpdate()).isEqualTo(at);
+        assertThat(pending.getVersion()).isEqualTo(2);
+        assertThat(order.getStatus()).isEqualTo(PaymentStatus.INITIATED);
+        assertThat(order.getVersion()).isEqualTo(1);
+    }
 
-        OffsetDateTime initialLastUpdate = order.getLastUpdate();
-        Thread.sleep(10);
+    @Test
+    void testApplyTo_withLegalTransitionAndExpectedVersion_shouldApply() {
+        // Given
+        PaymentOrder order = PaymentOrder.builder().paymentOrderId("PO-TEST-002").initiate().build();
 
         // When
-        order.updateStatus(PaymentStatus.EXECUTED);
+        StatusTransitionResult result = StatusTransition.of(order, PaymentStatus.PENDING)
+                .applyTo(order, OffsetDateTime.now());
 
         // Then
-        assertThat(order.getStatus()).isEqualTo(PaymentStatus.EXECUTED);
-        assertThat(order.getLastUpdate()).isAfter(initialLastUpdate);
+        assertThat(result.getOutcome()).isEqualTo(TransitionOutcome.APPLIED);
+        assertThat(result.getPaymentOrder().getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void testApplyTo_withStaleVersion_shouldReportConflictWithCurrentOrder() {
+        // Given - la transición se decidió sobre la versión 1 y la orden ya va por la 2
+        PaymentOrder order = PaymentOrder.builder().paymentOrderId("PO-TEST-003").initiate().build();
+        PaymentOrder pending = order.withStatus(PaymentStatus.PENDING, OffsetDateTime.now());
+
+        // When
+        StatusTransitionResult result = StatusTransition.of(order, PaymentStatus.CANCELLED)
+                .applyTo(pending, OffsetDateTime.now());
+
+        // Then
+        assertThat(result.getOutcome()).isEqualTo(TransitionOutcome.VERSION_CONFLICT);
+        assertThat(result.getPaymentOrder()).isSameAs(pending);
+    }
+
+    @Test
+    void testApplyTo_withIllegalTransition_shouldNotApply() {
+        // Given
+        PaymentOrder order = PaymentOrder.builder().paymentOrderId("PO-TEST-004").initiate().build();
+
+        // When
+        StatusTransitionResult result = StatusTransition.of(order, PaymentStatus.EXECUTED)
+                .applyTo(order, OffsetDateTime.now());
+
+        // Then
+        assertThat(result.getOutcome()).isEqualTo(TransitionOutcome.ILLEGAL_TRANSITION);
+        assertThat(result.getPaymentOrder()).isSameAs(order);
+        assertThat(StatusTransition.of(order, PaymentStatus.PENDING).applyTo(null, OffsetDateTime.now()).getOutcome())
+                .isEqualTo(TransitionOutcome.NOT_FOUND);
+    }
+
+    @Test
+    void testCanTransitionTo_shouldFollowStateMachine() {
+        assertThat(PaymentStatus.INITIATED.canTransitionTo(PaymentStatus.PENDING)).isTrue();
+        assertThat(PaymentStatus.INITIATED.canTransitionTo(PaymentStatus.CANCELLED)).isTrue();
+        assertThat(PaymentStatus.INITIATED.canTransitionTo(PaymentStatus.EXECUTED)).isFalse();
+        assertThat(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.EXECUTED)).isTrue();
+        assertThat(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.CANCELLED)).isFalse();
+        assertThat(PaymentStatus.EXECUTED.canTransitionTo(PaymentStatus.FAILED)).isFalse();
+        assertThat(PaymentStatus.CANCELLED.canTransitionTo(PaymentStatus.INITIATED)).isFalse();
+        assertThat(PaymentStatus.SCHEDULED.canTransitionTo(PaymentStatus.INITIATED)).isTrue();
+        assertThat(PaymentStatus.SCHEDULED.canTransitionTo(PaymentStatus.CANCELLED)).isTrue();
+        assertThat(PaymentStatus.SCHEDULED.canTransitionTo(PaymentStatus.PENDING)).isFalse();
+        assertThat(PaymentStatus.INITIATED.canTransitionTo(PaymentStatus.SCHEDULED)).isFalse();
     }
 
     @Test
@@ -0,0 +1,211 @@
+package com.jsca.infrastructure.adapter.in.nio;
+
+import com.jsca.infrastructure.adapter.in.rest.model.ErrorResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderStatusResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración del adaptador HTTP no bloqueante, comparado con el de Tomcat.
+ */
+@ActiveProfiles("nio")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "payment.nio.port=0",
+        "payment.execution.enabled=false"})
+class NioHttpServerIntegrationTest {
+
+    private static final String PATH = PaymentOrderHttpHandler.BASE_PATH;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private NioHttpServer nioServer;
+
+    @Test
+    void testSubmitAndGet_shouldAnswerLikeTheServletController() {
+        // Given
+        ResponseEntity<PaymentOrderResponse> created = restTemplate.postForEntity(
+                nio(PATH), request("NIO-001"), PaymentOrderResponse.class);
+        String paymentOrderId = created.getBody().getPaymentOrderId();
+
+        // When
+        ResponseEntity<PaymentOrderDetailsResponse> nioDetails = restTemplate.getForEntity(
+                nio(PATH + "/" + paymentOrderId), PaymentOrderDetailsResponse.class);
+        ResponseEntity<PaymentOrderDetailsResponse> servletDetails = restTemplate.getForEntity(
+                PATH + "/" + paymentOrderId, PaymentOrderDetailsResponse.class);
+        ResponseEntity<PaymentOrderStatusResponse> nioStatus = restTemplate.getForEntity(
+                nio(PATH + "/" + paymentOrderId + "/status"), PaymentOrderStatusResponse.class);
+        ResponseEntity<PaymentOrderStatusResponse> servletStatus = restTemplate.getForEntity(
+                PATH + "/" + paymentOrderId + "/status", PaymentOrderStatusResponse.class);
+
+        // Then
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(nioDetails.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(nioDetails.getBody()).isEqualTo(servletDetails.getBody());
+        assertThat(nioDetails.getHeaders().getETag()).isEqualTo(servletDetails.getHeaders().getETag());
+        assertThat(nioStatus.getBody()).isEqualTo(servletStatus.getBody());
+        assertThat(nioStatus.getHeaders().getLastModified()).isEqualTo(servletStatus.getHeaders().getLastModified());
+    }
+
+    @Test
+    void testGetStatus_withCurrentEtag_shouldReturn304() {
+        // Given
+        String paymentOrderId = restTemplate.postForEntity(nio(PATH), request("NIO-002"), PaymentOrderResponse.class)
+                .getBody().getPaymentOrderId();
+        String etag = restTemplate.getForEntity(nio(PATH + "/" + paymentOrderId + "/status"), String.class)
+                .getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange(nio(PATH + "/" + paymentOrderId + "/status"),
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void testErrors_shouldReturnProblemDetails() {
+        // Given
+        PaymentOrderRequest invalid = request("NIO-003");
+        invalid.setCurrency("euros");
+
+        // When
+        ResponseEntity<ErrorResponse> notFound = restTemplate.getForEntity(nio(PATH + "/PO-UNKNOWN/status"), ErrorResponse.class);
+        ResponseEntity<ErrorResponse> badRequest = restTemplate.postForEntity(nio(PATH), invalid, ErrorResponse.class);
+
+        // Then
+        assertThat(notFound.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(notFound.getHeaders().getContentType()).hasToString("application/problem+json");
+        assertThat(notFound.getBody().getDetail()).isEqualTo("Orden de pago no encontrada: PO-UNKNOWN");
+        assertThat(badRequest.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(badRequest.getBody().getDetail()).startsWith("currency: ");
+    }
+
+    @Test
+    void testPipelinedRequests_shouldBeAnsweredInOrderOnTheSameConnection() throws IOException {
+        // Given
+        String get = "GET " + PATH + "/PO-A/status HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        String close = "GET " + PATH + "/PO-B HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+
+        try (Socket socket = new Socket("localhost", nioServer.getPort())) {
+            // When
+            OutputStream out = socket.getOutputStream();
+            out.write((get + close).getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String responses = readAll(socket.getInputStream());
+
+            // Then
+            assertThat(responses.indexOf("PO-A")).isLessThan(responses.indexOf("PO-B"));
+            assertThat(responses.split("HTTP/1.1 404 Not Found", -1)).hasSize(3);
+            assertThat(responses).contains("Connection: close");
+        }
+    }
+
+    @Test
+    void testMalformedRequest_shouldReturn400AndClose() throws IOException {
+        try (Socket socket = new Socket("localhost", nioServer.getPort())) {
+            // When
+            socket.getOutputStream().write("NOT-HTTP\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            String response = readAll(socket.getInputStream());
+
+            // Then
+            assertThat(response).startsWith("HTTP/1.1 400 Bad Request").contains("Connection: close");
+        }
+    }
+
+    @Test
+    void testLargeRequest_shouldGrowReadBufferUpToMaxRequestBytes() throws IOException {
+        // Given - cabeceras que no caben en el buffer inicial y otras que superan el máximo
+        String fits = "GET " + PATH + "/PO-C/status HTTP/1.1\r\nHost: localhost\r\nX-Padding: " + "x".repeat(6_000)
+                + "\r\nConnection: close\r\n\r\n";
+        String tooLarge = "GET " + PATH + "/PO-D/status HTTP/1.1\r\nHost: localhost\r\nX-Padding: " + "x".repeat(20_000)
+                + "\r\n\r\n";
+
+        // When
+        String fitsResponse;
+        try (Socket socket = new Socket("localhost", nioServer.getPort())) {
+            socket.getOutputStream().write(fits.getBytes(StandardCharsets.US_ASCII));
+            fitsResponse = readAll(socket.getInputStream());
+        }
+        String tooLargeResponse;
+        try (Socket socket = new Socket("localhost", nioServer.getPort())) {
+            socket.getOutputStream().write(tooLarge.getBytes(StandardCharsets.US_ASCII));
+            tooLargeResponse = readAll(socket.getInputStream());
+        }
+
+        // Then
+        assertThat(fitsResponse).startsWith("HTTP/1.1 404 Not Found").contains("PO-C");
+        assertThat(tooLargeResponse).startsWith("HTTP/1.1 431");
+    }
+
+    @Test
+    void testIdleConnections_shouldNotBlockOtherClients() throws IOException {
+        // Given - conexiones abiertas sin petición en curso
+        List<Socket> idle = new ArrayList<>();
+        try {
+            for (int i = 0; i < 500; i++) {
+                idle.add(new Socket("localhost", nioServer.getPort()));
+            }
+
+            // When
+            ResponseEntity<PaymentOrderResponse> created = restTemplate.postForEntity(
+                    nio(PATH), request("NIO-004"), PaymentOrderResponse.class);
+
+            // Then
+            assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        }
+        finally {
+            for (Socket socket : idle) {
+                socket.close();
+            }
+        }
+    }
+
+    private String nio(String path) {
+        return "http://localhost:" + nioServer.getPort() + path;
+    }
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        in.transferTo(bytes);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static PaymentOrderRequest request(String externalId) {
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId(externalId);
+        request.setDebtorIban("ES9121000418450200051332");
+        request.setCreditorIban("ES7921000813610123456789");
+        request.setAmount("100.00");
+        request.setCurrency("EUR");
+        request.setRequestedExecutionDate(LocalDate.now().plusDays(1));
+        return request;
+    }
+}
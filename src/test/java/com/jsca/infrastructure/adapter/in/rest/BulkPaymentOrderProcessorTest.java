@@ -0,0 +1,89 @@
+package com.jsca.infrastructure.adapter.in.rest;
+
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.application.service.PaymentOrderService;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderOutcome;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResult;
+import com.jsca.infrastructure.adapter.out.id.TimeOrderedPaymentOrderIdGenerator;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import com.jsca.infrastructure.config.BulkProperties;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests del procesado de lotes JSON repartido por tramos entre los hilos del procesador.
+ */
+class BulkPaymentOrderProcessorTest {
+
+    private final BulkPaymentOrderProcessor processor = processor();
+
+    @AfterEach
+    void tearDown() {
+        processor.close();
+    }
+
+    @Test
+    void testProcess_withSeveralChunks_shouldReturnOneResultPerOrderInRequestOrder() {
+        // Given - más tramos de los que caben en los hilos y la cola, una orden inválida
+        // y un externalId repetido en tramos distintos
+        List<BulkPaymentOrderItem> orders = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            orders.add(item("BULK-" + i, "ES9121000418450200051332"));
+        }
+        orders.set(7, item("BULK-7", "not-an-iban"));
+        orders.set(15, item("BULK-3", "ES9121000418450200051332"));
+        BulkPaymentOrderRequest request = new BulkPaymentOrderRequest();
+        request.setOrders(orders);
+
+        // When
+        BulkPaymentOrderResponse response = processor.process(request);
+
+        // Then
+        assertThat(response.getResults()).extracting(BulkPaymentOrderResult::getIndex)
+                .containsExactlyElementsOf(IntStream.range(0, 20).boxed().toList());
+        assertThat(response.getResults().get(7).getOutcome()).isEqualTo(BulkPaymentOrderOutcome.REJECTED);
+        assertThat(List.of(response.getResults().get(3).getOutcome(), response.getResults().get(15).getOutcome()))
+                .containsExactlyInAnyOrder(BulkPaymentOrderOutcome.CREATED, BulkPaymentOrderOutcome.IDEMPOTENT);
+        assertThat(response.getResults().get(15).getPaymentOrderId()).isEqualTo(response.getResults().get(3).getPaymentOrderId());
+        assertThat(response.getResults()).filteredOn(result -> result.getOutcome() == BulkPaymentOrderOutcome.CREATED)
+                .hasSize(18);
+    }
+
+    private static BulkPaymentOrderProcessor processor() {
+        PaymentOrderMapper mapper = new PaymentOrderMapper();
+        BulkProperties properties = new BulkProperties();
+        properties.setWorkers(2);
+        properties.setChunkSize(3);
+        properties.setMaxQueuedChunks(1);
+        return new BulkPaymentOrderProcessor(
+                new PaymentOrderService(new InMemoryPaymentOrderRepository(), new TimeOrderedPaymentOrderIdGenerator(0),
+                        PaymentOrderScheduler.NONE, DuplicatePaymentDetector.NONE),
+                mapper,
+                new BulkPaymentOrderItemValidator(mapper, Validation.buildDefaultValidatorFactory().getValidator()),
+                properties);
+    }
+
+    private static BulkPaymentOrderItem item(String externalId, String debtorIban) {
+        BulkPaymentOrderItem item = new BulkPaymentOrderItem();
+        item.setExternalId(externalId);
+        item.setDebtorIban(debtorIban);
+        item.setCreditorIban("ES7921000813610123456789");
+        item.setAmount("75.00");
+        item.setCurrency("EUR");
+        item.setRequestedExecutionDate(LocalDate.now().plusDays(1).toString());
+        return item;
+    }
+}
@@ -0,0 +1,58 @@
+package com.jsca.infrastructure.adapter.in.rest;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests del GET condicional sobre la versión de una orden.
+ */
+class ConditionalGetTest {
+
+    private static final OffsetDateTime SAME_INSTANT = OffsetDateTime.of(2030, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void testRespond_afterChangeWithSameLastUpdate_shouldNotReturn304() {
+        // Given - dos cambios de estado en el mismo instante
+        PaymentOrder pending = order(2, SAME_INSTANT);
+        PaymentOrder executed = pending.withStatus(PaymentStatus.EXECUTED, SAME_INSTANT);
+        String previousETag = ConditionalGet.of(pending).respond(null, null, () -> "PENDING").getHeaders().getETag();
+
+        // When
+        ResponseEntity<String> response = ConditionalGet.of(executed).respond(previousETag, null, () -> "EXECUTED");
+
+        // Then
+        assertThat(previousETag).isEqualTo("\"PO-ETAG-1.2\"");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"PO-ETAG-1.3\"");
+        assertThat(response.getBody()).isEqualTo("EXECUTED");
+        assertThat(ConditionalGet.of(executed).respond("\"PO-ETAG-1.3\"", null, () -> "EXECUTED").getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void testRespond_withoutVersion_shouldAlwaysReturnBodyWithoutValidators() {
+        // When
+        ResponseEntity<String> response = ConditionalGet.of(order(0, SAME_INSTANT)).respond("*", null, () -> "body");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+
+    private static PaymentOrder order(long version, OffsetDateTime lastUpdate) {
+        return PaymentOrder.builder()
+                .paymentOrderId("PO-ETAG-1")
+                .status(PaymentStatus.PENDING)
+                .lastUpdate(lastUpdate)
+                .version(version)
+                .build();
+    }
+}
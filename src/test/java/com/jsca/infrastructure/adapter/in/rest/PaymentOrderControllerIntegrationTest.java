@@ -1,22 +1,47 @@
 package com.jsca.infrastructure.adapter.in.rest;
 
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderOutcome;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResult;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
 import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderSearchResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderStatusTotals;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderTotalsResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Tests de integración E2E para Payment Order API.
  */
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "payment.execution.enabled=true",
+        "payment.execution.settlement=local"})
 class PaymentOrderControllerIntegrationTest {
 
     @Autowired
@@ -153,4 +178,395 @@ class PaymentOrderControllerIntegrationTest {
         assertThat(firstResponse.getBody().getPaymentOrderId())
                 .isEqualTo(secondResponse.getBody().getPaymentOrderId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSubmitBulk_withMixedBatch_shouldReturnResultPerItem() {
+        // Given - una válida, un duplicado de la primera, un IBAN inválido y una fecha mal formada
+        BulkPaymentOrderItem valid = bulkItem("INT-BULK-001", "ES9121000418450200051332");
+        BulkPaymentOrderItem duplicate = bulkItem("INT-BULK-001", "ES9121000418450200051332");
+        BulkPaymentOrderItem invalidIban = bulkItem("INT-BULK-002", "not-an-iban");
+        BulkPaymentOrderItem invalidDate = bulkItem("INT-BULK-003", "ES9121000418450200051332");
+        invalidDate.setRequestedExecutionDate("25/11/2030");
+
+        BulkPaymentOrderRequest request = new BulkPaymentOrderRequest();
+        request.setOrders(List.of(valid, duplicate, invalidIban, invalidDate));
+
+        // When
+        ResponseEntity<BulkPaymentOrderResponse> response = restTemplate.postForEntity(
+                "/payment-initiation/payment-orders/bulk",
+                request,
+                BulkPaymentOrderResponse.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        BulkPaymentOrderResponse body = response.getBody();
+        assertThat(body).isNotNull();
+        assertThat(body.getTotal()).isEqualTo(4);
+        assertThat(body.getCreated()).isEqualTo(1);
+        assertThat(body.getIdempotent()).isEqualTo(1);
+        assertThat(body.getRejected()).isEqualTo(2);
+        assertThat(body.getResults()).extracting(BulkPaymentOrderResult::getIndex)
+                .containsExactly(0, 1, 2, 3);
+        assertThat(body.getResults().get(0).getPaymentOrderId())
+                .isEqualTo(body.getResults().get(1).getPaymentOrderId());
+        assertThat(body.getResults().get(2).getOutcome()).isEqualTo(BulkPaymentOrderOutcome.REJECTED);
+        assertThat(body.getResults().get(2).getDetail()).contains("debtorIban");
+        assertThat(body.getResults().get(3).getDetail()).contains("requestedExecutionDate");
+    }
+
+    @Test
+    void testSubmitBulk_withNdjsonBody_shouldStreamResultPerLine() throws Exception {
+        // Given - un fichero NDJSON de 20.000 órdenes, más que los buffers de la conexión
+        int lines = 20_000;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            body.append("{\"externalId\":\"INT-NDJSON-").append(i)
+                    .append("\",\"debtorIban\":\"ES9121000418450200051332\",\"creditorIban\":\"ES7921000813610123456789\"")
+                    .append(",\"amount\":\"10.00\",\"currency\":\"EUR\",\"requestedExecutionDate\":\"")
+                    .append(LocalDate.now().plusDays(1)).append("\"}\n");
+        }
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+
+        // When - sin Content-Length: el cuerpo va por chunks mientras llegan los resultados
+        HttpRequest request = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri()
+                        + "/payment-initiation/payment-orders/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(bytes)))
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+        List<String> results;
+        try (Stream<String> resultLines = response.body()) {
+            results = CompletableFuture.supplyAsync(resultLines::toList).get(60, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("application/x-ndjson");
+        assertThat(results).hasSize(lines);
+        assertThat(results.get(0)).contains("\"index\":0,").contains("\"outcome\":\"CREATED\"");
+        assertThat(results.get(lines - 1)).contains("\"index\":" + (lines - 1) + ",");
+        assertThat(results).allSatisfy(result -> assertThat(result).contains("\"outcome\":\"CREATED\""));
+    }
+
+    @Test
+    void testStreamPaymentOrderStatus_shouldPushStatusChangesUntilFinalStatus() throws Exception {
+        // Given
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId("INT-TEST-STREAM-001");
+        request.setDebtorIban("ES9121000418450200051332");
+        request.setCreditorIban("ES7921000813610123456789");
+        request.setAmount("75.00");
+        request.setCurrency("EUR");
+        request.setRequestedExecutionDate(LocalDate.now().plusDays(1));
+        String paymentOrderId = restTemplate.postForEntity(
+                "/payment-initiation/payment-orders", request, PaymentOrderResponse.class
+        ).getBody().getPaymentOrderId();
+
+        // When - el motor de ejecución lleva la orden a EXECUTED mientras el stream está abierto
+        HttpRequest streamRequest = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri()
+                        + "/payment-initiation/payment-orders/status-stream?paymentOrderIds=" + paymentOrderId))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(streamRequest, HttpResponse.BodyHandlers.ofLines());
+        Optional<String> executed;
+        try (Stream<String> lines = response.body()) {
+            executed = CompletableFuture.supplyAsync(() -> lines
+                            .filter(line -> line.startsWith("data:") && line.contains("EXECUTED"))
+                            .findFirst())
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                contentType -> assertThat(contentType).startsWith("text/event-stream"));
+        assertThat(executed).hasValueSatisfying(line -> assertThat(line).contains(paymentOrderId));
+    }
+
+    @Test
+    void testStreamPaymentOrderStatus_withUnknownId_shouldReturn404NotFound() {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders/status-stream?paymentOrderIds=INVALID-ID-999",
+                String.class
+        );
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testGetPaymentOrder_withCurrentETag_shouldReturn304WithoutBody() {
+        // Given - una orden en estado final, que ya no cambia
+        String paymentOrderId = createExecutedPaymentOrder("INT-TEST-ETAG-001");
+        ResponseEntity<String> first = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders/" + paymentOrderId, String.class);
+        String etag = first.getHeaders().getETag();
+
+        // When
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(List.of("W/\"otro\"", etag));
+        ResponseEntity<String> second = restTemplate.exchange(
+                "/payment-initiation/payment-orders/" + paymentOrderId,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        // Then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(etag).isEqualTo("\"" + paymentOrderId + ".3\"");
+        assertThat(first.getHeaders().getLastModified()).isPositive();
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getBody()).isNull();
+        assertThat(second.getHeaders().getETag()).isEqualTo(etag);
+    }
+
+    @Test
+    void testGetPaymentOrderStatus_withConditionalHeaders_shouldReturn304OnlyWhenUnchanged() {
+        // Given
+        String paymentOrderId = createExecutedPaymentOrder("INT-TEST-ETAG-002");
+        String url = "/payment-initiation/payment-orders/" + paymentOrderId + "/status";
+        ResponseEntity<String> first = restTemplate.getForEntity(url, String.class);
+
+        // When
+        HttpHeaders sinceLastModified = new HttpHeaders();
+        sinceLastModified.setIfModifiedSince(first.getHeaders().getLastModified());
+        ResponseEntity<String> unchanged = restTemplate.exchange(
+                url, HttpMethod.GET, new HttpEntity<>(sinceLastModified), String.class);
+        HttpHeaders staleETag = new HttpHeaders();
+        staleETag.setIfNoneMatch("\"obsoleto\"");
+        staleETag.setIfModifiedSince(first.getHeaders().getLastModified());
+        ResponseEntity<String> stale = restTemplate.exchange(
+                url, HttpMethod.GET, new HttpEntity<>(staleETag), String.class);
+
+        // Then - If-None-Match tiene prioridad sobre If-Modified-Since
+        assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(stale.getBody()).contains("EXECUTED");
+        assertThat(stale.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetPaymentOrder_afterStatusChange_shouldNotServeStaleCachedDetails() {
+        // Given - detalle leído (y cacheado) antes de que el motor ejecute la orden
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId("INT-TEST-CACHE-001");
+        request.setDebtorIban("ES9121000418450200051332");
+        request.setCreditorIban("ES7921000813610123456789");
+        request.setAmount("42.00");
+        request.setCurrency("EUR");
+        request.setRequestedExecutionDate(LocalDate.now().plusDays(1));
+        String paymentOrderId = restTemplate.postForEntity(
+                "/payment-initiation/payment-orders", request, PaymentOrderResponse.class
+        ).getBody().getPaymentOrderId();
+        restTemplate.getForEntity("/payment-initiation/payment-orders/" + paymentOrderId, String.class);
+        awaitStatus(paymentOrderId, "EXECUTED");
+
+        // When
+        ResponseEntity<String> details = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders/" + paymentOrderId, String.class);
+        ResponseEntity<String> cachedDetails = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders/" + paymentOrderId, String.class);
+        String metrics = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        // Then
+        assertThat(details.getBody()).contains("EXECUTED").contains("INT-TEST-CACHE-001");
+        assertThat(details.getHeaders().getContentType()).hasToString("application/json");
+        assertThat(cachedDetails.getBody()).isEqualTo(details.getBody());
+        assertThat(metrics).contains("cache_gets_total{").contains("cache=\"paymentOrderDetails\"")
+                .contains("cache_evictions_total").contains("cache_hit_ratio");
+    }
+
+    @Test
+    void testSearchPaymentOrders_shouldPageThroughDebtorOrdersWithCursor() {
+        // Given - tres órdenes de un deudor que no usa ningún otro test
+        String debtorIban = "DE89370400440532013000";
+        for (int i = 1; i <= 3; i++) {
+            PaymentOrderRequest request = new PaymentOrderRequest();
+            request.setExternalId("INT-TEST-SEARCH-00" + i);
+            request.setDebtorIban(debtorIban);
+            request.setCreditorIban("ES7921000813610123456789");
+            request.setAmount("10.0" + i);
+            request.setCurrency("EUR");
+            request.setRequestedExecutionDate(LocalDate.now().plusDays(i));
+            restTemplate.postForEntity("/payment-initiation/payment-orders", request, PaymentOrderResponse.class);
+        }
+        String url = "/payment-initiation/payment-orders?debtorIban=" + debtorIban + "&limit=2";
+
+        // When
+        ResponseEntity<PaymentOrderSearchResponse> first = restTemplate.getForEntity(url, PaymentOrderSearchResponse.class);
+        ResponseEntity<PaymentOrderSearchResponse> second = restTemplate.getForEntity(
+                url + "&cursor=" + first.getBody().getNextCursor(), PaymentOrderSearchResponse.class);
+
+        // Then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getItems()).extracting(PaymentOrderDetailsResponse::getExternalId)
+                .containsExactly("INT-TEST-SEARCH-001", "INT-TEST-SEARCH-002");
+        assertThat(second.getBody().getItems()).extracting(PaymentOrderDetailsResponse::getExternalId)
+                .containsExactly("INT-TEST-SEARCH-003");
+        assertThat(second.getBody().getNextCursor()).isNull();
+    }
+
+    @Test
+    void testSearchPaymentOrders_withInvalidParameters_shouldReturn400BadRequest() {
+        // When
+        ResponseEntity<String> withoutFilters = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders", String.class);
+        ResponseEntity<String> limitTooHigh = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders?status=PENDING&limit=501", String.class);
+        ResponseEntity<String> unknownStatus = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders?status=UNKNOWN", String.class);
+        ResponseEntity<String> invalidCursor = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders?status=PENDING&cursor=bm8tc2VwYXJhdG9y", String.class);
+
+        // Then
+        assertThat(withoutFilters.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(withoutFilters.getBody()).contains("al menos un filtro");
+        assertThat(limitTooHigh.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(unknownStatus.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(invalidCursor.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testExportPaymentOrders_byExecutionDate_shouldStreamNdjsonAndCsv() {
+        // Given - dos órdenes en una fecha que no usa ningún otro test
+        LocalDate day = LocalDate.now().plusDays(300);
+        for (int i = 1; i <= 2; i++) {
+            PaymentOrderRequest request = new PaymentOrderRequest();
+            request.setExternalId("INT-TEST-EXPORT-00" + i);
+            request.setDebtorIban("ES9121000418450200051332");
+            request.setCreditorIban("ES7921000813610123456789");
+            request.setAmount("20.0" + i);
+            request.setCurrency("EUR");
+            request.setRemittanceInfo("Exportación, prueba " + i);
+            request.setRequestedExecutionDate(day);
+            restTemplate.postForEntity("/payment-initiation/payment-orders", request, PaymentOrderResponse.class);
+        }
+        String url = "/payment-initiation/payment-orders/export?requestedExecutionDateFrom=" + day
+                + "&requestedExecutionDateTo=" + day;
+
+        // When
+        ResponseEntity<String> ndjson = restTemplate.getForEntity(url, String.class);
+        ResponseEntity<String> csv = restTemplate.getForEntity(url + "&format=csv", String.class);
+        ResponseEntity<String> unknownFormat = restTemplate.getForEntity(url + "&format=xml", String.class);
+
+        // Then
+        assertThat(ndjson.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ndjson.getHeaders().getContentType()).hasToString("application/x-ndjson");
+        assertThat(ndjson.getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING)).isEqualTo("chunked");
+        assertThat(ndjson.getBody().split("\n")).hasSize(2)
+                .anySatisfy(line -> assertThat(line).contains("\"externalId\":\"INT-TEST-EXPORT-001\""))
+                .anySatisfy(line -> assertThat(line).contains("\"amount\":\"20.02\""));
+        assertThat(csv.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(csv.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"payment-orders.csv\"");
+        assertThat(csv.getBody().split("\r\n")).hasSize(3)
+                .satisfies(lines -> assertThat(lines[0]).startsWith("paymentOrderId,externalId,"));
+        assertThat(csv.getBody()).contains(",\"Exportación, prueba 1\",");
+        assertThat(unknownFormat.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testGetPaymentOrderTotals_shouldSumDebtorOrdersByCurrency() {
+        // Given - tres órdenes de un deudor y una fecha que no usa ningún otro test
+        String debtorIban = "NO9386011117947";
+        LocalDate day = LocalDate.now().plusDays(301);
+        String[][] orders = {{"30.10", "EUR"}, {"30.20", "EUR"}, {"500", "JPY"}};
+        for (int i = 0; i < orders.length; i++) {
+            PaymentOrderRequest request = new PaymentOrderRequest();
+            request.setExternalId("INT-TEST-TOTALS-00" + i);
+            request.setDebtorIban(debtorIban);
+            request.setCreditorIban("ES7921000813610123456789");
+            request.setAmount(orders[i][0]);
+            request.setCurrency(orders[i][1]);
+            request.setRequestedExecutionDate(day);
+            restTemplate.postForEntity("/payment-initiation/payment-orders", request, PaymentOrderResponse.class);
+        }
+        String url = "/payment-initiation/payment-orders/totals?debtorIban=" + debtorIban
+                + "&requestedExecutionDate=" + day;
+
+        // When
+        ResponseEntity<PaymentOrderTotalsResponse> all = restTemplate.getForEntity(url, PaymentOrderTotalsResponse.class);
+        ResponseEntity<PaymentOrderTotalsResponse> yen = restTemplate.getForEntity(
+                url + "&currency=JPY", PaymentOrderTotalsResponse.class);
+        ResponseEntity<String> withoutDebtor = restTemplate.getForEntity(
+                "/payment-initiation/payment-orders/totals", String.class);
+
+        // Then - el motor de ejecución puede haber cambiado ya el estado de las órdenes
+        assertThat(all.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(all.getBody().getRequestedExecutionDate()).isEqualTo(day);
+        assertThat(all.getBody().getTotals()).hasSize(2).first().satisfies(eur -> {
+            assertThat(eur.getCurrency()).isEqualTo("EUR");
+            assertThat(eur.getCount()).isEqualTo(2);
+            assertThat(eur.getAmount()).isEqualTo("60.30");
+            assertThat(eur.getByStatus().stream().mapToLong(PaymentOrderStatusTotals::getCount).sum())
+                    .isEqualTo(2);
+        });
+        assertThat(yen.getBody().getTotals()).singleElement().satisfies(jpy -> {
+            assertThat(jpy.getCurrency()).isEqualTo("JPY");
+            assertThat(jpy.getAmount()).isEqualTo("500");
+        });
+        assertThat(withoutDebtor.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testPrometheus_afterInitiation_shouldExposeUseCaseAndRepositoryMetrics() {
+        // Given
+        createExecutedPaymentOrder("INT-METRICS-001");
+
+        // When
+        String metrics = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        // Then
+        assertThat(metrics)
+                .contains("payment_usecase_seconds_bucket{")
+                .contains("usecase=\"initiate_payment\"")
+                .contains("payment_initiations_total{")
+                .contains("payment_initiations_rejected_total{")
+                .contains("payment_repository_seconds_bucket{")
+                .contains("le=\"2.5E-6\"")
+                .contains("payment_orders{")
+                .contains("payment_repository_orders{");
+    }
+
+    private String createExecutedPaymentOrder(String externalId) {
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId(externalId);
+        request.setDebtorIban("ES9121000418450200051332");
+        request.setCreditorIban("ES7921000813610123456789");
+        request.setAmount("90.00");
+        request.setCurrency("EUR");
+        request.setRequestedExecutionDate(LocalDate.now().plusDays(1));
+        String paymentOrderId = restTemplate.postForEntity(
+                "/payment-initiation/payment-orders", request, PaymentOrderResponse.class
+        ).getBody().getPaymentOrderId();
+
+        awaitStatus(paymentOrderId, "EXECUTED");
+        return paymentOrderId;
+    }
+
+    private void awaitStatus(String paymentOrderId, String expectedStatus) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            String status = restTemplate.getForObject(
+                    "/payment-initiation/payment-orders/" + paymentOrderId + "/status", String.class);
+            if (status.contains(expectedStatus)) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("La orden no llegó a " + expectedStatus + ": " + paymentOrderId);
+    }
+
+    private BulkPaymentOrderItem bulkItem(String externalId, String debtorIban) {
+        BulkPaymentOrderItem item = new BulkPaymentOrderItem();
+        item.setExternalId(externalId);
+        item.setDebtorIban(debtorIban);
+        item.setCreditorIban("ES7921000813610123456789");
+        item.setAmount("125.00");
+        item.setCurrency("EUR");
+        item.setRequestedExecutionDate(LocalDate.now().plusDays(1).toString());
+        return item;
+    }
+}
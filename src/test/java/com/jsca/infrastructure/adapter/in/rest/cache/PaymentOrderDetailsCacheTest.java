@@ -0,0 +1,128 @@
+package com.jsca.infrastructure.adapter.in.rest.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
+import com.jsca.infrastructure.config.DetailsCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la caché del detalle serializado: aciertos sin mapear, invalidación y expulsión por tamaño.
+ */
+class PaymentOrderDetailsCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final PaymentOrderMapper mapper = new PaymentOrderMapper();
+    private final AtomicInteger mappings = new AtomicInteger();
+    private final Function<PaymentOrder, PaymentOrderDetailsResponse> countingMapping = order -> {
+        mappings.incrementAndGet();
+        return mapper.toDetailsResponse(order);
+    };
+
+    @Test
+    void testDetails_withUnchangedOrder_shouldServeCachedBytesWithoutMapping() throws IOException {
+        // Given
+        PaymentOrderDetailsCache cache = cache(DataSize.ofMegabytes(1));
+        PaymentOrder order = order("PO-CACHE-001");
+
+        // When
+        PaymentOrderDetailsResponse first = cache.details(order, countingMapping);
+        PaymentOrderDetailsResponse second = cache.details(order, countingMapping);
+
+        // Then
+        assertThat(mappings).hasValue(1);
+        assertThat(json(second)).isEqualTo(objectMapper.writeValueAsString(mapper.toDetailsResponse(order)));
+        assertThat(json(first)).isEqualTo(json(second));
+        assertThat(cache.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testDetails_afterStatusChange_shouldSerializeNewVersion() throws IOException {
+        // Given
+        PaymentOrderDetailsCache cache = cache(DataSize.ofMegabytes(1));
+        PaymentOrder order = order("PO-CACHE-002");
+        cache.details(order, countingMapping);
+
+        // When - el cambio se detecta por la versión aunque nadie invalide y lastUpdate no cambie
+        PaymentOrder executed = order.withStatus(PaymentStatus.EXECUTED, order.getLastUpdate());
+        PaymentOrderDetailsResponse changed = cache.details(executed, countingMapping);
+        cache.publish(List.of(new PaymentStatusChange("PO-CACHE-002", PaymentStatus.EXECUTED, executed.getLastUpdate())));
+
+        // Then
+        assertThat(mappings).hasValue(2);
+        assertThat(json(changed)).contains("EXECUTED");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.sizeBytes()).isZero();
+    }
+
+    @Test
+    void testDetails_overMaxSize_shouldEvictLeastRecentlyUsed() {
+        // Given - espacio para unas pocas entradas en un único segmento
+        PaymentOrderDetailsCache cache = cache(DataSize.ofBytes(2_000));
+        PaymentOrder recentlyUsed = order("PO-CACHE-100");
+        cache.details(recentlyUsed, countingMapping);
+
+        // When
+        for (int i = 101; i < 110; i++) {
+            cache.details(order("PO-CACHE-" + i), countingMapping);
+            cache.details(recentlyUsed, countingMapping);
+        }
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        // Then
+        assertThat(cache.evictionCount()).isPositive();
+        assertThat(cache.sizeBytes()).isLessThanOrEqualTo(2_000);
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(cache.evictionCount());
+        int before = mappings.get();
+        cache.details(recentlyUsed, countingMapping);
+        assertThat(mappings).hasValue(before);
+    }
+
+    private PaymentOrderDetailsCache cache(DataSize maxSize) {
+        DetailsCacheProperties properties = new DetailsCacheProperties();
+        properties.setMaxSize(maxSize);
+        properties.setSegments(1);
+        return new PaymentOrderDetailsCache(objectMapper, properties);
+    }
+
+    private static String json(PaymentOrderDetailsResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((SerializedPaymentOrderDetails) response).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static PaymentOrder order(String paymentOrderId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId("EXT-" + paymentOrderId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("250.00"))
+                .currency("EUR")
+                .remittanceInfo("Factura")
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .status(PaymentStatus.INITIATED)
+                .createdAt(now)
+                .lastUpdate(now)
+                .build();
+    }
+}
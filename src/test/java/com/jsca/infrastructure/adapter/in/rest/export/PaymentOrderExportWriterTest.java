@@ -0,0 +1,120 @@
+package com.jsca.infrastructure.adapter.in.rest.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.domain.model.PaymentOrder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE;
+import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests del formato de cada orden en las exportaciones NDJSON y CSV.
+ */
+class PaymentOrderExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void testNdjson_shouldWriteOneObjectPerLineWithDetailsFields() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PaymentOrderExportWriter writer = PaymentOrderExportFormat.NDJSON.open(out, objectMapper.getFactory());
+        PaymentOrder order = order("PO-X-1", "Factura \"enero\"\nlinea 2");
+        PaymentOrder withoutRemittance = order("PO-X-2", null);
+
+        // When
+        writer.write(order);
+        writer.write(withoutRemittance);
+        writer.finish();
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("paymentOrderId").asText()).isEqualTo("PO-X-1");
+        assertThat(first.get("amount").asText()).isEqualTo("1500.50");
+        assertThat(first.get("remittanceInfo").asText()).isEqualTo("Factura \"enero\"\nlinea 2");
+        assertThat(first.get("requestedExecutionDate").asText()).isEqualTo("2030-01-15");
+        assertThat(first.get("status").asText()).isEqualTo("INITIATED");
+        assertThat(first.get("createdAt").asText()).isEqualTo(ISO_OFFSET_DATE_TIME.format(order.getCreatedAt()));
+        assertThat(objectMapper.readTree(lines[1]).get("remittanceInfo").isNull()).isTrue();
+    }
+
+    @Test
+    void testCsv_shouldWriteHeaderAndQuoteOnlyFieldsThatNeedIt() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PaymentOrderExportWriter writer = PaymentOrderExportFormat.CSV.open(out, objectMapper.getFactory());
+        PaymentOrder order = order("PO-X-1", "Factura \"enero\", servicios");
+        PaymentOrder withoutRemittance = order("PO-X-2", null);
+
+        // When
+        writer.write(order);
+        writer.write(withoutRemittance);
+        writer.finish();
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo(CsvPaymentOrderExportWriter.HEADER);
+        assertThat(lines[1]).isEqualTo("PO-X-1,EXT-PO-X-1,ES9121000418450200051332,FR1420041010050500013M02606,"
+                + "1500.50,EUR,\"Factura \"\"enero\"\", servicios\",2030-01-15,INITIATED,"
+                + ISO_OFFSET_DATE_TIME.format(order.getCreatedAt()) + "," + ISO_OFFSET_DATE_TIME.format(order.getLastUpdate()));
+        assertThat(lines[2]).contains(",EUR,,2030-01-15,");
+    }
+
+    @Test
+    void testIsoText_shouldMatchJavaTimeFormatters() {
+        // Given - sin decimales, con ceros finales, con desplazamiento y fuera del rango rápido
+        List<OffsetDateTime> dateTimes = List.of(
+                OffsetDateTime.of(2030, 1, 5, 0, 0, 0, 0, ZoneOffset.UTC),
+                OffsetDateTime.of(2030, 12, 31, 23, 59, 59, 120_000_000, ZoneOffset.ofHours(2)),
+                OffsetDateTime.of(999, 6, 15, 8, 5, 3, 419_544_731, ZoneOffset.ofHoursMinutes(-5, -30)),
+                OffsetDateTime.of(10_000, 2, 29, 12, 0, 0, 1, ZoneOffset.UTC));
+        IsoText iso = new IsoText();
+
+        // When / Then
+        for (OffsetDateTime dateTime : dateTimes) {
+            iso.dateTime(dateTime);
+            assertThat(new String(iso.buffer(), 0, iso.length())).isEqualTo(ISO_OFFSET_DATE_TIME.format(dateTime));
+            iso.date(dateTime.toLocalDate());
+            assertThat(new String(iso.buffer(), 0, iso.length())).isEqualTo(ISO_LOCAL_DATE.format(dateTime.toLocalDate()));
+        }
+    }
+
+    @Test
+    void testOf_withUnknownFormat_shouldRejectIt() {
+        // When / Then
+        assertThat(PaymentOrderExportFormat.of("CSV")).isEqualTo(PaymentOrderExportFormat.CSV);
+        assertThatThrownBy(() -> PaymentOrderExportFormat.of("xml"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("xml");
+    }
+
+    private static PaymentOrder order(String paymentOrderId, String remittanceInfo) {
+        PaymentOrder order = PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId("EXT-" + paymentOrderId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("FR1420041010050500013M02606")
+                .amount(new BigDecimal("1500.50"))
+                .currency("EUR")
+                .remittanceInfo(remittanceInfo)
+                .requestedExecutionDate(LocalDate.of(2030, 1, 15))
+                .initiate()
+                .build();
+        return order;
+    }
+}
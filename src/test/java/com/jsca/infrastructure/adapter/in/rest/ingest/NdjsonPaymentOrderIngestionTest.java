@@ -0,0 +1,169 @@
+package com.jsca.infrastructure.adapter.in.rest.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.application.service.PaymentOrderService;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
+import com.jsca.infrastructure.adapter.in.rest.BulkPaymentOrderItemValidator;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderOutcome;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResult;
+import com.jsca.infrastructure.adapter.in.rest.partition.PartitionForwarder;
+import com.jsca.infrastructure.adapter.in.rest.ratelimit.PaymentOrderAdmission;
+import com.jsca.infrastructure.adapter.out.id.TimeOrderedPaymentOrderIdGenerator;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import com.jsca.infrastructure.config.IngestionProperties;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la ingesta NDJSON: un resultado por línea, en orden y escrito según se procesa.
+ */
+class NdjsonPaymentOrderIngestionTest {
+
+    private static final int MAX_LINE_BYTES = 512;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final NdjsonPaymentOrderIngestion ingestion = ingestion();
+
+    @Test
+    void testIngest_withMixedLines_shouldReturnOneResultPerLineInOrder() throws IOException {
+        // Given - válida, duplicada, IBAN inválido, en blanco, JSON roto, demasiado larga,
+        // fecha pasada y una válida con CRLF al final del fichero sin salto de línea
+        String body = line("NDJSON-001", "ES9121000418450200051332", LocalDate.now().plusDays(1)) + "\n"
+                + line("NDJSON-001", "ES9121000418450200051332", LocalDate.now().plusDays(1)) + "\n"
+                + line("NDJSON-002", "not-an-iban", LocalDate.now().plusDays(1)) + "\n"
+                + "   \n"
+                + "{\"externalId\": \n"
+                + "{\"remittanceInfo\":\"" + "x".repeat(MAX_LINE_BYTES) + "\"}\n"
+                + line("NDJSON-003", "ES9121000418450200051332", LocalDate.now().minusDays(1)) + "\r\n"
+                + line("NDJSON-004", "ES9121000418450200051332", LocalDate.now().plusDays(1));
+
+        // When
+        List<BulkPaymentOrderResult> results = ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                new ByteArrayOutputStream());
+
+        // Then
+        assertThat(results).extracting(BulkPaymentOrderResult::getIndex).containsExactly(0, 1, 2, 4, 5, 6, 7);
+        assertThat(results).extracting(BulkPaymentOrderResult::getOutcome).containsExactly(
+                BulkPaymentOrderOutcome.CREATED,
+                BulkPaymentOrderOutcome.IDEMPOTENT,
+                BulkPaymentOrderOutcome.REJECTED,
+                BulkPaymentOrderOutcome.REJECTED,
+                BulkPaymentOrderOutcome.REJECTED,
+                BulkPaymentOrderOutcome.REJECTED,
+                BulkPaymentOrderOutcome.CREATED);
+        assertThat(results.get(1).getPaymentOrderId()).isEqualTo(results.get(0).getPaymentOrderId());
+        assertThat(results.get(2).getDetail()).contains("debtorIban");
+        assertThat(results.get(3).getDetail()).contains("JSON");
+        assertThat(results.get(4).getDetail()).contains(String.valueOf(MAX_LINE_BYTES));
+        assertThat(results.get(5).getDetail()).contains("fecha de ejecución");
+    }
+
+    @Test
+    void testIngest_shouldWriteResultsBeforeTheUploadEnds() throws IOException {
+        // Given - un cuerpo que llega en tres trozos; antes de entregar cada trozo se
+        // comprueba que ya se escribieron los resultados de los anteriores
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Integer> resultsSeenBeforeEachChunk = new ArrayList<>();
+        InputStream body = new ChunkedInputStream(List.of(
+                line("NDJSON-CHUNK-1", "ES9121000418450200051332", LocalDate.now().plusDays(1)) + "\n",
+                line("NDJSON-CHUNK-2", "ES9121000418450200051332", LocalDate.now().plusDays(1)) + "\n"
+                        + line("NDJSON-CHUNK-3", "ES9121000418450200051332", LocalDate.now().plusDays(1)) + "\n",
+                line("NDJSON-CHUNK-4", "ES9121000418450200051332", LocalDate.now().plusDays(1)) + "\n"),
+                () -> resultsSeenBeforeEachChunk.add(out.toString(StandardCharsets.UTF_8).split("\n", -1).length - 1));
+
+        // When
+        List<BulkPaymentOrderResult> results = ingest(body, out);
+
+        // Then
+        assertThat(resultsSeenBeforeEachChunk).containsExactly(0, 1, 3);
+        assertThat(results).extracting(BulkPaymentOrderResult::getOutcome)
+                .containsOnly(BulkPaymentOrderOutcome.CREATED)
+                .hasSize(4);
+    }
+
+    private List<BulkPaymentOrderResult> ingest(InputStream body, ByteArrayOutputStream out) throws IOException {
+        ingestion.ingest(new MockHttpServletRequest(), body, out);
+        List<BulkPaymentOrderResult> results = new ArrayList<>();
+        for (String result : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(result, BulkPaymentOrderResult.class));
+        }
+        return results;
+    }
+
+    private NdjsonPaymentOrderIngestion ingestion() {
+        PaymentOrderMapper mapper = new PaymentOrderMapper();
+        IngestionProperties properties = new IngestionProperties();
+        properties.setMaxLineBytes(MAX_LINE_BYTES);
+        StaticListableBeanFactory noBeans = new StaticListableBeanFactory();
+        return new NdjsonPaymentOrderIngestion(
+                new PaymentOrderService(new InMemoryPaymentOrderRepository(), new TimeOrderedPaymentOrderIdGenerator(0),
+                        PaymentOrderScheduler.NONE, DuplicatePaymentDetector.NONE),
+                new BulkPaymentOrderItemValidator(mapper, Validation.buildDefaultValidatorFactory().getValidator()),
+                mapper,
+                objectMapper,
+                noBeans.getBeanProvider(PartitionForwarder.class),
+                noBeans.getBeanProvider(PaymentOrderAdmission.class),
+                properties);
+    }
+
+    private static String line(String externalId, String debtorIban, LocalDate requestedExecutionDate) {
+        return "{\"externalId\":\"" + externalId + "\",\"debtorIban\":\"" + debtorIban + "\","
+                + "\"creditorIban\":\"ES7921000813610123456789\",\"amount\":\"75.00\",\"currency\":\"EUR\","
+                + "\"requestedExecutionDate\":\"" + requestedExecutionDate + "\"}";
+    }
+
+    /**
+     * Entrega el cuerpo por trozos y, como un socket sin datos pendientes, devuelve
+     * {@code available() == 0} al terminar cada uno.
+     */
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final List<String> chunks;
+        private final Runnable beforeChunk;
+        private int chunk;
+        private ByteArrayInputStream current = new ByteArrayInputStream(new byte[0]);
+
+        ChunkedInputStream(List<String> chunks, Runnable beforeChunk) {
+            this.chunks = chunks;
+            this.beforeChunk = beforeChunk;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (current.available() == 0) {
+                if (chunk == chunks.size()) {
+                    return -1;
+                }
+                beforeChunk.run();
+                current = new ByteArrayInputStream(chunks.get(chunk++).getBytes(StandardCharsets.UTF_8));
+            }
+            return current.read(buffer, offset, length);
+        }
+
+        @Override
+        public int available() {
+            return current.available();
+        }
+    }
+}
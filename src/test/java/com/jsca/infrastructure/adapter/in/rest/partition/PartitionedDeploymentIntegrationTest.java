@@ -0,0 +1,363 @@
+package com.jsca.infrastructure.adapter.in.rest.partition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsca.JscaApplication;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderOutcome;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderResult;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderDetailsResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderSearchResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderTotalsResponse;
+import com.jsca.infrastructure.config.PartitionProperties;
+import com.jsca.infrastructure.partition.PaymentOrderPartitioner;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración del despliegue particionado: tres instancias de la aplicación en
+ * localhost, cada una con su contexto de Spring y su puerto.
+ */
+class PartitionedDeploymentIntegrationTest {
+
+    private static final String BASE_PATH = "/payment-initiation/payment-orders";
+    private static final List<String> NODES = List.of("node1", "node2", "node3");
+
+    private static final Map<String, String> urls = new LinkedHashMap<>();
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static PaymentOrderPartitioner partitioner;
+
+    private final TestRestTemplate restTemplate = new TestRestTemplate();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        for (String node : NODES) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                urls.put(node, "http://localhost:" + socket.getLocalPort());
+            }
+        }
+        for (int i = 0; i < NODES.size(); i++) {
+            String node = NODES.get(i);
+            // Como argumentos de línea de comandos, que prevalecen sobre application.properties
+            List<String> args = new ArrayList<>(List.of(
+                    "--server.port=" + URI.create(urls.get(node)).getPort(),
+                    "--payment.partition.enabled=true",
+                    "--payment.partition.self=" + node,
+                    "--payment.id-generator.node-id=" + i,
+                    "--payment.repository.retention.enabled=false",
+                    "--payment.execution.enabled=false"));
+            urls.forEach((name, url) -> args.add("--payment.partition.nodes." + name + "=" + url));
+            contexts.add(new SpringApplicationBuilder(JscaApplication.class).run(args.toArray(String[]::new)));
+        }
+        PartitionProperties properties = new PartitionProperties();
+        properties.setSelf(NODES.get(0));
+        properties.setNodes(urls);
+        partitioner = new PaymentOrderPartitioner(properties);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void testCreate_throughAnyNode_shouldStoreOrderOnlyInOwnerNode() {
+        // Given - una orden que pertenece a node2, enviada a node1
+        String externalId = externalIdOwnedBy("node2", "PART-CREATE");
+
+        // When
+        ResponseEntity<PaymentOrderResponse> created = restTemplate.postForEntity(
+                urls.get("node1") + BASE_PATH, request(externalId, "ES9121000418450200051332"),
+                PaymentOrderResponse.class);
+        String paymentOrderId = created.getBody().getPaymentOrderId();
+        ResponseEntity<PaymentOrderDetailsResponse> fromNode3 = restTemplate.getForEntity(
+                urls.get("node3") + BASE_PATH + "/" + paymentOrderId, PaymentOrderDetailsResponse.class);
+
+        // Then
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(partitioner.ownerOfPaymentOrderId(paymentOrderId)).isEqualTo("node2");
+        assertThat(fromNode3.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(fromNode3.getBody().getExternalId()).isEqualTo(externalId);
+        assertThat(getLocally("node2", paymentOrderId)).isEqualTo(HttpStatus.OK);
+        assertThat(getLocally("node1", paymentOrderId)).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(getLocally("node3", paymentOrderId)).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testCreate_withSameExternalIdThroughDifferentNodes_shouldBeIdempotent() {
+        // Given
+        PaymentOrderRequest request = request("PART-IDEMPOTENT-001", "ES9121000418450200051332");
+
+        // When
+        String first = restTemplate.postForEntity(urls.get("node1") + BASE_PATH, request,
+                PaymentOrderResponse.class).getBody().getPaymentOrderId();
+        String second = restTemplate.postForEntity(urls.get("node3") + BASE_PATH, request,
+                PaymentOrderResponse.class).getBody().getPaymentOrderId();
+
+        // Then
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void testSubmitBulk_acrossPartitions_shouldReturnResultsInRequestOrder() {
+        // Given - órdenes de las tres instancias más un duplicado y una inválida
+        List<BulkPaymentOrderItem> items = new ArrayList<>(IntStream.range(0, 30)
+                .mapToObj(i -> bulkItem("PART-BULK-" + i, "ES9121000418450200051332"))
+                .toList());
+        items.add(bulkItem("PART-BULK-0", "ES9121000418450200051332"));
+        items.add(bulkItem("PART-BULK-INVALID", "not-an-iban"));
+        BulkPaymentOrderRequest request = new BulkPaymentOrderRequest();
+        request.setOrders(items);
+
+        // When
+        ResponseEntity<BulkPaymentOrderResponse> response = restTemplate.postForEntity(
+                urls.get("node2") + BASE_PATH + "/bulk", request, BulkPaymentOrderResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        BulkPaymentOrderResponse body = response.getBody();
+        assertThat(body.getTotal()).isEqualTo(32);
+        assertThat(body.getCreated()).isEqualTo(30);
+        assertThat(body.getIdempotent()).isEqualTo(1);
+        assertThat(body.getRejected()).isEqualTo(1);
+        assertThat(body.getResults()).extracting(BulkPaymentOrderResult::getIndex)
+                .containsExactlyElementsOf(IntStream.range(0, 32).boxed().toList());
+        assertThat(body.getResults().get(30).getPaymentOrderId()).isEqualTo(body.getResults().get(0).getPaymentOrderId());
+        assertThat(body.getResults().get(31).getOutcome()).isEqualTo(BulkPaymentOrderOutcome.REJECTED);
+        Set<String> owners = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            String owner = partitioner.ownerOfPaymentOrderId(body.getResults().get(i).getPaymentOrderId());
+            assertThat(owner).isEqualTo(partitioner.ownerOfExternalId("PART-BULK-" + i));
+            owners.add(owner);
+        }
+        assertThat(owners).containsExactlyInAnyOrderElementsOf(NODES);
+    }
+
+    @Test
+    void testSubmitNdjson_acrossPartitions_shouldInitiateEachLineInItsOwnerNode() throws Exception {
+        // Given - 30 líneas de las tres instancias y un duplicado de la primera
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            body.append(objectMapper.writeValueAsString(bulkItem("PART-NDJSON-" + i, "ES9121000418450200051332")))
+                    .append('\n');
+        }
+        body.append(objectMapper.writeValueAsString(bulkItem("PART-NDJSON-0", "ES9121000418450200051332")));
+
+        // When
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(urls.get("node3") + BASE_PATH + "/bulk"))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        List<BulkPaymentOrderResult> results = new ArrayList<>();
+        try (Stream<String> lines = response.body()) {
+            for (String line : lines.toList()) {
+                results.add(objectMapper.readValue(line, BulkPaymentOrderResult.class));
+            }
+        }
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.OK.value());
+        assertThat(results).extracting(BulkPaymentOrderResult::getIndex)
+                .containsExactlyElementsOf(IntStream.range(0, 31).boxed().toList());
+        assertThat(results.get(30).getOutcome()).isEqualTo(BulkPaymentOrderOutcome.IDEMPOTENT);
+        assertThat(results.get(30).getPaymentOrderId()).isEqualTo(results.get(0).getPaymentOrderId());
+        Set<String> owners = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            String paymentOrderId = results.get(i).getPaymentOrderId();
+            assertThat(results.get(i).getOutcome()).isEqualTo(BulkPaymentOrderOutcome.CREATED);
+            assertThat(partitioner.ownerOfPaymentOrderId(paymentOrderId))
+                    .isEqualTo(partitioner.ownerOfExternalId("PART-NDJSON-" + i));
+            owners.add(partitioner.ownerOfPaymentOrderId(paymentOrderId));
+        }
+        assertThat(owners).containsExactlyInAnyOrderElementsOf(NODES);
+    }
+
+    @Test
+    void testSearch_acrossPartitions_shouldPageThroughAllNodesInOrder() {
+        // Given - 12 órdenes de un mismo deudor repartidas entre las instancias
+        String debtorIban = "ES1000492352082414205416";
+        Set<String> created = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            PaymentOrderRequest request = request("PART-SEARCH-" + i, debtorIban);
+            request.setRequestedExecutionDate(LocalDate.now().plusDays(1 + i % 3));
+            created.add(restTemplate.postForEntity(urls.get("node1") + BASE_PATH, request,
+                    PaymentOrderResponse.class).getBody().getPaymentOrderId());
+        }
+
+        // When - páginas de 5 pidiendo cada una a una instancia distinta
+        List<PaymentOrderDetailsResponse> found = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = urls.get(NODES.get(pages % NODES.size())) + BASE_PATH + "?debtorIban=" + debtorIban
+                    + "&limit=5" + (cursor == null ? "" : "&cursor=" + cursor);
+            PaymentOrderSearchResponse page = restTemplate.getForObject(url, PaymentOrderSearchResponse.class);
+            found.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertThat(found).extracting(PaymentOrderDetailsResponse::getPaymentOrderId)
+                .containsExactlyInAnyOrderElementsOf(created);
+        assertThat(found).extracting(PaymentOrderDetailsResponse::getRequestedExecutionDate).isSorted();
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void testExport_acrossPartitions_shouldConcatenateEveryNodeWithOneCsvHeader() {
+        // Given - una orden en cada instancia, en una fecha que no usa ningún otro test
+        LocalDate day = LocalDate.now().plusDays(200);
+        Set<String> created = new HashSet<>();
+        for (String node : NODES) {
+            PaymentOrderRequest request = request(externalIdOwnedBy(node, "PART-EXPORT"), "ES9121000418450200051332");
+            request.setRequestedExecutionDate(day);
+            created.add(restTemplate.postForEntity(urls.get("node1") + BASE_PATH, request,
+                    PaymentOrderResponse.class).getBody().getPaymentOrderId());
+        }
+        String url = urls.get("node2") + BASE_PATH + "/export?requestedExecutionDateFrom=" + day
+                + "&requestedExecutionDateTo=" + day;
+
+        // When
+        ResponseEntity<String> ndjson = restTemplate.getForEntity(url, String.class);
+        ResponseEntity<String> csv = restTemplate.getForEntity(url + "&format=csv", String.class);
+        ResponseEntity<String> unknownFormat = restTemplate.getForEntity(url + "&format=xml", String.class);
+
+        // Then
+        assertThat(ndjson.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ndjson.getBody().lines().map(line -> {
+            try {
+                return objectMapper.readTree(line).get("paymentOrderId").asText();
+            }
+            catch (IOException ex) {
+                throw new AssertionError(line, ex);
+            }
+        })).containsExactlyInAnyOrderElementsOf(created);
+        List<String> csvLines = csv.getBody().lines().toList();
+        assertThat(csvLines).hasSize(4);
+        assertThat(csvLines.get(0)).startsWith("paymentOrderId,");
+        assertThat(csvLines.subList(1, 4)).allSatisfy(line -> assertThat(line).startsWith("PO-"));
+        assertThat(unknownFormat.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testTotals_acrossPartitions_shouldSumEveryNode() {
+        // Given - una orden del mismo deudor en cada instancia, en una fecha que no usa ningún otro test
+        LocalDate day = LocalDate.now().plusDays(201);
+        for (String node : NODES) {
+            PaymentOrderRequest request = request(externalIdOwnedBy(node, "PART-TOTALS"), "ES9121000418450200051332");
+            request.setRequestedExecutionDate(day);
+            restTemplate.postForEntity(urls.get("node1") + BASE_PATH, request, PaymentOrderResponse.class);
+        }
+
+        // When
+        PaymentOrderTotalsResponse totals = restTemplate.getForObject(urls.get("node3") + BASE_PATH
+                + "/totals?debtorIban=ES9121000418450200051332&requestedExecutionDate=" + day,
+                PaymentOrderTotalsResponse.class);
+
+        // Then
+        assertThat(totals.getTotals()).singleElement().satisfies(eur -> {
+            assertThat(eur.getCount()).isEqualTo(3);
+            assertThat(eur.getAmount()).isEqualTo("960.00");
+        });
+    }
+
+    @Test
+    void testStreamStatus_withOrdersOfAnotherNode_shouldRedirectOrRejectMixedOwners() throws Exception {
+        // Given
+        String node2Order = create(externalIdOwnedBy("node2", "PART-STREAM"));
+        String node3Order = create(externalIdOwnedBy("node3", "PART-STREAM"));
+        HttpClient client = HttpClient.newHttpClient();
+
+        // When
+        HttpResponse<String> redirect = client.send(HttpRequest.newBuilder(URI.create(
+                urls.get("node1") + BASE_PATH + "/status-stream?paymentOrderIds=" + node2Order)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> mixed = client.send(HttpRequest.newBuilder(URI.create(
+                urls.get("node1") + BASE_PATH + "/status-stream?paymentOrderIds=" + node2Order + "," + node3Order)).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Then
+        assertThat(redirect.statusCode()).isEqualTo(HttpStatus.TEMPORARY_REDIRECT.value());
+        assertThat(redirect.headers().firstValue("Location")).hasValue(
+                urls.get("node2") + BASE_PATH + "/status-stream?paymentOrderIds=" + node2Order);
+        assertThat(mixed.statusCode()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(mixed.headers().firstValue("Content-Type")).hasValue("application/problem+json");
+    }
+
+    private HttpStatus getLocally(String node, String paymentOrderId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(PartitionForwarder.FORWARDED_HEADER, "test");
+        return HttpStatus.valueOf(restTemplate.exchange(urls.get(node) + BASE_PATH + "/" + paymentOrderId,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class).getStatusCode().value());
+    }
+
+    private String create(String externalId) {
+        return restTemplate.postForEntity(urls.get("node1") + BASE_PATH,
+                request(externalId, "ES9121000418450200051332"), PaymentOrderResponse.class)
+                .getBody().getPaymentOrderId();
+    }
+
+    private static String externalIdOwnedBy(String node, String prefix) {
+        return IntStream.iterate(0, i -> i + 1)
+                .mapToObj(i -> prefix + "-" + i)
+                .filter(externalId -> partitioner.ownerOfExternalId(externalId).equals(node))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static PaymentOrderRequest request(String externalId, String debtorIban) {
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId(externalId);
+        request.setDebtorIban(debtorIban);
+        request.setCreditorIban("ES7921000813610123456789");
+        request.setAmount("320.00");
+        request.setCurrency("EUR");
+        request.setRequestedExecutionDate(LocalDate.now().plusDays(1));
+        return request;
+    }
+
+    private static BulkPaymentOrderItem bulkItem(String externalId, String debtorIban) {
+        BulkPaymentOrderItem item = new BulkPaymentOrderItem();
+        item.setExternalId(externalId);
+        item.setDebtorIban(debtorIban);
+        item.setCreditorIban("ES7921000813610123456789");
+        item.setAmount("125.00");
+        item.setCurrency("EUR");
+        item.setRequestedExecutionDate(LocalDate.now().plusDays(1).toString());
+        return item;
+    }
+}
@@ -0,0 +1,133 @@
+package com.jsca.infrastructure.adapter.in.rest.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests de los cubos de tokens por cliente.
+ */
+class ClientRateLimiterTest {
+
+    private static final long SECOND = 1_000_000;
+
+    @Test
+    void testTryAcquire_afterBurst_shouldRejectUntilRefilled() {
+        // Given - 10 por segundo (un token cada 100 ms) y 3 de ráfaga
+        ClientRateLimiter limiter = new ClientRateLimiter(1024, 10, 3);
+        long now = 5 * SECOND;
+
+        // When
+        long first = limiter.tryAcquire("CLIENT-A", 1, now);
+        limiter.tryAcquire("CLIENT-A", 1, now);
+        limiter.tryAcquire("CLIENT-A", 1, now);
+        long rejected = limiter.tryAcquire("CLIENT-A", 1, now);
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(rejected).isEqualTo(SECOND / 10);
+        assertThat(limiter.tryAcquire("CLIENT-B", 1, now)).isZero();
+        assertThat(limiter.tryAcquire("CLIENT-A", 1, now + SECOND / 10)).isZero();
+        assertThat(limiter.tryAcquire("CLIENT-A", 1, now + SECOND / 10)).isPositive();
+    }
+
+    @Test
+    void testTryAcquire_withMorePermitsThanBurst_shouldAdmitOnFullBucketAndLeaveDebt() {
+        // Given
+        ClientRateLimiter limiter = new ClientRateLimiter(1024, 10, 5);
+        long now = SECOND;
+
+        // When - un lote de 20 vacía el cubo y deja 15 tokens de deuda
+        long bulk = limiter.tryAcquire("CLIENT-BULK", 20, now);
+        long next = limiter.tryAcquire("CLIENT-BULK", 1, now);
+
+        // Then - la siguiente espera a recuperar los 15 de deuda más uno
+        assertThat(bulk).isZero();
+        assertThat(next).isEqualTo(16 * SECOND / 10);
+    }
+
+    @Test
+    void testSetLimits_shouldApplyToExistingBuckets() {
+        // Given
+        ClientRateLimiter limiter = new ClientRateLimiter(1024, 1, 1);
+        long now = SECOND;
+        limiter.tryAcquire("CLIENT-C", 1, now);
+        assertThat(limiter.tryAcquire("CLIENT-C", 1, now)).isPositive();
+
+        // When
+        limiter.setLimits(new ClientRateLimiter.Limits(1, 4));
+
+        // Then
+        assertThat(limiter.tryAcquire("CLIENT-C", 1, now)).isZero();
+        assertThat(limiter.getLimits().burst()).isEqualTo(4);
+        assertThatThrownBy(() -> new ClientRateLimiter.Limits(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testTryAcquire_withHashCodeCollision_shouldKeepSeparateQuotas() {
+        // Given - "Aa" y "BB" tienen el mismo String.hashCode()
+        ClientRateLimiter limiter = new ClientRateLimiter(1024, 1, 1, 42);
+        long now = SECOND;
+        assertThat("CLIENT-Aa".hashCode()).isEqualTo("CLIENT-BB".hashCode());
+
+        // When - el primero agota su cuota
+        limiter.tryAcquire("CLIENT-Aa", 1, now);
+
+        // Then
+        assertThat(limiter.tryAcquire("CLIENT-Aa", 1, now)).isPositive();
+        assertThat(limiter.tryAcquire("CLIENT-BB", 1, now)).isZero();
+    }
+
+    @Test
+    void testTryAcquire_withMoreKeysThanBuckets_shouldReuseFullBuckets() {
+        // Given - 2 huecos; las claves solo los ocupan mientras su cubo no está lleno
+        ClientRateLimiter limiter = new ClientRateLimiter(2, 10, 1);
+
+        // When
+        List<Long> waits = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            waits.add(limiter.tryAcquire("CLIENT-" + i, 1, i * SECOND));
+        }
+
+        // Then
+        assertThat(waits).containsOnly(0L);
+    }
+
+    @Test
+    void testTryAcquire_withConcurrentCallers_shouldAdmitExactlyBurst() throws Exception {
+        // Given
+        ClientRateLimiter limiter = new ClientRateLimiter(1024, 1, 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When - 8 hilos x 50 peticiones en el mismo instante
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int admitted = 0;
+                for (int i = 0; i < 50; i++) {
+                    admitted += limiter.tryAcquire("CLIENT-HOT", 1, SECOND) == 0 ? 1 : 0;
+                }
+                return admitted;
+            }));
+        }
+        start.countDown();
+        int admitted = 0;
+        for (Future<Integer> future : futures) {
+            admitted += future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(admitted).isEqualTo(100);
+    }
+}
@@ -0,0 +1,181 @@
+package com.jsca.infrastructure.adapter.in.rest.ratelimit;
+
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderItem;
+import com.jsca.infrastructure.adapter.in.rest.model.BulkPaymentOrderRequest;
+import com.jsca.infrastructure.adapter.in.rest.model.ErrorResponse;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentOrderRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración de las cuotas por cliente en el alta de órdenes, suelta y en lote NDJSON.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "payment.rate-limit.enabled=true",
+        "payment.rate-limit.requests-per-second=0.01",
+        "payment.rate-limit.burst=2"})
+class PaymentOrderAdmissionIntegrationTest {
+
+    private static final String PATH = "/payment-initiation/payment-orders";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private RateLimitEndpoint rateLimitEndpoint;
+
+    @Test
+    void testSubmit_overQuota_shouldReturn429WithRetryAfterUntilLimitIsRaised() {
+        // Given - ráfaga de 2 y un token cada 100 s
+        submit("RL-001", "CLIENT-RL-A");
+        submit("RL-002", "CLIENT-RL-A");
+
+        // When
+        ResponseEntity<ErrorResponse> throttled = restTemplate.postForEntity(PATH,
+                withClient(request("RL-003"), "CLIENT-RL-A"), ErrorResponse.class);
+
+        // Then
+        assertThat(throttled.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(throttled.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("100");
+        assertThat(throttled.getHeaders().getContentType()).hasToString("application/problem+json");
+        assertThat(throttled.getBody()).isNotNull();
+        assertThat(throttled.getBody().getStatus()).isEqualTo(429);
+        assertThat(submit("RL-004", "CLIENT-RL-B").getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        // When - se amplía la ráfaga en caliente, como lo haría la operación JMX
+        rateLimitEndpoint.update(null, 3);
+
+        // Then
+        assertThat(submit("RL-003", "CLIENT-RL-A").getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(rateLimitEndpoint.limits().burst()).isEqualTo(3);
+    }
+
+    @Test
+    void testRateLimitEndpoint_overHttp_shouldNotBeExposed() {
+        // When - un cliente intenta subirse la cuota
+        ResponseEntity<String> update = restTemplate.postForEntity("/actuator/ratelimit",
+                Map.of("burst", 1_000_000), String.class);
+
+        // Then
+        assertThat(update.getStatusCode().is2xxSuccessful()).isFalse();
+        assertThat(restTemplate.getForEntity("/actuator/ratelimit", String.class).getStatusCode().is2xxSuccessful())
+                .isFalse();
+        assertThat(rateLimitEndpoint.limits().burst()).isLessThan(1_000_000);
+    }
+
+    @Test
+    void testSubmit_withoutClientHeader_shouldUseDebtorIban() {
+        // Given
+        PaymentOrderRequest first = request("RL-010");
+        first.setDebtorIban("DE89370400440532013000");
+        restTemplate.postForEntity(PATH, first, Object.class);
+        PaymentOrderRequest second = request("RL-011");
+        second.setDebtorIban("DE89370400440532013000");
+        restTemplate.postForEntity(PATH, second, Object.class);
+
+        // When
+        PaymentOrderRequest third = request("RL-012");
+        third.setDebtorIban("DE89370400440532013000");
+        ResponseEntity<ErrorResponse> response = restTemplate.postForEntity(PATH, third, ErrorResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void testSubmitBulk_withoutClientHeader_shouldChargeEachOrderToItsDebtor() {
+        // Given - una orden de un deudor y dos de otro, con ráfaga de 2
+        BulkPaymentOrderRequest bulk = new BulkPaymentOrderRequest()
+                .addOrdersItem(item("RL-BULK-1", "GB29NWBK60161331926819"))
+                .addOrdersItem(item("RL-BULK-2", "NL91ABNA0417164300"))
+                .addOrdersItem(item("RL-BULK-3", "NL91ABNA0417164300"));
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(PATH + "/bulk", bulk, String.class);
+
+        // Then - al primer deudor le queda un token y el segundo ha agotado su cuota
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        PaymentOrderRequest first = request("RL-BULK-4");
+        first.setDebtorIban("GB29NWBK60161331926819");
+        PaymentOrderRequest second = request("RL-BULK-5");
+        second.setDebtorIban("NL91ABNA0417164300");
+        assertThat(restTemplate.postForEntity(PATH, first, Object.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+        assertThat(restTemplate.postForEntity(PATH, second, Object.class).getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void testIngestNdjson_overQuota_shouldRejectLinesBeyondBurst() {
+        // Given - ráfaga de 2 para el cliente y tres líneas
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Client-Id", "CLIENT-RL-NDJSON");
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        String body = line("RL-NDJSON-1") + "\n" + line("RL-NDJSON-2") + "\n" + line("RL-NDJSON-3") + "\n";
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(PATH + "/bulk", new HttpEntity<>(body, headers),
+                String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String[] results = response.getBody().split("\n");
+        assertThat(results).hasSize(3);
+        assertThat(results[0]).contains("\"outcome\":\"CREATED\"");
+        assertThat(results[1]).contains("\"outcome\":\"CREATED\"");
+        assertThat(results[2]).contains("\"outcome\":\"REJECTED\"").contains("Cuota de peticiones agotada");
+        assertThat(submit("RL-NDJSON-4", "CLIENT-RL-NDJSON").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private static String line(String externalId) {
+        return "{\"externalId\":\"" + externalId + "\",\"debtorIban\":\"ES9121000418450200051332\","
+                + "\"creditorIban\":\"ES7921000813610123456789\",\"amount\":\"75.00\",\"currency\":\"EUR\","
+                + "\"requestedExecutionDate\":\"" + LocalDate.now().plusDays(1) + "\"}";
+    }
+
+    private static BulkPaymentOrderItem item(String externalId, String debtorIban) {
+        BulkPaymentOrderItem item = new BulkPaymentOrderItem();
+        item.setExternalId(externalId);
+        item.setDebtorIban(debtorIban);
+        item.setCreditorIban("ES7921000813610123456789");
+        item.setAmount("100.00");
+        item.setCurrency("EUR");
+        item.setRequestedExecutionDate(LocalDate.now().plusDays(1).toString());
+        return item;
+    }
+
+    private ResponseEntity<Object> submit(String externalId, String clientKey) {
+        return restTemplate.postForEntity(PATH, withClient(request(externalId), clientKey), Object.class);
+    }
+
+    private static HttpEntity<PaymentOrderRequest> withClient(PaymentOrderRequest request, String clientKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Client-Id", clientKey);
+        return new HttpEntity<>(request, headers);
+    }
+
+    private static PaymentOrderRequest request(String externalId) {
+        PaymentOrderRequest request = new PaymentOrderRequest();
+        request.setExternalId(externalId);
+        request.setDebtorIban("ES9121000418450200051332");
+        request.setCreditorIban("ES7921000813610123456789");
+        request.setAmount("100.00");
+        request.setCurrency("EUR");
+        request.setRequestedExecutionDate(LocalDate.now().plusDays(1));
+        return request;
+    }
+}
@@ -0,0 +1,141 @@
+package com.jsca.infrastructure.adapter.in.rest.stream;
+
+import com.jsca.application.mapper.PaymentOrderMapper;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.PaymentStatusChange;
+import com.jsca.infrastructure.adapter.in.rest.model.PaymentStatusEvent;
+import com.jsca.infrastructure.config.StatusStreamProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests del reparto de cambios de estado entre suscripciones SSE.
+ */
+class PaymentStatusBroadcasterTest {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    private final PaymentStatusBroadcaster broadcaster = new PaymentStatusBroadcaster(
+            new PaymentOrderMapper(), new StatusStreamProperties());
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.close();
+    }
+
+    @Test
+    void testPublish_withSeveralSubscribers_shouldDeliverOnlyToInterestedOnes() throws Exception {
+        // Given
+        CapturingEmitter first = new CapturingEmitter();
+        CapturingEmitter second = new CapturingEmitter();
+        CapturingEmitter other = new CapturingEmitter();
+        broadcaster.subscribe(first, Set.of("PO-S-001"), List::of);
+        broadcaster.subscribe(second, Set.of("PO-S-001", "PO-S-002"), List::of);
+        broadcaster.subscribe(other, Set.of("PO-S-003"), List::of);
+
+        // When
+        broadcaster.publish(List.of(change("PO-S-001", PaymentStatus.EXECUTED, 1)));
+
+        // Then
+        first.awaitEvents(1);
+        second.awaitEvents(1);
+        assertThat(first.events).extracting(PaymentStatusEvent::getPaymentOrderId).containsExactly("PO-S-001");
+        assertThat(second.events).extracting(PaymentStatusEvent::getStatus)
+                .containsExactly(com.jsca.infrastructure.adapter.in.rest.model.PaymentStatus.EXECUTED);
+        assertThat(other.events).isEmpty();
+    }
+
+    @Test
+    void testPublish_toSlowSubscriber_shouldKeepOnlyLatestStatusPerOrder() throws Exception {
+        // Given - el primer envío queda bloqueado como en un cliente lento
+        CapturingEmitter slow = new CapturingEmitter();
+        slow.blocked = new CountDownLatch(1);
+        broadcaster.subscribe(slow, Set.of("PO-S-004"), () -> List.of(change("PO-S-004", PaymentStatus.INITIATED, 0)));
+        assertThat(slow.sending.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+
+        // When
+        for (int i = 1; i <= 10_000; i++) {
+            broadcaster.publish(List.of(change("PO-S-004", i % 2 == 0 ? PaymentStatus.PENDING : PaymentStatus.EXECUTED, i)));
+        }
+        slow.blocked.countDown();
+
+        // Then - solo el estado inicial y el último cambio
+        slow.awaitEvents(2);
+        assertThat(slow.events).hasSize(2);
+        assertThat(slow.events.get(1).getLastUpdate()).isEqualTo(change("PO-S-004", PaymentStatus.PENDING, 10_000).lastUpdate());
+    }
+
+    @Test
+    void testPublish_whenConnectionFails_shouldRemoveSubscription() throws Exception {
+        // Given
+        CapturingEmitter broken = new CapturingEmitter();
+        broken.failing = true;
+        broadcaster.subscribe(broken, Set.of("PO-S-005"), List::of);
+
+        // When
+        broadcaster.publish(List.of(change("PO-S-005", PaymentStatus.EXECUTED, 1)));
+
+        // Then
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (broadcaster.subscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    private PaymentStatusChange change(String paymentOrderId, PaymentStatus status, long second) {
+        return new PaymentStatusChange(paymentOrderId, status,
+                OffsetDateTime.parse("2025-11-20T18:00:00Z").plusSeconds(second));
+    }
+
+    /**
+     * Emitter que guarda los eventos en lugar de escribirlos en una respuesta HTTP.
+     */
+    private static final class CapturingEmitter extends SseEmitter {
+
+        private final List<PaymentStatusEvent> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private volatile CountDownLatch blocked;
+        private volatile boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+            sending.countDown();
+            if (blocked != null) {
+                try {
+                    blocked.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(PaymentStatusEvent.class::isInstance)
+                    .map(PaymentStatusEvent.class::cast)
+                    .forEach(events::add);
+        }
+
+        private void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.jsca.infrastructure.adapter.out.duplicate;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios del índice de duplicados por intervalos de tiempo.
+ */
+class SlidingWindowDuplicateDetectorTest {
+
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(1_700_000_000_000L));
+
+    @Test
+    void testFindDuplicate_withSameDataUnderOtherExternalId_shouldReturnFirstOrder() {
+        // Given
+        SlidingWindowDuplicateDetector detector = detector(false);
+        detector.findDuplicate(order("EXT-1", "ES7921000813610123456789", "1500.50"));
+
+        // When
+        Optional<String> sameData = detector.findDuplicate(order("EXT-2", "ES7921000813610123456789", "1500.500"));
+        Optional<String> otherCreditor = detector.findDuplicate(order("EXT-3", "DE89370400440532013000", "1500.50"));
+        Optional<String> otherAmount = detector.findDuplicate(order("EXT-4", "ES7921000813610123456789", "1500.51"));
+        Optional<String> sameExternalId = detector.findDuplicate(order("EXT-1", "ES7921000813610123456789", "1500.50"));
+
+        // Then
+        assertThat(sameData).contains("EXT-1");
+        assertThat(otherCreditor).isEmpty();
+        assertThat(otherAmount).isEmpty();
+        assertThat(sameExternalId).isEmpty();
+        assertThat(detector.rejectsDuplicates()).isFalse();
+        assertThat(detector.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testFindDuplicate_afterWindow_shouldForgetOrderAndReuseItsTable() {
+        // Given
+        SlidingWindowDuplicateDetector detector = detector(true);
+        for (int i = 0; i < 1_000; i++) {
+            detector.findDuplicate(order("EXT-OLD-" + i, "ES7921000813610123456789", i + ".00"));
+        }
+        clock.advance(Duration.ofSeconds(59));
+        Optional<String> withinWindow = detector.findDuplicate(order("EXT-NEW-1", "ES7921000813610123456789", "1.00"));
+
+        // When
+        clock.advance(Duration.ofSeconds(12));
+        int duplicatesAfterWindow = 0;
+        for (int i = 0; i < 1_000; i++) {
+            Optional<String> resend = detector.findDuplicate(order("EXT-NEW-" + i, "ES7921000813610123456789", i + ".00"));
+            duplicatesAfterWindow += resend.isPresent() ? 1 : 0;
+        }
+
+        // Then
+        assertThat(withinWindow).contains("EXT-OLD-1");
+        assertThat(duplicatesAfterWindow).isZero();
+        assertThat(detector.size()).isEqualTo(1_000);
+    }
+
+    @Test
+    void testFindDuplicate_whenIndexIsFull_shouldCountUntrackedOrders() {
+        // Given
+        SlidingWindowDuplicateDetector detector = new SlidingWindowDuplicateDetector(
+                Duration.ofMinutes(1), 6, 1, false, clock);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        detector.bindTo(registry);
+
+        // When
+        detector.findDuplicate(order("EXT-1", "ES7921000813610123456789", "10.00"));
+        detector.findDuplicate(order("EXT-2", "ES7921000813610123456789", "10.00"));
+        for (int i = 0; i < 1_000; i++) {
+            detector.findDuplicate(order("EXT-MORE-" + i, "ES7921000813610123456789", (i + 11) + ".00"));
+        }
+
+        // Then
+        assertThat(detector.size()).isEqualTo(64);
+        assertThat(registry.get("payment.duplicates").tag("action", "flagged").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("payment.duplicates.untracked").functionCounter().count()).isEqualTo(1_000 - 63);
+        assertThat(registry.get("payment.duplicates.index.entries").gauge().value()).isEqualTo(64);
+    }
+
+    @Test
+    void testFindDuplicate_withConcurrentResends_shouldAcceptOnlyOne() throws Exception {
+        // Given
+        SlidingWindowDuplicateDetector detector = detector(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Optional<String>>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 64; i++) {
+            PaymentOrder resend = order("EXT-RESEND-" + i, "ES7921000813610123456789", "99.99");
+            results.add(executor.submit(() -> detector.findDuplicate(resend)));
+        }
+        int accepted = 0;
+        for (Future<Optional<String>> result : results) {
+            accepted += result.get().isEmpty() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(accepted).isEqualTo(1);
+        assertThat(detector.size()).isEqualTo(1);
+    }
+
+    private SlidingWindowDuplicateDetector detector(boolean rejects) {
+        return new SlidingWindowDuplicateDetector(Duration.ofMinutes(1), 6, 1_000_000, rejects, clock);
+    }
+
+    private static PaymentOrder order(String externalId, String creditorIban, String amount) {
+        return PaymentOrder.builder()
+                .externalId(externalId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban(creditorIban)
+                .amount(new BigDecimal(amount))
+                .currency("EUR")
+                .build();
+    }
+}
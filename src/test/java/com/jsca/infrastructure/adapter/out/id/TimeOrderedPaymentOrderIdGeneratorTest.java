@@ -0,0 +1,96 @@
+package com.jsca.infrastructure.adapter.out.id;
+
+import com.jsca.infrastructure.config.IdGeneratorProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests del generador de IDs ordenados por tiempo.
+ */
+class TimeOrderedPaymentOrderIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void testNextId_fromManyThreads_shouldBeUniqueAndSortedPerThread() throws Exception {
+        // Given - más IDs por milisegundo de los que caben en la secuencia
+        TimeOrderedPaymentOrderIdGenerator generator = new TimeOrderedPaymentOrderIdGenerator(7);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> generated = new ArrayList<>(IDS_PER_THREAD);
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        generated.add(generator.nextId());
+                    }
+                    return generated;
+                }));
+            }
+
+            // Then
+            for (Future<List<String>> future : futures) {
+                List<String> generated = future.get();
+                assertThat(generated).isSorted();
+                ids.addAll(generated);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD)
+                .allSatisfy(id -> assertThat(id).matches("PO-[0-9A-HJKMNP-TV-Z]{13}"));
+    }
+
+    @Test
+    void testNextId_withDifferentNodes_shouldNotCollideAndSortByTime() throws InterruptedException {
+        // Given
+        TimeOrderedPaymentOrderIdGenerator first = new TimeOrderedPaymentOrderIdGenerator(0);
+        TimeOrderedPaymentOrderIdGenerator second = new TimeOrderedPaymentOrderIdGenerator(1023);
+
+        // When - mismo instante en ambos nodos y un ID posterior
+        String fromFirst = first.nextId();
+        String fromSecond = second.nextId();
+        Thread.sleep(2);
+        String later = first.nextId();
+
+        // Then
+        assertThat(fromFirst).isNotEqualTo(fromSecond);
+        assertThat(later).isGreaterThan(fromFirst).isGreaterThan(fromSecond);
+        assertThat(TimeOrderedPaymentOrderIdGenerator.encode(0)).isEqualTo("PO-0000000000000");
+        assertThat(TimeOrderedPaymentOrderIdGenerator.encode(Long.MAX_VALUE)).isEqualTo("PO-7ZZZZZZZZZZZZ");
+        assertThatThrownBy(() -> new TimeOrderedPaymentOrderIdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testNodeIdOf_withoutNodeId_shouldRequireItOnlyWhenPartitioned() {
+        // Given
+        IdGeneratorProperties unset = new IdGeneratorProperties();
+        IdGeneratorProperties configured = new IdGeneratorProperties();
+        configured.setNodeId(5);
+        MockEnvironment partitioned = new MockEnvironment().withProperty("payment.partition.enabled", "true");
+
+        // When / Then
+        assertThat(TimeOrderedPaymentOrderIdGenerator.nodeIdOf(unset, new MockEnvironment())).isZero();
+        assertThat(TimeOrderedPaymentOrderIdGenerator.nodeIdOf(configured, partitioned)).isEqualTo(5);
+        assertThatThrownBy(() -> TimeOrderedPaymentOrderIdGenerator.nodeIdOf(unset, partitioned))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("payment.id-generator.node-id");
+    }
+}
@@ -0,0 +1,282 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.DuplicatePaymentOrderIdException;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
+import com.jsca.domain.model.TransitionOutcome;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests del repositorio compacto: las vistas reconstruidas deben ser iguales a la orden guardada.
+ */
+class CompactPaymentOrderRepositoryTest {
+
+    private final CompactPaymentOrderRepository repository = new CompactPaymentOrderRepository();
+
+    @Test
+    void testFindById_afterSave_shouldRebuildEqualOrder() {
+        // Given
+        PaymentOrder order = order("PO-C-001", "EXT-C-001");
+
+        // When
+        repository.save(order);
+
+        // Then
+        assertThat(repository.findById("PO-C-001")).contains(order);
+        assertThat(repository.findByExternalId("EXT-C-001")).contains(order);
+        assertThat(repository.findById("PO-C-404")).isEmpty();
+    }
+
+    @Test
+    void testFindById_withUnusualValues_shouldRebuildEqualOrder() {
+        // Given - IBAN no empaquetable, importe fuera de rango de long, campos nulos y otro offset
+        PaymentOrder order = order("PO-C-002", "EXT-C-002").toBuilder()
+                .creditorIban("fr14-2004-1010")
+                .amount(new BigDecimal("123456789012345678901234567890.12"))
+                .remittanceInfo(null)
+                .createdAt(OffsetDateTime.of(2024, 11, 20, 18, 49, 35, 123_456_789, ZoneOffset.ofHours(-5)))
+                .build();
+
+        // When
+        repository.save(order);
+
+        // Then
+        assertThat(repository.findById("PO-C-002")).contains(order);
+    }
+
+    @Test
+    void testSaveIfAbsent_withSameExternalId_shouldReturnExistingOrder() {
+        // Given
+        repository.saveIfAbsent(order("PO-C-003", "EXT-C-003"));
+
+        // When
+        var existing = repository.saveIfAbsent(order("PO-C-004", "EXT-C-003"));
+
+        // Then
+        assertThat(existing).hasValueSatisfying(order -> assertThat(order.getPaymentOrderId()).isEqualTo("PO-C-003"));
+        assertThat(repository.findById("PO-C-004")).isEmpty();
+        assertThat(repository.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testSaveIfAbsent_withRepeatedPaymentOrderId_shouldRejectWithoutOverwriting() {
+        // Given
+        repository.saveIfAbsent(order("PO-C-012", "EXT-C-012"));
+
+        // When / Then
+        assertThatThrownBy(() -> repository.saveIfAbsent(order("PO-C-012", "EXT-C-013")))
+                .isInstanceOf(DuplicatePaymentOrderIdException.class);
+        assertThat(repository.findById("PO-C-012").map(PaymentOrder::getExternalId)).contains("EXT-C-012");
+        assertThat(repository.findByExternalId("EXT-C-013")).isEmpty();
+        assertThat(repository.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testUpdateStatus_shouldMoveOrderBetweenStatuses() {
+        // Given
+        repository.save(order("PO-C-005", "EXT-C-005"));
+        repository.save(order("PO-C-006", "EXT-C-006"));
+
+        // When
+        transition(repository, "PO-C-005", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+
+        // Then
+        assertThat(repository.findByStatus(PaymentStatus.INITIATED, 10))
+                .extracting(PaymentOrder::getPaymentOrderId).containsExactly("PO-C-006");
+        assertThat(repository.findByStatus(PaymentStatus.EXECUTED, 10))
+                .extracting(PaymentOrder::getPaymentOrderId).containsExactly("PO-C-005");
+        assertThat(repository.findById("PO-C-005"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.EXECUTED));
+    }
+
+    @Test
+    void testTransitionStatuses_withStaleVersionOrIllegalTarget_shouldReportEachOutcome() {
+        // Given
+        repository.save(order("PO-C-010", "EXT-C-010"));
+        repository.save(order("PO-C-011", "EXT-C-011"));
+
+        // When
+        List<StatusTransitionResult> results = repository.transitionStatuses(List.of(
+                new StatusTransition("PO-C-010", 1, PaymentStatus.PENDING),
+                new StatusTransition("PO-C-010", 1, PaymentStatus.CANCELLED),
+                new StatusTransition("PO-C-011", 1, PaymentStatus.EXECUTED),
+                new StatusTransition("PO-C-MISSING", 1, PaymentStatus.PENDING)));
+
+        // Then
+        assertThat(results).extracting(StatusTransitionResult::getOutcome).containsExactly(
+                TransitionOutcome.APPLIED, TransitionOutcome.VERSION_CONFLICT,
+                TransitionOutcome.ILLEGAL_TRANSITION, TransitionOutcome.NOT_FOUND);
+        assertThat(results.get(0).getPaymentOrder().getVersion()).isEqualTo(2);
+        assertThat(results.get(1).getPaymentOrder()).isEqualTo(results.get(0).getPaymentOrder());
+        assertThat(repository.findById("PO-C-011")).hasValueSatisfying(order -> {
+            assertThat(order.getStatus()).isEqualTo(PaymentStatus.INITIATED);
+            assertThat(order.getVersion()).isEqualTo(1);
+        });
+        assertThat(repository.countByStatus(PaymentStatus.PENDING)).isEqualTo(1);
+    }
+
+    @Test
+    void testCountByStatus_afterSaveOverwriteAndUpdate_shouldTrackEachStatus() {
+        // Given
+        repository.save(order("PO-C-007", "EXT-C-007"));
+        repository.save(order("PO-C-008", "EXT-C-008"));
+        repository.saveIfAbsent(order("PO-C-009", "EXT-C-008"));
+
+        // When - sobrescribir una orden no la cuenta dos veces
+        PaymentOrder overwritten = order("PO-C-007", "EXT-C-007").toBuilder()
+                .status(PaymentStatus.PENDING)
+                .build();
+        repository.save(overwritten);
+        transition(repository, "PO-C-008", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+
+        // Then
+        assertThat(repository.count()).isEqualTo(2);
+        assertThat(repository.countByStatus(PaymentStatus.INITIATED)).isZero();
+        assertThat(repository.countByStatus(PaymentStatus.PENDING)).isEqualTo(1);
+        assertThat(repository.countByStatus(PaymentStatus.EXECUTED)).isEqualTo(1);
+    }
+
+    @Test
+    void testTotals_afterSaveOverwriteAndTransition_shouldTrackEachStatusInMinorUnits() {
+        // Given
+        LocalDate day = LocalDate.now().plusDays(1);
+        repository.save(order("PO-C-T-1", "EXT-C-T-1"));
+        repository.save(order("PO-C-T-2", "EXT-C-T-2"));
+        repository.saveIfAbsent(order("PO-C-T-3", "EXT-C-T-2"));
+        PaymentOrder yen = order("PO-C-T-4", "EXT-C-T-4").toBuilder()
+                .amount(new BigDecimal("1000"))
+                .currency("JPY")
+                .build();
+        repository.save(yen);
+
+        // When - sobrescribir con otro importe resta el anterior
+        PaymentOrder overwritten = order("PO-C-T-1", "EXT-C-T-1").toBuilder()
+                .amount(new BigDecimal("0.25"))
+                .build();
+        repository.save(overwritten);
+        transition(repository, "PO-C-T-2", PaymentStatus.PENDING);
+
+        // Then
+        List<PaymentOrderTotals> totals = repository.totals("ES9121000418450200051332", day);
+        assertThat(totals).extracting(PaymentOrderTotals::currency).containsExactly("EUR", "JPY");
+        assertThat(totals.get(0).count()).isEqualTo(2);
+        assertThat(totals.get(0).amount()).isEqualByComparingTo("1500.75");
+        assertThat(totals.get(0).byStatus()).containsExactly(
+                new PaymentOrderTotals.StatusTotals(PaymentStatus.INITIATED, 1, new BigDecimal("0.25")),
+                new PaymentOrderTotals.StatusTotals(PaymentStatus.PENDING, 1, new BigDecimal("1500.50")));
+        assertThat(totals.get(1).byStatus()).containsExactly(
+                new PaymentOrderTotals.StatusTotals(PaymentStatus.INITIATED, 1, new BigDecimal("1000")));
+        assertThat(repository.totals("ES9121000418450200051332", day.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void testSave_withManyOrders_shouldKeepEveryOrderReachable() {
+        // Given - varias páginas de columnas y de arena y varios redimensionados de los índices
+        for (int i = 0; i < 50_000; i++) {
+            repository.save(order("PO-C-MANY-" + i, "EXT-C-MANY-" + i));
+        }
+
+        // When
+        transition(repository, "PO-C-MANY-49999", PaymentStatus.REJECTED);
+
+        // Then
+        assertThat(repository.size()).isEqualTo(50_000);
+        assertThat(repository.findById("PO-C-MANY-0")).isPresent();
+        assertThat(repository.findByExternalId("EXT-C-MANY-31337"))
+                .hasValueSatisfying(order -> assertThat(order.getPaymentOrderId()).isEqualTo("PO-C-MANY-31337"));
+        assertThat(repository.findByStatus(PaymentStatus.REJECTED, 10)).hasSize(1);
+        assertThat(repository.footprintBytes()).isPositive();
+    }
+
+    @Test
+    void testSearch_byDebtorStatusAndDates_shouldPageInCursorOrder() {
+        // Given - 30 órdenes del mismo deudor repartidas en 3 fechas, una ya ejecutada
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 30; i++) {
+            PaymentOrder order = order("PO-C-S-" + i, "EXT-C-S-" + i).toBuilder()
+                    .requestedExecutionDate(firstDay.plusDays(i % 3))
+                    .build();
+            repository.save(order);
+        }
+        PaymentOrder otherDebtor = order("PO-C-S-OTHER", "EXT-C-S-OTHER").toBuilder()
+                .debtorIban("DE89370400440532013000")
+                .requestedExecutionDate(firstDay)
+                .build();
+        repository.save(otherDebtor);
+        transition(repository, "PO-C-S-0", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+        PaymentOrderSearchCriteria criteria = new PaymentOrderSearchCriteria("ES9121000418450200051332", null,
+                PaymentStatus.INITIATED, firstDay, firstDay.plusDays(1));
+
+        // When
+        List<PaymentOrder> firstPage = repository.search(criteria, null, 12);
+        List<PaymentOrder> secondPage = repository.search(criteria,
+                PaymentOrderCursor.after(firstPage.get(firstPage.size() - 1)), 12);
+
+        // Then - 19 órdenes en las dos primeras fechas (20 menos la ejecutada), sin repetir
+        assertThat(firstPage).hasSize(12);
+        assertThat(secondPage).hasSize(7);
+        assertThat(firstPage).extracting(PaymentOrder::getPaymentOrderId).doesNotContain("PO-C-S-0", "PO-C-S-OTHER")
+                .doesNotContainAnyElementsOf(secondPage.stream().map(PaymentOrder::getPaymentOrderId).toList());
+        assertThat(secondPage).allSatisfy(order -> assertThat(order.getRequestedExecutionDate()).isEqualTo(firstDay.plusDays(1)));
+        assertThat(repository.search(new PaymentOrderSearchCriteria(null, null, PaymentStatus.EXECUTED, null, null), null, 10))
+                .extracting(PaymentOrder::getPaymentOrderId).containsExactly("PO-C-S-0");
+    }
+
+    @Test
+    void testForEach_withStatusFilter_shouldVisitEveryMatchAcrossChunks() {
+        // Given - más órdenes que un bloque del recorrido
+        for (int i = 0; i < 3_000; i++) {
+            repository.save(order("PO-C-E-" + i, "EXT-C-E-" + i));
+        }
+        transition(repository, "PO-C-E-2999", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+
+        // When
+        List<PaymentOrder> initiated = new ArrayList<>();
+        repository.forEach(new PaymentOrderSearchCriteria(null, null, PaymentStatus.INITIATED, null, null), initiated::add);
+        List<PaymentOrder> executed = new ArrayList<>();
+        repository.forEach(new PaymentOrderSearchCriteria(null, null, PaymentStatus.EXECUTED, null, null), executed::add);
+
+        // Then
+        assertThat(initiated).hasSize(2_999).extracting(PaymentOrder::getPaymentOrderId).doesNotHaveDuplicates();
+        assertThat(executed).singleElement()
+                .isEqualTo(repository.findById("PO-C-E-2999").orElseThrow());
+    }
+
+    private PaymentOrder order(String paymentOrderId, String externalId) {
+        PaymentOrder order = PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId(externalId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("FR1420041010050500013M02606")
+                .amount(new BigDecimal("1500.50"))
+                .currency("EUR")
+                .remittanceInfo("Factura #2024-045 - Servicios de consultoría")
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .initiate()
+                .build();
+        return order;
+    }
+
+    private static void transition(PaymentOrderRepository repository, String paymentOrderId, PaymentStatus... path) {
+        for (PaymentStatus status : path) {
+            PaymentOrder current = repository.findById(paymentOrderId).orElseThrow();
+            assertThat(repository.transitionStatus(StatusTransition.of(current, status)).isApplied()).isTrue();
+        }
+    }
+}
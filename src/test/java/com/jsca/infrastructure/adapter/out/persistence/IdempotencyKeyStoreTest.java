@@ -0,0 +1,172 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.infrastructure.config.IdempotencyProperties;
+import com.jsca.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios de las claves de idempotencia con caducidad por intervalos y filtro de Bloom.
+ */
+class IdempotencyKeyStoreTest {
+
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(1_700_000_000_000L));
+
+    @Test
+    void testPutIfAbsent_withRepeatedExternalId_shouldKeepFirstOrderAndInsertOnce() {
+        // Given
+        IdempotencyKeyStore store = store(1_000);
+        AtomicInteger inserts = new AtomicInteger();
+
+        // When
+        String first = store.putIfAbsent("EXT-1", "PO-1", null, inserts::incrementAndGet);
+        String second = store.putIfAbsent("EXT-1", "PO-2", null, inserts::incrementAndGet);
+
+        // Then
+        assertThat(first).isNull();
+        assertThat(second).isEqualTo("PO-1");
+        assertThat(inserts).hasValue(1);
+        assertThat(store.find("EXT-1")).isEqualTo("PO-1");
+        assertThat(store.find("EXT-2")).isNull();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testFind_afterRetention_shouldForgetKeyAndSweepItFromMemory() {
+        // Given
+        IdempotencyKeyStore store = store(1_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+        for (int i = 0; i < 100; i++) {
+            store.put("EXT-OLD-" + i, "PO-OLD-" + i, OffsetDateTime.now(clock));
+        }
+        clock.advance(Duration.ofSeconds(59));
+        String withinRetention = store.find("EXT-OLD-1");
+
+        // When
+        clock.advance(Duration.ofSeconds(12));
+        store.put("EXT-REPLAYED", "PO-REPLAYED", OffsetDateTime.now(clock).minusMinutes(2));
+        String afterRetention = store.find("EXT-OLD-1");
+        String reused = store.putIfAbsent("EXT-OLD-1", "PO-NEW", OffsetDateTime.now(clock), () -> { });
+        for (int i = 0; i < 100; i++) {
+            store.put("EXT-NEW-" + i, "PO-NEW-" + i, null);
+        }
+
+        // Then
+        assertThat(withinRetention).isEqualTo("PO-OLD-1");
+        assertThat(afterRetention).isNull();
+        assertThat(reused).isNull();
+        assertThat(store.find("EXT-OLD-1")).isEqualTo("PO-NEW");
+        assertThat(store.find("EXT-REPLAYED")).isNull();
+        assertThat(store.size()).isEqualTo(101);
+        assertThat(registry.get("payment.idempotency.expired").functionCounter().count()).isEqualTo(99);
+    }
+
+    @Test
+    void testFind_withUnknownExternalIds_shouldSkipMapWithinConfiguredFalsePositiveRate() {
+        // Given
+        IdempotencyKeyStore store = store(60_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+        for (int i = 0; i < 60_000; i++) {
+            store.put("EXT-KNOWN-" + i, "PO-" + i, null);
+            clock.advance(Duration.ofMillis(1));
+        }
+
+        // When
+        int found = 0;
+        for (int i = 0; i < 60_000; i += 100) {
+            found += store.find("EXT-KNOWN-" + i) != null ? 1 : 0;
+        }
+        for (int i = 0; i < 100_000; i++) {
+            store.find("EXT-UNKNOWN-" + i);
+        }
+
+        // Then
+        assertThat(found).isEqualTo(600);
+        assertThat(store.falsePositiveRate()).isLessThan(0.03);
+        assertThat(registry.get("payment.idempotency.lookups").tag("result", "found").functionCounter().count())
+                .isEqualTo(600);
+        assertThat(registry.get("payment.idempotency.lookups").tag("result", "skipped").functionCounter().count()
+                + registry.get("payment.idempotency.lookups").tag("result", "false_positive").functionCounter().count())
+                .isEqualTo(100_000);
+        assertThat(registry.get("payment.idempotency.keys").gauge().value()).isEqualTo(60_000);
+        assertThat(registry.get("payment.idempotency.bloom.bytes").gauge().value()).isEqualTo(store.bloomFilterBytes());
+    }
+
+    @Test
+    void testFind_withExternalIdSharingHashCode_shouldBeSkippedByFilter() {
+        // Given
+        IdempotencyKeyStore store = store(1_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+        store.put("EXT-Aa", "PO-1", null);
+
+        // When
+        String result = store.find("EXT-BB");
+
+        // Then
+        assertThat("EXT-BB".hashCode()).isEqualTo("EXT-Aa".hashCode());
+        assertThat(result).isNull();
+        assertThat(registry.get("payment.idempotency.lookups").tag("result", "skipped").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testConstructor_withFilterLargerThanLimit_shouldThrowException() {
+        // Given
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setExpectedKeys(Integer.MAX_VALUE);
+
+        // When / Then
+        assertThatThrownBy(() -> new IdempotencyKeyStore(properties, clock))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expected-keys");
+    }
+
+    @Test
+    void testPutIfAbsent_withConcurrentSameExternalId_shouldInsertOnlyOnce() throws Exception {
+        // Given
+        IdempotencyKeyStore store = store(1_000);
+        AtomicInteger inserts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 64; i++) {
+            String paymentOrderId = "PO-" + i;
+            results.add(executor.submit(() -> store.putIfAbsent("EXT-RACE", paymentOrderId, null, inserts::incrementAndGet)));
+        }
+        int winners = 0;
+        for (Future<String> result : results) {
+            winners += result.get() == null ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(winners).isEqualTo(1);
+        assertThat(inserts).hasValue(1);
+        assertThat(store.find("EXT-RACE")).startsWith("PO-");
+    }
+
+    private IdempotencyKeyStore store(int expectedKeys) {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setRetention(Duration.ofMinutes(1));
+        properties.setBuckets(6);
+        properties.setExpectedKeys(expectedKeys);
+        return new IdempotencyKeyStore(properties, clock);
+    }
+}
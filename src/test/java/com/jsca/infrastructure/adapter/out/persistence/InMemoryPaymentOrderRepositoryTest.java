@@ -0,0 +1,319 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.DuplicatePaymentOrderIdException;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderCursor;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentOrderTotals;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.StatusTransitionResult;
+import com.jsca.domain.model.TransitionOutcome;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.config.RetentionProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests de la búsqueda por índices secundarios y de la retención del repositorio en memoria.
+ */
+class InMemoryPaymentOrderRepositoryTest {
+
+    private static final String DEBTOR = "ES9121000418450200051332";
+    private static final String CREDITOR = "FR1420041010050500013M02606";
+
+    private final InMemoryPaymentOrderRepository repository = new InMemoryPaymentOrderRepository();
+
+    @Test
+    void testSearch_withCursor_shouldVisitEveryMatchOnceInDateOrder() {
+        // Given
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 25; i++) {
+            repository.save(order("PO-M-" + i, DEBTOR, firstDay.plusDays(4 - i % 5)));
+        }
+        repository.save(order("PO-M-OTHER", "DE89370400440532013000", firstDay));
+        PaymentOrderSearchCriteria criteria = new PaymentOrderSearchCriteria(DEBTOR, null, null, null, null);
+
+        // When
+        List<PaymentOrder> visited = new ArrayList<>();
+        PaymentOrderCursor cursor = null;
+        List<PaymentOrder> page;
+        do {
+            page = repository.search(criteria, cursor, 4);
+            visited.addAll(page);
+            cursor = page.isEmpty() ? null : PaymentOrderCursor.after(page.get(page.size() - 1));
+        } while (page.size() == 4);
+
+        // Then
+        assertThat(visited).hasSize(25)
+                .extracting(PaymentOrder::getPaymentOrderId).doesNotHaveDuplicates().doesNotContain("PO-M-OTHER");
+        assertThat(visited).extracting(PaymentOrder::getRequestedExecutionDate).isSorted();
+    }
+
+    @Test
+    void testSearch_afterStatusChangeAndResave_shouldUseCurrentValues() {
+        // Given
+        LocalDate day = LocalDate.now().plusDays(2);
+        repository.save(order("PO-M-100", DEBTOR, day));
+        repository.save(order("PO-M-101", DEBTOR, day));
+
+        // When - cambio de estado y nueva versión de la orden con otro acreedor y fecha
+        transition(repository, "PO-M-100", PaymentStatus.PENDING);
+        PaymentOrder moved = order("PO-M-101", DEBTOR, day.plusDays(10)).toBuilder()
+                .creditorIban("DE89370400440532013000")
+                .build();
+        repository.save(moved);
+
+        // Then
+        assertThat(repository.search(new PaymentOrderSearchCriteria(null, null, PaymentStatus.PENDING, day, day), null, 10))
+                .extracting(PaymentOrder::getPaymentOrderId).containsExactly("PO-M-100");
+        assertThat(repository.search(new PaymentOrderSearchCriteria(null, CREDITOR, null, null, null), null, 10))
+                .extracting(PaymentOrder::getPaymentOrderId).containsExactly("PO-M-100");
+        assertThat(repository.search(new PaymentOrderSearchCriteria(null, null, null, day.plusDays(10), null), null, 10))
+                .extracting(PaymentOrder::getPaymentOrderId).containsExactly("PO-M-101");
+        assertThat(repository.search(new PaymentOrderSearchCriteria("ES0000000000000000000000", null, null, null, null), null, 10))
+                .isEmpty();
+    }
+
+    @Test
+    void testTransitionStatus_withConcurrentClaims_shouldApplyExactlyOne() throws Exception {
+        // Given - varios hilos deciden sobre la misma versión con destinos distintos
+        PaymentOrder initiated = repository.save(order("PO-M-CAS", DEBTOR, LocalDate.now().plusDays(1)));
+        PaymentStatus[] targets = {PaymentStatus.PENDING, PaymentStatus.CANCELLED, PaymentStatus.REJECTED, PaymentStatus.FAILED};
+        ExecutorService executor = Executors.newFixedThreadPool(targets.length);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        List<Future<StatusTransitionResult>> futures = new ArrayList<>();
+        for (PaymentStatus target : targets) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return repository.transitionStatus(StatusTransition.of(initiated, target));
+            }));
+        }
+        start.countDown();
+        List<StatusTransitionResult> results = new ArrayList<>();
+        for (Future<StatusTransitionResult> future : futures) {
+            results.add(future.get());
+        }
+        executor.shutdown();
+
+        // Then - una gana y el resto recibe la orden que dejó la ganadora
+        StatusTransitionResult winner = results.stream().filter(StatusTransitionResult::isApplied).findFirst().orElseThrow();
+        assertThat(results).filteredOn(StatusTransitionResult::isApplied).hasSize(1);
+        assertThat(results).filteredOn(result -> !result.isApplied())
+                .allSatisfy(result -> {
+                    assertThat(result.getOutcome()).isEqualTo(TransitionOutcome.VERSION_CONFLICT);
+                    assertThat(result.getPaymentOrder()).isSameAs(winner.getPaymentOrder());
+                });
+        assertThat(repository.findById("PO-M-CAS")).containsSame(winner.getPaymentOrder());
+        assertThat(initiated.getStatus()).isEqualTo(PaymentStatus.INITIATED);
+        assertThat(repository.findByStatus(winner.getPaymentOrder().getStatus(), 10)).hasSize(1);
+        assertThat(repository.findByStatus(PaymentStatus.INITIATED, 10)).isEmpty();
+    }
+
+    @Test
+    void testTotals_withConcurrentSavesAndTransitions_shouldMatchStoredOrders() throws Exception {
+        // Given
+        LocalDate day = LocalDate.now().plusDays(3);
+        int threads = 8;
+        int ordersPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - cada hilo guarda sus órdenes y pasa la mitad a PENDING
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < ordersPerThread; i++) {
+                    String paymentOrderId = "PO-M-T-" + thread + "-" + i;
+                    repository.save(order(paymentOrderId, DEBTOR, day));
+                    if (i % 2 == 0) {
+                        transition(repository, paymentOrderId, PaymentStatus.PENDING);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        int half = threads * ordersPerThread / 2;
+        assertThat(repository.totals(DEBTOR, day)).singleElement().satisfies(totals -> {
+            assertThat(totals.currency()).isEqualTo("EUR");
+            assertThat(totals.byStatus()).containsExactly(
+                    new PaymentOrderTotals.StatusTotals(PaymentStatus.INITIATED, half,
+                            new BigDecimal("99.90").multiply(BigDecimal.valueOf(half))),
+                    new PaymentOrderTotals.StatusTotals(PaymentStatus.PENDING, half,
+                            new BigDecimal("99.90").multiply(BigDecimal.valueOf(half))));
+        });
+    }
+
+    @Test
+    void testArchiveTerminalOrders_shouldMoveThemToDiskAndKeepThemReachable(@TempDir Path directory)
+            throws IOException {
+        // Given
+        RetentionProperties retention = new RetentionProperties();
+        retention.setEnabled(true);
+        retention.setDirectory(directory.toString());
+        retention.setMinAge(Duration.ZERO);
+        retention.setInterval(Duration.ZERO);
+        InMemoryPaymentOrderRepository tiered = new InMemoryPaymentOrderRepository(retention);
+        LocalDate day = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 10; i++) {
+            tiered.save(order("PO-R-" + i, DEBTOR, day));
+        }
+        transition(tiered, "PO-R-0", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+        transition(tiered, "PO-R-1", PaymentStatus.REJECTED);
+        transition(tiered, "PO-R-2", PaymentStatus.PENDING);
+        PaymentOrder executed = tiered.findById("PO-R-0").orElseThrow();
+
+        // When
+        int archived = tiered.archiveTerminalOrders();
+
+        // Then - fuera de memoria, pero se siguen encontrando e impiden duplicar el externalId
+        assertThat(archived).isEqualTo(2);
+        assertThat(tiered.size()).isEqualTo(8);
+        assertThat(tiered.archivedSize()).isEqualTo(2);
+        assertThat(tiered.findById("PO-R-0")).contains(executed);
+        assertThat(tiered.transitionStatus(StatusTransition.of(executed, PaymentStatus.FAILED)).getOutcome())
+                .isEqualTo(TransitionOutcome.ILLEGAL_TRANSITION);
+        assertThat(tiered.findByExternalId("EXT-PO-R-1"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.REJECTED));
+        assertThat(tiered.saveIfAbsent(order("PO-R-NEW", DEBTOR, day)).map(PaymentOrder::getPaymentOrderId)).isEmpty();
+        PaymentOrder duplicate = order("PO-R-DUP", DEBTOR, day).toBuilder()
+                .externalId("EXT-PO-R-0")
+                .build();
+        assertThat(tiered.saveIfAbsent(duplicate)).contains(executed);
+        assertThat(tiered.findById("PO-R-DUP")).isEmpty();
+        assertThat(tiered.search(new PaymentOrderSearchCriteria(DEBTOR, null, null, null, null), null, 20))
+                .extracting(PaymentOrder::getPaymentOrderId).doesNotContain("PO-R-0", "PO-R-1").contains("PO-R-2");
+        assertThat(tiered.count()).isEqualTo(11);
+        tiered.save(executed);
+        assertThat(tiered.count()).isEqualTo(11);
+        tiered.close();
+    }
+
+    @Test
+    void testForEach_withArchivedOrders_shouldVisitMemoryAndDiskOnce(@TempDir Path directory) throws IOException {
+        // Given
+        RetentionProperties retention = new RetentionProperties();
+        retention.setEnabled(true);
+        retention.setDirectory(directory.toString());
+        retention.setMinAge(Duration.ZERO);
+        retention.setInterval(Duration.ZERO);
+        InMemoryPaymentOrderRepository tiered = new InMemoryPaymentOrderRepository(retention);
+        LocalDate day = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 6; i++) {
+            tiered.save(order("PO-E-" + i, DEBTOR, day.plusDays(i % 2)));
+        }
+        transition(tiered, "PO-E-0", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+        transition(tiered, "PO-E-1", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+        tiered.archiveTerminalOrders();
+
+        // When
+        List<String> all = new ArrayList<>();
+        tiered.forEach(new PaymentOrderSearchCriteria(null, null, null, null, null),
+                order -> all.add(order.getPaymentOrderId()));
+        List<String> executedFirstDay = new ArrayList<>();
+        tiered.forEach(new PaymentOrderSearchCriteria(null, null, PaymentStatus.EXECUTED, day, day),
+                order -> executedFirstDay.add(order.getPaymentOrderId()));
+        List<String> initiated = new ArrayList<>();
+        tiered.forEach(new PaymentOrderSearchCriteria(null, null, PaymentStatus.INITIATED, null, null),
+                order -> initiated.add(order.getPaymentOrderId()));
+
+        // Then
+        assertThat(tiered.archivedSize()).isEqualTo(2);
+        assertThat(all).containsExactlyInAnyOrder("PO-E-0", "PO-E-1", "PO-E-2", "PO-E-3", "PO-E-4", "PO-E-5");
+        assertThat(executedFirstDay).containsExactly("PO-E-0");
+        assertThat(initiated).containsExactlyInAnyOrder("PO-E-2", "PO-E-3", "PO-E-4", "PO-E-5");
+        tiered.close();
+    }
+
+    @Test
+    void testSaveIfAbsent_withRepeatedPaymentOrderId_shouldRejectWithoutOverwriting() {
+        // Given
+        LocalDate day = LocalDate.now().plusDays(1);
+        repository.saveIfAbsent(order("PO-M-ID", DEBTOR, day));
+        PaymentOrder sameId = order("PO-M-ID", DEBTOR, day).toBuilder()
+                .externalId("EXT-OTHER")
+                .build();
+
+        // When / Then - el externalId nuevo no queda registrado, así que se puede reintentar con otro ID
+        assertThatThrownBy(() -> repository.saveIfAbsent(sameId))
+                .isInstanceOf(DuplicatePaymentOrderIdException.class);
+        assertThat(repository.findById("PO-M-ID").map(PaymentOrder::getExternalId)).contains("EXT-PO-M-ID");
+        assertThat(repository.findByExternalId("EXT-OTHER")).isEmpty();
+        assertThat(repository.saveIfAbsent(sameId.toBuilder().paymentOrderId("PO-M-ID-2").build())).isEmpty();
+    }
+
+    @Test
+    void testSaveIfAbsent_afterRestartWithArchivedOrder_shouldReturnArchivedOrder(@TempDir Path directory)
+            throws IOException {
+        // Given
+        RetentionProperties retention = new RetentionProperties();
+        retention.setEnabled(true);
+        retention.setDirectory(directory.toString());
+        retention.setMinAge(Duration.ZERO);
+        retention.setInterval(Duration.ZERO);
+        InMemoryPaymentOrderRepository tiered = new InMemoryPaymentOrderRepository(retention);
+        LocalDate day = LocalDate.now().plusDays(1);
+        tiered.save(order("PO-A-0", DEBTOR, day));
+        transition(tiered, "PO-A-0", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+        tiered.archiveTerminalOrders();
+        tiered.close();
+
+        // When
+        InMemoryPaymentOrderRepository restarted = new InMemoryPaymentOrderRepository(retention);
+        PaymentOrder duplicate = order("PO-A-DUP", DEBTOR, day).toBuilder()
+                .externalId("EXT-PO-A-0")
+                .build();
+        Optional<PaymentOrder> existing = restarted.saveIfAbsent(duplicate);
+
+        // Then - la clave se recupera del archivo al arrancar
+        assertThat(existing.map(PaymentOrder::getPaymentOrderId)).contains("PO-A-0");
+        assertThat(restarted.findByExternalId("EXT-PO-A-0").map(PaymentOrder::getStatus)).contains(PaymentStatus.EXECUTED);
+        assertThat(restarted.findByExternalId("EXT-PO-NEVER")).isEmpty();
+        assertThat(restarted.size()).isZero();
+        restarted.close();
+    }
+
+    private PaymentOrder order(String paymentOrderId, String debtorIban, LocalDate executionDate) {
+        PaymentOrder order = PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId("EXT-" + paymentOrderId)
+                .debtorIban(debtorIban)
+                .creditorIban(CREDITOR)
+                .amount(new BigDecimal("99.90"))
+                .currency("EUR")
+                .requestedExecutionDate(executionDate)
+                .initiate()
+                .build();
+        return order;
+    }
+
+    private static void transition(PaymentOrderRepository repository, String paymentOrderId, PaymentStatus... path) {
+        for (PaymentStatus status : path) {
+            PaymentOrder current = repository.findById(paymentOrderId).orElseThrow();
+            assertThat(repository.transitionStatus(StatusTransition.of(current, status)).isApplied()).isTrue();
+        }
+    }
+}
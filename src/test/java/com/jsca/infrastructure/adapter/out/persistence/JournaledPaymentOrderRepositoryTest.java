@@ -0,0 +1,141 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.domain.model.TransitionOutcome;
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.infrastructure.config.JournalProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de recuperación del repositorio basado en journal.
+ */
+class JournaledPaymentOrderRepositoryTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testReopen_afterClose_shouldRestoreOrdersFromSnapshot() throws Exception {
+        // Given
+        JournaledPaymentOrderRepository repository = open(JournalSyncMode.GROUP);
+        repository.save(order("PO-J-001", "EXT-J-001"));
+        repository.save(order("PO-J-002", "EXT-J-002"));
+        transition(repository, "PO-J-001", PaymentStatus.PENDING, PaymentStatus.EXECUTED);
+        PaymentOrder expected = repository.findById("PO-J-001").orElseThrow();
+
+        // When
+        repository.close();
+        JournaledPaymentOrderRepository reopened = open(JournalSyncMode.GROUP);
+
+        // Then
+        assertThat(reopened.findById("PO-J-001")).contains(expected);
+        assertThat(reopened.findByExternalId("EXT-J-002"))
+                .hasValueSatisfying(order -> assertThat(order.getPaymentOrderId()).isEqualTo("PO-J-002"));
+        reopened.close();
+    }
+
+    @Test
+    void testReopen_withoutClose_shouldReplayJournal() throws Exception {
+        // Given - sin close(): no se escribe snapshot, como tras una caída
+        JournaledPaymentOrderRepository crashed = open(JournalSyncMode.OS);
+        crashed.save(order("PO-J-003", "EXT-J-003"));
+        transition(crashed, "PO-J-003", PaymentStatus.REJECTED);
+
+        // When
+        JournaledPaymentOrderRepository reopened = open(JournalSyncMode.OS);
+
+        // Then
+        assertThat(reopened.findById("PO-J-003")).hasValueSatisfying(order -> {
+            assertThat(order.getStatus()).isEqualTo(PaymentStatus.REJECTED);
+            assertThat(order.getVersion()).isEqualTo(2);
+        });
+        assertThat(reopened.transitionStatus(new StatusTransition("PO-J-003", 2, PaymentStatus.FAILED)).getOutcome())
+                .isEqualTo(TransitionOutcome.ILLEGAL_TRANSITION);
+        assertThat(reopened.findByStatus(PaymentStatus.REJECTED, 10))
+                .extracting(PaymentOrder::getPaymentOrderId).containsExactly("PO-J-003");
+        assertThat(reopened.findByStatus(PaymentStatus.INITIATED, 10)).isEmpty();
+        reopened.close();
+    }
+
+    @Test
+    void testReopen_afterSnapshotAndMoreWrites_shouldApplyJournalTail() throws Exception {
+        // Given
+        JournaledPaymentOrderRepository crashed = open(JournalSyncMode.ALWAYS);
+        crashed.save(order("PO-J-004", "EXT-J-004"));
+        crashed.snapshot();
+        crashed.save(order("PO-J-005", "EXT-J-005"));
+        transition(crashed, "PO-J-004", PaymentStatus.PENDING);
+
+        // When
+        JournaledPaymentOrderRepository reopened = open(JournalSyncMode.ALWAYS);
+
+        // Then
+        assertThat(reopened.findById("PO-J-004"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.PENDING));
+        assertThat(reopened.findById("PO-J-005")).isPresent();
+        assertThat(reopened.saveIfAbsent(order("PO-J-006", "EXT-J-005")))
+                .hasValueSatisfying(order -> assertThat(order.getPaymentOrderId()).isEqualTo("PO-J-005"));
+        reopened.close();
+    }
+
+    @Test
+    void testReopen_withJournalSpanningSegments_shouldReplayEveryRecord() throws Exception {
+        // Given - ~200 bytes por registro en segmentos de 64 KB
+        JournaledPaymentOrderRepository crashed = open(JournalSyncMode.OS);
+        for (int i = 0; i < 2_000; i++) {
+            crashed.save(order("PO-J-SEG-" + i, "EXT-J-SEG-" + i));
+        }
+
+        // When
+        JournaledPaymentOrderRepository reopened = open(JournalSyncMode.OS);
+
+        // Then
+        assertThat(reopened.findById("PO-J-SEG-0")).isPresent();
+        assertThat(reopened.findById("PO-J-SEG-1999")).isPresent();
+        assertThat(reopened.findByExternalId("EXT-J-SEG-1000")).isPresent();
+        reopened.close();
+    }
+
+    private JournaledPaymentOrderRepository open(JournalSyncMode syncMode) {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        properties.setSyncMode(syncMode);
+        properties.setGroupCommitInterval(Duration.ofMillis(1));
+        properties.setSnapshotInterval(Duration.ZERO);
+        return new JournaledPaymentOrderRepository(properties);
+    }
+
+    private PaymentOrder order(String paymentOrderId, String externalId) {
+        PaymentOrder order = PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId(externalId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("1500.50"))
+                .currency("EUR")
+                .remittanceInfo("Factura #2024-045 - Servicios de consultoría")
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .initiate()
+                .build();
+        return order;
+    }
+
+    private static void transition(PaymentOrderRepository repository, String paymentOrderId, PaymentStatus... path) {
+        for (PaymentStatus status : path) {
+            PaymentOrder current = repository.findById(paymentOrderId).orElseThrow();
+            assertThat(repository.transitionStatus(StatusTransition.of(current, status)).isApplied()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests del archivo de órdenes en disco: lectura por ID y externalId, segmentos y recuperación.
+ */
+class PaymentOrderArchiveTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testFind_afterAppendAndReopen_shouldReturnEqualOrders() throws IOException {
+        // Given - más de un bloque y segmentos pequeños para forzar la rotación
+        List<PaymentOrder> orders = orders("PO-A-", 3 * PaymentOrderArchive.ORDERS_PER_BLOCK + 5);
+        PaymentOrderArchive archive = new PaymentOrderArchive(directory, 4096);
+
+        // When
+        archive.append(orders);
+        archive.close();
+        PaymentOrderArchive reopened = new PaymentOrderArchive(directory, 4096);
+
+        // Then
+        assertThat(segments()).hasSizeGreaterThan(1);
+        assertThat(reopened.size()).isEqualTo(orders.size());
+        for (PaymentOrder order : orders) {
+            assertThat(reopened.findById(order.getPaymentOrderId())).contains(order);
+            assertThat(reopened.findByExternalId(order.getExternalId())).contains(order);
+        }
+        assertThat(reopened.findById("PO-A-404")).isEmpty();
+        reopened.close();
+    }
+
+    @Test
+    void testReopen_withTornLastBlock_shouldDiscardItAndKeepAppending() throws IOException {
+        // Given - el último bloque se quedó a medias, como tras una caída
+        PaymentOrderArchive archive = new PaymentOrderArchive(directory, 1 << 20);
+        archive.append(orders("PO-B-", 10));
+        archive.append(orders("PO-C-", 10));
+        archive.close();
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 7);
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), channel.size());
+        }
+
+        // When
+        PaymentOrderArchive reopened = new PaymentOrderArchive(directory, 1 << 20);
+        reopened.append(orders("PO-D-", 1));
+
+        // Then
+        assertThat(reopened.findById("PO-B-0")).isPresent();
+        assertThat(reopened.findById("PO-C-0")).isEmpty();
+        assertThat(reopened.findByExternalId("EXT-PO-D-0")).isPresent();
+        assertThat(reopened.size()).isEqualTo(11);
+        reopened.close();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static List<PaymentOrder> orders(String prefix, int count) {
+        List<PaymentOrder> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PaymentOrder order = PaymentOrder.builder()
+                    .paymentOrderId(prefix + i)
+                    .externalId("EXT-" + prefix + i)
+                    .debtorIban("ES9121000418450200051332")
+                    .creditorIban("ES7921000813610123456789")
+                    .amount(new BigDecimal("1250.75"))
+                    .currency("EUR")
+                    .remittanceInfo("Factura " + i)
+                    .requestedExecutionDate(LocalDate.now().plusDays(1))
+                    .initiate()
+                    .build();
+            orders.add(order.withStatus(PaymentStatus.EXECUTED, OffsetDateTime.now()));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,58 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios del horizonte de fechas de los totales por deudor.
+ */
+class RunningTotalsTest {
+
+    private static final String DEBTOR = "ES9121000418450200051332";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-10T12:00:00Z"));
+    private final RunningTotals totals = new RunningTotals(Duration.ofDays(2), clock);
+
+    @Test
+    void testTotals_afterDateLeavesRetention_shouldForgetItAndIgnoreItsChanges() {
+        // Given
+        LocalDate today = LocalDate.now(clock);
+        PaymentOrder old = order("PO-1", today);
+        totals.add(old);
+        totals.add(order("PO-2", today.plusDays(1)));
+        totals.add(order("PO-3", today.minusDays(3)));
+
+        // When
+        clock.advance(Duration.ofDays(3));
+        totals.changeStatus(old, PaymentStatus.INITIATED, PaymentStatus.PENDING);
+        totals.add(order("PO-4", today.plusDays(1)));
+
+        // Then
+        assertThat(totals.totals(DEBTOR, today)).isEmpty();
+        assertThat(totals.totals(DEBTOR, today.minusDays(3))).isEmpty();
+        assertThat(totals.totals(DEBTOR, today.plusDays(1))).singleElement()
+                .satisfies(day -> assertThat(day.count()).isEqualTo(2));
+    }
+
+    private static PaymentOrder order(String paymentOrderId, LocalDate requestedExecutionDate) {
+        return PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId("EXT-" + paymentOrderId)
+                .debtorIban(DEBTOR)
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("10.00"))
+                .currency("EUR")
+                .requestedExecutionDate(requestedExecutionDate)
+                .status(PaymentStatus.INITIATED)
+                .build();
+    }
+}
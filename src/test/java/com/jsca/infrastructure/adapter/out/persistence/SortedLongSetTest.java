@@ -0,0 +1,68 @@
+package com.jsca.infrastructure.adapter.out.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests del conjunto ordenado de long por bloques, contrastado con un {@link TreeSet}.
+ */
+class SortedLongSetTest {
+
+    @Test
+    void testAddRemoveAndRange_withRandomKeys_shouldMatchTreeSet() {
+        // Given
+        SortedLongSet set = new SortedLongSet();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        // When - suficientes claves para partir y vaciar bloques
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(key)).isEqualTo(expected.remove(key));
+            }
+            else {
+                assertThat(set.add(key)).isEqualTo(expected.add(key));
+            }
+        }
+
+        // Then
+        assertThat(toList(set.range(Long.MIN_VALUE, true, Long.MAX_VALUE))).containsExactlyElementsOf(expected);
+        assertThat(toList(set.range(1_000L, false, 2_000L)))
+                .containsExactlyElementsOf(expected.subSet(1_000L, false, 2_000L, false));
+        assertThat(toList(set.range(1_000L, true, 1_000L))).isEmpty();
+    }
+
+    @Test
+    void testAdd_withAscendingKeys_shouldFillBlocksAndEmptyWhenRemoved() {
+        // Given
+        SortedLongSet set = new SortedLongSet();
+        int keys = 10 * SortedLongSet.MAX_BLOCK + 7;
+
+        // When
+        for (long key = 0; key < keys; key++) {
+            set.add(key);
+        }
+
+        // Then
+        assertThat(toList(set.range(0L, true, Long.MAX_VALUE))).hasSize(keys);
+        for (long key = 0; key < keys; key++) {
+            set.remove(key);
+        }
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.range(0L, true, Long.MAX_VALUE).hasNext()).isFalse();
+    }
+
+    private static List<Long> toList(Iterator<Long> iterator) {
+        List<Long> keys = new ArrayList<>();
+        iterator.forEachRemaining(keys::add);
+        return keys;
+    }
+}
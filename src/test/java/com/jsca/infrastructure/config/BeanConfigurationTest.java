@@ -0,0 +1,63 @@
+package com.jsca.infrastructure.config;
+
+import com.jsca.domain.port.out.PaymentOrderRepository;
+import com.jsca.domain.port.out.SettlementPort;
+import com.jsca.infrastructure.adapter.out.settlement.LocalSettlementAdapter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests unitarios de las comprobaciones de arranque de BeanConfiguration.
+ */
+class BeanConfigurationTest {
+
+    private final BeanConfiguration configuration = new BeanConfiguration();
+    private final PaymentOrderRepository repository = mock(PaymentOrderRepository.class);
+
+    @Test
+    void testPaymentExecutionEngine_withoutSettlement_shouldFailAtStartup() {
+        // Given
+        ExecutionProperties properties = new ExecutionProperties();
+        StaticListableBeanFactory noAdapters = new StaticListableBeanFactory();
+
+        // When / Then
+        assertThatThrownBy(() -> configuration.paymentExecutionEngine(repository,
+                noAdapters.getBeanProvider(SettlementPort.class), List.of(), properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("payment.execution.settlement");
+    }
+
+    @Test
+    void testPaymentExecutionEngine_withSettlementWithoutAdapter_shouldFailAtStartup() {
+        // Given
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setSettlement("swift");
+        StaticListableBeanFactory noAdapters = new StaticListableBeanFactory();
+
+        // When / Then
+        assertThatThrownBy(() -> configuration.paymentExecutionEngine(repository,
+                noAdapters.getBeanProvider(SettlementPort.class), List.of(), properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("swift");
+    }
+
+    @Test
+    void testPaymentExecutionEngine_withExplicitLocalSettlement_shouldCreateEngine() {
+        // Given
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setSettlement("local");
+        StaticListableBeanFactory adapters = new StaticListableBeanFactory(
+                Map.of("localSettlementAdapter", new LocalSettlementAdapter()));
+
+        // When / Then
+        assertThat(configuration.paymentExecutionEngine(repository,
+                adapters.getBeanProvider(SettlementPort.class), List.of(), properties)).isNotNull();
+    }
+}
@@ -0,0 +1,87 @@
+package com.jsca.infrastructure.metrics;
+
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.model.PaymentOrderSearchCriteria;
+import com.jsca.domain.model.PaymentStatus;
+import com.jsca.domain.model.StatusTransition;
+import com.jsca.infrastructure.adapter.out.persistence.CompactPaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests del decorador de métricas del repositorio: latencia por operación y gauges de tamaño.
+ */
+class MeteredPaymentOrderRepositoryTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MeteredPaymentOrderRepository repository =
+            new MeteredPaymentOrderRepository(new CompactPaymentOrderRepository(), registry);
+
+    @Test
+    void testOperations_shouldDelegateAndRecordLatencyPerOperation() {
+        // Given
+        repository.save(order("PO-MET-001", "EXT-MET-001"));
+        repository.saveIfAbsent(order("PO-MET-002", "EXT-MET-002"));
+
+        // When
+        repository.findById("PO-MET-001");
+        repository.findByExternalId("EXT-MET-002");
+        repository.transitionStatuses(List.of(new StatusTransition("PO-MET-001", 1, PaymentStatus.PENDING)));
+        repository.search(new PaymentOrderSearchCriteria("ES9121000418450200051332", null, null, null, null), null, 10);
+
+        // Then
+        assertThat(repository.findById("PO-MET-001"))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.PENDING));
+        assertThat(timerCount("save")).isEqualTo(1);
+        assertThat(timerCount("save_if_absent")).isEqualTo(1);
+        assertThat(timerCount("find_by_id")).isEqualTo(2);
+        assertThat(timerCount("find_by_external_id")).isEqualTo(1);
+        assertThat(timerCount("transition_statuses")).isEqualTo(1);
+        assertThat(timerCount("search")).isEqualTo(1);
+    }
+
+    @Test
+    void testGauges_shouldReportOrdersAndOrdersByStatus() {
+        // Given
+        repository.save(order("PO-MET-010", "EXT-MET-010"));
+        repository.save(order("PO-MET-011", "EXT-MET-011"));
+        repository.save(order("PO-MET-012", "EXT-MET-012"));
+
+        // When
+        repository.transitionStatus(new StatusTransition("PO-MET-010", 1, PaymentStatus.PENDING));
+        repository.transitionStatus(new StatusTransition("PO-MET-010", 2, PaymentStatus.EXECUTED));
+        repository.findByStatus(PaymentStatus.INITIATED, 10);
+
+        // Then
+        assertThat(registry.get("payment.repository.orders").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("payment.orders").tag("status", "INITIATED").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("payment.orders").tag("status", "EXECUTED").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("payment.orders").tag("status", "REJECTED").gauge().value()).isZero();
+        assertThat(timerCount("transition_status")).isEqualTo(2);
+        assertThat(timerCount("find_by_status")).isEqualTo(1);
+    }
+
+    private long timerCount(String operation) {
+        return registry.get("payment.repository").tag("operation", operation).timer().count();
+    }
+
+    private static PaymentOrder order(String paymentOrderId, String externalId) {
+        PaymentOrder order = PaymentOrder.builder()
+                .paymentOrderId(paymentOrderId)
+                .externalId(externalId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("80.00"))
+                .currency("EUR")
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .initiate()
+                .build();
+        return order;
+    }
+}
@@ -0,0 +1,100 @@
+package com.jsca.infrastructure.metrics;
+
+import com.jsca.application.service.PaymentOrderService;
+import com.jsca.domain.model.PaymentOrder;
+import com.jsca.domain.port.out.DuplicatePaymentDetector;
+import com.jsca.domain.port.out.PaymentOrderScheduler;
+import com.jsca.infrastructure.adapter.out.id.TimeOrderedPaymentOrderIdGenerator;
+import com.jsca.infrastructure.adapter.out.persistence.InMemoryPaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests del decorador de métricas de los casos de uso: resultados de iniciación,
+ * rechazos por regla de negocio y latencias.
+ */
+class MeteredPaymentOrderUseCasesTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MeteredPaymentOrderUseCases useCases = new MeteredPaymentOrderUseCases(
+            new PaymentOrderService(new InMemoryPaymentOrderRepository(), new TimeOrderedPaymentOrderIdGenerator(0),
+                    PaymentOrderScheduler.NONE, DuplicatePaymentDetector.NONE),
+            registry);
+
+    @Test
+    void testInitiatePayment_shouldCountCreatedIdempotentAndRejected() {
+        // Given
+        PaymentOrder invalidAmount = order("MET-EXT-002").toBuilder()
+                .amount(BigDecimal.ZERO)
+                .build();
+
+        // When
+        PaymentOrder created = useCases.initiatePayment(order("MET-EXT-001"));
+        PaymentOrder existing = useCases.initiatePayment(order("MET-EXT-001"));
+        assertThatThrownBy(() -> useCases.initiatePayment(invalidAmount))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Then
+        assertThat(existing.getPaymentOrderId()).isEqualTo(created.getPaymentOrderId());
+        assertThat(counter("payment.initiations", "outcome", "created")).isEqualTo(1);
+        assertThat(counter("payment.initiations", "outcome", "idempotent")).isEqualTo(1);
+        assertThat(counter("payment.initiations.rejected", "reason", "invalid_amount")).isEqualTo(1);
+        assertThat(registry.get("payment.usecase").tag("usecase", "initiate_payment").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testInitiatePayments_shouldCountEachResultOfTheBatch() {
+        // Given
+        PaymentOrder pastDate = order("MET-BULK-003").toBuilder()
+                .requestedExecutionDate(LocalDate.now().minusDays(1))
+                .build();
+
+        // When
+        useCases.initiatePayments(List.of(order("MET-BULK-001"), order("MET-BULK-002"), pastDate));
+        useCases.initiatePayments(List.of(order("MET-BULK-001")));
+
+        // Then
+        assertThat(counter("payment.initiations", "outcome", "created")).isEqualTo(2);
+        assertThat(counter("payment.initiations", "outcome", "idempotent")).isEqualTo(1);
+        assertThat(counter("payment.initiations.rejected", "reason", "past_execution_date")).isEqualTo(1);
+        assertThat(registry.get("payment.usecase").tag("usecase", "bulk_initiate_payments").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void testGetPaymentOrderAndStatus_shouldRecordLatency() {
+        // Given
+        String paymentOrderId = useCases.initiatePayment(order("MET-GET-001")).getPaymentOrderId();
+
+        // When
+        useCases.getPaymentOrder(paymentOrderId);
+        useCases.getPaymentOrder("PO-MISSING");
+        useCases.getPaymentStatus(paymentOrderId);
+
+        // Then
+        assertThat(registry.get("payment.usecase").tag("usecase", "get_payment_order").timer().count()).isEqualTo(2);
+        assertThat(registry.get("payment.usecase").tag("usecase", "get_payment_status").timer().count()).isEqualTo(1);
+    }
+
+    private double counter(String name, String tag, String value) {
+        return registry.get(name).tag(tag, value).counter().count();
+    }
+
+    private static PaymentOrder order(String externalId) {
+        return PaymentOrder.builder()
+                .externalId(externalId)
+                .debtorIban("ES9121000418450200051332")
+                .creditorIban("ES7921000813610123456789")
+                .amount(new BigDecimal("100.00"))
+                .currency("EUR")
+                .requestedExecutionDate(LocalDate.now().plusDays(1))
+                .build();
+    }
+}
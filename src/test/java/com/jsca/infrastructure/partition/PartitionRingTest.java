@@ -0,0 +1,114 @@
+package com.jsca.infrastructure.partition;
+
+import com.jsca.infrastructure.config.PartitionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests del anillo de hash consistente: reparto de slots, datos movidos al añadir una
+ * instancia, sufijo de partición de los IDs y configuraciones que el particionado rechaza.
+ */
+class PartitionRingTest {
+
+    @Test
+    void testOwnerOf_withSameNodesInAnyOrder_shouldAssignSameOwners() {
+        // Given
+        PartitionRing ring = new PartitionRing(List.of("node1", "node2", "node3"), 128);
+        PartitionRing reordered = new PartitionRing(List.of("node3", "node1", "node2"), 128);
+
+        // When / Then
+        for (int slot = 0; slot < PartitionRing.SLOTS; slot++) {
+            assertThat(reordered.ownerOf(slot)).isEqualTo(ring.ownerOf(slot));
+        }
+    }
+
+    @Test
+    void testOwnerOf_withVirtualNodes_shouldBalanceSlots() {
+        // Given
+        PartitionRing ring = new PartitionRing(List.of("node1", "node2", "node3", "node4"), 128);
+
+        // When
+        Map<String, Integer> slotsByNode = new HashMap<>();
+        for (int slot = 0; slot < PartitionRing.SLOTS; slot++) {
+            slotsByNode.merge(ring.ownerOf(slot), 1, Integer::sum);
+        }
+
+        // Then - 256 por instancia en un reparto perfecto
+        assertThat(slotsByNode).hasSize(4);
+        assertThat(slotsByNode.values()).allSatisfy(slots -> assertThat(slots).isBetween(180, 340));
+    }
+
+    @Test
+    void testAddNode_shouldMoveOnlyAShareOfSlotsToTheNewNode() {
+        // Given
+        PartitionRing before = new PartitionRing(List.of("node1", "node2", "node3"), 128);
+        PartitionRing after = new PartitionRing(List.of("node1", "node2", "node3", "node4"), 128);
+
+        // When
+        int moved = 0;
+        for (int slot = 0; slot < PartitionRing.SLOTS; slot++) {
+            if (!before.ownerOf(slot).equals(after.ownerOf(slot))) {
+                moved++;
+                // Then - ningún slot cambia entre instancias que ya existían
+                assertThat(after.ownerOf(slot)).isEqualTo("node4");
+            }
+        }
+
+        // Then - en torno a 1/4 de los slots
+        assertThat(moved).isBetween(180, 340);
+    }
+
+    @Test
+    void testSlotOfPaymentOrderId_withPartitionSuffix_shouldUseExternalIdSlot() {
+        // Given
+        String externalId = "CLI-2024-001-ABC123";
+        String paymentOrderId = "PO-038CYPJG00401" + PaymentOrderPartitioner.partitionSuffix(externalId);
+
+        // When
+        int slot = PaymentOrderPartitioner.slotOfPaymentOrderId(paymentOrderId);
+
+        // Then
+        assertThat(paymentOrderId).matches("PO-038CYPJG00401-[0-9A-Z]{2}");
+        assertThat(slot).isEqualTo(PartitionRing.slotOf(externalId));
+    }
+
+    @Test
+    void testSlotOfPaymentOrderId_withoutPartitionSuffix_shouldHashWholeId() {
+        // Given
+        String legacyId = "PO-2024-11-20-abc12345";
+
+        // When / Then
+        assertThat(PaymentOrderPartitioner.slotOfPaymentOrderId(legacyId)).isEqualTo(PartitionRing.slotOf(legacyId));
+        assertThat(PartitionRing.slotOf(legacyId)).isBetween(0, PartitionRing.SLOTS - 1);
+    }
+
+    @Test
+    void testPartitioner_withIncompatibleSettings_shouldRefuseToStart() {
+        // Given
+        PartitionProperties properties = new PartitionProperties();
+        properties.setSelf("node1");
+        properties.setNodes(Map.of("node1", "http://localhost:8081", "node2", "http://localhost:8082"));
+        MockEnvironment environment = new MockEnvironment().withProperty("payment.repository.type", "compact");
+
+        // When / Then
+        assertThatThrownBy(() -> new PaymentOrderPartitioner(properties, environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("payment.repository.type=compact");
+        assertThatThrownBy(() -> new PaymentOrderPartitioner(properties,
+                new MockEnvironment().withProperty("payment.nio.enabled", "true")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("payment.nio.enabled=true");
+        assertThatThrownBy(() -> new PaymentOrderPartitioner(properties,
+                new MockEnvironment().withProperty("payment.duplicate-detection.enabled", "true")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("payment.duplicate-detection.enabled=true");
+        assertThat(new PaymentOrderPartitioner(properties, new MockEnvironment()).self()).isEqualTo("node1");
+    }
+}